@@ -22,15 +22,14 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.net.HttpURLConnection;
 import java.net.URL;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.olingo.client.api.ODataClient;
 import org.apache.olingo.commons.api.http.HttpHeader;
 import org.apache.olingo.fit.AbstractBaseTestITCase;
 import org.apache.olingo.fit.tecsvc.TecSvcConst;
-import org.apache.olingo.server.core.deserializer.batch.BufferedReaderIncludingLineEndings;
 import org.junit.Test;
 
 public class EntityReferenceITCase extends AbstractBaseTestITCase {
@@ -72,16 +71,11 @@ public class EntityReferenceITCase extends AbstractBaseTestITCase {
   }
   
   private String getString(final InputStream in) throws Exception {
-    final StringBuilder builder = new StringBuilder();
-    final BufferedReaderIncludingLineEndings reader = new BufferedReaderIncludingLineEndings(new InputStreamReader(in));
-    
-    String line;
-    while((line = reader.readLine()) != null) {
-      builder.append(line);
+    try {
+      return IOUtils.toString(in, "UTF-8");
+    } finally {
+      in.close();
     }
-     
-    reader.close();
-    return builder.toString();
   }
   
   @Override
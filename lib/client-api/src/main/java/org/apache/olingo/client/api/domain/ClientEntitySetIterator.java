@@ -26,10 +26,15 @@ import java.io.OutputStream;
 import java.net.URI;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.olingo.client.api.ODataClient;
+import org.apache.olingo.client.api.communication.request.retrieve.ODataEntitySetIteratorRequest;
+import org.apache.olingo.client.api.communication.response.ODataRetrieveResponse;
 import org.apache.olingo.commons.api.Constants;
 import org.apache.olingo.commons.api.data.Entity;
 import org.apache.olingo.commons.api.data.ResWrap;
@@ -41,6 +46,9 @@ import org.slf4j.LoggerFactory;
 /**
  * OData entity set iterator class.
  * <br/>
+ * If next links are followed, the entities of all pages are returned one after the other; otherwise
+ * the iteration ends with the entities of the first page and the next link can be retrieved afterwards.
+ * <br/>
  * <b>Please don't forget to call the <tt>close()>/</tt> method when not needed any more.</b>
  *
  * @param <E> concrete ODataEntity implementation
@@ -60,16 +68,34 @@ public class ClientEntitySetIterator<ES extends ClientEntitySet, E extends Clien
 
   private final InputStream stream;
 
-  private final ODataFormat format;
+  protected final ODataFormat format;
 
   private ES entitySet;
 
   private final ByteArrayOutputStream osEntitySet;
 
-  private final String namespaces;
+  private String namespaces;
+
+  private boolean started = false;
 
   private boolean available = true;
 
+  private boolean followNextLinks = false;
+
+  private boolean prefetchNextPage = false;
+
+  /**
+   * Iterator reading the current page; this iterator itself for the first page.
+   */
+  private ClientEntitySetIterator<ES, E> page = this;
+
+  private Future<ClientEntitySetIterator<ES, E>> nextPage;
+
+  /**
+   * Response of the request for the page read by this iterator, if it has been fetched by this class.
+   */
+  private ODataRetrieveResponse<?> response;
+
   /**
    * Constructor.
    *
@@ -84,47 +110,55 @@ public class ClientEntitySetIterator<ES extends ClientEntitySet, E extends Clien
     this.stream = stream;
     this.format = format;
     this.osEntitySet = new ByteArrayOutputStream();
+  }
 
-    if (format == ODataFormat.ATOM) {
-      namespaces = getAllElementAttributes(stream, "feed", osEntitySet);
-    } else {
-      namespaces = null;
-      try {
-        if (consume(stream, "\"value\":", osEntitySet, true) >= 0) {
-          int c = 0;
-          while (c != '[' && (c = stream.read()) >= 0) {
-            osEntitySet.write(c);
-          }
-        }
-      } catch (IOException e) {
-        LOG.error("Error parsing entity set", e);
-        throw new IllegalStateException(e);
-      }
-    }
+  /**
+   * Sets whether the iteration continues with the entities of the next page, and so on,
+   * until a page without next link has been read.
+   *
+   * @param followNextLinks whether next links are followed
+   */
+  public void setFollowNextLinks(final boolean followNextLinks) {
+    this.followNextLinks = followNextLinks;
+  }
+
+  /**
+   * Sets whether the next page is requested in the background as soon as its link is known,
+   * while the entities of the current page are still consumed. Only relevant if next links are followed.
+   *
+   * @param prefetchNextPage whether the next page is prefetched
+   */
+  public void setPrefetchNextPage(final boolean prefetchNextPage) {
+    this.prefetchNextPage = prefetchNextPage;
   }
 
   /**
    * {@inheritDoc }
    */
   @Override
-  @SuppressWarnings("unchecked")
   public boolean hasNext() {
-    if (available && cached == null) {
-      if (format == ODataFormat.ATOM) {
-        cached = nextAtomEntityFromEntitySet(stream, osEntitySet, namespaces);
-      } else {
-        cached = nextJSONEntityFromEntitySet(stream, osEntitySet);
-      }
+    while (available && cached == null) {
+      cached = page.nextEntity();
 
       if (cached == null) {
-        available = false;
-        try {
-          entitySet = (ES) odataClient.getReader().
-                  readEntitySet(new ByteArrayInputStream(osEntitySet.toByteArray()), format);
-        } catch (final ODataDeserializerException e) {
+        entitySet = page.readEntitySet();
+        page.closePage();
+        if (followNextLinks && entitySet != null && entitySet.getNext() != null) {
+          page = getNextPage(entitySet.getNext());
+        } else {
           available = false;
         }
-        close();
+      } else if (followNextLinks && prefetchNextPage && nextPage == null) {
+        final URI next = page.peekNext();
+        if (next != null) {
+          nextPage = odataClient.getConfiguration().getExecutor().submit(
+              new Callable<ClientEntitySetIterator<ES, E>>() {
+                @Override
+                public ClientEntitySetIterator<ES, E> call() {
+                  return fetchPage(next);
+                }
+              });
+        }
       }
     }
 
@@ -156,10 +190,25 @@ public class ClientEntitySetIterator<ES extends ClientEntitySet, E extends Clien
 
   /**
    * Closes the current iterator.
+   * <br/>
+   * If the next page is being prefetched, this waits for the request to finish in order to close its response.
    */
   public void close() {
-    IOUtils.closeQuietly(stream);
-    IOUtils.closeQuietly(osEntitySet);
+    if (page != this) {
+      page.closePage();
+    }
+    closePage();
+    if (nextPage != null) {
+      try {
+        nextPage.get().closePage();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+      } catch (final ExecutionException e) {
+        LOG.debug("Prefetching of next page failed", e);
+      } finally {
+        nextPage = null;
+      }
+    }
   }
 
   /**
@@ -174,6 +223,113 @@ public class ClientEntitySetIterator<ES extends ClientEntitySet, E extends Clien
     return entitySet.getNext();
   }
 
+  /**
+   * Reads the next entity of the page read by this iterator.
+   *
+   * @return the entity or <tt>null</tt> if there are no more entities in this page
+   */
+  protected ResWrap<Entity> nextEntity() {
+    if (!started) {
+      started = true;
+      startEntitySet();
+    }
+    return format == ODataFormat.ATOM ?
+        nextAtomEntityFromEntitySet(stream, osEntitySet, namespaces) :
+        nextJSONEntityFromEntitySet(stream, osEntitySet);
+  }
+
+  /**
+   * Gets the next link of the page read by this iterator if it is known before all entities have been read.
+   *
+   * @return the next link or <tt>null</tt>
+   */
+  protected URI peekNext() {
+    return null;
+  }
+
+  /**
+   * Reads the entity set of the page read by this iterator, after all entities have been read.
+   *
+   * @return the entity set without entities or <tt>null</tt> if it could not be read
+   */
+  @SuppressWarnings("unchecked")
+  protected ES readEntitySet() {
+    try {
+      return (ES) odataClient.getReader().
+              readEntitySet(new ByteArrayInputStream(osEntitySet.toByteArray()), format);
+    } catch (final ODataDeserializerException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Closes the source of the page read by this iterator.
+   */
+  protected void closePage() {
+    IOUtils.closeQuietly(stream);
+    IOUtils.closeQuietly(osEntitySet);
+    if (response != null) {
+      response.close();
+      response = null;
+    }
+  }
+
+  /**
+   * Requests the given page of the entity set.
+   *
+   * @param next the next link of the previous page
+   * @return an iterator reading the page
+   */
+  @SuppressWarnings("unchecked")
+  protected ClientEntitySetIterator<ES, E> fetchPage(final URI next) {
+    final ODataEntitySetIteratorRequest<ClientEntitySet, ClientEntity> request =
+        odataClient.getRetrieveRequestFactory().getEntitySetIteratorRequest(next);
+    request.setFormat(format);
+    final ODataRetrieveResponse<ClientEntitySetIterator<ClientEntitySet, ClientEntity>> pageResponse =
+        request.execute();
+    final ClientEntitySetIterator<ES, E> iterator = (ClientEntitySetIterator<ES, E>) pageResponse.getBody();
+    // The response is kept open while the page is read and closed together with it.
+    iterator.response = pageResponse;
+    return iterator;
+  }
+
+  private ClientEntitySetIterator<ES, E> getNextPage(final URI next) {
+    if (nextPage == null) {
+      return fetchPage(next);
+    }
+    try {
+      return nextPage.get();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException(e);
+    } catch (final ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new IllegalStateException(e.getCause());
+    } finally {
+      nextPage = null;
+    }
+  }
+
+  private void startEntitySet() {
+    if (format == ODataFormat.ATOM) {
+      namespaces = getAllElementAttributes(stream, "feed", osEntitySet);
+    } else {
+      try {
+        if (consume(stream, "\"value\":", osEntitySet, true) >= 0) {
+          int c = 0;
+          while (c != '[' && (c = stream.read()) >= 0) {
+            osEntitySet.write(c);
+          }
+        }
+      } catch (IOException e) {
+        LOG.error("Error parsing entity set", e);
+        throw new IllegalStateException(e);
+      }
+    }
+  }
+
   private ResWrap<Entity> nextJSONEntityFromEntitySet(final InputStream input, final OutputStream osEntitySet) {
     final ByteArrayOutputStream entity = new ByteArrayOutputStream();
 
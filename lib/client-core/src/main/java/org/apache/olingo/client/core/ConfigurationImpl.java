@@ -22,6 +22,8 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
 
 import org.apache.olingo.client.api.Configuration;
 import org.apache.olingo.client.api.http.HttpClientFactory;
@@ -59,9 +61,17 @@ public class ConfigurationImpl implements Configuration {
 
   private static final String CONTINUE_ON_ERROR = "continueOnError";
 
+  private static final String DIRECT_ENTITY_SET_BINDING = "directEntitySetBinding";
+
+  private static final String EXECUTOR_THREADS = "executorThreads";
+
+  private static final String SCHEDULED_EXECUTOR_THREADS = "scheduledExecutorThreads";
+
   private final Map<String, Object> CONF = new HashMap<String, Object>();
 
-  private transient ExecutorService executor = Executors.newFixedThreadPool(10);
+  private transient ExecutorService executor;
+
+  private transient ScheduledExecutorService scheduledExecutor;
 
   /**
    * Gets given configuration property.
@@ -221,13 +231,118 @@ public class ConfigurationImpl implements Configuration {
     setProperty(CONTINUE_ON_ERROR, value);
   }
 
+  /**
+   * Checks whether entity sets in JSON format are bound to client entities in a single pass, i.e., each entity is
+   * converted into a {@link org.apache.olingo.client.api.domain.ClientEntity} as soon as it has been read, instead
+   * of de-serializing the complete entity set first.
+   *
+   * @return whether entity sets are bound in a single pass
+   */
+  public boolean isDirectEntitySetBinding() {
+    return (Boolean) getProperty(DIRECT_ENTITY_SET_BINDING, false);
+  }
+
+  /**
+   * Sets whether entity sets in JSON format are bound to client entities in a single pass.
+   * <br/>
+   * This reduces memory consumption and allocations when reading large entity sets; it requires the context URL
+   * and the metadata ETag to precede the entities in the payload, as mandated by the OData JSON format.
+   *
+   * @param value 'TRUE' to use this feature.
+   */
+  public void setDirectEntitySetBinding(final boolean value) {
+    setProperty(DIRECT_ENTITY_SET_BINDING, value);
+  }
+
   @Override
-  public ExecutorService getExecutor() {
+  public synchronized ExecutorService getExecutor() {
+    if (executor == null) {
+      executor = Executors.newFixedThreadPool(getExecutorThreads());
+    }
     return executor;
   }
 
   @Override
-  public void setExecutor(final ExecutorService executorService) {
+  public synchronized void setExecutor(final ExecutorService executorService) {
     executor = executorService;
   }
+
+  /**
+   * Gets the number of threads of the default executor service.
+   *
+   * @return number of threads; 10 by default.
+   */
+  public int getExecutorThreads() {
+    return (Integer) getProperty(EXECUTOR_THREADS, 10);
+  }
+
+  /**
+   * Sets the number of threads of the default executor service.
+   * <br/>
+   * Has no effect once the default executor service has been created or if another one has been set.
+   *
+   * @param threads number of threads.
+   */
+  public void setExecutorThreads(final int threads) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("At least one thread is required.");
+    }
+    setProperty(EXECUTOR_THREADS, threads);
+  }
+
+  /**
+   * Retrieves the scheduled executor service used to poll status monitors of asynchronous requests.
+   * <br/>
+   * Checks are scheduled after the delay requested by the service, so no thread waits in between.
+   *
+   * @return scheduled executor service.
+   */
+  public synchronized ScheduledExecutorService getScheduledExecutor() {
+    if (scheduledExecutor == null) {
+      // Daemon threads, since nobody shuts down the default scheduler.
+      scheduledExecutor = Executors.newScheduledThreadPool(getScheduledExecutorThreads(), new ThreadFactory() {
+        private final ThreadFactory defaultFactory = Executors.defaultThreadFactory();
+
+        @Override
+        public Thread newThread(final Runnable runnable) {
+          final Thread thread = defaultFactory.newThread(runnable);
+          thread.setDaemon(true);
+          return thread;
+        }
+      });
+    }
+    return scheduledExecutor;
+  }
+
+  /**
+   * Sets the scheduled executor service used to poll status monitors of asynchronous requests.
+   *
+   * @param scheduledExecutorService new scheduled executor service.
+   */
+  public synchronized void setScheduledExecutor(final ScheduledExecutorService scheduledExecutorService) {
+    scheduledExecutor = scheduledExecutorService;
+  }
+
+  /**
+   * Gets the number of threads of the default scheduled executor service.
+   *
+   * @return number of threads; 2 by default.
+   */
+  public int getScheduledExecutorThreads() {
+    return (Integer) getProperty(SCHEDULED_EXECUTOR_THREADS, 2);
+  }
+
+  /**
+   * Sets the number of threads of the default scheduled executor service.
+   * <br/>
+   * Has no effect once the default scheduled executor service has been created or if another one has been set.
+   *
+   * @param threads number of threads.
+   */
+  public void setScheduledExecutorThreads(final int threads) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("At least one thread is required.");
+    }
+    setProperty(SCHEDULED_EXECUTOR_THREADS, threads);
+  }
 }
@@ -41,6 +41,12 @@ import org.apache.olingo.client.api.http.HttpClientException;
 public abstract class AbstractODataStreamManager<T extends ODataResponse> extends AbstractODataStreamer
         implements ODataPayloadManager<T> {
 
+  /**
+   * Size of the pipe buffer; larger than the default of 1 KB, so that the writer is blocked less often
+   * by the thread sending the request.
+   */
+  private static final int PIPE_SIZE = 64 * 1024;
+
   /**
    * Body input stream.
    */
@@ -76,7 +82,7 @@ public abstract class AbstractODataStreamManager<T extends ODataResponse> extend
 
     this.futureWrap = futureWrap;
     try {
-      this.body = new PipedInputStream(getBodyStreamWriter());
+      this.body = new PipedInputStream(getBodyStreamWriter(), PIPE_SIZE);
     } catch (IOException e) {
       throw new IllegalStateException(e);
     }
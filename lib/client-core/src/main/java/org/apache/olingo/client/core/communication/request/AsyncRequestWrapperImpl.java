@@ -20,6 +20,14 @@ package org.apache.olingo.client.core.communication.request;
 
 import java.io.IOException;
 import java.net.URI;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -30,6 +38,7 @@ import org.apache.http.client.HttpClient;
 import org.apache.http.client.methods.HttpUriRequest;
 import org.apache.http.impl.client.DecompressingHttpClient;
 import org.apache.http.util.EntityUtils;
+import org.apache.olingo.client.api.Configuration;
 import org.apache.olingo.client.api.ODataClient;
 import org.apache.olingo.client.api.communication.ODataClientErrorException;
 import org.apache.olingo.client.api.communication.header.HeaderName;
@@ -41,6 +50,7 @@ import org.apache.olingo.client.api.communication.response.AsyncResponseWrapper;
 import org.apache.olingo.client.api.communication.response.ODataDeleteResponse;
 import org.apache.olingo.client.api.communication.response.ODataResponse;
 import org.apache.olingo.client.api.http.HttpClientException;
+import org.apache.olingo.client.core.ConfigurationImpl;
 import org.apache.olingo.commons.api.http.HttpMethod;
 
 public class AsyncRequestWrapperImpl<R extends ODataResponse> extends AbstractRequest
@@ -132,13 +142,14 @@ public class AsyncRequestWrapperImpl<R extends ODataResponse> extends AbstractRe
 
   public class AsyncResponseWrapperImpl implements AsyncResponseWrapper<R> {
 
-    protected URI location = null;
+    // Volatile, since these are updated by the status monitor checks of asyncGetODataResponse().
+    protected volatile URI location = null;
 
-    protected R response = null;
+    protected volatile R response = null;
 
-    protected int retryAfter = 5;
+    protected volatile int retryAfter = 5;
 
-    protected boolean preferenceApplied = false;
+    protected volatile boolean preferenceApplied = false;
 
     public AsyncResponseWrapperImpl() {
     }
@@ -211,6 +222,39 @@ public class AsyncRequestWrapperImpl<R extends ODataResponse> extends AbstractRe
       return response;
     }
 
+    /**
+     * Gets the real response without blocking the calling thread.
+     * <br />
+     * The status monitor is checked on the scheduled executor of the configuration; the next check is scheduled
+     * after the delay given by the 'Retry-After' header, with the same default and maximum number of retries as
+     * {@link #getODataResponse()}. Cancelling the returned future stops further checks.
+     * <br />
+     * If the configuration is not a {@link ConfigurationImpl}, which provides the scheduled executor,
+     * {@link #getODataResponse()} is called on the executor of the configuration instead.
+     *
+     * @return future real OData response.
+     */
+    public Future<R> asyncGetODataResponse() {
+      final Configuration configuration = odataClient.getConfiguration();
+      if (!(configuration instanceof ConfigurationImpl)) {
+        return configuration.getExecutor().submit(new Callable<R>() {
+          @Override
+          public R call() {
+            return getODataResponse();
+          }
+        });
+      }
+
+      final MonitorCheck check = new MonitorCheck(((ConfigurationImpl) configuration).getScheduledExecutor());
+      final R current = response;
+      if (current == null) {
+        check.schedule(0);
+      } else {
+        check.complete(current, null);
+      }
+      return check;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -239,6 +283,121 @@ public class AsyncRequestWrapperImpl<R extends ODataResponse> extends AbstractRe
       return this;
     }
 
+    /**
+     * Checks the status monitor on the scheduled executor until the response is available, waiting for
+     * 'Retry-After' seconds between the checks without blocking a thread.
+     */
+    private class MonitorCheck implements Runnable, Future<R> {
+
+      private final ScheduledExecutorService scheduler;
+
+      private final CountDownLatch done = new CountDownLatch(1);
+
+      private int retries = 0;
+
+      private Future<?> scheduled;
+
+      private R result;
+
+      private RuntimeException failure;
+
+      private boolean cancelled = false;
+
+      private MonitorCheck(final ScheduledExecutorService scheduler) {
+        this.scheduler = scheduler;
+      }
+
+      private synchronized void schedule(final int delayInSeconds) {
+        if (!isDone()) {
+          scheduled = scheduler.schedule(this, delayInSeconds, TimeUnit.SECONDS);
+        }
+      }
+
+      private synchronized void complete(final R result, final RuntimeException failure) {
+        if (!isDone()) {
+          this.result = result;
+          this.failure = failure;
+          done.countDown();
+        }
+      }
+
+      @Override
+      public void run() {
+        try {
+          final HttpResponse res = checkMonitor(location);
+          if (res.getStatusLine().getStatusCode() == 202) {
+            final Header[] headers = res.getHeaders(HeaderName.retryAfter.toString());
+            final int delay = ArrayUtils.isEmpty(headers) ? retryAfter : Integer.parseInt(headers[0].getValue());
+            retryAfter = delay;
+            EntityUtils.consume(res.getEntity());
+
+            if (++retries < MAX_RETRY) {
+              schedule(delay);
+            } else {
+              complete(null, new ODataClientErrorException(res.getStatusLine()));
+            }
+          } else {
+            location = null;
+            final R result = instantiateResponse(res);
+            response = result;
+            complete(result, null);
+          }
+        } catch (final IOException e) {
+          complete(null, new HttpClientException(e));
+        } catch (final RuntimeException e) {
+          complete(null, e);
+        }
+      }
+
+      @Override
+      public synchronized boolean cancel(final boolean mayInterruptIfRunning) {
+        if (isDone()) {
+          return false;
+        }
+        cancelled = true;
+        if (scheduled != null) {
+          scheduled.cancel(mayInterruptIfRunning);
+        }
+        done.countDown();
+        return true;
+      }
+
+      @Override
+      public synchronized boolean isCancelled() {
+        return cancelled;
+      }
+
+      @Override
+      public boolean isDone() {
+        return done.getCount() == 0;
+      }
+
+      @Override
+      public R get() throws InterruptedException, ExecutionException {
+        done.await();
+        return getResult();
+      }
+
+      @Override
+      public R get(final long timeout, final TimeUnit unit)
+          throws InterruptedException, ExecutionException, TimeoutException {
+        if (!done.await(timeout, unit)) {
+          throw new TimeoutException();
+        }
+        return getResult();
+      }
+
+      private synchronized R getResult() throws ExecutionException {
+        if (cancelled) {
+          throw new CancellationException();
+        }
+        if (failure != null) {
+          throw new ExecutionException(failure);
+        }
+        return result;
+      }
+    }
+
     @SuppressWarnings("unchecked")
     private R instantiateResponse(final HttpResponse res) {
       R odataResponse;
@@ -25,6 +25,7 @@ import java.util.Map;
 import org.apache.olingo.client.api.communication.request.batch.ODataBatchLineIterator;
 import org.apache.olingo.client.api.communication.request.batch.ODataBatchResponseItem;
 import org.apache.olingo.client.api.communication.response.ODataResponse;
+import org.apache.olingo.client.core.communication.response.AbstractODataResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -163,11 +164,22 @@ public abstract class AbstractODataBatchResponseItem implements ODataBatchRespon
     return changeset;
   }
 
+  /**
+   * Invalidates the payload of the last returned response, which is read on demand from the batch line iterator.
+   * Must be called before the iterator moves on.
+   */
+  protected void invalidateCurrent() {
+    if (current instanceof AbstractODataResponse) {
+      ((AbstractODataResponse) current).invalidateBatchPayload();
+    }
+  }
+
   /**
    * {@inheritDoc }
    */
   @Override
   public void close() {
+    invalidateCurrent();
     for (ODataResponse response : responses.values()) {
       response.close();
     }
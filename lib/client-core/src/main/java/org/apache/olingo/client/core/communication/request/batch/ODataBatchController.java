@@ -28,7 +28,7 @@ public class ODataBatchController {
   /**
    * Batch validity.
    */
-  private boolean validBatch = true;
+  private volatile boolean validBatch = true;
 
   /**
    * Batch boundary.
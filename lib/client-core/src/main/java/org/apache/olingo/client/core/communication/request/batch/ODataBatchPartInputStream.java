@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.client.core.communication.request.batch;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.apache.olingo.client.api.communication.request.ODataStreamer;
+import org.apache.olingo.client.api.communication.request.batch.ODataBatchLineIterator;
+import org.apache.olingo.commons.api.Constants;
+
+/**
+ * Input stream over the payload of a batch item, i.e., over the lines of the batch up to the next boundary.
+ * <br/>
+ * Lines are read on demand by the thread consuming this stream, so at most one line is buffered
+ * and no additional thread is needed. The stream ends early if the batch controller becomes invalid,
+ * e.g., because the corresponding response has been closed.
+ */
+public class ODataBatchPartInputStream extends InputStream {
+
+  private static final byte[] EMPTY = new byte[0];
+
+  private final ODataBatchController controller;
+
+  private byte[] buffer = EMPTY;
+
+  private int position = 0;
+
+  private boolean finished;
+
+  /**
+   * Constructor.
+   *
+   * @param controller batch controller providing source and delimiter (boundary) of the batch part.
+   * @param checkCurrent if 'TRUE' the current line will be included into the delimiter verification.
+   */
+  public ODataBatchPartInputStream(final ODataBatchController controller, final boolean checkCurrent) {
+    this.controller = controller;
+    finished = checkCurrent
+        && !ODataBatchUtilities.isNotEndLine(controller, controller.getBatchLineIterator().getCurrent());
+  }
+
+  @Override
+  public int read() throws IOException {
+    if (position >= buffer.length && !fill()) {
+      return -1;
+    }
+    return buffer[position++] & 0xFF;
+  }
+
+  @Override
+  public int read(final byte[] b, final int off, final int len) throws IOException {
+    if (len == 0) {
+      return 0;
+    }
+    if (position >= buffer.length && !fill()) {
+      return -1;
+    }
+    final int count = Math.min(len, buffer.length - position);
+    System.arraycopy(buffer, position, b, off, count);
+    position += count;
+    return count;
+  }
+
+  @Override
+  public int available() {
+    return buffer.length - position;
+  }
+
+  @Override
+  public void close() {
+    finished = true;
+    buffer = EMPTY;
+    position = 0;
+  }
+
+  /**
+   * Reads the next line of the batch part into the buffer.
+   *
+   * @return 'FALSE' if the end of the batch part has been reached.
+   */
+  private boolean fill() throws IOException {
+    final ODataBatchLineIterator iterator = controller.getBatchLineIterator();
+    String line = null;
+    synchronized (iterator) {
+      if (!finished && controller.isValidBatch() && iterator.hasNext()) {
+        line = iterator.nextLine();
+      }
+    }
+
+    if (line == null || !ODataBatchUtilities.isNotEndLine(controller, line)) {
+      finished = true;
+      buffer = EMPTY;
+      position = 0;
+      return false;
+    }
+
+    final byte[] bytes = line.getBytes(Constants.UTF8);
+    buffer = new byte[bytes.length + ODataStreamer.CRLF.length];
+    System.arraycopy(bytes, 0, buffer, 0, bytes.length);
+    System.arraycopy(ODataStreamer.CRLF, 0, buffer, bytes.length, ODataStreamer.CRLF.length);
+    position = 0;
+    return true;
+  }
+}
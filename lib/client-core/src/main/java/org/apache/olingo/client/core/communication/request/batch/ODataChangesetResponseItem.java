@@ -68,6 +68,8 @@ public class ODataChangesetResponseItem extends AbstractODataBatchResponseItem {
   }
 
   private ODataResponse nextExpected() {
+    invalidateCurrent();
+
     // consume item for condition above (used like a counter ...)
     expectedItemsIterator.next();
 
@@ -111,6 +113,8 @@ public class ODataChangesetResponseItem extends AbstractODataBatchResponseItem {
   }
 
   private ODataResponse nextUnexpected() {
+    invalidateCurrent();
+
     final Map.Entry<Integer, String> responseLine = ODataBatchUtilities.readResponseLine(batchLineIterator);
     LOG.debug("Retrieved item response {}", responseLine);
 
@@ -53,6 +53,8 @@ public class ODataSingleResponseItem extends AbstractODataBatchResponseItem {
       throw new NoSuchElementException("No item found");
     }
 
+    invalidateCurrent();
+
     final Map.Entry<Integer, String> responseLine = ODataBatchUtilities.readResponseLine(batchLineIterator);
     LOG.debug("Retrieved item response {}", responseLine);
 
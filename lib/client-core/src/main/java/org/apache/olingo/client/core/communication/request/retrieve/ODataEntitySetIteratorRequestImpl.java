@@ -28,6 +28,7 @@ import org.apache.olingo.client.api.communication.response.ODataRetrieveResponse
 import org.apache.olingo.client.api.domain.ClientEntitySetIterator;
 import org.apache.olingo.client.api.domain.ClientEntity;
 import org.apache.olingo.client.api.domain.ClientEntitySet;
+import org.apache.olingo.client.core.serialization.ClientEntitySetStreamingIterator;
 import org.apache.olingo.commons.api.format.ODataFormat;
 
 /**
@@ -74,7 +75,7 @@ public class ODataEntitySetIteratorRequestImpl<ES extends ClientEntitySet, E ext
     @Override
     public ClientEntitySetIterator<ES, E> getBody() {
       if (entitySetIterator == null) {
-        entitySetIterator = new ClientEntitySetIterator<ES, E>(
+        entitySetIterator = new ClientEntitySetStreamingIterator<ES, E>(
                 odataClient, getRawResponse(), ODataFormat.fromString(getContentType()));
       }
       return entitySetIterator;
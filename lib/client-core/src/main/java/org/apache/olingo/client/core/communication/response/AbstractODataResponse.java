@@ -22,8 +22,6 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.PipedInputStream;
-import java.io.PipedOutputStream;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.Map;
@@ -34,6 +32,7 @@ import org.apache.http.Header;
 import org.apache.http.HttpResponse;
 import org.apache.http.HttpStatus;
 import org.apache.http.client.HttpClient;
+import org.apache.http.util.EntityUtils;
 import org.apache.olingo.client.api.ODataClient;
 import org.apache.olingo.client.api.communication.header.HeaderName;
 import org.apache.olingo.client.api.communication.request.ODataStreamer;
@@ -42,6 +41,7 @@ import org.apache.olingo.client.api.communication.response.ODataResponse;
 import org.apache.olingo.client.api.http.NoContentException;
 import org.apache.olingo.client.core.communication.request.batch.ODataBatchController;
 import org.apache.olingo.client.core.communication.request.batch.ODataBatchLineIteratorImpl;
+import org.apache.olingo.client.core.communication.request.batch.ODataBatchPartInputStream;
 import org.apache.olingo.client.core.communication.request.batch.ODataBatchUtilities;
 import org.apache.olingo.commons.api.Constants;
 import org.apache.olingo.commons.api.ODataRuntimeException;
@@ -275,11 +275,31 @@ public abstract class AbstractODataResponse implements ODataResponse {
     }
   }
 
+  /**
+   * Marks the payload read from a batch response as invalid.
+   * <br/>
+   * The payload is read on demand from the batch line iterator; this must be called before the iterator moves on
+   * to the next item. Afterwards, the unread part of the payload is skipped and reading it returns end of stream.
+   */
+  public void invalidateBatchPayload() {
+    if (batchInfo != null) {
+      batchInfo.setValidBatch(false);
+    }
+  }
+
   /**
    * {@inheritDoc }
    */
   @Override
   public void close() {
+    // Consuming the entity releases the connection if it is pooled.
+    if (res != null) {
+      try {
+        EntityUtils.consume(res.getEntity());
+      } catch (IOException e) {
+        LOG.debug("Error consuming response entity", e);
+      }
+    }
     odataClient.getConfiguration().getHttpClientFactory().close(httpClient);
 
     if (batchInfo != null) {
@@ -297,28 +317,8 @@ public abstract class AbstractODataResponse implements ODataResponse {
     }
 
     if (payload == null && batchInfo.isValidBatch()) {
-      // get input stream till the end of item
-      payload = new PipedInputStream();
-
-      try {
-        final PipedOutputStream os = new PipedOutputStream((PipedInputStream) payload);
-
-        new Thread(new Runnable() {
-          @Override
-          public void run() {
-            try {
-              ODataBatchUtilities.readBatchPart(batchInfo, os, true);
-            } catch (Exception e) {
-              LOG.error("Error streaming batch item payload", e);
-            } finally {
-              IOUtils.closeQuietly(os);
-            }
-          }
-        }).start();
-      } catch (IOException e) {
-        LOG.error("Error streaming payload response", e);
-        throw new IllegalStateException(e);
-      }
+      // get input stream till the end of item, read on demand by the caller
+      payload = new ODataBatchPartInputStream(batchInfo, true);
     }
 
     return payload;
@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.client.core.http;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.HttpClient;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.DefaultHttpClient;
+import org.apache.http.impl.conn.PoolingClientConnectionManager;
+import org.apache.http.params.CoreProtocolPNames;
+import org.apache.http.protocol.HttpContext;
+import org.apache.olingo.commons.api.http.HttpMethod;
+
+/**
+ * Implementation returning HttpClients which share one pool of persistent connections,
+ * so that subsequent requests to the same host do not need a new TCP (and TLS) handshake.
+ * <br/>
+ * Connections are kept alive as long as the server allows it, but at most for the configured keep-alive time;
+ * idle connections are evicted when a new client is created.
+ * Call {@link #shutdown()} to close all pooled connections when the factory is no longer needed.
+ */
+public class PoolingHttpClientFactory extends DefaultHttpClientFactory {
+
+  public static final int DEFAULT_MAX_TOTAL = 100;
+
+  public static final int DEFAULT_MAX_PER_ROUTE = 20;
+
+  public static final long DEFAULT_KEEP_ALIVE_MILLIS = 30000;
+
+  private final PoolingClientConnectionManager connectionManager;
+
+  private final long keepAliveMillis;
+
+  private final ConnectionKeepAliveStrategy keepAliveStrategy;
+
+  public PoolingHttpClientFactory() {
+    this(DEFAULT_MAX_TOTAL, DEFAULT_MAX_PER_ROUTE, DEFAULT_KEEP_ALIVE_MILLIS);
+  }
+
+  /**
+   * @param maxTotal maximum number of pooled connections
+   * @param maxPerRoute maximum number of pooled connections per route, i.e., per target host
+   * @param keepAliveMillis maximum time in milliseconds an idle connection is kept in the pool
+   */
+  public PoolingHttpClientFactory(final int maxTotal, final int maxPerRoute, final long keepAliveMillis) {
+    connectionManager = new PoolingClientConnectionManager();
+    connectionManager.setMaxTotal(maxTotal);
+    connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+    this.keepAliveMillis = keepAliveMillis;
+
+    keepAliveStrategy = new DefaultConnectionKeepAliveStrategy() {
+      @Override
+      public long getKeepAliveDuration(final HttpResponse response, final HttpContext context) {
+        // Use the time announced by the server in the Keep-Alive header, if it is shorter.
+        final long duration = super.getKeepAliveDuration(response, context);
+        return duration > 0 && duration < PoolingHttpClientFactory.this.keepAliveMillis ?
+            duration : PoolingHttpClientFactory.this.keepAliveMillis;
+      }
+    };
+  }
+
+  /**
+   * Gets the shared connection manager, e.g., to set limits for specific routes.
+   */
+  public PoolingClientConnectionManager getConnectionManager() {
+    return connectionManager;
+  }
+
+  @Override
+  public DefaultHttpClient create(final HttpMethod method, final URI uri) {
+    connectionManager.closeExpiredConnections();
+    connectionManager.closeIdleConnections(keepAliveMillis, TimeUnit.MILLISECONDS);
+
+    final DefaultHttpClient client = new DefaultHttpClient(connectionManager);
+    client.getParams().setParameter(CoreProtocolPNames.USER_AGENT, USER_AGENT);
+    client.setKeepAliveStrategy(keepAliveStrategy);
+    return client;
+  }
+
+  @Override
+  public void close(final HttpClient httpClient) {
+    // The connection has already been released to the pool together with the response entity.
+  }
+
+  /**
+   * Closes all pooled connections; clients created afterwards cannot be used anymore.
+   */
+  public void shutdown() {
+    connectionManager.shutdown();
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.client.core.serialization;
+
+import java.io.InputStream;
+import java.net.URI;
+
+import org.apache.olingo.client.api.ODataClient;
+import org.apache.olingo.client.api.domain.ClientEntity;
+import org.apache.olingo.client.api.domain.ClientEntitySet;
+import org.apache.olingo.client.api.domain.ClientEntitySetIterator;
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.EntityCollection;
+import org.apache.olingo.commons.api.data.ResWrap;
+import org.apache.olingo.commons.api.format.ODataFormat;
+import org.apache.olingo.commons.api.serialization.ODataDeserializerException;
+import org.apache.olingo.commons.core.serialization.AtomDeserializer;
+import org.apache.olingo.commons.core.serialization.EntitySetStreamDeserializer;
+import org.apache.olingo.commons.core.serialization.JsonDeserializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Entity set iterator reading the entities with a single incremental parser over the response,
+ * so that memory consumption does not depend on the size of the entity set.
+ * <br/>
+ * One entity is read ahead; thus the rest of the page, including its next link, is already known
+ * when the last entity is returned, and the next page can be prefetched while that entity is processed.
+ *
+ * @param <E> concrete ODataEntity implementation
+ * @param <ES> concrete ODataEntitySet implementation
+ */
+public class ClientEntitySetStreamingIterator<ES extends ClientEntitySet, E extends ClientEntity>
+    extends ClientEntitySetIterator<ES, E> {
+
+  private static final Logger LOG = LoggerFactory.getLogger(ClientEntitySetStreamingIterator.class);
+
+  private final EntitySetStreamDeserializer deserializer;
+
+  private ResWrap<Entity> lookahead;
+
+  private boolean started = false;
+
+  private boolean failed = false;
+
+  public ClientEntitySetStreamingIterator(final ODataClient odataClient, final InputStream stream,
+      final ODataFormat format) {
+
+    super(odataClient, stream, format);
+    try {
+      deserializer = format == ODataFormat.ATOM || format == ODataFormat.XML ?
+          new AtomDeserializer().toEntitySetStream(stream) :
+          new JsonDeserializer(false).toEntitySetStream(stream);
+    } catch (final ODataDeserializerException e) {
+      LOG.error("Error parsing entity set", e);
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @Override
+  protected ResWrap<Entity> nextEntity() {
+    if (failed) {
+      return null;
+    }
+    try {
+      if (!started) {
+        started = true;
+        lookahead = deserializer.nextEntity();
+      }
+      final ResWrap<Entity> entity = lookahead;
+      if (entity != null) {
+        lookahead = deserializer.nextEntity();
+      }
+      return entity;
+    } catch (final ODataDeserializerException e) {
+      LOG.error("Error retrieving entities from EntitySet", e);
+      failed = true;
+      return null;
+    }
+  }
+
+  @Override
+  protected URI peekNext() {
+    final ResWrap<EntityCollection> resource = deserializer.getEntitySet();
+    return resource == null || resource.getPayload().getNext() == null ?
+        null :
+        odataClient.getBinder().getODataEntitySet(resource).getNext();
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  protected ES readEntitySet() {
+    final ResWrap<EntityCollection> resource = deserializer.getEntitySet();
+    return failed || resource == null ? null : (ES) odataClient.getBinder().getODataEntitySet(resource);
+  }
+
+  @Override
+  protected void closePage() {
+    deserializer.close();
+    super.closePage();
+  }
+}
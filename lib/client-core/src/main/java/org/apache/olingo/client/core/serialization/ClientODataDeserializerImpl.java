@@ -41,6 +41,7 @@ import org.apache.olingo.commons.api.format.ODataFormat;
 import org.apache.olingo.commons.api.serialization.ODataDeserializer;
 import org.apache.olingo.commons.api.serialization.ODataDeserializerException;
 import org.apache.olingo.commons.core.serialization.AtomDeserializer;
+import org.apache.olingo.commons.core.serialization.EntityHandler;
 import org.apache.olingo.commons.core.serialization.JsonDeltaDeserializer;
 import org.apache.olingo.commons.core.serialization.JsonDeserializer;
 
@@ -75,6 +76,35 @@ public class ClientODataDeserializerImpl implements ClientODataDeserializer {
     return deserializer.toEntitySet(input);
   }
 
+  /**
+   * Reads an entity set and passes each of its entities to the given handler,
+   * instead of collecting them in the returned entity set.
+   * <br/>
+   * In JSON format, each entity is passed on as soon as it has been read.
+   *
+   * @param input stream to be de-serialized
+   * @param handler receives the entities one by one
+   * @return the entity set without entities
+   * @throws ODataDeserializerException
+   */
+  public ResWrap<EntityCollection> toEntitySet(final InputStream input, final EntityHandler handler)
+      throws ODataDeserializerException {
+    if (deserializer instanceof JsonDeserializer) {
+      return ((JsonDeserializer) deserializer).toEntitySet(input, handler);
+    }
+
+    final ResWrap<EntityCollection> entitySet = deserializer.toEntitySet(input);
+    try {
+      for (final Entity entity : entitySet.getPayload().getEntities()) {
+        handler.handle(new ResWrap<Entity>(entitySet.getContextURL(), entitySet.getMetadataETag(), entity));
+      }
+    } catch (final IOException e) {
+      throw new ODataDeserializerException(e);
+    }
+    entitySet.getPayload().getEntities().clear();
+    return entitySet;
+  }
+
   @Override
   public ResWrap<Entity> toEntity(final InputStream input) throws ODataDeserializerException {
     return deserializer.toEntity(input);
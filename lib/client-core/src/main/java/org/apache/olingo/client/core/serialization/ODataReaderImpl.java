@@ -20,6 +20,8 @@ package org.apache.olingo.client.core.serialization;
 
 import java.io.InputStream;
 import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.commons.io.IOUtils;
@@ -27,7 +29,10 @@ import org.apache.olingo.client.api.ODataClient;
 import org.apache.olingo.client.api.data.ServiceDocument;
 import org.apache.olingo.client.api.domain.ClientEntitySetIterator;
 import org.apache.olingo.client.api.edm.xml.XMLMetadata;
+import org.apache.olingo.client.api.serialization.ClientODataDeserializer;
+import org.apache.olingo.client.api.serialization.ODataBinder;
 import org.apache.olingo.client.api.serialization.ODataReader;
+import org.apache.olingo.client.core.ConfigurationImpl;
 import org.apache.olingo.client.core.edm.ClientCsdlEdmProvider;
 import org.apache.olingo.commons.api.data.Entity;
 import org.apache.olingo.commons.api.data.EntityCollection;
@@ -45,6 +50,7 @@ import org.apache.olingo.commons.api.edm.provider.CsdlSchema;
 import org.apache.olingo.commons.api.format.ODataFormat;
 import org.apache.olingo.commons.api.serialization.ODataDeserializerException;
 import org.apache.olingo.commons.core.edm.EdmProviderImpl;
+import org.apache.olingo.commons.core.serialization.EntityHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -95,15 +101,14 @@ public class ODataReaderImpl implements ODataReader {
         res = new ResWrap<T>(
             (URI) null,
             null,
-            reference.cast(new ClientEntitySetIterator<ClientEntitySet, ClientEntity>(
+            reference.cast(new ClientEntitySetStreamingIterator<ClientEntitySet, ClientEntity>(
                 client, src, ODataFormat.fromString(format))));
       } else if (ClientEntitySet.class.isAssignableFrom(reference)) {
-        final ResWrap<EntityCollection> resource = client.getDeserializer(ODataFormat.fromString(format))
-            .toEntitySet(src);
+        final ResWrap<ClientEntitySet> resource = readEntitySetResource(src, ODataFormat.fromString(format));
         res = new ResWrap<T>(
             resource.getContextURL(),
             resource.getMetadataETag(),
-            reference.cast(client.getBinder().getODataEntitySet(resource)));
+            reference.cast(resource.getPayload()));
       } else if (ClientEntity.class.isAssignableFrom(reference)) {
         final ResWrap<Entity> container = client.getDeserializer(ODataFormat.fromString(format)).toEntity(src);
         res = new ResWrap<T>(
@@ -160,7 +165,35 @@ public class ODataReaderImpl implements ODataReader {
   @Override
   public ClientEntitySet readEntitySet(final InputStream input, final ODataFormat format)
       throws ODataDeserializerException {
-    return client.getBinder().getODataEntitySet(client.getDeserializer(format).toEntitySet(input));
+    return readEntitySetResource(input, format).getPayload();
+  }
+
+  protected ResWrap<ClientEntitySet> readEntitySetResource(final InputStream input, final ODataFormat format)
+      throws ODataDeserializerException {
+    final ClientODataDeserializer deserializer = client.getDeserializer(format);
+    final ODataBinder binder = client.getBinder();
+    final ResWrap<EntityCollection> resource;
+    final ClientEntitySet entitySet;
+    if (client.getConfiguration() instanceof ConfigurationImpl
+        && ((ConfigurationImpl) client.getConfiguration()).isDirectEntitySetBinding()
+        && deserializer instanceof ClientODataDeserializerImpl && binder instanceof ODataBinderImpl) {
+      // Bind each entity right away so that the de-serialized entities need not be kept.
+      final List<ClientEntity> entities = new ArrayList<ClientEntity>();
+      resource = ((ClientODataDeserializerImpl) deserializer).toEntitySet(input, new EntityHandler() {
+        @Override
+        public void handle(final ResWrap<Entity> entity) {
+          entities.add(binder.getODataEntity(entity));
+        }
+      });
+      entitySet = binder.getODataEntitySet(resource);
+      for (final ClientEntity entity : entities) {
+        ((ODataBinderImpl) binder).add(entitySet, entity);
+      }
+    } else {
+      resource = deserializer.toEntitySet(input);
+      entitySet = binder.getODataEntitySet(resource);
+    }
+    return new ResWrap<ClientEntitySet>(resource.getContextURL(), resource.getMetadataETag(), entitySet);
   }
 
   @Override
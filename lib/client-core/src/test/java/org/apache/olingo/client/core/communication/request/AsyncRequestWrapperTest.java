@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.client.core.communication.request;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.olingo.client.api.ODataClient;
+import org.apache.olingo.client.api.communication.ODataClientErrorException;
+import org.apache.olingo.client.api.communication.request.retrieve.ODataEntityRequest;
+import org.apache.olingo.client.api.communication.response.ODataRetrieveResponse;
+import org.apache.olingo.client.api.domain.ClientEntity;
+import org.apache.olingo.client.core.ODataClientFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+public class AsyncRequestWrapperTest {
+
+  private HttpServer server;
+
+  private URI uri;
+
+  /** Number of status monitor checks answered with '202 Accepted' before the response is ready. */
+  private volatile int pendingChecks;
+
+  /** Value of the 'Retry-After' header of a '202 Accepted' status monitor response. */
+  private volatile int retryAfter;
+
+  private final AtomicInteger monitorChecks = new AtomicInteger();
+
+  @Before
+  public void startServer() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/People", new HttpHandler() {
+      @Override
+      public void handle(final HttpExchange exchange) throws IOException {
+        exchange.getResponseHeaders().add("Location",
+            "http://localhost:" + server.getAddress().getPort() + "/monitor");
+        exchange.getResponseHeaders().add("Retry-After", "0");
+        exchange.sendResponseHeaders(202, -1);
+        exchange.close();
+      }
+    });
+    server.createContext("/monitor", new HttpHandler() {
+      @Override
+      public void handle(final HttpExchange exchange) throws IOException {
+        if (monitorChecks.incrementAndGet() <= pendingChecks) {
+          exchange.getResponseHeaders().add("Retry-After", String.valueOf(retryAfter));
+          exchange.sendResponseHeaders(202, -1);
+          exchange.close();
+        } else {
+          final byte[] body = ("HTTP/1.1 200 OK\r\n"
+              + "Content-Type: application/json\r\n"
+              + "\r\n"
+              + "{\"Name\":\"Russell\"}\r\n").getBytes("UTF-8");
+          exchange.getResponseHeaders().add("Content-Type", "application/http");
+          exchange.sendResponseHeaders(200, body.length);
+          final OutputStream out = exchange.getResponseBody();
+          out.write(body);
+          out.close();
+        }
+      }
+    });
+    server.start();
+    uri = URI.create("http://localhost:" + server.getAddress().getPort() + "/People('russell')");
+  }
+
+  @After
+  public void stopServer() {
+    server.stop(0);
+  }
+
+  @Test
+  public void futureCompletes() throws Exception {
+    pendingChecks = 2;
+    retryAfter = 0;
+    final Future<ODataRetrieveResponse<ClientEntity>> future = execute();
+
+    assertEquals(200, future.get(10, TimeUnit.SECONDS).getStatusCode());
+    assertTrue(future.isDone());
+    assertFalse(future.isCancelled());
+    assertEquals(3, monitorChecks.get());
+  }
+
+  @Test
+  public void futureFailsAfterMaximumRetries() throws Exception {
+    pendingChecks = Integer.MAX_VALUE;
+    retryAfter = 0;
+    final Future<ODataRetrieveResponse<ClientEntity>> future = execute();
+
+    try {
+      future.get(10, TimeUnit.SECONDS);
+      fail("Expected an ExecutionException");
+    } catch (final ExecutionException e) {
+      assertTrue(e.getCause() instanceof ODataClientErrorException);
+    }
+    assertEquals(AsyncRequestWrapperImpl.MAX_RETRY, monitorChecks.get());
+  }
+
+  @Test
+  public void cancelStopsChecks() throws Exception {
+    pendingChecks = Integer.MAX_VALUE;
+    retryAfter = 1;
+    final Future<ODataRetrieveResponse<ClientEntity>> future = execute();
+    for (int i = 0; i < 100 && monitorChecks.get() == 0; i++) {
+      Thread.sleep(50);
+    }
+
+    assertTrue(future.cancel(false));
+    final int checks = monitorChecks.get();
+    assertTrue(future.isCancelled());
+    assertTrue(future.isDone());
+    assertFalse(future.cancel(false));
+    try {
+      future.get();
+      fail("Expected a CancellationException");
+    } catch (final CancellationException e) {
+      assertTrue(future.isCancelled());
+    }
+
+    // The next check would have been due after one second.
+    Thread.sleep(1500);
+    assertTrue(monitorChecks.get() <= checks + 1);
+  }
+
+  @Test
+  public void getWithTimeout() throws Exception {
+    pendingChecks = Integer.MAX_VALUE;
+    retryAfter = 10;
+    final Future<ODataRetrieveResponse<ClientEntity>> future = execute();
+
+    try {
+      future.get(100, TimeUnit.MILLISECONDS);
+      fail("Expected a TimeoutException");
+    } catch (final TimeoutException e) {
+      assertFalse(future.isDone());
+    }
+    assertTrue(future.cancel(true));
+  }
+
+  @SuppressWarnings("unchecked")
+  private Future<ODataRetrieveResponse<ClientEntity>> execute() {
+    final ODataClient client = ODataClientFactory.getClient();
+    final ODataEntityRequest<ClientEntity> request = client.getRetrieveRequestFactory().getEntityRequest(uri);
+    final AsyncRequestWrapperImpl<ODataRetrieveResponse<ClientEntity>>.AsyncResponseWrapperImpl wrapper =
+        (AsyncRequestWrapperImpl<ODataRetrieveResponse<ClientEntity>>.AsyncResponseWrapperImpl)
+        client.getAsyncRequestFactory().<ODataRetrieveResponse<ClientEntity>> getAsyncRequestWrapper(request)
+            .execute();
+    return wrapper.asyncGetODataResponse();
+  }
+}
@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.client.core.communication.request.batch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.AbstractMap;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+
+import org.apache.commons.io.IOUtils;
+import org.apache.olingo.client.api.communication.request.batch.ODataBatchLineIterator;
+import org.apache.olingo.client.core.communication.response.batch.ODataBatchErrorResponse;
+import org.junit.Test;
+
+public class ODataBatchPartInputStreamTest {
+
+  private static final String BOUNDARY = "--batch_123";
+  private static final String CRLF = "\r\n";
+
+  @Test
+  public void readUntilBoundary() throws Exception {
+    final ODataBatchLineIterator iterator = iterator("first", "second", BOUNDARY, "next");
+    final InputStream stream = new ODataBatchPartInputStream(new ODataBatchController(iterator, BOUNDARY), false);
+
+    assertEquals("first" + CRLF + "second" + CRLF, IOUtils.toString(stream, "UTF-8"));
+    assertEquals(-1, stream.read());
+    assertEquals(BOUNDARY, iterator.getCurrent());
+    assertEquals("next", iterator.nextLine());
+  }
+
+  @Test
+  public void readSingleBytes() throws Exception {
+    final InputStream stream = new ODataBatchPartInputStream(
+        new ODataBatchController(iterator("ab", BOUNDARY), BOUNDARY), false);
+
+    assertEquals('a', stream.read());
+    assertEquals(0, stream.read(new byte[2], 0, 0));
+    assertEquals(3, stream.available());
+    final byte[] rest = new byte[10];
+    assertEquals(3, stream.read(rest, 0, rest.length));
+    assertEquals("b" + CRLF, new String(rest, 0, 3, "UTF-8"));
+    assertEquals(-1, stream.read(rest, 0, rest.length));
+  }
+
+  @Test
+  public void linesAreReadOnDemand() throws Exception {
+    final ODataBatchLineIterator iterator = iterator("first", "second", BOUNDARY);
+    final InputStream stream = new ODataBatchPartInputStream(new ODataBatchController(iterator, BOUNDARY), false);
+
+    assertEquals('f', stream.read());
+    assertEquals("first", iterator.getCurrent());
+  }
+
+  @Test
+  public void currentBoundaryEndsPart() throws Exception {
+    final ODataBatchLineIterator iterator = iterator(BOUNDARY, "next");
+    iterator.nextLine();
+
+    assertEquals(-1, new ODataBatchPartInputStream(new ODataBatchController(iterator, BOUNDARY), true).read());
+    assertEquals("next", iterator.nextLine());
+  }
+
+  @Test
+  public void closedStreamDoesNotRead() throws Exception {
+    final ODataBatchLineIterator iterator = iterator("first", BOUNDARY);
+    final InputStream stream = new ODataBatchPartInputStream(new ODataBatchController(iterator, BOUNDARY), false);
+
+    stream.close();
+    assertEquals(-1, stream.read());
+    assertTrue(iterator.hasNext());
+    assertEquals("first", iterator.nextLine());
+  }
+
+  @Test
+  public void invalidBatchStopsReading() throws Exception {
+    final ODataBatchLineIterator iterator = iterator("first", "second", BOUNDARY);
+    final ODataBatchController controller = new ODataBatchController(iterator, BOUNDARY);
+    final InputStream stream = new ODataBatchPartInputStream(controller, false);
+
+    assertEquals('f', stream.read());
+    controller.setValidBatch(false);
+    // The rest of the line which has already been read is still returned.
+    assertEquals("irst" + CRLF, IOUtils.toString(stream, "UTF-8"));
+    assertEquals("second", iterator.nextLine());
+  }
+
+  @Test
+  public void readAfterIteratorHasAdvanced() throws Exception {
+    final ODataBatchLineIterator iterator = iterator(
+        "first payload", BOUNDARY,
+        "Content-Type: application/http", "",
+        "HTTP/1.1 404 Not Found", "",
+        "second payload", BOUNDARY + "--");
+    final ODataBatchErrorResponse first = response(iterator);
+    final InputStream firstPayload = first.getRawResponse();
+
+    // The next item is read before the payload of the first one has been consumed.
+    first.invalidateBatchPayload();
+    final Map<String, Collection<String>> headers = ODataBatchUtilities.nextItemHeaders(iterator, BOUNDARY);
+    assertEquals(Collections.singleton("application/http"), headers.get("Content-Type"));
+    assertEquals(404, ODataBatchUtilities.readResponseLine(iterator).getKey().intValue());
+    ODataBatchUtilities.readHeaders(iterator);
+    final ODataBatchErrorResponse second = response(iterator);
+
+    assertEquals(-1, firstPayload.read());
+    assertEquals("second payload" + CRLF, IOUtils.toString(second.getRawResponse(), "UTF-8"));
+  }
+
+  private ODataBatchErrorResponse response(final ODataBatchLineIterator iterator) {
+    return new ODataBatchErrorResponse(new AbstractMap.SimpleEntry<Integer, String>(400, "Bad Request"),
+        Collections.<String, Collection<String>> emptyMap(), iterator, BOUNDARY);
+  }
+
+  private ODataBatchLineIterator iterator(final String... lines) throws Exception {
+    final StringBuilder content = new StringBuilder();
+    for (final String line : lines) {
+      content.append(line).append(CRLF);
+    }
+    return new ODataBatchLineIteratorImpl(
+        IOUtils.lineIterator(new ByteArrayInputStream(content.toString().getBytes("UTF-8")), "UTF-8"));
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.client.core.http;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.client.HttpClient;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.util.EntityUtils;
+import org.apache.olingo.client.api.ODataClient;
+import org.apache.olingo.client.api.communication.response.ODataRawResponse;
+import org.apache.olingo.client.api.http.HttpClientFactory;
+import org.apache.olingo.client.core.ODataClientFactory;
+import org.apache.olingo.commons.api.http.HttpMethod;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+public class PoolingHttpClientFactoryTest {
+
+  private static final int REQUESTS = 20;
+
+  private HttpServer server;
+
+  private URI uri;
+
+  /** The client ports seen by the server; each one stands for a separate TCP connection. */
+  private final Set<Integer> clientPorts = Collections.synchronizedSet(new HashSet<Integer>());
+
+  @Before
+  public void startServer() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+    server.createContext("/", new HttpHandler() {
+      @Override
+      public void handle(final HttpExchange exchange) throws IOException {
+        clientPorts.add(exchange.getRemoteAddress().getPort());
+        final byte[] body = "{\"value\":[]}".getBytes("UTF-8");
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, body.length);
+        final OutputStream out = exchange.getResponseBody();
+        out.write(body);
+        out.close();
+      }
+    });
+    server.start();
+    uri = URI.create("http://localhost:" + server.getAddress().getPort() + "/People");
+  }
+
+  @After
+  public void stopServer() {
+    server.stop(0);
+  }
+
+  @Test
+  public void connectionsAreReused() throws Exception {
+    final PoolingHttpClientFactory factory = new PoolingHttpClientFactory();
+    try {
+      executeRequests(factory);
+    } finally {
+      factory.shutdown();
+    }
+    assertEquals(1, clientPorts.size());
+  }
+
+  @Test
+  public void closedResponsesReleaseConnections() throws Exception {
+    final PoolingHttpClientFactory factory = new PoolingHttpClientFactory();
+    final ODataClient client = ODataClientFactory.getClient();
+    client.getConfiguration().setHttpClientFactory(factory);
+    try {
+      for (int i = 0; i < REQUESTS; i++) {
+        final ODataRawResponse response = client.getRetrieveRequestFactory().getRawRequest(uri).execute();
+        assertEquals(200, response.getStatusCode());
+        // The payload is not read; closing the response has to consume it.
+        response.close();
+      }
+    } finally {
+      factory.shutdown();
+    }
+    assertEquals(1, clientPorts.size());
+  }
+
+  @Test
+  public void defaultFactoryOpensNewConnections() throws Exception {
+    executeRequests(new DefaultHttpClientFactory());
+    assertEquals(REQUESTS, clientPorts.size());
+  }
+
+  private void executeRequests(final HttpClientFactory factory) throws IOException {
+    for (int i = 0; i < REQUESTS; i++) {
+      final HttpClient client = factory.create(HttpMethod.GET, uri);
+      final HttpResponse response = client.execute(new HttpGet(uri));
+      assertEquals(200, response.getStatusLine().getStatusCode());
+      EntityUtils.consume(response.getEntity());
+      factory.close(client);
+    }
+  }
+}
@@ -18,23 +18,38 @@
  */
 package org.apache.olingo.client.core.v4;
 
+import org.apache.commons.io.IOUtils;
 import org.apache.olingo.client.api.ODataClient;
 import org.apache.olingo.client.core.AbstractTest;
+import org.apache.olingo.client.core.ConfigurationImpl;
+import org.apache.olingo.client.core.ODataClientFactory;
+import org.apache.olingo.client.core.serialization.ClientEntitySetStreamingIterator;
 import org.apache.olingo.commons.api.data.EntityCollection;
 import org.apache.olingo.commons.api.data.ResWrap;
 import org.apache.olingo.client.api.domain.ClientEntity;
 import org.apache.olingo.client.api.domain.ClientEntitySet;
+import org.apache.olingo.client.api.domain.ClientEntitySetIterator;
 import org.apache.olingo.commons.api.format.ODataFormat;
 import org.apache.olingo.commons.api.serialization.ODataDeserializerException;
 import org.junit.Test;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URI;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 public class EntitySetTest extends AbstractTest {
 
@@ -85,6 +100,30 @@ public class EntitySetTest extends AbstractTest {
     assertEquals(entitySet, written);
   }
 
+  private void directBinding(final String name, final ODataFormat format) throws ODataDeserializerException {
+    final ClientEntitySet expected = getClient().getReader().readEntitySet(
+        getClass().getResourceAsStream(name + "." + getSuffix(format)), format);
+
+    final ODataClient client = ODataClientFactory.getClient();
+    ((ConfigurationImpl) client.getConfiguration()).setDirectEntitySetBinding(true);
+    final ClientEntitySet entitySet = client.getReader().readEntitySet(
+        getClass().getResourceAsStream(name + "." + getSuffix(format)), format);
+
+    assertEquals(expected, entitySet);
+  }
+
+  @Test
+  public void atomDirectBinding() throws Exception {
+    directBinding("Customers", ODataFormat.ATOM);
+    directBinding("collectionOfEntityReferences", ODataFormat.ATOM);
+  }
+
+  @Test
+  public void jsonDirectBinding() throws Exception {
+    directBinding("Customers", ODataFormat.JSON);
+    directBinding("collectionOfEntityReferences", ODataFormat.JSON);
+  }
+
   @Test
   public void atomRef() throws Exception {
     ref(ODataFormat.ATOM);
@@ -94,4 +133,116 @@ public class EntitySetTest extends AbstractTest {
   public void jsonRef() throws Exception {
     ref(ODataFormat.JSON);
   }
+
+  private void iterate(final ODataFormat format) throws ODataDeserializerException {
+    final ClientEntitySet expected = getClient().getReader().readEntitySet(
+        getClass().getResourceAsStream("Customers." + getSuffix(format)), format);
+
+    final ClientEntitySetIterator<ClientEntitySet, ClientEntity> iterator =
+        new ClientEntitySetStreamingIterator<ClientEntitySet, ClientEntity>(getClient(),
+            getClass().getResourceAsStream("Customers." + getSuffix(format)), format);
+    for (ClientEntity entity : expected.getEntities()) {
+      assertTrue(iterator.hasNext());
+      assertEquals(entity, iterator.next());
+    }
+    assertFalse(iterator.hasNext());
+    assertNull(iterator.getNext());
+    iterator.close();
+  }
+
+  @Test
+  public void atomIterator() throws Exception {
+    iterate(ODataFormat.ATOM);
+  }
+
+  @Test
+  public void jsonIterator() throws Exception {
+    iterate(ODataFormat.JSON);
+  }
+
+  @Test
+  public void iteratorFollowsNextLinks() throws Exception {
+    final Charset utf8 = Charset.forName("UTF-8");
+    final String lastPage = IOUtils.toString(getClass().getResourceAsStream("Customers.json"), utf8);
+    final String firstPage = lastPage.replace("\"@odata.count\": 2,",
+        "\"@odata.count\": 2, \"@odata.nextLink\": \"Customers?$skiptoken=2\",");
+    final List<URI> fetched = Collections.synchronizedList(new ArrayList<URI>());
+
+    final ClientEntitySetIterator<ClientEntitySet, ClientEntity> iterator =
+        new ClientEntitySetStreamingIterator<ClientEntitySet, ClientEntity>(getClient(),
+            new ByteArrayInputStream(firstPage.getBytes(utf8)), ODataFormat.JSON) {
+          @Override
+          protected ClientEntitySetIterator<ClientEntitySet, ClientEntity> fetchPage(final URI next) {
+            fetched.add(next);
+            return new ClientEntitySetStreamingIterator<ClientEntitySet, ClientEntity>(getClient(),
+                new ByteArrayInputStream(lastPage.getBytes(utf8)), ODataFormat.JSON);
+          }
+        };
+    iterator.setFollowNextLinks(true);
+    iterator.setPrefetchNextPage(true);
+
+    int count = 0;
+    while (iterator.hasNext()) {
+      assertNotNull(iterator.next().getId());
+      count++;
+    }
+    iterator.close();
+
+    assertEquals(4, count);
+    assertEquals(1, fetched.size());
+    assertTrue(fetched.get(0).toASCIIString().endsWith("Customers?$skiptoken=2"));
+    assertNull(iterator.getNext());
+  }
+
+  @Test
+  public void closeWaitsForRunningPrefetch() throws Exception {
+    final Charset utf8 = Charset.forName("UTF-8");
+    final String lastPage = IOUtils.toString(getClass().getResourceAsStream("Customers.json"), utf8);
+    final String firstPage = lastPage.replace("\"@odata.count\": 2,",
+        "\"@odata.count\": 2, \"@odata.nextLink\": \"Customers?$skiptoken=2\",");
+    final CountDownLatch fetchStarted = new CountDownLatch(1);
+    final CountDownLatch fetchReleased = new CountDownLatch(1);
+    final AtomicBoolean prefetchedPageClosed = new AtomicBoolean(false);
+
+    final ClientEntitySetIterator<ClientEntitySet, ClientEntity> iterator =
+        new ClientEntitySetStreamingIterator<ClientEntitySet, ClientEntity>(getClient(),
+            new ByteArrayInputStream(firstPage.getBytes(utf8)), ODataFormat.JSON) {
+          @Override
+          protected ClientEntitySetIterator<ClientEntitySet, ClientEntity> fetchPage(final URI next) {
+            fetchStarted.countDown();
+            try {
+              fetchReleased.await(10, TimeUnit.SECONDS);
+            } catch (final InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+            return new ClientEntitySetStreamingIterator<ClientEntitySet, ClientEntity>(getClient(),
+                new ByteArrayInputStream(lastPage.getBytes(utf8)), ODataFormat.JSON) {
+              @Override
+              protected void closePage() {
+                prefetchedPageClosed.set(true);
+                super.closePage();
+              }
+            };
+          }
+        };
+    iterator.setFollowNextLinks(true);
+    iterator.setPrefetchNextPage(true);
+
+    assertTrue(iterator.hasNext());
+    assertTrue(fetchStarted.await(10, TimeUnit.SECONDS));
+    // The prefetch is running now; it finishes only after close() has been called.
+    new Thread() {
+      @Override
+      public void run() {
+        try {
+          Thread.sleep(100);
+        } catch (final InterruptedException e) {
+          // Release the fetch anyway.
+        }
+        fetchReleased.countDown();
+      }
+    }.start();
+    iterator.close();
+    assertTrue(prefetchedPageClosed.get());
+  }
 }
@@ -0,0 +1,326 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.commons.api.data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeKind;
+
+/**
+ * Entity storing its structural properties in the slots of an {@link EntityLayout}.
+ * <br/>
+ * Values of Boolean, integer, Single, and Double properties set with {@link #setBoolean(String, boolean)},
+ * {@link #setLong(String, long)}, or {@link #setDouble(String, double)} are kept in a primitive array
+ * without boxing, and properties are found by name with a hash lookup instead of a scan.
+ * Serializers can read these values with the slot-based getters.
+ * <br/>
+ * The entity still behaves like any other entity: {@link #getProperty(String)} returns a property object
+ * for the slot (which replaces the primitive value from then on, so that changes to it are not lost),
+ * and {@link #getProperties()} converts all slots into a list of properties once.
+ */
+public class CompactEntity extends Entity {
+
+  private static final byte UNSET = 0;
+  private static final byte NULL = 1;
+  private static final byte PRIMITIVE = 2;
+  private static final byte PROPERTY = 3;
+
+  private final EntityLayout layout;
+
+  private final byte[] states;
+
+  /** Integer values, Boolean values as 0 or 1, and the bits of floating-point values. */
+  private final long[] primitives;
+
+  private final Property[] properties;
+
+  private boolean materialized = false;
+
+  public CompactEntity(final EntityLayout layout) {
+    this.layout = layout;
+    states = new byte[layout.size()];
+    primitives = new long[layout.size()];
+    properties = new Property[layout.size()];
+  }
+
+  /**
+   * Gets the layout of this entity.
+   *
+   * @return layout.
+   */
+  public EntityLayout getLayout() {
+    return layout;
+  }
+
+  /**
+   * Checks whether the slots are still in use, i.e., {@link #getProperties()} has not been called yet.
+   *
+   * @return 'TRUE' if the slot-based getters reflect the content of this entity; 'FALSE' otherwise.
+   */
+  public boolean isCompact() {
+    return !materialized;
+  }
+
+  /**
+   * Sets the value of a Byte, SByte, Int16, Int32, or Int64 property.
+   *
+   * @param name property name
+   * @param value value; it must be in the range of the property type
+   * @return this entity for fluid/flow setting
+   */
+  public CompactEntity setLong(final String name, final long value) {
+    final int slot = getCompactSlot(name);
+    final EdmPrimitiveTypeKind kind = layout.getPrimitiveKind(slot);
+    final long min;
+    final long max;
+    switch (kind) {
+    case Byte:
+      min = 0;
+      max = 255;
+      break;
+    case SByte:
+      min = Byte.MIN_VALUE;
+      max = Byte.MAX_VALUE;
+      break;
+    case Int16:
+      min = Short.MIN_VALUE;
+      max = Short.MAX_VALUE;
+      break;
+    case Int32:
+      min = Integer.MIN_VALUE;
+      max = Integer.MAX_VALUE;
+      break;
+    case Int64:
+      min = Long.MIN_VALUE;
+      max = Long.MAX_VALUE;
+      break;
+    default:
+      throw new IllegalArgumentException("Property '" + name + "' is not of an integer type.");
+    }
+    if (value < min || value > max) {
+      throw new IllegalArgumentException("The value " + value + " is out of range for property '" + name + "'.");
+    }
+    setPrimitive(slot, value);
+    return this;
+  }
+
+  /**
+   * Sets the value of a Single or Double property.
+   *
+   * @param name property name
+   * @param value value
+   * @return this entity for fluid/flow setting
+   */
+  public CompactEntity setDouble(final String name, final double value) {
+    final int slot = getCompactSlot(name);
+    final EdmPrimitiveTypeKind kind = layout.getPrimitiveKind(slot);
+    if (kind == EdmPrimitiveTypeKind.Single) {
+      setPrimitive(slot, Double.doubleToRawLongBits((float) value));
+    } else if (kind == EdmPrimitiveTypeKind.Double) {
+      setPrimitive(slot, Double.doubleToRawLongBits(value));
+    } else {
+      throw new IllegalArgumentException("Property '" + name + "' is not of a floating-point type.");
+    }
+    return this;
+  }
+
+  /**
+   * Sets the value of a Boolean property.
+   *
+   * @param name property name
+   * @param value value
+   * @return this entity for fluid/flow setting
+   */
+  public CompactEntity setBoolean(final String name, final boolean value) {
+    final int slot = getCompactSlot(name);
+    if (layout.getPrimitiveKind(slot) != EdmPrimitiveTypeKind.Boolean) {
+      throw new IllegalArgumentException("Property '" + name + "' is not of type Boolean.");
+    }
+    setPrimitive(slot, value ? 1 : 0);
+    return this;
+  }
+
+  /**
+   * Sets the value of a structural property to <code>null</code>.
+   *
+   * @param name property name
+   * @return this entity for fluid/flow setting
+   */
+  public CompactEntity setNull(final String name) {
+    final int slot = layout.getSlot(name);
+    if (slot < 0) {
+      throw new IllegalArgumentException("Unknown property '" + name + "'.");
+    }
+    if (states[slot] == PROPERTY) {
+      properties[slot].setValue(ValueType.PRIMITIVE, null);
+    } else {
+      states[slot] = NULL;
+      if (materialized) {
+        super.addProperty(toProperty(slot));
+      }
+    }
+    return this;
+  }
+
+  private int getCompactSlot(final String name) {
+    final int slot = layout.getSlot(name);
+    if (slot < 0 || layout.getPrimitiveKind(slot) == null) {
+      throw new IllegalArgumentException("Property '" + name + "' cannot be stored as primitive value.");
+    }
+    return slot;
+  }
+
+  private void setPrimitive(final int slot, final long value) {
+    primitives[slot] = value;
+    if (states[slot] == PROPERTY) {
+      properties[slot].setValue(ValueType.PRIMITIVE, box(slot));
+    } else {
+      states[slot] = PRIMITIVE;
+      if (materialized) {
+        super.addProperty(toProperty(slot));
+      }
+    }
+  }
+
+  private Object box(final int slot) {
+    final long value = primitives[slot];
+    switch (layout.getPrimitiveKind(slot)) {
+    case Boolean:
+      return value != 0;
+    case Byte:
+    case Int16:
+      return (short) value;
+    case SByte:
+      return (byte) value;
+    case Int32:
+      return (int) value;
+    case Int64:
+      return value;
+    case Single:
+      return (float) Double.longBitsToDouble(value);
+    default:
+      return Double.longBitsToDouble(value);
+    }
+  }
+
+  /**
+   * Checks whether the given slot holds an unboxed primitive value.
+   *
+   * @param slot slot
+   * @return 'TRUE' if the value can be read with {@link #getLong(int)}, {@link #getDouble(int)},
+   * or {@link #getBoolean(int)}; 'FALSE' otherwise.
+   */
+  public boolean hasPrimitive(final int slot) {
+    return !materialized && states[slot] == PRIMITIVE;
+  }
+
+  /**
+   * Gets the value of an integer property.
+   *
+   * @param slot slot
+   * @return value
+   */
+  public long getLong(final int slot) {
+    return primitives[slot];
+  }
+
+  /**
+   * Gets the value of a Single or Double property.
+   *
+   * @param slot slot
+   * @return value
+   */
+  public double getDouble(final int slot) {
+    return Double.longBitsToDouble(primitives[slot]);
+  }
+
+  /**
+   * Gets the value of a Boolean property.
+   *
+   * @param slot slot
+   * @return value
+   */
+  public boolean getBoolean(final int slot) {
+    return primitives[slot] != 0;
+  }
+
+  /**
+   * Gets the property object stored in the given slot.
+   *
+   * @param slot slot
+   * @return property, or <code>null</code> if the slot is empty, holds <code>null</code>,
+   * or holds a primitive value
+   */
+  public Property getSlotProperty(final int slot) {
+    return states[slot] == PROPERTY ? properties[slot] : null;
+  }
+
+  @Override
+  public Entity addProperty(final Property property) {
+    final int slot = materialized ? -1 : layout.getSlot(property.getName());
+    if (slot < 0) {
+      super.addProperty(property);
+    } else {
+      properties[slot] = property;
+      states[slot] = PROPERTY;
+    }
+    return this;
+  }
+
+  @Override
+  public Property getProperty(final String name) {
+    final int slot = materialized ? -1 : layout.getSlot(name);
+    return slot < 0 ? super.getProperty(name) : toProperty(slot);
+  }
+
+  private Property toProperty(final int slot) {
+    switch (states[slot]) {
+    case UNSET:
+      return null;
+    case NULL:
+      properties[slot] = new Property(layout.getTypeName(slot), layout.getName(slot), ValueType.PRIMITIVE, null);
+      break;
+    case PRIMITIVE:
+      properties[slot] = new Property(layout.getTypeName(slot), layout.getName(slot), ValueType.PRIMITIVE,
+          box(slot));
+      break;
+    default:
+      break;
+    }
+    states[slot] = PROPERTY;
+    return properties[slot];
+  }
+
+  @Override
+  public List<Property> getProperties() {
+    if (!materialized) {
+      final List<Property> slotProperties = new ArrayList<Property>(layout.size());
+      for (int slot = 0; slot < layout.size(); slot++) {
+        final Property property = toProperty(slot);
+        if (property != null) {
+          slotProperties.add(property);
+        }
+      }
+      super.getProperties().addAll(0, slotProperties);
+      materialized = true;
+    }
+    return super.getProperties();
+  }
+}
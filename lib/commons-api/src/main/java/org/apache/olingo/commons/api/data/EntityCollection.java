@@ -20,9 +20,10 @@ package org.apache.olingo.commons.api.data;
 
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
-public class EntityCollection extends AbstractODataObject {
+public class EntityCollection extends AbstractODataObject implements Iterable<Entity> {
 
   private Integer count;
 
@@ -59,6 +60,16 @@ public class EntityCollection extends AbstractODataObject {
     return entities;
   }
 
+  /**
+   * Gets an iterator over the entities.
+   *
+   * @return iterator over the entities.
+   */
+  @Override
+  public Iterator<Entity> iterator() {
+    return getEntities().iterator();
+  }
+
   /**
    * Sets next link.
    *
@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.commons.api.data;
+
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.olingo.commons.api.ODataRuntimeException;
+
+/**
+ * Entity collection whose entities are pulled one after the other instead of being held in a list,
+ * e.g., from a database cursor.
+ * <br/>Count and next link may be set while iterating; serializers read them again
+ * after the last entity has been consumed.
+ */
+public abstract class EntityIterator extends EntityCollection implements Iterator<Entity> {
+
+  /**
+   * {@inheritDoc}
+   * <br/>
+   * <b>Not supported:</b> the entities of an iterator are never materialized.
+   */
+  @Override
+  public List<Entity> getEntities() {
+    throw new ODataRuntimeException("Entities of an entity iterator are not available as list.");
+  }
+
+  /**
+   * Returns this iterator; an entity iterator can only be iterated once.
+   */
+  @Override
+  public Iterator<Entity> iterator() {
+    return this;
+  }
+
+  /**
+   * {@inheritDoc}
+   * <br/>
+   * <b>Not supported:</b> entities can not be removed from an iterator.
+   */
+  @Override
+  public void remove() {
+    throw new UnsupportedOperationException("Entities can not be removed from an entity iterator.");
+  }
+}
@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.commons.api.data;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeKind;
+import org.apache.olingo.commons.api.edm.EdmProperty;
+import org.apache.olingo.commons.api.edm.EdmStructuredType;
+
+/**
+ * Assignment of the structural properties of a type to the slots of a {@link CompactEntity}.
+ * <br/>
+ * A layout is immutable; create it once per type and share it among all entities of this type.
+ */
+public final class EntityLayout {
+
+  private final EdmStructuredType type;
+
+  private final String[] names;
+
+  private final String[] typeNames;
+
+  private final EdmPrimitiveTypeKind[] kinds;
+
+  private final Map<String, Integer> slots;
+
+  public EntityLayout(final EdmStructuredType type) {
+    this.type = type;
+
+    final List<String> propertyNames = type.getPropertyNames();
+    names = new String[propertyNames.size()];
+    typeNames = new String[names.length];
+    kinds = new EdmPrimitiveTypeKind[names.length];
+    slots = new HashMap<String, Integer>(names.length * 2);
+
+    for (int slot = 0; slot < names.length; slot++) {
+      final EdmProperty property = type.getStructuralProperty(propertyNames.get(slot));
+      final String typeName = property.getType().getFullQualifiedName().getFullQualifiedNameAsString();
+      names[slot] = property.getName();
+      typeNames[slot] = property.isCollection() ? "Collection(" + typeName + ")" : typeName;
+      kinds[slot] = property.isPrimitive() && !property.isCollection() ? getCompactKind(typeName) : null;
+      slots.put(names[slot], slot);
+    }
+  }
+
+  private static EdmPrimitiveTypeKind getCompactKind(final String typeName) {
+    final EdmPrimitiveTypeKind kind = EdmPrimitiveTypeKind.valueOfFQN(typeName);
+    switch (kind) {
+    case Boolean:
+    case Byte:
+    case SByte:
+    case Int16:
+    case Int32:
+    case Int64:
+    case Single:
+    case Double:
+      return kind;
+    default:
+      return null;
+    }
+  }
+
+  /**
+   * Gets the type this layout has been created for.
+   *
+   * @return structured type.
+   */
+  public EdmStructuredType getType() {
+    return type;
+  }
+
+  /**
+   * Gets the number of slots.
+   *
+   * @return number of slots.
+   */
+  public int size() {
+    return names.length;
+  }
+
+  /**
+   * Gets the slot of the property with the given name.
+   *
+   * @param name property name
+   * @return slot, or -1 if the type has no structural property with this name
+   */
+  public int getSlot(final String name) {
+    final Integer slot = slots.get(name);
+    return slot == null ? -1 : slot;
+  }
+
+  /**
+   * Gets the name of the property in the given slot.
+   *
+   * @param slot slot
+   * @return property name
+   */
+  public String getName(final int slot) {
+    return names[slot];
+  }
+
+  /**
+   * Gets the type name of the property in the given slot, e.g., <tt>Edm.Int32</tt>.
+   *
+   * @param slot slot
+   * @return type name
+   */
+  public String getTypeName(final int slot) {
+    return typeNames[slot];
+  }
+
+  /**
+   * Gets the primitive kind of the property in the given slot if its value can be stored without boxing,
+   * i.e., for single-valued properties of type Boolean, Byte, SByte, Int16, Int32, Int64, Single, or Double.
+   *
+   * @param slot slot
+   * @return primitive kind, or <code>null</code> if values of this property are stored as objects
+   */
+  public EdmPrimitiveTypeKind getPrimitiveKind(final int slot) {
+    return kinds[slot];
+  }
+}
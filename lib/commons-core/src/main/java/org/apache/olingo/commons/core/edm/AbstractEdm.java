@@ -23,17 +23,28 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import org.apache.olingo.commons.api.edm.Edm;
 import org.apache.olingo.commons.api.edm.EdmAction;
+import org.apache.olingo.commons.api.edm.EdmActionImport;
 import org.apache.olingo.commons.api.edm.EdmAnnotation;
 import org.apache.olingo.commons.api.edm.EdmAnnotations;
+import org.apache.olingo.commons.api.edm.EdmBindingTarget;
 import org.apache.olingo.commons.api.edm.EdmComplexType;
 import org.apache.olingo.commons.api.edm.EdmEntityContainer;
+import org.apache.olingo.commons.api.edm.EdmEntitySet;
 import org.apache.olingo.commons.api.edm.EdmEntityType;
 import org.apache.olingo.commons.api.edm.EdmEnumType;
 import org.apache.olingo.commons.api.edm.EdmFunction;
+import org.apache.olingo.commons.api.edm.EdmFunctionImport;
+import org.apache.olingo.commons.api.edm.EdmNavigationPropertyBinding;
+import org.apache.olingo.commons.api.edm.EdmOperation;
 import org.apache.olingo.commons.api.edm.EdmSchema;
+import org.apache.olingo.commons.api.edm.EdmSingleton;
+import org.apache.olingo.commons.api.edm.EdmStructuredType;
 import org.apache.olingo.commons.api.edm.EdmTerm;
 import org.apache.olingo.commons.api.edm.EdmTypeDefinition;
 import org.apache.olingo.commons.api.edm.FullQualifiedName;
@@ -44,47 +55,54 @@ public abstract class AbstractEdm implements Edm {
 
   protected List<EdmSchema> schemaList;
 
-  private final Map<FullQualifiedName, EdmEntityContainer> entityContainers =
-      Collections.synchronizedMap(new HashMap<FullQualifiedName, EdmEntityContainer>());
+  private final ConcurrentMap<FullQualifiedName, EdmEntityContainer> entityContainers =
+      new ConcurrentHashMap<FullQualifiedName, EdmEntityContainer>();
 
-  private final Map<FullQualifiedName, EdmEnumType> enumTypes =
-      Collections.synchronizedMap(new HashMap<FullQualifiedName, EdmEnumType>());
+  private final ConcurrentMap<FullQualifiedName, EdmEnumType> enumTypes =
+      new ConcurrentHashMap<FullQualifiedName, EdmEnumType>();
 
-  private final Map<FullQualifiedName, EdmTypeDefinition> typeDefinitions =
-      Collections.synchronizedMap(new HashMap<FullQualifiedName, EdmTypeDefinition>());
+  private final ConcurrentMap<FullQualifiedName, EdmTypeDefinition> typeDefinitions =
+      new ConcurrentHashMap<FullQualifiedName, EdmTypeDefinition>();
 
-  private final Map<FullQualifiedName, EdmEntityType> entityTypes =
-      Collections.synchronizedMap(new HashMap<FullQualifiedName, EdmEntityType>());
+  private final ConcurrentMap<FullQualifiedName, EdmEntityType> entityTypes =
+      new ConcurrentHashMap<FullQualifiedName, EdmEntityType>();
 
-  private final Map<FullQualifiedName, EdmComplexType> complexTypes =
-      Collections.synchronizedMap(new HashMap<FullQualifiedName, EdmComplexType>());
+  private final ConcurrentMap<FullQualifiedName, EdmComplexType> complexTypes =
+      new ConcurrentHashMap<FullQualifiedName, EdmComplexType>();
 
-  private final Map<FullQualifiedName, EdmAction> unboundActions =
-      Collections.synchronizedMap(new HashMap<FullQualifiedName, EdmAction>());
+  private final ConcurrentMap<FullQualifiedName, EdmAction> unboundActions =
+      new ConcurrentHashMap<FullQualifiedName, EdmAction>();
 
-  private final Map<FullQualifiedName, List<EdmFunction>> unboundFunctionsByName =
-      Collections.synchronizedMap(new HashMap<FullQualifiedName, List<EdmFunction>>());
+  private final ConcurrentMap<FullQualifiedName, List<EdmFunction>> unboundFunctionsByName =
+      new ConcurrentHashMap<FullQualifiedName, List<EdmFunction>>();
 
-  private final Map<FunctionMapKey, EdmFunction> unboundFunctionsByKey =
-      Collections.synchronizedMap(new HashMap<FunctionMapKey, EdmFunction>());
+  private final ConcurrentMap<FunctionMapKey, EdmFunction> unboundFunctionsByKey =
+      new ConcurrentHashMap<FunctionMapKey, EdmFunction>();
 
-  private final Map<ActionMapKey, EdmAction> boundActions =
-      Collections.synchronizedMap(new HashMap<ActionMapKey, EdmAction>());
+  private final ConcurrentMap<ActionMapKey, EdmAction> boundActions =
+      new ConcurrentHashMap<ActionMapKey, EdmAction>();
 
-  private final Map<FunctionMapKey, EdmFunction> boundFunctions =
-      Collections.synchronizedMap(new HashMap<FunctionMapKey, EdmFunction>());
+  private final ConcurrentMap<FunctionMapKey, EdmFunction> boundFunctions =
+      new ConcurrentHashMap<FunctionMapKey, EdmFunction>();
 
-  private final Map<FullQualifiedName, EdmTerm> terms =
-      Collections.synchronizedMap(new HashMap<FullQualifiedName, EdmTerm>());
+  private final ConcurrentMap<FullQualifiedName, EdmTerm> terms =
+      new ConcurrentHashMap<FullQualifiedName, EdmTerm>();
 
-  private final Map<FullQualifiedName, EdmAnnotations> annotationGroups =
-      Collections.synchronizedMap(new HashMap<FullQualifiedName, EdmAnnotations>());
+  private final ConcurrentMap<FullQualifiedName, EdmAnnotations> annotationGroups =
+      new ConcurrentHashMap<FullQualifiedName, EdmAnnotations>();
 
-  private final Map<FullQualifiedName, List<EdmAnnotation>> annotations =
-      Collections.synchronizedMap(new HashMap<FullQualifiedName, List<EdmAnnotation>>());
+  private final ConcurrentMap<FullQualifiedName, List<EdmAnnotation>> annotations =
+      new ConcurrentHashMap<FullQualifiedName, List<EdmAnnotation>>();
 
-  private Map<String, String> aliasToNamespaceInfo = Collections.synchronizedMap(new HashMap<String, String>());
-  private boolean aliasToNamespaceInfoCreated = false;
+  /** The entity container returned for <code>null</code> as name; concurrent maps do not support null keys. */
+  private volatile EdmEntityContainer defaultEntityContainer;
+
+  private volatile Map<String, String> aliasToNamespaceInfo =
+      Collections.synchronizedMap(new HashMap<String, String>());
+  private volatile boolean aliasToNamespaceInfoCreated = false;
+
+  /** Whether all types and containers have been loaded by {@link #compile()}. */
+  private volatile boolean compiled = false;
 
   @Override
   public List<EdmSchema> getSchemas() {
@@ -102,15 +120,98 @@ public abstract class AbstractEdm implements Edm {
 
     EdmSchema schema = schemas.get(namespace);
     if (schema == null) {
-      if (!aliasToNamespaceInfoCreated) {
-        aliasToNamespaceInfo = createAliasToNamespaceInfo();
-      }
+      initAliasToNamespaceInfo();
       schema = schemas.get(aliasToNamespaceInfo.get(namespace));
     }
 
     return schema;
   }
 
+  /**
+   * Loads the complete model at once instead of on first access: all schemas with their types, operations,
+   * and entity containers, including properties, keys, parameters, and navigation-property bindings.
+   * <br/>
+   * Afterwards the entity containers, entity types, complex types, enumeration types, and type definitions
+   * are complete; looking up any other name of these kinds returns <code>null</code> without asking for it.
+   * Therefore the schemas must contain all of them.
+   * Errors in the model are reported here as {@link org.apache.olingo.commons.api.edm.EdmException}
+   * and not in the first request using the erroneous element.
+   */
+  public void compile() {
+    for (final EdmSchema schema : getSchemas()) {
+      for (final EdmEnumType enumType : schema.getEnumTypes()) {
+        for (final String memberName : enumType.getMemberNames()) {
+          enumType.getMember(memberName);
+        }
+      }
+      for (final EdmTypeDefinition typeDefinition : schema.getTypeDefinitions()) {
+        typeDefinition.getUnderlyingType();
+      }
+      for (final EdmComplexType complexType : schema.getComplexTypes()) {
+        compileStructuredType(complexType);
+      }
+      for (final EdmEntityType entityType : schema.getEntityTypes()) {
+        compileStructuredType(entityType);
+        entityType.getKeyPropertyRefs();
+        entityType.getKeyPredicateNames();
+      }
+      for (final EdmAction action : schema.getActions()) {
+        compileOperation(action);
+      }
+      for (final EdmFunction function : schema.getFunctions()) {
+        compileOperation(function);
+      }
+      for (final EdmTerm term : schema.getTerms()) {
+        term.getType();
+      }
+      if (schema.getEntityContainer() != null) {
+        compileEntityContainer(schema.getEntityContainer());
+      }
+    }
+    compiled = true;
+  }
+
+  private void compileStructuredType(final EdmStructuredType type) {
+    type.getBaseType();
+    for (final String name : type.getPropertyNames()) {
+      type.getStructuralProperty(name).getType();
+    }
+    for (final String name : type.getNavigationPropertyNames()) {
+      type.getNavigationProperty(name).getType();
+    }
+  }
+
+  private void compileOperation(final EdmOperation operation) {
+    for (final String name : operation.getParameterNames()) {
+      operation.getParameter(name).getType();
+    }
+    if (operation.getReturnType() != null) {
+      operation.getReturnType().getType();
+    }
+  }
+
+  private void compileEntityContainer(final EdmEntityContainer container) {
+    for (final EdmEntitySet entitySet : container.getEntitySets()) {
+      compileBindingTarget(entitySet);
+    }
+    for (final EdmSingleton singleton : container.getSingletons()) {
+      compileBindingTarget(singleton);
+    }
+    for (final EdmActionImport actionImport : container.getActionImports()) {
+      actionImport.getUnboundAction();
+    }
+    for (final EdmFunctionImport functionImport : container.getFunctionImports()) {
+      functionImport.getUnboundFunctions();
+    }
+  }
+
+  private void compileBindingTarget(final EdmBindingTarget bindingTarget) {
+    bindingTarget.getEntityType();
+    for (final EdmNavigationPropertyBinding binding : bindingTarget.getNavigationPropertyBindings()) {
+      bindingTarget.getRelatedBindingTarget(binding.getPath());
+    }
+  }
+
   private void initSchemas() {
     schemas = createSchemas();
     aliasToNamespaceInfoCreated = true;
@@ -129,13 +230,16 @@ public abstract class AbstractEdm implements Edm {
   @Override
   public EdmEntityContainer getEntityContainer(final FullQualifiedName namespaceOrAliasFQN) {
     final FullQualifiedName fqn = resolvePossibleAlias(namespaceOrAliasFQN);
-    EdmEntityContainer container = entityContainers.get(fqn);
-    if (container == null) {
+    EdmEntityContainer container = fqn == null ? defaultEntityContainer : entityContainers.get(fqn);
+    if (container == null && !compiled) {
       container = createEntityContainer(fqn);
       if (container != null) {
-        entityContainers.put(fqn, container);
         if (fqn == null) {
-          entityContainers.put(new FullQualifiedName(container.getNamespace(), container.getName()), container);
+          container = cache(entityContainers,
+              new FullQualifiedName(container.getNamespace(), container.getName()), container);
+          defaultEntityContainer = container;
+        } else {
+          container = cache(entityContainers, fqn, container);
         }
       }
     }
@@ -145,12 +249,9 @@ public abstract class AbstractEdm implements Edm {
   @Override
   public EdmEnumType getEnumType(final FullQualifiedName namespaceOrAliasFQN) {
     final FullQualifiedName fqn = resolvePossibleAlias(namespaceOrAliasFQN);
-    EdmEnumType enumType = enumTypes.get(fqn);
-    if (enumType == null) {
-      enumType = createEnumType(fqn);
-      if (enumType != null) {
-        enumTypes.put(fqn, enumType);
-      }
+    EdmEnumType enumType = getCached(enumTypes, fqn);
+    if (enumType == null && !compiled) {
+      enumType = cache(enumTypes, fqn, createEnumType(fqn));
     }
     return enumType;
   }
@@ -158,12 +259,9 @@ public abstract class AbstractEdm implements Edm {
   @Override
   public EdmTypeDefinition getTypeDefinition(final FullQualifiedName namespaceOrAliasFQN) {
     final FullQualifiedName fqn = resolvePossibleAlias(namespaceOrAliasFQN);
-    EdmTypeDefinition typeDefinition = typeDefinitions.get(fqn);
-    if (typeDefinition == null) {
-      typeDefinition = createTypeDefinition(fqn);
-      if (typeDefinition != null) {
-        typeDefinitions.put(fqn, typeDefinition);
-      }
+    EdmTypeDefinition typeDefinition = getCached(typeDefinitions, fqn);
+    if (typeDefinition == null && !compiled) {
+      typeDefinition = cache(typeDefinitions, fqn, createTypeDefinition(fqn));
     }
     return typeDefinition;
   }
@@ -171,12 +269,9 @@ public abstract class AbstractEdm implements Edm {
   @Override
   public EdmEntityType getEntityType(final FullQualifiedName namespaceOrAliasFQN) {
     final FullQualifiedName fqn = resolvePossibleAlias(namespaceOrAliasFQN);
-    EdmEntityType entityType = entityTypes.get(fqn);
-    if (entityType == null) {
-      entityType = createEntityType(fqn);
-      if (entityType != null) {
-        entityTypes.put(fqn, entityType);
-      }
+    EdmEntityType entityType = getCached(entityTypes, fqn);
+    if (entityType == null && !compiled) {
+      entityType = cache(entityTypes, fqn, createEntityType(fqn));
     }
     return entityType;
   }
@@ -184,24 +279,18 @@ public abstract class AbstractEdm implements Edm {
   @Override
   public EdmComplexType getComplexType(final FullQualifiedName namespaceOrAliasFQN) {
     final FullQualifiedName fqn = resolvePossibleAlias(namespaceOrAliasFQN);
-    EdmComplexType complexType = complexTypes.get(fqn);
-    if (complexType == null) {
-      complexType = createComplexType(fqn);
-      if (complexType != null) {
-        complexTypes.put(fqn, complexType);
-      }
+    EdmComplexType complexType = getCached(complexTypes, fqn);
+    if (complexType == null && !compiled) {
+      complexType = cache(complexTypes, fqn, createComplexType(fqn));
     }
     return complexType;
   }
 
   @Override
   public EdmAction getUnboundAction(final FullQualifiedName actionName) {
-    EdmAction action = unboundActions.get(actionName);
+    EdmAction action = getCached(unboundActions, actionName);
     if (action == null) {
-      action = createUnboundAction(resolvePossibleAlias(actionName));
-      if (action != null) {
-        unboundActions.put(actionName, action);
-      }
+      action = cache(unboundActions, actionName, createUnboundAction(resolvePossibleAlias(actionName)));
     }
 
     return action;
@@ -214,12 +303,10 @@ public abstract class AbstractEdm implements Edm {
     final FullQualifiedName actionFqn = resolvePossibleAlias(actionName);
     final FullQualifiedName bindingParameterTypeFqn = resolvePossibleAlias(bindingParameterTypeName);
     final ActionMapKey key = new ActionMapKey(actionFqn, bindingParameterTypeFqn, isBindingParameterCollection);
-    EdmAction action = boundActions.get(key);
+    EdmAction action = getCached(boundActions, key);
     if (action == null) {
-      action = createBoundAction(actionFqn, bindingParameterTypeFqn, isBindingParameterCollection);
-      if (action != null) {
-        boundActions.put(key, action);
-      }
+      action = cache(boundActions, key,
+          createBoundAction(actionFqn, bindingParameterTypeFqn, isBindingParameterCollection));
     }
 
     return action;
@@ -229,11 +316,16 @@ public abstract class AbstractEdm implements Edm {
   public List<EdmFunction> getUnboundFunctions(final FullQualifiedName functionName) {
     final FullQualifiedName functionFqn = resolvePossibleAlias(functionName);
 
-    List<EdmFunction> functions = unboundFunctionsByName.get(functionFqn);
+    List<EdmFunction> functions = getCached(unboundFunctionsByName, functionFqn);
     if (functions == null) {
       functions = createUnboundFunctions(functionFqn);
-      if (functions != null) {
-        unboundFunctionsByName.put(functionFqn, functions);
+      if (functions != null && functionFqn != null) {
+        // The cached list is extended by cacheFunction, so it must not be the list of the provider.
+        functions = new CopyOnWriteArrayList<EdmFunction>(functions);
+        final List<EdmFunction> cachedFunctions = unboundFunctionsByName.putIfAbsent(functionFqn, functions);
+        if (cachedFunctions != null) {
+          return cachedFunctions;
+        }
 
         for (EdmFunction unbound : functions) {
           final FunctionMapKey key = new FunctionMapKey(
@@ -254,12 +346,9 @@ public abstract class AbstractEdm implements Edm {
     final FullQualifiedName functionFqn = resolvePossibleAlias(functionName);
 
     final FunctionMapKey key = new FunctionMapKey(functionFqn, null, null, parameterNames);
-    EdmFunction function = unboundFunctionsByKey.get(key);
+    EdmFunction function = getCached(unboundFunctionsByKey, key);
     if (function == null) {
-      function = createUnboundFunction(functionFqn, parameterNames);
-      if (function != null) {
-        unboundFunctionsByKey.put(key, function);
-      }
+      function = cache(unboundFunctionsByKey, key, createUnboundFunction(functionFqn, parameterNames));
     }
 
     return function;
@@ -274,13 +363,10 @@ public abstract class AbstractEdm implements Edm {
     final FullQualifiedName bindingParameterTypeFqn = resolvePossibleAlias(bindingParameterTypeName);
     final FunctionMapKey key =
         new FunctionMapKey(functionFqn, bindingParameterTypeFqn, isBindingParameterCollection, parameterNames);
-    EdmFunction function = boundFunctions.get(key);
+    EdmFunction function = getCached(boundFunctions, key);
     if (function == null) {
-      function = createBoundFunction(functionFqn, bindingParameterTypeFqn, isBindingParameterCollection,
-          parameterNames);
-      if (function != null) {
-        boundFunctions.put(key, function);
-      }
+      function = cache(boundFunctions, key,
+          createBoundFunction(functionFqn, bindingParameterTypeFqn, isBindingParameterCollection, parameterNames));
     }
 
     return function;
@@ -289,24 +375,18 @@ public abstract class AbstractEdm implements Edm {
   @Override
   public EdmTerm getTerm(final FullQualifiedName termName) {
     final FullQualifiedName fqn = resolvePossibleAlias(termName);
-    EdmTerm term = terms.get(fqn);
+    EdmTerm term = getCached(terms, fqn);
     if (term == null) {
-      term = createTerm(fqn);
-      if (term != null) {
-        terms.put(fqn, term);
-      }
+      term = cache(terms, fqn, createTerm(fqn));
     }
     return term;
   }
 
   @Override
   public EdmAnnotations getAnnotationGroup(final FullQualifiedName targetName) {
-    EdmAnnotations _annotations = annotationGroups.get(targetName);
+    EdmAnnotations _annotations = getCached(annotationGroups, targetName);
     if (_annotations == null) {
-      _annotations = createAnnotationGroup(targetName);
-      if (_annotations != null) {
-        annotationGroups.put(targetName, _annotations);
-      }
+      _annotations = cache(annotationGroups, targetName, createAnnotationGroup(targetName));
     }
     return _annotations;
   }
@@ -314,12 +394,9 @@ public abstract class AbstractEdm implements Edm {
   @Override
   public List<EdmAnnotation> getAnnotations(final FullQualifiedName annotatableName) {
     final FullQualifiedName fqn = resolvePossibleAlias(annotatableName);
-    List<EdmAnnotation> _annotations = annotations.get(fqn);
+    List<EdmAnnotation> _annotations = getCached(annotations, fqn);
     if (_annotations == null) {
-      _annotations = createAnnotations(fqn);
-      if (_annotations != null) {
-        annotations.put(fqn, _annotations);
-      }
+      _annotations = cache(annotations, fqn, createAnnotations(fqn));
     }
     return _annotations;
   }
@@ -338,10 +415,15 @@ public abstract class AbstractEdm implements Edm {
     return result;
   }
 
-  private FullQualifiedName resolvePossibleAlias(final FullQualifiedName namespaceOrAliasFQN) {
+  private void initAliasToNamespaceInfo() {
     if (!aliasToNamespaceInfoCreated) {
       aliasToNamespaceInfo = createAliasToNamespaceInfo();
+      aliasToNamespaceInfoCreated = true;
     }
+  }
+
+  private FullQualifiedName resolvePossibleAlias(final FullQualifiedName namespaceOrAliasFQN) {
+    initAliasToNamespaceInfo();
     FullQualifiedName finalFQN = null;
     if (namespaceOrAliasFQN != null) {
       final String namespace = aliasToNamespaceInfo.get(namespaceOrAliasFQN.getNamespace());
@@ -366,7 +448,11 @@ public abstract class AbstractEdm implements Edm {
   protected abstract EdmEntityContainer createEntityContainer(FullQualifiedName containerName);
 
   public void cacheEntityContainer(final FullQualifiedName containerFQN, final EdmEntityContainer container) {
-    entityContainers.put(containerFQN, container);
+    if (containerFQN == null) {
+      defaultEntityContainer = container;
+    } else {
+      entityContainers.put(containerFQN, container);
+    }
   }
 
   protected abstract EdmEnumType createEnumType(FullQualifiedName enumName);
@@ -415,10 +501,15 @@ public abstract class AbstractEdm implements Edm {
     if (function.isBound()) {
       boundFunctions.put(key, function);
     } else {
-      if (!unboundFunctionsByName.containsKey(functionName)) {
-        unboundFunctionsByName.put(functionName, new ArrayList<EdmFunction>());
+      List<EdmFunction> functions = unboundFunctionsByName.get(functionName);
+      if (functions == null) {
+        functions = new CopyOnWriteArrayList<EdmFunction>();
+        final List<EdmFunction> cachedFunctions = unboundFunctionsByName.putIfAbsent(functionName, functions);
+        if (cachedFunctions != null) {
+          functions = cachedFunctions;
+        }
       }
-      unboundFunctionsByName.get(functionName).add(function);
+      functions.add(function);
 
       unboundFunctionsByKey.put(key, function);
     }
@@ -449,6 +540,23 @@ public abstract class AbstractEdm implements Edm {
 
   protected abstract List<EdmAnnotation> createAnnotations(FullQualifiedName annotatedName);
 
+  /** Returns the value cached for the given key or <code>null</code>; <code>null</code> keys are never cached. */
+  private static <K, V> V getCached(final ConcurrentMap<K, V> cache, final K key) {
+    return key == null ? null : cache.get(key);
+  }
+
+  /**
+   * Caches the given value if no other thread has cached a value for the same key in the meantime.
+   * @return the value in the cache, so that all callers see the same instance
+   */
+  private static <K, V> V cache(final ConcurrentMap<K, V> cache, final K key, final V value) {
+    if (key == null || value == null) {
+      return value;
+    }
+    final V cachedValue = cache.putIfAbsent(key, value);
+    return cachedValue == null ? value : cachedValue;
+  }
+
   // public void cacheAnnotation(FullQualifiedName annotationsGroupName, EdmAnnotations annotationsGroup) {
   // annotationGroups.put(annotationsGroupName, annotationsGroup);
   // }
@@ -744,38 +744,9 @@ public class AtomDeserializer extends AbstractAtomDealer implements ODataDeseria
     while (reader.hasNext() && !foundEndFeed) {
       final XMLEvent event = reader.nextEvent();
       if (event.isStartElement()) {
-        if (countQName.equals(event.asStartElement().getName())) {
-          count(reader, event.asStartElement(), entitySet);
-        } else if (Constants.QNAME_ATOM_ELEM_ID.equals(event.asStartElement().getName())) {
-          common(reader, event.asStartElement(), entitySet, "id");
-        } else if (Constants.QNAME_ATOM_ELEM_TITLE.equals(event.asStartElement().getName())) {
-          common(reader, event.asStartElement(), entitySet, "title");
-        } else if (Constants.QNAME_ATOM_ELEM_SUMMARY.equals(event.asStartElement().getName())) {
-          common(reader, event.asStartElement(), entitySet, "summary");
-        } else if (Constants.QNAME_ATOM_ELEM_UPDATED.equals(event.asStartElement().getName())) {
-          common(reader, event.asStartElement(), entitySet, "updated");
-        } else if (Constants.QNAME_ATOM_ELEM_LINK.equals(event.asStartElement().getName())) {
-          final Attribute rel = event.asStartElement().getAttributeByName(QName.valueOf(Constants.ATTR_REL));
-          if (rel != null) {
-            if (Constants.NEXT_LINK_REL.equals(rel.getValue())) {
-              final Attribute href = event.asStartElement().getAttributeByName(QName.valueOf(Constants.ATTR_HREF));
-              if (href != null) {
-                entitySet.setNext(URI.create(href.getValue()));
-              }
-            }
-            if (Constants.NS_DELTA_LINK_REL.equals(rel.getValue())) {
-              final Attribute href = event.asStartElement().getAttributeByName(QName.valueOf(Constants.ATTR_HREF));
-              if (href != null) {
-                entitySet.setDeltaLink(URI.create(href.getValue()));
-              }
-            }
-          }
-        } else if (Constants.QNAME_ATOM_ELEM_ENTRY.equals(event.asStartElement().getName())) {
-          entitySet.getEntities().add(entity(reader, event.asStartElement()));
-        } else if (entryRefQName.equals(event.asStartElement().getName())) {
-          entitySet.getEntities().add(entityRef(event.asStartElement()));
-        } else if (annotationQName.equals(event.asStartElement().getName())) {
-          entitySet.getAnnotations().add(annotation(reader, event.asStartElement()));
+        final Entity entity = feedElement(reader, event.asStartElement(), entitySet);
+        if (entity != null) {
+          entitySet.getEntities().add(entity);
         }
       }
 
@@ -787,6 +758,48 @@ public class AtomDeserializer extends AbstractAtomDealer implements ODataDeseria
     return entitySet;
   }
 
+  /**
+   * Reads a child element of a feed into the given entity set.
+   * @return the entity if the element is an entry or an entry reference; <code>null</code> otherwise
+   */
+  private Entity feedElement(final XMLEventReader reader, final StartElement element,
+      final EntityCollection entitySet) throws XMLStreamException, EdmPrimitiveTypeException {
+    if (countQName.equals(element.getName())) {
+      count(reader, element, entitySet);
+    } else if (Constants.QNAME_ATOM_ELEM_ID.equals(element.getName())) {
+      common(reader, element, entitySet, "id");
+    } else if (Constants.QNAME_ATOM_ELEM_TITLE.equals(element.getName())) {
+      common(reader, element, entitySet, "title");
+    } else if (Constants.QNAME_ATOM_ELEM_SUMMARY.equals(element.getName())) {
+      common(reader, element, entitySet, "summary");
+    } else if (Constants.QNAME_ATOM_ELEM_UPDATED.equals(element.getName())) {
+      common(reader, element, entitySet, "updated");
+    } else if (Constants.QNAME_ATOM_ELEM_LINK.equals(element.getName())) {
+      final Attribute rel = element.getAttributeByName(QName.valueOf(Constants.ATTR_REL));
+      if (rel != null) {
+        if (Constants.NEXT_LINK_REL.equals(rel.getValue())) {
+          final Attribute href = element.getAttributeByName(QName.valueOf(Constants.ATTR_HREF));
+          if (href != null) {
+            entitySet.setNext(URI.create(href.getValue()));
+          }
+        }
+        if (Constants.NS_DELTA_LINK_REL.equals(rel.getValue())) {
+          final Attribute href = element.getAttributeByName(QName.valueOf(Constants.ATTR_HREF));
+          if (href != null) {
+            entitySet.setDeltaLink(URI.create(href.getValue()));
+          }
+        }
+      }
+    } else if (Constants.QNAME_ATOM_ELEM_ENTRY.equals(element.getName())) {
+      return entity(reader, element);
+    } else if (entryRefQName.equals(element.getName())) {
+      return entityRef(element);
+    } else if (annotationQName.equals(element.getName())) {
+      entitySet.getAnnotations().add(annotation(reader, element));
+    }
+    return null;
+  }
+
   @Override
   public ResWrap<EntityCollection> toEntitySet(final InputStream input) throws ODataDeserializerException {
     try {
@@ -800,6 +813,90 @@ public class AtomDeserializer extends AbstractAtomDealer implements ODataDeseria
     }
   }
 
+  /**
+   * Gets a deserializer reading the entries of a feed one at a time.
+   * <br/>
+   * The input stream is not closed by the returned deserializer.
+   *
+   * @param input stream to be de-serialized
+   * @return entity set stream deserializer
+   * @throws ODataDeserializerException
+   */
+  public EntitySetStreamDeserializer toEntitySetStream(final InputStream input) throws ODataDeserializerException {
+    try {
+      final XMLEventReader reader = getReader(input);
+      return new AtomEntitySetStreamDeserializer(reader, skipBeforeFirstStartElement(reader));
+    } catch (final XMLStreamException e) {
+      throw new ODataDeserializerException(e);
+    }
+  }
+
+  private class AtomEntitySetStreamDeserializer implements EntitySetStreamDeserializer {
+
+    private final XMLEventReader reader;
+
+    private final StartElement start;
+
+    private final EntityCollection entitySet;
+
+    private boolean finished;
+
+    private AtomEntitySetStreamDeserializer(final XMLEventReader reader, final StartElement start) {
+      this.reader = reader;
+      this.start = start;
+      if (Constants.QNAME_ATOM_ELEM_FEED.equals(start.getName())) {
+        entitySet = new EntityCollection();
+        final Attribute xmlBase = start.getAttributeByName(Constants.QNAME_ATTR_XML_BASE);
+        if (xmlBase != null) {
+          entitySet.setBaseURI(xmlBase.getValue());
+        }
+        finished = false;
+      } else {
+        entitySet = null;
+        finished = true;
+      }
+    }
+
+    @Override
+    public ResWrap<Entity> nextEntity() throws ODataDeserializerException {
+      try {
+        while (!finished && reader.hasNext()) {
+          final XMLEvent event = reader.nextEvent();
+          if (event.isStartElement()) {
+            final Entity entity = feedElement(reader, event.asStartElement(), entitySet);
+            if (entity != null) {
+              return getContainer(start, entity);
+            }
+          }
+
+          if (event.isEndElement() && start.getName().equals(event.asEndElement().getName())) {
+            finished = true;
+          }
+        }
+        finished = true;
+        return null;
+      } catch (final XMLStreamException e) {
+        throw new ODataDeserializerException(e);
+      } catch (final EdmPrimitiveTypeException e) {
+        throw new ODataDeserializerException(e);
+      }
+    }
+
+    @Override
+    public ResWrap<EntityCollection> getEntitySet() {
+      return entitySet == null ? null : getContainer(start, entitySet);
+    }
+
+    @Override
+    public void close() {
+      try {
+        reader.close();
+      } catch (final XMLStreamException e) {
+        // nothing to do
+      }
+    }
+  }
+
   private ODataError error(final XMLEventReader reader, final StartElement start) throws XMLStreamException {
     final ODataError error = new ODataError();
 
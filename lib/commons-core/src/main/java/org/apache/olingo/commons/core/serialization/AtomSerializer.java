@@ -393,16 +393,21 @@ public class AtomSerializer extends AbstractAtomDealer implements ODataSerialize
     writer.flush();
   }
 
+  private void count(final XMLStreamWriter writer, final Integer count) throws XMLStreamException {
+    writer.writeStartElement(namespaceMetadata, Constants.ATOM_ELEM_COUNT);
+    writer.writeCharacters(Integer.toString(count));
+    writer.writeEndElement();
+  }
+
   private void entitySet(final XMLStreamWriter writer, final EntityCollection entitySet)
       throws XMLStreamException, EdmPrimitiveTypeException {
     if (entitySet.getBaseURI() != null) {
       writer.writeAttribute(XMLConstants.XML_NS_URI, Constants.ATTR_XML_BASE, entitySet.getBaseURI().toASCIIString());
     }
 
-    if (entitySet.getCount() != null) {
-      writer.writeStartElement(namespaceMetadata, Constants.ATOM_ELEM_COUNT);
-      writer.writeCharacters(Integer.toString(entitySet.getCount()));
-      writer.writeEndElement();
+    final boolean countWritten = entitySet.getCount() != null;
+    if (countWritten) {
+      count(writer, entitySet.getCount());
     }
 
     if (entitySet.getId() != null) {
@@ -413,7 +418,7 @@ public class AtomSerializer extends AbstractAtomDealer implements ODataSerialize
 
     common(writer, entitySet);
 
-    for (Entity entity : entitySet.getEntities()) {
+    for (Entity entity : entitySet) {
       if (entity.getType() == null && entity.getProperties().isEmpty()) {
         entityRef(writer, entity);
         writer.writeEndElement();
@@ -424,6 +429,11 @@ public class AtomSerializer extends AbstractAtomDealer implements ODataSerialize
       }
     }
 
+    // the count of an entity iterator may only be known after all entities have been read
+    if (!countWritten && entitySet.getCount() != null) {
+      count(writer, entitySet.getCount());
+    }
+
     if (serverMode) {
       if (entitySet.getNext() != null) {
         final Link next = new Link();
@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.commons.core.serialization;
+
+import java.io.IOException;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.ResWrap;
+
+/**
+ * Receives the entities of an entity set one by one while the entity set is being read,
+ * so that they do not need to be kept in memory all together.
+ *
+ * @see JsonDeserializer#toEntitySet(java.io.InputStream, EntityHandler)
+ */
+public interface EntityHandler {
+
+  /**
+   * Handles an entity which has just been read.
+   *
+   * @param entity the entity, wrapped together with context URL and metadata ETag of the entity set
+   * @throws IOException if the entity cannot be handled; reading the entity set is aborted then
+   */
+  void handle(ResWrap<Entity> entity) throws IOException;
+}
@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.commons.core.serialization;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.EntityCollection;
+import org.apache.olingo.commons.api.data.ResWrap;
+import org.apache.olingo.commons.api.serialization.ODataDeserializerException;
+
+/**
+ * Reads the entities of an entity set one at a time from a single incremental parser,
+ * so that only the current entity is held in memory.
+ */
+public interface EntitySetStreamDeserializer {
+
+  /**
+   * Reads the next entity of the entity set.
+   *
+   * @return the entity, wrapped together with context URL and metadata ETag of the entity set,
+   * or <code>null</code> if there are no more entities
+   * @throws ODataDeserializerException
+   */
+  ResWrap<Entity> nextEntity() throws ODataDeserializerException;
+
+  /**
+   * Gets the entity set without its entities, as far as it has been read;
+   * e.g., the next link is usually only known after the last entity has been read.
+   *
+   * @return the entity set or <code>null</code> if the input does not contain an entity set
+   */
+  ResWrap<EntityCollection> getEntitySet();
+
+  /**
+   * Releases the parser; the underlying input stream is not closed.
+   */
+  void close();
+}
@@ -389,6 +389,50 @@ public class JsonDeserializer implements ODataDeserializer {
     }
   }
 
+  /**
+   * Reads an entity set and passes each of its entities to the given handler as soon as it has been read,
+   * instead of collecting them in the returned entity set.
+   *
+   * @param input stream to be de-serialized
+   * @param handler receives the entities one by one
+   * @return the entity set without entities, or <code>null</code> if the input does not contain an entity set
+   * @throws ODataDeserializerException
+   */
+  public ResWrap<EntityCollection> toEntitySet(final InputStream input, final EntityHandler handler)
+      throws ODataDeserializerException {
+    final EntitySetStreamDeserializer deserializer = toEntitySetStream(input);
+    try {
+      ResWrap<Entity> entity;
+      while ((entity = deserializer.nextEntity()) != null) {
+        handler.handle(entity);
+      }
+      return deserializer.getEntitySet();
+    } catch (final IOException e) {
+      throw new ODataDeserializerException(e);
+    } finally {
+      deserializer.close();
+    }
+  }
+
+  /**
+   * Gets a deserializer reading the entities of an entity set one at a time.
+   * <br/>
+   * The input stream is not closed by the returned deserializer.
+   *
+   * @param input stream to be de-serialized
+   * @return entity set stream deserializer
+   * @throws ODataDeserializerException
+   */
+  public EntitySetStreamDeserializer toEntitySetStream(final InputStream input) throws ODataDeserializerException {
+    try {
+      parser = new JsonFactory(new ObjectMapper()).createParser(input);
+      parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+      return new JsonEntitySetStreamDeserializer(serverMode, parser);
+    } catch (final IOException e) {
+      throw new ODataDeserializerException(e);
+    }
+  }
+
   @Override
   public ResWrap<Entity> toEntity(final InputStream input) throws ODataDeserializerException {
     try {
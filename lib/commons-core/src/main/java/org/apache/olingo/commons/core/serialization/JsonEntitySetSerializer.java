@@ -25,6 +25,7 @@ import org.apache.olingo.commons.api.Constants;
 import org.apache.olingo.commons.api.data.Annotation;
 import org.apache.olingo.commons.api.data.Entity;
 import org.apache.olingo.commons.api.data.EntityCollection;
+import org.apache.olingo.commons.api.data.EntityIterator;
 import org.apache.olingo.commons.api.data.ResWrap;
 import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeException;
 
@@ -63,9 +64,13 @@ public class JsonEntitySetSerializer extends JsonSerializer {
     if (entitySet.getId() != null) {
       jgen.writeStringField(Constants.JSON_ID, entitySet.getId().toASCIIString());
     }
-    jgen.writeNumberField(Constants.JSON_COUNT,
-        entitySet.getCount() == null ? entitySet.getEntities().size() : entitySet.getCount());
-    if (serverMode) {
+    final boolean isIterator = entitySet instanceof EntityIterator;
+    final boolean countWritten = entitySet.getCount() != null || !isIterator;
+    if (countWritten) {
+      jgen.writeNumberField(Constants.JSON_COUNT,
+          entitySet.getCount() == null ? entitySet.getEntities().size() : entitySet.getCount());
+    }
+    if (serverMode && !isIterator) {
       if (entitySet.getNext() != null) {
         jgen.writeStringField(Constants.JSON_NEXT_LINK,
             entitySet.getNext().toASCIIString());
@@ -82,11 +87,28 @@ public class JsonEntitySetSerializer extends JsonSerializer {
 
     jgen.writeArrayFieldStart(Constants.VALUE);
     final JsonEntitySerializer entitySerializer = new JsonEntitySerializer(serverMode);
-    for (Entity entity : entitySet.getEntities()) {
+    for (Entity entity : entitySet) {
       entitySerializer.doSerialize(entity, jgen);
     }
     jgen.writeEndArray();
 
+    if (isIterator) {
+      // count and links of an iterator may only be known after all entities have been read
+      if (!countWritten && entitySet.getCount() != null) {
+        jgen.writeNumberField(Constants.JSON_COUNT, entitySet.getCount());
+      }
+      if (serverMode) {
+        if (entitySet.getNext() != null) {
+          jgen.writeStringField(Constants.JSON_NEXT_LINK,
+              entitySet.getNext().toASCIIString());
+        }
+        if (entitySet.getDeltaLink() != null) {
+          jgen.writeStringField(Constants.JSON_DELTA_LINK,
+              entitySet.getDeltaLink().toASCIIString());
+        }
+      }
+    }
+
     jgen.writeEndObject();
   }
 }
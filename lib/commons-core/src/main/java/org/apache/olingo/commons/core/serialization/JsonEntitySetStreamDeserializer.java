@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.commons.core.serialization;
+
+import java.io.IOException;
+import java.net.URI;
+
+import org.apache.commons.lang3.StringUtils;
+import org.apache.olingo.commons.api.Constants;
+import org.apache.olingo.commons.api.data.Annotation;
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.EntityCollection;
+import org.apache.olingo.commons.api.data.ResWrap;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeException;
+import org.apache.olingo.commons.api.serialization.ODataDeserializerException;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * Reads a JSON entity set token by token, one entity at a time.
+ * <br/>
+ * Context URL and metadata ETag are passed along with the entities, so they must precede
+ * the <code>value</code> array, as required by the OData JSON format.
+ */
+public class JsonEntitySetStreamDeserializer extends JsonDeserializer implements EntitySetStreamDeserializer {
+
+  private final JsonParser parser;
+
+  private final JsonEntityDeserializer entityDeserializer;
+
+  private final EntityCollection entitySet = new EntityCollection();
+
+  private URI contextURL;
+
+  private String metadataETag;
+
+  private boolean hasValue = false;
+
+  private boolean inValue = false;
+
+  private boolean finished = false;
+
+  public JsonEntitySetStreamDeserializer(final boolean serverMode, final JsonParser parser) {
+    super(serverMode);
+    this.parser = parser;
+    entityDeserializer = new JsonEntityDeserializer(serverMode);
+  }
+
+  @Override
+  public ResWrap<Entity> nextEntity() throws ODataDeserializerException {
+    try {
+      if (!inValue && !finished) {
+        readFields();
+      }
+      if (inValue) {
+        if (parser.nextToken() == JsonToken.START_OBJECT) {
+          return new ResWrap<Entity>(contextURL, metadataETag, entityDeserializer.doDeserialize(parser).getPayload());
+        }
+        inValue = false;
+        readFields();
+      }
+      return null;
+    } catch (final IOException e) {
+      throw new ODataDeserializerException(e);
+    }
+  }
+
+  @Override
+  public ResWrap<EntityCollection> getEntitySet() {
+    return finished && !hasValue ? null : new ResWrap<EntityCollection>(contextURL, metadataETag, entitySet);
+  }
+
+  @Override
+  public void close() {
+    try {
+      parser.close();
+    } catch (final IOException e) {
+      // nothing to do
+    }
+  }
+
+  /**
+   * Reads the fields of the entity set up to the start of the entities or up to the end of the entity set.
+   */
+  private void readFields() throws IOException {
+    if (parser.getCurrentToken() == null && parser.nextToken() != JsonToken.START_OBJECT) {
+      throw new JsonParseException("Expected OData EntitySet", parser.getCurrentLocation());
+    }
+
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final String name = parser.getCurrentName();
+      final JsonToken token = parser.nextToken();
+
+      if (Constants.VALUE.equals(name)) {
+        hasValue = true;
+        if (token == JsonToken.START_ARRAY) {
+          inValue = true;
+          return;
+        }
+        parser.skipChildren();
+        continue;
+      }
+
+      final JsonNode node = parser.readValueAsTree();
+      if (node.isNull()) {
+        continue;
+      }
+      if ((Constants.JSON_CONTEXT.equals(name) || Constants.JSON_METADATA.equals(name)) && contextURL == null) {
+        contextURL = URI.create(node.textValue());
+        entitySet.setBaseURI(StringUtils.substringBefore(contextURL.toASCIIString(), Constants.METADATA));
+      } else if (Constants.JSON_METADATA_ETAG.equals(name)) {
+        metadataETag = node.textValue();
+      } else if (Constants.JSON_COUNT.equals(name)) {
+        entitySet.setCount(node.asInt());
+      } else if (Constants.JSON_NEXT_LINK.equals(name)) {
+        entitySet.setNext(URI.create(node.textValue()));
+      } else if (Constants.JSON_DELTA_LINK.equals(name)) {
+        entitySet.setDeltaLink(URI.create(node.textValue()));
+      } else if (name.charAt(0) == '@') {
+        // any other entry is supposed to be an annotation or is ignored
+        final Annotation annotation = new Annotation();
+        annotation.setTerm(name.substring(1));
+
+        try {
+          value(annotation, node, parser.getCodec());
+        } catch (final EdmPrimitiveTypeException e) {
+          throw new IOException(e);
+        }
+        entitySet.getAnnotations().add(annotation);
+      }
+    }
+    finished = true;
+  }
+}
@@ -30,6 +30,11 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.olingo.commons.api.edm.Edm;
@@ -208,6 +213,22 @@ public class EdmImplCachingTest {
     assertNotSame(function, function2);
   }
 
+  @Test
+  public void cacheFunctionAfterUnboundFunctions() {
+    final List<EdmFunction> functions = edm.getUnboundFunctions(NAME1);
+    assertEquals(1, functions.size());
+
+    // The provider's list is immutable; caching another overload must not touch it.
+    EdmFunction function = mock(EdmFunction.class);
+    when(function.getParameterNames()).thenReturn(Collections.singletonList("A"));
+    ((AbstractEdm) edm).cacheFunction(NAME1, function);
+
+    final List<EdmFunction> cachedFunctions = edm.getUnboundFunctions(NAME1);
+    assertEquals(2, cachedFunctions.size());
+    assertTrue(cachedFunctions.contains(function));
+    assertTrue(cachedFunctions.containsAll(functions));
+  }
+
   @Test
   public void cacheBoundFunction() {
     EdmFunction function = edm.getBoundFunction(NAME1, NAME2, true, new ArrayList<String>());
@@ -248,6 +269,34 @@ public class EdmImplCachingTest {
     assertNotSame(function, function2);
   }
 
+  @Test
+  public void cacheEntityTypeConcurrently() throws Exception {
+    final int threads = 32;
+    final CountDownLatch start = new CountDownLatch(1);
+    final ExecutorService executor = Executors.newFixedThreadPool(threads);
+    try {
+      final List<Future<EdmEntityType>> results = new ArrayList<Future<EdmEntityType>>();
+      for (int i = 0; i < threads; i++) {
+        results.add(executor.submit(new Callable<EdmEntityType>() {
+          @Override
+          public EdmEntityType call() throws Exception {
+            start.await();
+            return edm.getEntityType(NAME1);
+          }
+        }));
+      }
+      start.countDown();
+
+      final EdmEntityType entityType = edm.getEntityType(NAME1);
+      assertNotNull(entityType);
+      for (final Future<EdmEntityType> result : results) {
+        assertTrue(entityType == result.get());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
   @Before
   public void setup() {
     edm = new LocalEdm();
@@ -32,7 +32,9 @@ import org.apache.olingo.server.api.deserializer.ODataDeserializer;
 import org.apache.olingo.server.api.edmx.EdmxReference;
 import org.apache.olingo.server.api.serializer.FixedFormatSerializer;
 import org.apache.olingo.server.api.serializer.ODataSerializer;
+import org.apache.olingo.server.api.serializer.SerializedDocument;
 import org.apache.olingo.server.api.serializer.SerializerException;
+import org.apache.olingo.server.api.serializer.SerializerResult;
 import org.apache.olingo.server.api.uri.UriHelper;
 
 /**
@@ -96,6 +98,19 @@ public abstract class OData {
    */
   public abstract ServiceMetadata createServiceMetadata(CsdlEdmProvider edmProvider, List<EdmxReference> references);
 
+  /**
+   * Creates a metadata object for this service.
+   * If requested, the complete metadata is loaded from the provider at once, so that requests do not have to
+   * wait for this and errors in the metadata are found immediately.
+   * In this case the schemas returned by the provider must contain all types and entity containers.
+   *
+   * @param edmProvider a custom or default implementation for creating metadata
+   * @param references list of edmx references
+   * @param compileEdm whether the metadata should be loaded completely in advance
+   */
+  public abstract ServiceMetadata createServiceMetadata(CsdlEdmProvider edmProvider, List<EdmxReference> references,
+      boolean compileEdm);
+
   /**
    * Creates a new URI helper object for performing URI-related tasks.
    * It can be used in Processor implementations.
@@ -125,4 +140,12 @@ public abstract class OData {
    * @return an {@link ETagInformation} instance
    */
   public abstract ETagInformation createETagInformation(final Collection<String> values);
+
+  /**
+   * Creates a serialized document that is kept in memory, together with a strong ETag and compressed variants.
+   * @param result the result of a serializer; its content is read completely
+   * @return a {@link SerializedDocument} instance
+   * @throws SerializerException if the content could not be read
+   */
+  public abstract SerializedDocument createSerializedDocument(SerializerResult result) throws SerializerException;
 }
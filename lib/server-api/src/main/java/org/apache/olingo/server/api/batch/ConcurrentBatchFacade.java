@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.batch;
+
+import java.util.List;
+
+import org.apache.olingo.server.api.batch.exception.BatchDeserializerException;
+import org.apache.olingo.server.api.deserializer.batch.BatchRequestPart;
+import org.apache.olingo.server.api.deserializer.batch.ODataResponsePart;
+
+/**
+ * A {@link BatchFacade} which is able to handle all parts of a batch request at once.
+ * <p>Independent requests may be executed concurrently if the handler has been configured accordingly;
+ * otherwise they are executed one after the other.
+ * A {@link org.apache.olingo.server.api.processor.BatchProcessor} implementation can check
+ * whether the given facade is an instance of this interface.</p>
+ */
+public interface ConcurrentBatchFacade extends BatchFacade {
+
+  /**
+   * Handles all BatchRequestParts of a batch request.
+   *
+   * @param requests Requests to process
+   * @param continueOnError if <code>false</code>, the handling stops after the first part with an error response
+   * @return Corresponding {@link ODataResponsePart}s in the order of the requests
+   * @throws BatchDeserializerException
+   */
+  List<ODataResponsePart> handleBatchRequests(List<BatchRequestPart> requests, boolean continueOnError)
+      throws BatchDeserializerException;
+}
@@ -19,6 +19,11 @@
 package org.apache.olingo.server.api.processor;
 
 import java.io.ByteArrayInputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.olingo.commons.api.format.ContentType;
 import org.apache.olingo.commons.api.format.ODataFormat;
@@ -31,6 +36,7 @@ import org.apache.olingo.server.api.ODataRequest;
 import org.apache.olingo.server.api.ODataResponse;
 import org.apache.olingo.server.api.ServiceMetadata;
 import org.apache.olingo.server.api.serializer.ODataSerializer;
+import org.apache.olingo.server.api.serializer.SerializedDocument;
 import org.apache.olingo.server.api.serializer.SerializerException;
 import org.apache.olingo.server.api.uri.UriInfo;
 
@@ -39,10 +45,18 @@ import org.apache.olingo.server.api.uri.UriInfo;
  * <ul><li>request for the metadata document</li>
  * <li>request for the service document</li>
  * <li>error handling</li></ul></p>
+ * <p>The metadata document and the service document are serialized only once per {@link ServiceMetadata}
+ * and format and kept as {@link SerializedDocument};
+ * requests with a matching <code>If-None-Match</code> header are answered with
+ * <code>304 Not Modified</code>, and the content is sent compressed if the client accepts that.</p>
  * <p>This implementation is registered in the ODataHandler by default.
  * The default can be replaced by re-registering a custom implementation.</p>
  */
 public class DefaultProcessor implements MetadataProcessor, ServiceDocumentProcessor, ErrorProcessor {
+  /** The serialized documents of each service metadata (which is not kept alive by them), by kind and format. */
+  private static final Map<ServiceMetadata, ConcurrentMap<String, SerializedDocument>> DOCUMENTS =
+      new WeakHashMap<ServiceMetadata, ConcurrentMap<String, SerializedDocument>>();
+
   private OData odata;
   private ServiceMetadata serviceMetadata;
 
@@ -55,19 +69,93 @@ public class DefaultProcessor implements MetadataProcessor, ServiceDocumentProce
   @Override
   public void readServiceDocument(final ODataRequest request, final ODataResponse response, final UriInfo uriInfo,
       final ContentType requestedContentType) throws ODataApplicationException, SerializerException {
-    ODataSerializer serializer = odata.createSerializer(ODataFormat.fromContentType(requestedContentType));
-    response.setContent(serializer.serviceDocument(serviceMetadata.getEdm(), null).getContent());
-    response.setStatusCode(HttpStatusCode.OK.getStatusCode());
-    response.setHeader(HttpHeader.CONTENT_TYPE, requestedContentType.toContentTypeString());
+    writeDocument(request, response, getDocument(false, ODataFormat.fromContentType(requestedContentType)),
+        requestedContentType);
   }
 
   @Override
   public void readMetadata(final ODataRequest request, final ODataResponse response, final UriInfo uriInfo,
       final ContentType requestedContentType) throws ODataApplicationException, SerializerException {
-    ODataSerializer serializer = odata.createSerializer(ODataFormat.fromContentType(requestedContentType));
-    response.setContent(serializer.metadataDocument(serviceMetadata).getContent());
+    writeDocument(request, response, getDocument(true, ODataFormat.fromContentType(requestedContentType)),
+        requestedContentType);
+  }
+
+  /**
+   * Gets the metadata document or the service document (with relative URLs) in the given format,
+   * serializing it if it is not cached yet.
+   */
+  private SerializedDocument getDocument(final boolean metadataDocument, final ODataFormat format)
+      throws SerializerException {
+    ConcurrentMap<String, SerializedDocument> documents;
+    synchronized (DOCUMENTS) {
+      documents = DOCUMENTS.get(serviceMetadata);
+      if (documents == null) {
+        documents = new ConcurrentHashMap<String, SerializedDocument>();
+        DOCUMENTS.put(serviceMetadata, documents);
+      }
+    }
+    final String key = (metadataDocument ? "$metadata;" : "service;") + format.name();
+    SerializedDocument document = documents.get(key);
+    if (document == null) {
+      final ODataSerializer serializer = odata.createSerializer(format);
+      document = odata.createSerializedDocument(metadataDocument ?
+          serializer.metadataDocument(serviceMetadata) :
+          serializer.serviceDocument(serviceMetadata.getEdm(), null));
+      final SerializedDocument previous = documents.putIfAbsent(key, document);
+      if (previous != null) {
+        document = previous;
+      }
+    }
+    return document;
+  }
+
+  private void writeDocument(final ODataRequest request, final ODataResponse response,
+      final SerializedDocument document, final ContentType contentType) {
+    response.setHeader(HttpHeader.ETAG, document.getETag());
+    final List<String> ifNoneMatch = request.getHeaders(HttpHeader.IF_NONE_MATCH);
+    if (ifNoneMatch != null && odata.createETagInformation(ifNoneMatch).isMatchedBy(document.getETag())) {
+      response.setStatusCode(HttpStatusCode.NOT_MODIFIED.getStatusCode());
+      return;
+    }
+
+    final String contentCoding = getContentCoding(request.getHeaders(HttpHeader.ACCEPT_ENCODING));
+    if (contentCoding == null) {
+      response.setContent(document.getContent());
+    } else {
+      response.setContent(document.getContent(contentCoding));
+      response.setHeader(HttpHeader.CONTENT_ENCODING, contentCoding);
+    }
+    response.setHeader(HttpHeader.VARY, HttpHeader.ACCEPT_ENCODING);
     response.setStatusCode(HttpStatusCode.OK.getStatusCode());
-    response.setHeader(HttpHeader.CONTENT_TYPE, requestedContentType.toContentTypeString());
+    response.setHeader(HttpHeader.CONTENT_TYPE, contentType.toContentTypeString());
+  }
+
+  /**
+   * Chooses the content coding from the values of the <code>Accept-Encoding</code> header.
+   * @return {@link SerializedDocument#GZIP}, {@link SerializedDocument#DEFLATE},
+   *         or <code>null</code> if the content should not be compressed
+   */
+  private static String getContentCoding(final List<String> acceptEncoding) {
+    boolean gzip = false;
+    boolean deflate = false;
+    if (acceptEncoding != null) {
+      for (final String value : acceptEncoding) {
+        for (final String element : value.split(",")) {
+          final String[] parts = element.split(";");
+          final String coding = parts[0].trim();
+          boolean accepted = true;
+          for (int i = 1; i < parts.length; i++) {
+            final String parameter = parts[i].trim();
+            if (parameter.startsWith("q=") || parameter.startsWith("Q=")) {
+              accepted = !parameter.substring(2).trim().matches("0(\\.0{0,3})?");
+            }
+          }
+          gzip |= accepted && SerializedDocument.GZIP.equalsIgnoreCase(coding);
+          deflate |= accepted && SerializedDocument.DEFLATE.equalsIgnoreCase(coding);
+        }
+      }
+    }
+    return gzip ? SerializedDocument.GZIP : deflate ? SerializedDocument.DEFLATE : null;
   }
 
   @Override
@@ -22,6 +22,7 @@ import java.io.InputStream;
 import java.util.List;
 
 import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
+import org.apache.olingo.server.api.ODataContent;
 import org.apache.olingo.server.api.batch.exception.BatchSerializerException;
 import org.apache.olingo.server.api.deserializer.batch.ODataResponsePart;
 
@@ -57,4 +58,15 @@ public interface FixedFormatSerializer {
    * @throws BatchSerializerException
    */
   InputStream batchResponse(List<ODataResponsePart> batchResponses, String boundary) throws BatchSerializerException;
+
+  /**
+   * Serializes a batch response directly into the target stream,
+   * without keeping the complete response in memory
+   * @param batchResponses
+   * @param boundary
+   * @return response as content to be set with {@link org.apache.olingo.server.api.ODataResponse#setODataContent}
+   * @throws BatchSerializerException
+   */
+  ODataContent batchResponseContent(List<ODataResponsePart> batchResponses, String boundary)
+      throws BatchSerializerException;
 }
@@ -27,6 +27,7 @@ import org.apache.olingo.commons.api.edm.EdmComplexType;
 import org.apache.olingo.commons.api.edm.EdmEntitySet;
 import org.apache.olingo.commons.api.edm.EdmEntityType;
 import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
+import org.apache.olingo.server.api.ODataContent;
 import org.apache.olingo.server.api.ODataServerError;
 import org.apache.olingo.server.api.ServiceMetadata;
 
@@ -66,6 +67,17 @@ public interface ODataSerializer {
   SerializerResult entityCollection(ServiceMetadata metadata, EdmEntityType entityType,
       EntityCollection entitySet, EntityCollectionSerializerOptions options) throws SerializerException;
 
+  /**
+   * Writes entity-collection data directly into the output stream handed over to the
+   * returned content; nothing is serialized before {@link ODataContent#write(java.io.OutputStream)} is called.
+   * @param metadata Metadata for the service
+   * @param entityType the {@link EdmEntityType}
+   * @param entitySet the data of the entity set
+   * @param options options for the serializer
+   */
+  SerializerStreamResult entityCollectionStreamed(ServiceMetadata metadata, EdmEntityType entityType,
+      EntityCollection entitySet, EntityCollectionSerializerOptions options) throws SerializerException;
+
   /**
    * Writes entity data into an InputStream.
    * @param metadata Metadata for the service
@@ -0,0 +1,47 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.api.serializer;
+
+import java.io.InputStream;
+
+/**
+ * Serialized document that does not change for a given {@link org.apache.olingo.server.api.ServiceMetadata},
+ * like the metadata document or the service document.
+ * It is kept in memory, together with a strong ETag and compressed variants.
+ */
+public interface SerializedDocument extends SerializerResult {
+
+  /** Content coding for gzip compression */
+  String GZIP = "gzip";
+  /** Content coding for deflate compression */
+  String DEFLATE = "deflate";
+
+  /**
+   * Returns the content compressed with the given content coding.
+   * @param contentCoding the content coding, either {@link #GZIP} or {@link #DEFLATE}
+   * @return compressed content or <code>null</code> if the content coding is not supported
+   */
+  InputStream getContent(String contentCoding);
+
+  /**
+   * Returns the strong ETag of the (uncompressed) content, including the surrounding quotes.
+   * @return the ETag
+   */
+  String getETag();
+}
@@ -6,9 +6,9 @@
  * to you under the Apache License, Version 2.0 (the
  * "License"); you may not use this file except in compliance
  * with the License. You may obtain a copy of the License at
- * 
+ *
  * http://www.apache.org/licenses/LICENSE-2.0
- * 
+ *
  * Unless required by applicable law or agreed to in writing,
  * software distributed under the License is distributed on an
  * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
@@ -16,15 +16,18 @@
  * specific language governing permissions and limitations
  * under the License.
  */
-package org.apache.olingo.server.tecsvc.processor.queryoptions.options;
+package org.apache.olingo.server.api.serializer;
 
-import org.apache.olingo.commons.api.ODataRuntimeException;
+import org.apache.olingo.server.api.ODataContent;
 
-public class SystemQueryOptionsRuntimeException extends ODataRuntimeException {
-
-  private static final long serialVersionUID = 1L;
-
-  public SystemQueryOptionsRuntimeException(final Exception cause) {
-    super(cause);
-  }
+/**
+ * Result of a streamed serialization; the content is written
+ * only when {@link ODataContent#write(java.io.OutputStream)} is called.
+ */
+public interface SerializerStreamResult {
+  /**
+   * Returns the content to be streamed
+   * @return content to be streamed
+   */
+  ODataContent getODataContent();
 }
@@ -0,0 +1,863 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.olingo.commons.api.ODataException;
+import org.apache.olingo.commons.api.edm.FullQualifiedName;
+import org.apache.olingo.commons.api.edm.geo.Geospatial.Dimension;
+import org.apache.olingo.commons.api.edm.geo.SRID;
+import org.apache.olingo.commons.api.edm.provider.CsdlAction;
+import org.apache.olingo.commons.api.edm.provider.CsdlActionImport;
+import org.apache.olingo.commons.api.edm.provider.CsdlAnnotatable;
+import org.apache.olingo.commons.api.edm.provider.CsdlBindingTarget;
+import org.apache.olingo.commons.api.edm.provider.CsdlComplexType;
+import org.apache.olingo.commons.api.edm.provider.CsdlEdmProvider;
+import org.apache.olingo.commons.api.edm.provider.CsdlEntityContainer;
+import org.apache.olingo.commons.api.edm.provider.CsdlEntitySet;
+import org.apache.olingo.commons.api.edm.provider.CsdlEntityType;
+import org.apache.olingo.commons.api.edm.provider.CsdlEnumMember;
+import org.apache.olingo.commons.api.edm.provider.CsdlEnumType;
+import org.apache.olingo.commons.api.edm.provider.CsdlFunction;
+import org.apache.olingo.commons.api.edm.provider.CsdlFunctionImport;
+import org.apache.olingo.commons.api.edm.provider.CsdlNavigationProperty;
+import org.apache.olingo.commons.api.edm.provider.CsdlNavigationPropertyBinding;
+import org.apache.olingo.commons.api.edm.provider.CsdlOnDelete;
+import org.apache.olingo.commons.api.edm.provider.CsdlOnDeleteAction;
+import org.apache.olingo.commons.api.edm.provider.CsdlOperation;
+import org.apache.olingo.commons.api.edm.provider.CsdlParameter;
+import org.apache.olingo.commons.api.edm.provider.CsdlProperty;
+import org.apache.olingo.commons.api.edm.provider.CsdlPropertyRef;
+import org.apache.olingo.commons.api.edm.provider.CsdlReferentialConstraint;
+import org.apache.olingo.commons.api.edm.provider.CsdlReturnType;
+import org.apache.olingo.commons.api.edm.provider.CsdlSchema;
+import org.apache.olingo.commons.api.edm.provider.CsdlSingleton;
+import org.apache.olingo.commons.api.edm.provider.CsdlStructuralType;
+import org.apache.olingo.commons.api.edm.provider.CsdlTerm;
+import org.apache.olingo.commons.api.edm.provider.CsdlTypeDefinition;
+
+/**
+ * This class stores the schemas of an EDM provider in a compact binary snapshot
+ * and creates an EDM provider from such a snapshot.
+ * <br/>
+ * A snapshot can be written at build time, e.g., from the result of {@link MetadataParser},
+ * and read at service startup considerably faster than the CSDL document can be parsed.
+ * Each distinct string is stored only once.
+ * Annotations and mappings are not supported.
+ * A snapshot should only be read if it has been created by a trusted build step.
+ */
+public class MetadataSnapshot {
+
+  private static final int MAGIC = 0x4F446D53; // "ODmS"
+  private static final int VERSION = 1;
+
+  /**
+   * Writes all schemas of the given provider as snapshot.
+   * @param provider the EDM provider
+   * @param out the stream to write to; it is not closed
+   * @throws ODataException if the provider fails or if the schemas contain annotations or mappings
+   */
+  public void write(final CsdlEdmProvider provider, final OutputStream out) throws ODataException, IOException {
+    final List<CsdlSchema> schemas = provider.getSchemas();
+    final SnapshotWriter writer = new SnapshotWriter();
+    writer.writeCount(schemas.size());
+    for (final CsdlSchema schema : schemas) {
+      writer.writeSchema(schema);
+    }
+    writer.writeTo(out);
+  }
+
+  /**
+   * Reads a snapshot written by {@link #write(CsdlEdmProvider, OutputStream)}.
+   * @param in the stream to read from; it is not closed
+   * @return an EDM provider with the schemas of the snapshot
+   * @throws IOException if reading fails or if the input is not a valid snapshot
+   */
+  public CsdlEdmProvider read(final InputStream in) throws IOException {
+    try {
+      final SnapshotReader reader = new SnapshotReader(
+          new DataInputStream(in instanceof BufferedInputStream ? in : new BufferedInputStream(in)));
+      final SchemaBasedEdmProvider provider = new SchemaBasedEdmProvider();
+      final int count = reader.readCount();
+      for (int i = 0; i < count; i++) {
+        provider.addSchema(reader.readSchema());
+      }
+      return provider;
+    } catch (final EOFException e) {
+      throw invalidSnapshot(e);
+    } catch (final IllegalArgumentException e) {
+      // Unknown enumeration constants or malformed qualified names
+      throw invalidSnapshot(e);
+    }
+  }
+
+  private static IOException invalidSnapshot(final Throwable cause) {
+    return new IOException("The input is not a valid metadata snapshot.", cause);
+  }
+
+  private static class SnapshotWriter {
+    private final Map<String, Integer> strings = new HashMap<String, Integer>();
+    private final List<String> stringList = new ArrayList<String>();
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+    private final DataOutputStream data = new DataOutputStream(buffer);
+
+    void writeTo(final OutputStream out) throws IOException {
+      final DataOutputStream header = new DataOutputStream(out);
+      header.writeInt(MAGIC);
+      header.writeInt(VERSION);
+      header.writeInt(stringList.size());
+      for (final String string : stringList) {
+        final byte[] bytes = string.getBytes("UTF-8");
+        header.writeInt(bytes.length);
+        header.write(bytes);
+      }
+      header.flush();
+      buffer.writeTo(out);
+      out.flush();
+    }
+
+    /** Writes a non-negative number in as few bytes as possible. */
+    void writeCount(final int count) throws IOException {
+      int value = count;
+      while ((value & ~0x7F) != 0) {
+        data.writeByte((value & 0x7F) | 0x80);
+        value >>>= 7;
+      }
+      data.writeByte(value);
+    }
+
+    void writeString(final String string) throws IOException {
+      if (string == null) {
+        writeCount(0);
+      } else {
+        Integer index = strings.get(string);
+        if (index == null) {
+          index = stringList.size();
+          strings.put(string, index);
+          stringList.add(string);
+        }
+        writeCount(index + 1);
+      }
+    }
+
+    void writeInteger(final Integer value) throws IOException {
+      data.writeBoolean(value != null);
+      if (value != null) {
+        data.writeInt(value);
+      }
+    }
+
+    void writeBoolean(final boolean value) throws IOException {
+      data.writeBoolean(value);
+    }
+
+    /** Writes the size of the list, or 0 for <code>null</code>, so that empty lists are kept. */
+    boolean writeListSize(final List<?> list) throws IOException {
+      writeCount(list == null ? 0 : list.size() + 1);
+      return list != null;
+    }
+
+    void writeSrid(final SRID srid) throws IOException {
+      writeString(srid == null ? null : srid.toString());
+      if (srid != null) {
+        writeString(srid.getDimension().name());
+      }
+    }
+
+    void checkUnsupported(final CsdlAnnotatable annotatable) throws ODataException {
+      if (annotatable.getAnnotations() != null && !annotatable.getAnnotations().isEmpty()) {
+        throw new ODataException("Annotations are not supported in metadata snapshots.");
+      }
+    }
+
+    void writeSchema(final CsdlSchema schema) throws ODataException, IOException {
+      checkUnsupported(schema);
+      if (schema.getAnnotationGroups() != null && !schema.getAnnotationGroups().isEmpty()) {
+        throw new ODataException("Annotations are not supported in metadata snapshots.");
+      }
+      writeString(schema.getNamespace());
+      writeString(schema.getAlias());
+      if (writeListSize(schema.getEnumTypes())) {
+        for (final CsdlEnumType enumType : schema.getEnumTypes()) {
+          writeEnumType(enumType);
+        }
+      }
+      if (writeListSize(schema.getTypeDefinitions())) {
+        for (final CsdlTypeDefinition typeDefinition : schema.getTypeDefinitions()) {
+          writeTypeDefinition(typeDefinition);
+        }
+      }
+      if (writeListSize(schema.getEntityTypes())) {
+        for (final CsdlEntityType entityType : schema.getEntityTypes()) {
+          writeStructuralType(entityType);
+          writeBoolean(entityType.hasStream());
+          if (writeListSize(entityType.getKey())) {
+            for (final CsdlPropertyRef propertyRef : entityType.getKey()) {
+              writeString(propertyRef.getName());
+              writeString(propertyRef.getAlias());
+            }
+          }
+        }
+      }
+      if (writeListSize(schema.getComplexTypes())) {
+        for (final CsdlComplexType complexType : schema.getComplexTypes()) {
+          writeStructuralType(complexType);
+        }
+      }
+      if (writeListSize(schema.getActions())) {
+        for (final CsdlAction action : schema.getActions()) {
+          writeOperation(action);
+        }
+      }
+      if (writeListSize(schema.getFunctions())) {
+        for (final CsdlFunction function : schema.getFunctions()) {
+          writeOperation(function);
+          writeBoolean(function.isComposable());
+        }
+      }
+      if (writeListSize(schema.getTerms())) {
+        for (final CsdlTerm term : schema.getTerms()) {
+          writeTerm(term);
+        }
+      }
+      writeBoolean(schema.getEntityContainer() != null);
+      if (schema.getEntityContainer() != null) {
+        writeEntityContainer(schema.getEntityContainer());
+      }
+    }
+
+    void writeEnumType(final CsdlEnumType enumType) throws ODataException, IOException {
+      checkUnsupported(enumType);
+      writeString(enumType.getName());
+      writeString(enumType.getUnderlyingType());
+      writeBoolean(enumType.isFlags());
+      if (writeListSize(enumType.getMembers())) {
+        for (final CsdlEnumMember member : enumType.getMembers()) {
+          checkUnsupported(member);
+          writeString(member.getName());
+          writeString(member.getValue());
+        }
+      }
+    }
+
+    void writeTypeDefinition(final CsdlTypeDefinition typeDefinition) throws ODataException, IOException {
+      checkUnsupported(typeDefinition);
+      writeString(typeDefinition.getName());
+      writeString(typeDefinition.getUnderlyingType());
+      writeInteger(typeDefinition.getMaxLength());
+      writeInteger(typeDefinition.getPrecision());
+      writeInteger(typeDefinition.getScale());
+      writeBoolean(typeDefinition.isUnicode());
+      writeSrid(typeDefinition.getSrid());
+    }
+
+    void writeStructuralType(final CsdlStructuralType type) throws ODataException, IOException {
+      checkUnsupported(type);
+      writeString(type.getName());
+      writeString(type.getBaseType());
+      writeBoolean(type.isAbstract());
+      writeBoolean(type.isOpenType());
+      if (writeListSize(type.getProperties())) {
+        for (final CsdlProperty property : type.getProperties()) {
+          writeProperty(property);
+        }
+      }
+      if (writeListSize(type.getNavigationProperties())) {
+        for (final CsdlNavigationProperty navigationProperty : type.getNavigationProperties()) {
+          writeNavigationProperty(navigationProperty);
+        }
+      }
+    }
+
+    void writeProperty(final CsdlProperty property) throws ODataException, IOException {
+      checkUnsupported(property);
+      if (property.getMapping() != null) {
+        throw new ODataException("Mappings are not supported in metadata snapshots.");
+      }
+      writeString(property.getName());
+      writeString(property.getType());
+      writeBoolean(property.isCollection());
+      writeBoolean(property.isNullable());
+      writeString(property.getDefaultValue());
+      writeInteger(property.getMaxLength());
+      writeInteger(property.getPrecision());
+      writeInteger(property.getScale());
+      writeBoolean(property.isUnicode());
+      writeString(property.getMimeType());
+      writeSrid(property.getSrid());
+    }
+
+    void writeNavigationProperty(final CsdlNavigationProperty navigationProperty)
+        throws ODataException, IOException {
+      checkUnsupported(navigationProperty);
+      writeString(navigationProperty.getName());
+      writeString(navigationProperty.getType());
+      writeBoolean(navigationProperty.isCollection());
+      writeString(navigationProperty.getPartner());
+      writeBoolean(navigationProperty.isContainsTarget());
+      writeString(navigationProperty.isNullable() == null ? null : navigationProperty.isNullable().toString());
+      if (writeListSize(navigationProperty.getReferentialConstraints())) {
+        for (final CsdlReferentialConstraint constraint : navigationProperty.getReferentialConstraints()) {
+          checkUnsupported(constraint);
+          writeString(constraint.getProperty());
+          writeString(constraint.getReferencedProperty());
+        }
+      }
+      final CsdlOnDelete onDelete = navigationProperty.getOnDelete();
+      writeString(onDelete == null || onDelete.getAction() == null ? null : onDelete.getAction().name());
+    }
+
+    void writeOperation(final CsdlOperation operation) throws ODataException, IOException {
+      checkUnsupported(operation);
+      writeString(operation.getName());
+      writeBoolean(operation.isBound());
+      writeString(operation.getEntitySetPath());
+      if (writeListSize(operation.getParameters())) {
+        for (final CsdlParameter parameter : operation.getParameters()) {
+          checkUnsupported(parameter);
+          if (parameter.getMapping() != null) {
+            throw new ODataException("Mappings are not supported in metadata snapshots.");
+          }
+          writeString(parameter.getName());
+          writeString(parameter.getType());
+          writeBoolean(parameter.isCollection());
+          writeBoolean(parameter.isNullable());
+          writeInteger(parameter.getMaxLength());
+          writeInteger(parameter.getPrecision());
+          writeInteger(parameter.getScale());
+          writeSrid(parameter.getSrid());
+        }
+      }
+      final CsdlReturnType returnType = operation.getReturnType();
+      writeBoolean(returnType != null);
+      if (returnType != null) {
+        writeString(returnType.getType());
+        writeBoolean(returnType.isCollection());
+        writeBoolean(returnType.isNullable());
+        writeInteger(returnType.getMaxLength());
+        writeInteger(returnType.getPrecision());
+        writeInteger(returnType.getScale());
+        writeSrid(returnType.getSrid());
+      }
+    }
+
+    void writeTerm(final CsdlTerm term) throws ODataException, IOException {
+      checkUnsupported(term);
+      writeString(term.getName());
+      writeString(term.getType());
+      writeString(term.getBaseTerm());
+      if (writeListSize(term.getAppliesTo())) {
+        for (final String appliesTo : term.getAppliesTo()) {
+          writeString(appliesTo);
+        }
+      }
+      writeBoolean(term.isCollection());
+      writeString(term.getDefaultValue());
+      writeBoolean(term.isNullable());
+      writeInteger(term.getMaxLength());
+      writeInteger(term.getPrecision());
+      writeInteger(term.getScale());
+      writeSrid(term.getSrid());
+    }
+
+    void writeEntityContainer(final CsdlEntityContainer container) throws ODataException, IOException {
+      checkUnsupported(container);
+      writeString(container.getName());
+      writeString(container.getExtendsContainer());
+      if (writeListSize(container.getEntitySets())) {
+        for (final CsdlEntitySet entitySet : container.getEntitySets()) {
+          writeBindingTarget(entitySet);
+          writeBoolean(entitySet.isIncludeInServiceDocument());
+        }
+      }
+      if (writeListSize(container.getSingletons())) {
+        for (final CsdlSingleton singleton : container.getSingletons()) {
+          writeBindingTarget(singleton);
+        }
+      }
+      if (writeListSize(container.getActionImports())) {
+        for (final CsdlActionImport actionImport : container.getActionImports()) {
+          checkUnsupported(actionImport);
+          writeString(actionImport.getName());
+          writeString(actionImport.getEntitySet());
+          writeString(actionImport.getAction());
+        }
+      }
+      if (writeListSize(container.getFunctionImports())) {
+        for (final CsdlFunctionImport functionImport : container.getFunctionImports()) {
+          checkUnsupported(functionImport);
+          writeString(functionImport.getName());
+          writeString(functionImport.getEntitySet());
+          writeString(functionImport.getFunction());
+          writeBoolean(functionImport.isIncludeInServiceDocument());
+        }
+      }
+    }
+
+    void writeBindingTarget(final CsdlBindingTarget bindingTarget) throws ODataException, IOException {
+      checkUnsupported(bindingTarget);
+      writeString(bindingTarget.getName());
+      writeString(bindingTarget.getType());
+      if (writeListSize(bindingTarget.getNavigationPropertyBindings())) {
+        for (final CsdlNavigationPropertyBinding binding : bindingTarget.getNavigationPropertyBindings()) {
+          writeString(binding.getPath());
+          writeString(binding.getTarget());
+        }
+      }
+    }
+  }
+
+  /**
+   * Reads a snapshot.
+   * <br/>
+   * Sizes and lengths are checked before they are used, and memory is only allocated in proportion to
+   * the data actually read, so that a corrupt snapshot fails with an {@link IOException}
+   * instead of exhausting the memory.
+   */
+  private static class SnapshotReader {
+    /** Upper limit for the capacity allocated in advance for a list of the given size. */
+    private static final int MAX_INITIAL_CAPACITY = 64;
+
+    private final DataInputStream data;
+    private final String[] strings;
+
+    SnapshotReader(final DataInputStream data) throws IOException {
+      this.data = data;
+      if (data.readInt() != MAGIC) {
+        throw invalidSnapshot(null);
+      }
+      final int version = data.readInt();
+      if (version != VERSION) {
+        throw new IOException("Unsupported metadata-snapshot version " + version + ".");
+      }
+      final int count = data.readInt();
+      if (count < 0) {
+        throw invalidSnapshot(null);
+      }
+      final List<String> stringList = new ArrayList<String>(capacity(count));
+      byte[] bytes = new byte[256];
+      for (int i = 0; i < count; i++) {
+        final int length = data.readInt();
+        if (length < 0) {
+          throw invalidSnapshot(null);
+        }
+        bytes = readBytes(bytes, length);
+        stringList.add(new String(bytes, 0, length, "UTF-8"));
+      }
+      strings = stringList.toArray(new String[stringList.size()]);
+    }
+
+    /**
+     * Reads the given number of bytes into the buffer, which is enlarged as needed and returned.
+     * The buffer grows with the bytes actually read, not with the expected length.
+     */
+    private byte[] readBytes(final byte[] buffer, final int length) throws IOException {
+      byte[] bytes = buffer;
+      int read = 0;
+      while (read < length) {
+        if (read == bytes.length) {
+          bytes = Arrays.copyOf(bytes, (int) Math.min(length, 2L * bytes.length));
+        }
+        final int chunk = Math.min(length, bytes.length) - read;
+        data.readFully(bytes, read, chunk);
+        read += chunk;
+      }
+      return bytes;
+    }
+
+    private static int capacity(final int size) {
+      return Math.min(size, MAX_INITIAL_CAPACITY);
+    }
+
+    /** Reads a non-negative number written with at most five bytes. */
+    int readCount() throws IOException {
+      int value = 0;
+      int shift = 0;
+      int b;
+      do {
+        if (shift > 28) {
+          throw invalidSnapshot(null);
+        }
+        b = data.readUnsignedByte();
+        value |= (b & 0x7F) << shift;
+        shift += 7;
+      } while ((b & 0x80) != 0);
+      if (value < 0) {
+        throw invalidSnapshot(null);
+      }
+      return value;
+    }
+
+    String readString() throws IOException {
+      final int index = readCount();
+      if (index > strings.length) {
+        throw invalidSnapshot(null);
+      }
+      return index == 0 ? null : strings[index - 1];
+    }
+
+    FullQualifiedName readFullQualifiedName() throws IOException {
+      final String name = readString();
+      return name == null ? null : new FullQualifiedName(name);
+    }
+
+    Integer readInteger() throws IOException {
+      return data.readBoolean() ? Integer.valueOf(data.readInt()) : null;
+    }
+
+    boolean readBoolean() throws IOException {
+      return data.readBoolean();
+    }
+
+    /** Returns the list size or -1 for a <code>null</code> list. */
+    int readListSize() throws IOException {
+      return readCount() - 1;
+    }
+
+    SRID readSrid() throws IOException {
+      final String value = readString();
+      if (value == null) {
+        return null;
+      }
+      final SRID srid = SRID.valueOf(value);
+      final String dimension = readString();
+      if (dimension == null) {
+        throw invalidSnapshot(null);
+      }
+      srid.setDimension(Dimension.valueOf(dimension));
+      return srid;
+    }
+
+    CsdlSchema readSchema() throws IOException {
+      final CsdlSchema schema = new CsdlSchema();
+      schema.setNamespace(readString());
+      schema.setAlias(readString());
+      int size = readListSize();
+      if (size >= 0) {
+        final List<CsdlEnumType> enumTypes = new ArrayList<CsdlEnumType>(capacity(size));
+        for (int i = 0; i < size; i++) {
+          enumTypes.add(readEnumType());
+        }
+        schema.setEnumTypes(enumTypes);
+      }
+      size = readListSize();
+      if (size >= 0) {
+        final List<CsdlTypeDefinition> typeDefinitions = new ArrayList<CsdlTypeDefinition>(capacity(size));
+        for (int i = 0; i < size; i++) {
+          typeDefinitions.add(readTypeDefinition());
+        }
+        schema.setTypeDefinitions(typeDefinitions);
+      }
+      size = readListSize();
+      if (size >= 0) {
+        final List<CsdlEntityType> entityTypes = new ArrayList<CsdlEntityType>(capacity(size));
+        for (int i = 0; i < size; i++) {
+          final CsdlEntityType entityType = new CsdlEntityType();
+          readStructuralType(entityType);
+          entityType.setHasStream(readBoolean());
+          final int keySize = readListSize();
+          if (keySize >= 0) {
+            final List<CsdlPropertyRef> key = new ArrayList<CsdlPropertyRef>(capacity(keySize));
+            for (int j = 0; j < keySize; j++) {
+              key.add(new CsdlPropertyRef().setName(readString()).setAlias(readString()));
+            }
+            entityType.setKey(key);
+          }
+          entityTypes.add(entityType);
+        }
+        schema.setEntityTypes(entityTypes);
+      }
+      size = readListSize();
+      if (size >= 0) {
+        final List<CsdlComplexType> complexTypes = new ArrayList<CsdlComplexType>(capacity(size));
+        for (int i = 0; i < size; i++) {
+          final CsdlComplexType complexType = new CsdlComplexType();
+          readStructuralType(complexType);
+          complexTypes.add(complexType);
+        }
+        schema.setComplexTypes(complexTypes);
+      }
+      size = readListSize();
+      if (size >= 0) {
+        final List<CsdlAction> actions = new ArrayList<CsdlAction>(capacity(size));
+        for (int i = 0; i < size; i++) {
+          final CsdlAction action = new CsdlAction();
+          readOperation(action);
+          actions.add(action);
+        }
+        schema.setActions(actions);
+      }
+      size = readListSize();
+      if (size >= 0) {
+        final List<CsdlFunction> functions = new ArrayList<CsdlFunction>(capacity(size));
+        for (int i = 0; i < size; i++) {
+          final CsdlFunction function = new CsdlFunction();
+          readOperation(function);
+          function.setComposable(readBoolean());
+          functions.add(function);
+        }
+        schema.setFunctions(functions);
+      }
+      size = readListSize();
+      if (size >= 0) {
+        final List<CsdlTerm> terms = new ArrayList<CsdlTerm>(capacity(size));
+        for (int i = 0; i < size; i++) {
+          terms.add(readTerm());
+        }
+        schema.setTerms(terms);
+      }
+      if (readBoolean()) {
+        schema.setEntityContainer(readEntityContainer());
+      }
+      return schema;
+    }
+
+    CsdlEnumType readEnumType() throws IOException {
+      final CsdlEnumType enumType = new CsdlEnumType();
+      enumType.setName(readString());
+      enumType.setUnderlyingType(readFullQualifiedName());
+      enumType.setFlags(readBoolean());
+      final int size = readListSize();
+      if (size >= 0) {
+        final List<CsdlEnumMember> members = new ArrayList<CsdlEnumMember>(capacity(size));
+        for (int i = 0; i < size; i++) {
+          members.add(new CsdlEnumMember().setName(readString()).setValue(readString()));
+        }
+        enumType.setMembers(members);
+      }
+      return enumType;
+    }
+
+    CsdlTypeDefinition readTypeDefinition() throws IOException {
+      final CsdlTypeDefinition typeDefinition = new CsdlTypeDefinition();
+      typeDefinition.setName(readString());
+      typeDefinition.setUnderlyingType(readFullQualifiedName());
+      typeDefinition.setMaxLength(readInteger());
+      typeDefinition.setPrecision(readInteger());
+      typeDefinition.setScale(readInteger());
+      typeDefinition.setUnicode(readBoolean());
+      typeDefinition.setSrid(readSrid());
+      return typeDefinition;
+    }
+
+    void readStructuralType(final CsdlStructuralType type) throws IOException {
+      type.setName(readString());
+      type.setBaseType(readFullQualifiedName());
+      type.setAbstract(readBoolean());
+      type.setOpenType(readBoolean());
+      int size = readListSize();
+      if (size >= 0) {
+        final List<CsdlProperty> properties = new ArrayList<CsdlProperty>(capacity(size));
+        for (int i = 0; i < size; i++) {
+          properties.add(readProperty());
+        }
+        type.setProperties(properties);
+      }
+      size = readListSize();
+      if (size >= 0) {
+        final List<CsdlNavigationProperty> navigationProperties = new ArrayList<CsdlNavigationProperty>(capacity(size));
+        for (int i = 0; i < size; i++) {
+          navigationProperties.add(readNavigationProperty());
+        }
+        type.setNavigationProperties(navigationProperties);
+      }
+    }
+
+    CsdlProperty readProperty() throws IOException {
+      final CsdlProperty property = new CsdlProperty();
+      property.setName(readString());
+      property.setType(readString());
+      property.setCollection(readBoolean());
+      property.setNullable(readBoolean());
+      property.setDefaultValue(readString());
+      property.setMaxLength(readInteger());
+      property.setPrecision(readInteger());
+      property.setScale(readInteger());
+      property.setUnicode(readBoolean());
+      property.setMimeType(readString());
+      property.setSrid(readSrid());
+      return property;
+    }
+
+    CsdlNavigationProperty readNavigationProperty() throws IOException {
+      final CsdlNavigationProperty navigationProperty = new CsdlNavigationProperty();
+      navigationProperty.setName(readString());
+      navigationProperty.setType(readFullQualifiedName());
+      navigationProperty.setCollection(readBoolean());
+      navigationProperty.setPartner(readString());
+      navigationProperty.setContainsTarget(readBoolean());
+      final String nullable = readString();
+      navigationProperty.setNullable(nullable == null ? null : Boolean.valueOf(nullable));
+      final int size = readListSize();
+      if (size >= 0) {
+        final List<CsdlReferentialConstraint> constraints = new ArrayList<CsdlReferentialConstraint>(capacity(size));
+        for (int i = 0; i < size; i++) {
+          constraints.add(new CsdlReferentialConstraint().setProperty(readString())
+              .setReferencedProperty(readString()));
+        }
+        navigationProperty.setReferentialConstraints(constraints);
+      }
+      final String onDeleteAction = readString();
+      if (onDeleteAction != null) {
+        navigationProperty.setOnDelete(new CsdlOnDelete().setAction(CsdlOnDeleteAction.valueOf(onDeleteAction)));
+      }
+      return navigationProperty;
+    }
+
+    void readOperation(final CsdlOperation operation) throws IOException {
+      operation.setName(readString());
+      operation.setBound(readBoolean());
+      operation.setEntitySetPath(readString());
+      final int size = readListSize();
+      if (size >= 0) {
+        final List<CsdlParameter> parameters = new ArrayList<CsdlParameter>(capacity(size));
+        for (int i = 0; i < size; i++) {
+          final CsdlParameter parameter = new CsdlParameter();
+          parameter.setName(readString());
+          parameter.setType(readFullQualifiedName());
+          parameter.setCollection(readBoolean());
+          parameter.setNullable(readBoolean());
+          parameter.setMaxLength(readInteger());
+          parameter.setPrecision(readInteger());
+          parameter.setScale(readInteger());
+          parameter.setSrid(readSrid());
+          parameters.add(parameter);
+        }
+        operation.setParameters(parameters);
+      }
+      if (readBoolean()) {
+        final CsdlReturnType returnType = new CsdlReturnType();
+        returnType.setType(readFullQualifiedName());
+        returnType.setCollection(readBoolean());
+        returnType.setNullable(readBoolean());
+        returnType.setMaxLength(readInteger());
+        returnType.setPrecision(readInteger());
+        returnType.setScale(readInteger());
+        returnType.setSrid(readSrid());
+        operation.setReturnType(returnType);
+      }
+    }
+
+    CsdlTerm readTerm() throws IOException {
+      final CsdlTerm term = new CsdlTerm();
+      term.setName(readString());
+      term.setType(readString());
+      term.setBaseTerm(readString());
+      final int size = readListSize();
+      if (size >= 0) {
+        final List<String> appliesTo = new ArrayList<String>(capacity(size));
+        for (int i = 0; i < size; i++) {
+          appliesTo.add(readString());
+        }
+        term.setAppliesTo(appliesTo);
+      }
+      term.setCollection(readBoolean());
+      term.setDefaultValue(readString());
+      term.setNullable(readBoolean());
+      term.setMaxLength(readInteger());
+      term.setPrecision(readInteger());
+      term.setScale(readInteger());
+      term.setSrid(readSrid());
+      return term;
+    }
+
+    CsdlEntityContainer readEntityContainer() throws IOException {
+      final CsdlEntityContainer container = new CsdlEntityContainer();
+      container.setName(readString());
+      final String extendsContainer = readString();
+      if (extendsContainer != null) {
+        container.setExtendsContainer(extendsContainer);
+      }
+      int size = readListSize();
+      if (size >= 0) {
+        final List<CsdlEntitySet> entitySets = new ArrayList<CsdlEntitySet>(capacity(size));
+        for (int i = 0; i < size; i++) {
+          final CsdlEntitySet entitySet = new CsdlEntitySet();
+          readBindingTarget(entitySet);
+          entitySet.setIncludeInServiceDocument(readBoolean());
+          entitySets.add(entitySet);
+        }
+        container.setEntitySets(entitySets);
+      }
+      size = readListSize();
+      if (size >= 0) {
+        final List<CsdlSingleton> singletons = new ArrayList<CsdlSingleton>(capacity(size));
+        for (int i = 0; i < size; i++) {
+          final CsdlSingleton singleton = new CsdlSingleton();
+          readBindingTarget(singleton);
+          singletons.add(singleton);
+        }
+        container.setSingletons(singletons);
+      }
+      size = readListSize();
+      if (size >= 0) {
+        final List<CsdlActionImport> actionImports = new ArrayList<CsdlActionImport>(capacity(size));
+        for (int i = 0; i < size; i++) {
+          final CsdlActionImport actionImport = new CsdlActionImport();
+          actionImport.setName(readString());
+          actionImport.setEntitySet(readString());
+          actionImport.setAction(readFullQualifiedName());
+          actionImports.add(actionImport);
+        }
+        container.setActionImports(actionImports);
+      }
+      size = readListSize();
+      if (size >= 0) {
+        final List<CsdlFunctionImport> functionImports = new ArrayList<CsdlFunctionImport>(capacity(size));
+        for (int i = 0; i < size; i++) {
+          final CsdlFunctionImport functionImport = new CsdlFunctionImport();
+          functionImport.setName(readString());
+          functionImport.setEntitySet(readString());
+          functionImport.setFunction(readFullQualifiedName());
+          functionImport.setIncludeInServiceDocument(readBoolean());
+          functionImports.add(functionImport);
+        }
+        container.setFunctionImports(functionImports);
+      }
+      return container;
+    }
+
+    void readBindingTarget(final CsdlBindingTarget bindingTarget) throws IOException {
+      bindingTarget.setName(readString());
+      bindingTarget.setType(readFullQualifiedName());
+      final int size = readListSize();
+      if (size >= 0) {
+        final List<CsdlNavigationPropertyBinding> bindings =
+            new ArrayList<CsdlNavigationPropertyBinding>(capacity(size));
+        for (int i = 0; i < size; i++) {
+          bindings.add(new CsdlNavigationPropertyBinding().setPath(readString()).setTarget(readString()));
+        }
+        bindingTarget.setNavigationPropertyBindings(bindings);
+      }
+    }
+  }
+}
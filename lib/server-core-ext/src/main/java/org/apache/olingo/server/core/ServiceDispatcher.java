@@ -76,8 +76,9 @@ public class ServiceDispatcher extends RequestURLHierarchyVisitor {
   public void execute(ODataRequest odRequest, ODataResponse odResponse)
       throws ODataTranslatedException, ODataApplicationException {
 
-    UriInfo uriInfo = new Parser().parseUri(odRequest.getRawODataPath(), odRequest.getRawQueryPath(), null,
-        this.metadata.getEdm());
+    UriInfo uriInfo = new Parser(this.metadata instanceof ServiceMetadataImpl ?
+        ((ServiceMetadataImpl) this.metadata).getUriInfoCache() : null)
+        .parseUri(odRequest.getRawODataPath(), odRequest.getRawQueryPath(), null, this.metadata.getEdm());
 
     new UriValidator().validate(uriInfo, odRequest.getMethod());
 
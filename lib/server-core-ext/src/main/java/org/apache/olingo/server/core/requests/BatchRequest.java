@@ -18,7 +18,6 @@
  */
 package org.apache.olingo.server.core.requests;
 
-import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
@@ -29,6 +28,7 @@ import org.apache.olingo.commons.api.http.HttpHeader;
 import org.apache.olingo.commons.api.http.HttpStatusCode;
 import org.apache.olingo.server.api.OData;
 import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.ODataContent;
 import org.apache.olingo.server.api.ODataRequest;
 import org.apache.olingo.server.api.ODataResponse;
 import org.apache.olingo.server.api.ODataTranslatedException;
@@ -113,11 +113,11 @@ public class BatchRequest extends ServiceRequest {
     // send response
     final String responseBoundary = "batch_" + UUID.randomUUID().toString();
     ;
-    final InputStream responseContent = odata.createFixedFormatSerializer().batchResponse(
+    final ODataContent responseContent = odata.createFixedFormatSerializer().batchResponseContent(
         responseParts, responseBoundary);
     response.setHeader(HttpHeader.CONTENT_TYPE, ContentType.MULTIPART_MIXED + ";boundary="
         + responseBoundary);
-    response.setContent(responseContent);
+    response.setODataContent(responseContent);
     response.setStatusCode(HttpStatusCode.ACCEPTED.getStatusCode());
   }
 
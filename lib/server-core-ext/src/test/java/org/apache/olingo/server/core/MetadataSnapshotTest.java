@@ -0,0 +1,355 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.io.IOUtils;
+
+import org.apache.olingo.commons.api.ODataException;
+import org.apache.olingo.commons.api.edm.FullQualifiedName;
+import org.apache.olingo.commons.api.edm.geo.SRID;
+import org.apache.olingo.commons.api.edm.provider.CsdlAction;
+import org.apache.olingo.commons.api.edm.provider.CsdlActionImport;
+import org.apache.olingo.commons.api.edm.provider.CsdlAnnotation;
+import org.apache.olingo.commons.api.edm.provider.CsdlComplexType;
+import org.apache.olingo.commons.api.edm.provider.CsdlEdmProvider;
+import org.apache.olingo.commons.api.edm.provider.CsdlEntityContainer;
+import org.apache.olingo.commons.api.edm.provider.CsdlEntitySet;
+import org.apache.olingo.commons.api.edm.provider.CsdlEntityType;
+import org.apache.olingo.commons.api.edm.provider.CsdlEnumMember;
+import org.apache.olingo.commons.api.edm.provider.CsdlEnumType;
+import org.apache.olingo.commons.api.edm.provider.CsdlFunction;
+import org.apache.olingo.commons.api.edm.provider.CsdlFunctionImport;
+import org.apache.olingo.commons.api.edm.provider.CsdlNavigationProperty;
+import org.apache.olingo.commons.api.edm.provider.CsdlNavigationPropertyBinding;
+import org.apache.olingo.commons.api.edm.provider.CsdlOnDelete;
+import org.apache.olingo.commons.api.edm.provider.CsdlOnDeleteAction;
+import org.apache.olingo.commons.api.edm.provider.CsdlParameter;
+import org.apache.olingo.commons.api.edm.provider.CsdlProperty;
+import org.apache.olingo.commons.api.edm.provider.CsdlPropertyRef;
+import org.apache.olingo.commons.api.edm.provider.CsdlReferentialConstraint;
+import org.apache.olingo.commons.api.edm.provider.CsdlReturnType;
+import org.apache.olingo.commons.api.edm.provider.CsdlSchema;
+import org.apache.olingo.commons.api.edm.provider.CsdlSingleton;
+import org.apache.olingo.commons.api.edm.provider.CsdlTerm;
+import org.apache.olingo.commons.api.edm.provider.CsdlTypeDefinition;
+import org.apache.olingo.commons.api.format.ODataFormat;
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.edmx.EdmxReference;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MetadataSnapshotTest {
+  final String NS = "Microsoft.OData.SampleService.Models.TripPin";
+  final FullQualifiedName NSF = new FullQualifiedName(NS);
+
+  CsdlEdmProvider original = null;
+  CsdlEdmProvider provider = null;
+
+  @Before
+  public void setUp() throws Exception {
+    original = new MetadataParser().buildEdmProvider(new FileReader("src/test/resources/trippin.xml"));
+    provider = roundTrip(original);
+  }
+
+  @Test
+  public void testSchema() throws ODataException {
+    assertEquals(original.getSchemas().size(), provider.getSchemas().size());
+    final CsdlSchema schema = provider.getSchemas().get(0);
+    assertEquals(NS, schema.getNamespace());
+    assertEquals(original.getSchemas().get(0).getEntityTypes().size(), schema.getEntityTypes().size());
+    assertEquals(original.getSchemas().get(0).getComplexTypes().size(), schema.getComplexTypes().size());
+    assertEquals(original.getSchemas().get(0).getFunctions().size(), schema.getFunctions().size());
+    assertEquals(original.getSchemas().get(0).getActions().size(), schema.getActions().size());
+  }
+
+  @Test
+  public void testEnumType() throws ODataException {
+    CsdlEnumType enumType = provider.getEnumType(new FullQualifiedName(NS, "PersonGender"));
+    assertNotNull(enumType);
+    assertEquals(3, enumType.getMembers().size());
+    assertEquals("Female", enumType.getMembers().get(1).getName());
+    assertEquals("1", enumType.getMembers().get(1).getValue());
+  }
+
+  @Test
+  public void testEntityType() throws ODataException {
+    CsdlEntityType et = provider.getEntityType(new FullQualifiedName(NS, "Photo"));
+    assertNotNull(et);
+    assertEquals("Id", et.getKey().get(0).getName());
+    assertTrue(et.hasStream());
+    assertEquals("Edm.Int64", et.getProperties().get(0).getType());
+    assertFalse(et.getProperties().get(0).isNullable());
+
+    et = provider.getEntityType(new FullQualifiedName(NS, "Flight"));
+    assertEquals(NS + ".PublicTransportation", et.getBaseType());
+    assertEquals(original.getEntityType(new FullQualifiedName(NS, "Flight")).getNavigationProperties().size(),
+        et.getNavigationProperties().size());
+  }
+
+  @Test
+  public void testComplexType() throws ODataException {
+    CsdlComplexType ct = provider.getComplexType(new FullQualifiedName(NS, "EventLocation"));
+    assertNotNull(ct);
+    assertEquals(NS + ".Location", ct.getBaseType());
+    assertTrue(ct.isOpenType());
+    CsdlProperty p = provider.getComplexType(new FullQualifiedName(NS, "City")).getProperties().get(0);
+    assertEquals("CountryRegion", p.getName());
+    assertFalse(p.isNullable());
+  }
+
+  @Test
+  public void testFunction() throws ODataException {
+    CsdlFunction function = provider.getFunctions(new FullQualifiedName(NS, "GetFavoriteAirline")).get(0);
+    assertTrue(function.isBound());
+    assertTrue(function.isComposable());
+    assertEquals(NS + ".Person", function.getParameters().get(0).getType());
+    assertEquals(NS + ".Airline", function.getReturnType().getType());
+  }
+
+  @Test
+  public void testEntityContainer() throws ODataException {
+    CsdlEntitySet es = provider.getEntitySet(NSF, "People");
+    assertEquals(NS + ".Person", es.getType());
+    assertEquals(6, es.getNavigationPropertyBindings().size());
+    assertEquals("Airports", es.getNavigationPropertyBindings().get(2).getTarget());
+
+    CsdlFunctionImport fi = provider.getFunctionImport(NSF, "GetNearestAirport");
+    assertEquals(NS + ".GetNearestAirport", fi.getFunction());
+    assertTrue(fi.isIncludeInServiceDocument());
+    assertNull(provider.getActionImport(NSF, "ResetDataSource").getEntitySet());
+    assertEquals(NS + ".Person", provider.getSingleton(NSF, "Me").getType());
+  }
+
+  @Test
+  public void generatedModel() throws Exception {
+    final CsdlEdmProvider generated = generateModel(100);
+    final CsdlEdmProvider restored = roundTrip(generated);
+    final CsdlSchema schema = restored.getSchemas().get(0);
+    assertEquals(200, schema.getEntityTypes().size());
+    assertEquals(100, schema.getComplexTypes().size());
+    assertEquals(200, schema.getFunctions().size());
+    assertEquals(200, schema.getActions().size());
+    assertEquals(100, schema.getEntityContainer().getEntitySets().size());
+    assertEquals(metadataDocument(generated), metadataDocument(restored));
+  }
+
+  @Test
+  public void invalidInput() throws Exception {
+    assertInvalid("<edmx:Edmx/>".getBytes("UTF-8"));
+  }
+
+  @Test
+  public void truncatedInput() throws Exception {
+    final byte[] snapshot = snapshot();
+    assertInvalid(Arrays.copyOf(snapshot, snapshot.length / 2));
+  }
+
+  @Test
+  public void invalidStringCount() throws Exception {
+    final byte[] snapshot = snapshot();
+    ByteBuffer.wrap(snapshot).putInt(8, -1);
+    assertInvalid(snapshot);
+    ByteBuffer.wrap(snapshot).putInt(8, Integer.MAX_VALUE);
+    assertInvalid(snapshot);
+  }
+
+  @Test
+  public void invalidStringLength() throws Exception {
+    final byte[] snapshot = snapshot();
+    ByteBuffer.wrap(snapshot).putInt(12, -1);
+    assertInvalid(snapshot);
+    ByteBuffer.wrap(snapshot).putInt(12, Integer.MAX_VALUE);
+    assertInvalid(snapshot);
+  }
+
+  @Test
+  public void invalidStringIndex() throws Exception {
+    // one schema with the largest possible index as namespace
+    assertInvalid(withBody(snapshot(), 0x01, 0xFF, 0xFF, 0xFF, 0xFF, 0x07));
+  }
+
+  @Test
+  public void tooLongCount() throws Exception {
+    assertInvalid(withBody(snapshot(), 0x80, 0x80, 0x80, 0x80, 0x80, 0x01));
+  }
+
+  @Test(expected = ODataException.class)
+  public void annotationsAreRejected() throws Exception {
+    CsdlEntityType entityType = new CsdlEntityType().setName("Annotated");
+    entityType.getAnnotations().add(new CsdlAnnotation().setTerm("Core.Description"));
+    SchemaBasedEdmProvider annotated = new SchemaBasedEdmProvider();
+    annotated.addSchema(new CsdlSchema().setNamespace(NS).setEntityTypes(Collections.singletonList(entityType)));
+    new MetadataSnapshot().write(annotated, new ByteArrayOutputStream());
+  }
+
+  private CsdlEdmProvider roundTrip(final CsdlEdmProvider edmProvider) throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new MetadataSnapshot().write(edmProvider, out);
+    return new MetadataSnapshot().read(new ByteArrayInputStream(out.toByteArray()));
+  }
+
+  private byte[] snapshot() throws Exception {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new MetadataSnapshot().write(original, out);
+    return out.toByteArray();
+  }
+
+  /** Replaces everything after the string table of the given snapshot with the given bytes. */
+  private byte[] withBody(final byte[] snapshot, final int... body) throws IOException {
+    final DataInputStream in = new DataInputStream(new ByteArrayInputStream(snapshot));
+    in.skipBytes(8);
+    final int count = in.readInt();
+    int offset = 12;
+    for (int i = 0; i < count; i++) {
+      final int length = in.readInt();
+      in.skipBytes(length);
+      offset += 4 + length;
+    }
+    final byte[] result = Arrays.copyOf(snapshot, offset + body.length);
+    for (int i = 0; i < body.length; i++) {
+      result[offset + i] = (byte) body[i];
+    }
+    return result;
+  }
+
+  private void assertInvalid(final byte[] snapshot) {
+    try {
+      new MetadataSnapshot().read(new ByteArrayInputStream(snapshot));
+      fail("Expected exception not thrown!");
+    } catch (final IOException e) {
+      assertEquals("The input is not a valid metadata snapshot.", e.getMessage());
+    }
+  }
+
+  private String metadataDocument(final CsdlEdmProvider edmProvider) throws Exception {
+    final OData odata = OData.newInstance();
+    return IOUtils.toString(odata.createSerializer(ODataFormat.XML).metadataDocument(
+        odata.createServiceMetadata(edmProvider, Collections.<EdmxReference> emptyList())).getContent());
+  }
+
+  /**
+   * Generates a model with the given number of complex types and twice as many entity types,
+   * using each kind of schema element and facet the snapshot supports.
+   */
+  private CsdlEdmProvider generateModel(final int size) {
+    final String namespace = "Generated.Model";
+    final String alias = "G";
+    final List<CsdlEntityType> entityTypes = new ArrayList<CsdlEntityType>();
+    final List<CsdlComplexType> complexTypes = new ArrayList<CsdlComplexType>();
+    final List<CsdlAction> actions = new ArrayList<CsdlAction>();
+    final List<CsdlFunction> functions = new ArrayList<CsdlFunction>();
+    final List<CsdlTerm> terms = new ArrayList<CsdlTerm>();
+    final List<CsdlEntitySet> entitySets = new ArrayList<CsdlEntitySet>();
+    final List<CsdlSingleton> singletons = new ArrayList<CsdlSingleton>();
+    final List<CsdlActionImport> actionImports = new ArrayList<CsdlActionImport>();
+    final List<CsdlFunctionImport> functionImports = new ArrayList<CsdlFunctionImport>();
+
+    for (int i = 0; i < size; i++) {
+      final String item = "Item" + i;
+      final String next = "Item" + (i + 1) % size;
+      complexTypes.add(new CsdlComplexType().setName("Address" + i).setOpenType(i % 2 == 0)
+          .setProperties(Arrays.asList(
+              new CsdlProperty().setName("Street").setType("Edm.String").setMaxLength(60).setUnicode(false),
+              new CsdlProperty().setName("Location").setType("Edm.GeographyPoint").setSrid(SRID.valueOf("4326")),
+              new CsdlProperty().setName("Color").setType(namespace + ".Color").setDefaultValue("Red"))));
+
+      entityTypes.add(new CsdlEntityType().setName(item)
+          .setKey(Collections.singletonList(new CsdlPropertyRef().setName("Id")))
+          .setProperties(Arrays.asList(
+              new CsdlProperty().setName("Id").setType("Edm.Int64").setNullable(false),
+              new CsdlProperty().setName("NextId").setType("Edm.Int64"),
+              new CsdlProperty().setName("Name").setType("Edm.String").setMaxLength(100).setDefaultValue("none"),
+              new CsdlProperty().setName("Price").setType("Edm.Decimal").setPrecision(12).setScale(2),
+              new CsdlProperty().setName("Picture").setType("Edm.Stream").setMimeType("image/png"),
+              new CsdlProperty().setName("Code").setType(namespace + ".Code"),
+              new CsdlProperty().setName("Address").setType(namespace + ".Address" + i),
+              new CsdlProperty().setName("Tags").setType("Edm.String").setCollection(true)))
+          .setNavigationProperties(Arrays.asList(
+              new CsdlNavigationProperty().setName("Next").setType(namespace + "." + next).setNullable(true)
+                  .setReferentialConstraints(Collections.singletonList(
+                      new CsdlReferentialConstraint().setProperty("NextId").setReferencedProperty("Id")))
+                  .setOnDelete(new CsdlOnDelete().setAction(CsdlOnDeleteAction.SetNull)),
+              new CsdlNavigationProperty().setName("Parts").setType(namespace + ".Special" + i)
+                  .setCollection(true).setContainsTarget(true))));
+      entityTypes.add(new CsdlEntityType().setName("Special" + i).setBaseType(namespace + "." + item)
+          .setHasStream(true).setAbstract(i % 3 == 0)
+          .setProperties(Collections.singletonList(
+              new CsdlProperty().setName("Rating").setType("Edm.Double"))));
+
+      functions.add(new CsdlFunction().setName("Find" + i).setComposable(true)
+          .setParameters(Collections.singletonList(
+              new CsdlParameter().setName("Name").setType("Edm.String").setNullable(false).setMaxLength(20)))
+          .setReturnType(new CsdlReturnType().setType(namespace + "." + item).setCollection(true)));
+      functions.add(new CsdlFunction().setName("Rank" + i).setBound(true)
+          .setParameters(Collections.singletonList(
+              new CsdlParameter().setName("It").setType(namespace + "." + item)))
+          .setReturnType(new CsdlReturnType().setType("Edm.Decimal").setPrecision(5).setScale(1)));
+      actions.add(new CsdlAction().setName("Reset" + i).setBound(true).setEntitySetPath("Items/Next")
+          .setParameters(Arrays.asList(
+              new CsdlParameter().setName("Items").setType(namespace + "." + item).setCollection(true),
+              new CsdlParameter().setName("Where").setType("Edm.GeometryPoint").setSrid(SRID.valueOf("variable"))))
+          .setReturnType(new CsdlReturnType().setType(namespace + "." + next).setNullable(false)));
+      actions.add(new CsdlAction().setName("Clear" + i));
+      terms.add(new CsdlTerm().setName("Note" + i).setType("Edm.String").setMaxLength(200)
+          .setAppliesTo(Arrays.asList("EntityType", "Property")).setDefaultValue("-"));
+
+      entitySets.add(new CsdlEntitySet().setName("Items" + i).setType(namespace + "." + item)
+          .setNavigationPropertyBindings(Collections.singletonList(
+              new CsdlNavigationPropertyBinding().setPath("Next").setTarget("Items" + (i + 1) % size))));
+      singletons.add(new CsdlSingleton().setName("Top" + i).setType(namespace + "." + item));
+      actionImports.add(new CsdlActionImport().setName("Clear" + i).setAction(alias + ".Clear" + i));
+      functionImports.add(new CsdlFunctionImport().setName("Find" + i).setFunction(namespace + ".Find" + i)
+          .setEntitySet("Items" + i).setIncludeInServiceDocument(true));
+    }
+
+    final CsdlSchema schema = new CsdlSchema().setNamespace(namespace).setAlias(alias)
+        .setEnumTypes(Collections.singletonList(new CsdlEnumType().setName("Color").setUnderlyingType("Edm.Byte")
+            .setFlags(true).setMembers(Arrays.asList(
+                new CsdlEnumMember().setName("Red").setValue("1"),
+                new CsdlEnumMember().setName("Blue").setValue("2")))))
+        .setTypeDefinitions(Collections.singletonList(new CsdlTypeDefinition().setName("Code")
+            .setUnderlyingType("Edm.String").setMaxLength(8).setUnicode(false)))
+        .setEntityTypes(entityTypes).setComplexTypes(complexTypes)
+        .setActions(actions).setFunctions(functions).setTerms(terms)
+        .setEntityContainer(new CsdlEntityContainer().setName("Container")
+            .setEntitySets(entitySets).setSingletons(singletons)
+            .setActionImports(actionImports).setFunctionImports(functionImports));
+    final SchemaBasedEdmProvider provider = new SchemaBasedEdmProvider();
+    provider.addSchema(schema);
+    return provider;
+  }
+}
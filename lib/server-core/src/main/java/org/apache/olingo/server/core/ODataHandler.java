@@ -41,6 +41,7 @@ import org.apache.olingo.server.api.serializer.CustomContentTypeSupport;
 import org.apache.olingo.server.api.serializer.RepresentationType;
 import org.apache.olingo.server.api.serializer.SerializerException;
 import org.apache.olingo.server.api.uri.UriInfo;
+import org.apache.olingo.server.core.batchhandler.ParallelBatchExecutor;
 import org.apache.olingo.server.core.uri.parser.Parser;
 import org.apache.olingo.server.core.uri.parser.UriParserException;
 import org.apache.olingo.server.core.uri.parser.UriParserSemanticException;
@@ -55,8 +56,7 @@ public class ODataHandler {
   private final List<Processor> processors = new LinkedList<Processor>();
   private CustomContentTypeSupport customContentTypeSupport;
   private CustomETagSupport customETagSupport;
-
-  private UriInfo uriInfo;
+  private ParallelBatchExecutor batchExecutor;
 
   public ODataHandler(final OData server, final ServiceMetadata serviceMetadata) {
     odata = server;
@@ -66,65 +66,85 @@ public class ODataHandler {
     register(new DefaultProcessor());
   }
 
+  private ODataHandler(final ODataHandler handler) {
+    odata = handler.odata;
+    serviceMetadata = handler.serviceMetadata;
+    processors.addAll(handler.processors);
+    customContentTypeSupport = handler.customContentTypeSupport;
+    customETagSupport = handler.customETagSupport;
+    batchExecutor = handler.batchExecutor;
+  }
+
+  /**
+   * Creates a handler with the same configuration as this handler.
+   * <p>The copy has its own processor list but shares the registered processor instances,
+   * so the processors must be thread-safe if the copy is used concurrently with this handler.</p>
+   * @return a new handler
+   */
+  public ODataHandler copy() {
+    return new ODataHandler(this);
+  }
+
   public ODataResponse process(final ODataRequest request) {
     ODataResponse response = new ODataResponse();
+    // The URI info is kept local so that requests of a batch request can be processed concurrently.
+    UriInfo uriInfo = null;
     try {
+      validateODataVersion(request, response);
 
-      processInternal(request, response);
+      uriInfo = new Parser(serviceMetadata instanceof ServiceMetadataImpl ?
+          ((ServiceMetadataImpl) serviceMetadata).getUriInfoCache() : null)
+          .parseUri(request.getRawODataPath(), request.getRawQueryPath(), null, serviceMetadata.getEdm());
+
+      final HttpMethod method = request.getMethod();
+      new UriValidator().validate(uriInfo, method);
+
+      new ODataDispatcher(method, uriInfo, this).dispatch(request, response);
 
     } catch (final UriValidationException e) {
       ODataServerError serverError = ODataExceptionHelper.createServerErrorObject(e, null);
-      handleException(request, response, serverError);
+      handleException(request, response, serverError, uriInfo);
     } catch (final UriParserSemanticException e) {
       ODataServerError serverError = ODataExceptionHelper.createServerErrorObject(e, null);
-      handleException(request, response, serverError);
+      handleException(request, response, serverError, uriInfo);
     } catch (final UriParserSyntaxException e) {
       ODataServerError serverError = ODataExceptionHelper.createServerErrorObject(e, null);
-      handleException(request, response, serverError);
+      handleException(request, response, serverError, uriInfo);
     } catch (final UriParserException e) {
       ODataServerError serverError = ODataExceptionHelper.createServerErrorObject(e, null);
-      handleException(request, response, serverError);
+      handleException(request, response, serverError, uriInfo);
     } catch (ContentNegotiatorException e) {
       ODataServerError serverError = ODataExceptionHelper.createServerErrorObject(e, null);
-      handleException(request, response, serverError);
+      handleException(request, response, serverError, uriInfo);
     } catch (SerializerException e) {
       ODataServerError serverError = ODataExceptionHelper.createServerErrorObject(e, null);
-      handleException(request, response, serverError);
+      handleException(request, response, serverError, uriInfo);
     } catch (DeserializerException e) {
       ODataServerError serverError = ODataExceptionHelper.createServerErrorObject(e, null);
-      handleException(request, response, serverError);
+      handleException(request, response, serverError, uriInfo);
     } catch (PreconditionRequiredException e) {
       ODataServerError serverError = ODataExceptionHelper.createServerErrorObject(e, null);
-      handleException(request, response, serverError);
+      handleException(request, response, serverError, uriInfo);
     } catch (ODataHandlerException e) {
       ODataServerError serverError = ODataExceptionHelper.createServerErrorObject(e, null);
-      handleException(request, response, serverError);
+      handleException(request, response, serverError, uriInfo);
     } catch (ODataApplicationException e) {
       ODataServerError serverError = ODataExceptionHelper.createServerErrorObject(e);
-      handleException(request, response, serverError);
+      handleException(request, response, serverError, uriInfo);
     } catch (Exception e) {
       ODataServerError serverError = ODataExceptionHelper.createServerErrorObject(e);
-      handleException(request, response, serverError);
+      handleException(request, response, serverError, uriInfo);
     }
     return response;
   }
 
-  private void processInternal(final ODataRequest request, final ODataResponse response)
-      throws ODataHandlerException, UriParserException, UriValidationException, ContentNegotiatorException,
-      ODataApplicationException, SerializerException, DeserializerException, PreconditionRequiredException {
-    validateODataVersion(request, response);
-
-    uriInfo = new Parser().parseUri(request.getRawODataPath(), request.getRawQueryPath(), null,
-        serviceMetadata.getEdm());
-
-    final HttpMethod method = request.getMethod();
-    new UriValidator().validate(uriInfo, method);
-
-    new ODataDispatcher(method, uriInfo, this).dispatch(request, response);
-  }
-
   public void handleException(final ODataRequest request, final ODataResponse response,
       final ODataServerError serverError) {
+    handleException(request, response, serverError, null);
+  }
+
+  private void handleException(final ODataRequest request, final ODataResponse response,
+      final ODataServerError serverError, final UriInfo uriInfo) {
 
     ErrorProcessor exceptionProcessor;
     try {
@@ -187,4 +207,16 @@ public class ODataHandler {
   public CustomETagSupport getCustomETagSupport() {
     return customETagSupport;
   }
+
+  /**
+   * Sets the executor for the concurrent execution of independent requests within batch requests.
+   * @param batchExecutor the executor or <code>null</code> to execute all requests sequentially
+   */
+  public void setBatchExecutor(final ParallelBatchExecutor batchExecutor) {
+    this.batchExecutor = batchExecutor;
+  }
+
+  public ParallelBatchExecutor getBatchExecutor() {
+    return batchExecutor;
+  }
 }
@@ -26,6 +26,7 @@ import java.util.ArrayList;
 import java.util.Enumeration;
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.concurrent.ExecutorService;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
@@ -34,6 +35,7 @@ import org.apache.olingo.commons.api.ODataRuntimeException;
 import org.apache.olingo.commons.api.http.HttpHeader;
 import org.apache.olingo.commons.api.http.HttpMethod;
 import org.apache.olingo.server.api.CustomETagSupport;
+import org.apache.olingo.server.api.ODataContent;
 import org.apache.olingo.server.api.ODataServerError;
 import org.apache.olingo.server.api.OData;
 import org.apache.olingo.server.api.ODataHttpHandler;
@@ -44,6 +46,8 @@ import org.apache.olingo.server.api.ServiceMetadata;
 import org.apache.olingo.server.api.processor.Processor;
 import org.apache.olingo.server.api.serializer.CustomContentTypeSupport;
 import org.apache.olingo.server.api.serializer.SerializerException;
+import org.apache.olingo.server.core.batchhandler.ParallelBatchExecutor;
+import org.apache.olingo.server.core.serializer.utils.CircleStreamBuffer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -79,6 +83,23 @@ public class ODataHttpHandlerImpl implements ODataHttpHandler {
     this.split = split;
   }
 
+  /**
+   * <p>Enables the concurrent execution of independent requests within batch requests.</p>
+   * <p>Only GET requests outside of change sets that do not reference a Content-ID are executed concurrently;
+   * change sets are still executed one after the other, in request order.
+   * Each of these requests is handled by its own copy of the internal handler, but the registered processors
+   * are shared, so they must be thread-safe.</p>
+   * <p>This only has an effect if the batch processor uses
+   * {@link org.apache.olingo.server.api.batch.ConcurrentBatchFacade#handleBatchRequests}.</p>
+   * @param executorService the executor service the requests are executed in;
+   * <code>null</code> disables concurrent execution, which is the default
+   * @param maxConcurrency the maximum number of requests of one batch request that are executed at the same time
+   */
+  public void setBatchExecutorService(final ExecutorService executorService, final int maxConcurrency) {
+    handler.setBatchExecutor(executorService == null ? null :
+        new ParallelBatchExecutor(executorService, maxConcurrency));
+  }
+
   private ODataResponse handleException(final ODataRequest odRequest, final Exception e) {
     ODataResponse resp = new ODataResponse();
     ODataServerError serverError;
@@ -100,15 +121,24 @@ public class ODataHttpHandlerImpl implements ODataHttpHandler {
       response.setHeader(entry.getKey(), entry.getValue());
     }
 
+    if (odResponse.getODataContent() != null) {
+      writeContent(response, odResponse.getODataContent());
+      return;
+    }
+
     InputStream input = odResponse.getContent();
     if (input != null) {
       OutputStream output = null;
       try {
         output = response.getOutputStream();
-        byte[] buffer = new byte[1024];
-        int n;
-        while (-1 != (n = input.read(buffer))) {
-          output.write(buffer, 0, n);
+        if (input instanceof CircleStreamBuffer.BufferInputStream) {
+          ((CircleStreamBuffer.BufferInputStream) input).transferTo(output);
+        } else {
+          byte[] buffer = new byte[1024];
+          int n;
+          while (-1 != (n = input.read(buffer))) {
+            output.write(buffer, 0, n);
+          }
         }
       } catch (IOException e) {
         LOG.error(e.getMessage(), e);
@@ -120,6 +150,19 @@ public class ODataHttpHandlerImpl implements ODataHttpHandler {
     }
   }
 
+  private static void writeContent(final HttpServletResponse response, final ODataContent content) {
+    OutputStream output = null;
+    try {
+      output = response.getOutputStream();
+      content.write(output);
+    } catch (IOException e) {
+      LOG.error(e.getMessage(), e);
+      throw new ODataRuntimeException(e);
+    } finally {
+      closeStream(output);
+    }
+  }
+
   private static void closeStream(final Closeable closeable) {
     if (closeable != null) {
       try {
@@ -37,11 +37,14 @@ import org.apache.olingo.server.api.deserializer.ODataDeserializer;
 import org.apache.olingo.server.api.edmx.EdmxReference;
 import org.apache.olingo.server.api.serializer.FixedFormatSerializer;
 import org.apache.olingo.server.api.serializer.ODataSerializer;
+import org.apache.olingo.server.api.serializer.SerializedDocument;
 import org.apache.olingo.server.api.serializer.SerializerException;
+import org.apache.olingo.server.api.serializer.SerializerResult;
 import org.apache.olingo.server.api.uri.UriHelper;
 import org.apache.olingo.server.core.deserializer.FixedFormatDeserializerImpl;
 import org.apache.olingo.server.core.deserializer.json.ODataJsonDeserializer;
 import org.apache.olingo.server.core.serializer.FixedFormatSerializerImpl;
+import org.apache.olingo.server.core.serializer.SerializedDocumentImpl;
 import org.apache.olingo.server.core.serializer.json.ODataJsonSerializer;
 import org.apache.olingo.server.core.serializer.xml.ODataXmlSerializerImpl;
 import org.apache.olingo.server.core.uri.UriHelperImpl;
@@ -84,6 +87,12 @@ public class ODataImpl extends OData {
     return new ServiceMetadataImpl(edmProvider, references);
   }
 
+  @Override
+  public ServiceMetadata createServiceMetadata(final CsdlEdmProvider edmProvider,
+      final List<EdmxReference> references, final boolean compileEdm) {
+    return new ServiceMetadataImpl(edmProvider, references, compileEdm);
+  }
+
   @Override
   public FixedFormatDeserializer createFixedFormatDeserializer() {
     return new FixedFormatDeserializerImpl();
@@ -125,4 +134,9 @@ public class ODataImpl extends OData {
     return new ETagInformation(isAll,
         isAll ? Collections.<String> emptySet() : Collections.unmodifiableCollection(eTags));
   }
+
+  @Override
+  public SerializedDocument createSerializedDocument(final SerializerResult result) throws SerializerException {
+    return SerializedDocumentImpl.fromResult(result);
+  }
 }
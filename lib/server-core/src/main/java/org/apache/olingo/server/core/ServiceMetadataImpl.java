@@ -28,6 +28,7 @@ import org.apache.olingo.commons.api.edm.provider.CsdlEdmProvider;
 import org.apache.olingo.commons.core.edm.EdmProviderImpl;
 import org.apache.olingo.server.api.ServiceMetadata;
 import org.apache.olingo.server.api.edmx.EdmxReference;
+import org.apache.olingo.server.core.uri.parser.UriInfoCache;
 
 /**
  */
@@ -35,10 +36,19 @@ public class ServiceMetadataImpl implements ServiceMetadata {
 
   private final EdmProviderImpl edm;
   private final List<EdmxReference> references = new ArrayList<EdmxReference>();
+  private volatile UriInfoCache uriInfoCache;
 
   public ServiceMetadataImpl(final CsdlEdmProvider edmProvider, final List<EdmxReference> references) {
+    this(edmProvider, references, false);
+  }
+
+  public ServiceMetadataImpl(final CsdlEdmProvider edmProvider, final List<EdmxReference> references,
+      final boolean compileEdm) {
     edm = new EdmProviderImpl(edmProvider);
     this.references.addAll(references);
+    if (compileEdm) {
+      edm.compile();
+    }
   }
 
   @Override
@@ -55,4 +65,18 @@ public class ServiceMetadataImpl implements ServiceMetadata {
   public List<EdmxReference> getReferences() {
     return Collections.unmodifiableList(references);
   }
+
+  /**
+   * Sets the cache for URIs parsed against the metadata of this service.
+   * Caching is disabled by default; it is useful if the same URIs are requested often.
+   * @param uriInfoCache the cache or <code>null</code> to disable caching
+   */
+  public void setUriInfoCache(final UriInfoCache uriInfoCache) {
+    this.uriInfoCache = uriInfoCache;
+  }
+
+  /** Returns the cache for parsed URIs or <code>null</code> if URIs are not cached. */
+  public UriInfoCache getUriInfoCache() {
+    return uriInfoCache;
+  }
 }
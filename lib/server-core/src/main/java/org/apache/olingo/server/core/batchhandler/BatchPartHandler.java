@@ -18,6 +18,9 @@
  */
 package org.apache.olingo.server.core.batchhandler;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.apache.olingo.server.api.ODataRequest;
 import org.apache.olingo.server.api.ODataResponse;
 import org.apache.olingo.server.api.batch.BatchFacade;
@@ -43,6 +46,15 @@ public class BatchPartHandler {
     rewriter = new BatchReferenceRewriter();
   }
 
+  /**
+   * Creates a part handler with its own {@link ODataHandler} for the concurrent execution of
+   * independent requests.
+   * @return a new part handler
+   */
+  public BatchPartHandler copy() {
+    return new BatchPartHandler(oDataHandler.copy(), batchProcessor, batchFascade);
+  }
+
   public ODataResponse handleODataRequest(final ODataRequest request) throws BatchDeserializerException {
     return handle(request, true);
   }
@@ -57,6 +69,26 @@ public class BatchPartHandler {
     }
   }
 
+  public List<ODataResponsePart> handleBatchRequests(final List<BatchRequestPart> requests,
+      final boolean continueOnError) throws BatchDeserializerException {
+    final ParallelBatchExecutor executor = oDataHandler.getBatchExecutor();
+    if (executor != null) {
+      return executor.execute(this, requests, continueOnError);
+    }
+
+    final List<ODataResponsePart> responseParts = new ArrayList<ODataResponsePart>();
+    for (final BatchRequestPart request : requests) {
+      final ODataResponsePart responsePart = handleBatchRequest(request);
+      responseParts.add(responsePart); // Also add failed responses
+
+      if (!continueOnError && ParallelBatchExecutor.isError(responsePart)) {
+        break;
+      }
+    }
+
+    return responseParts;
+  }
+
   public ODataResponse handle(final ODataRequest request, final boolean isChangeSet)
       throws BatchDeserializerException {
     final ODataResponse response;
@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.batchhandler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.olingo.commons.api.ODataRuntimeException;
+import org.apache.olingo.commons.api.http.HttpMethod;
+import org.apache.olingo.server.api.ODataRequest;
+import org.apache.olingo.server.api.batch.exception.BatchDeserializerException;
+import org.apache.olingo.server.api.deserializer.batch.BatchRequestPart;
+import org.apache.olingo.server.api.deserializer.batch.ODataResponsePart;
+import org.apache.olingo.server.core.batchhandler.referenceRewriting.BatchReferenceRewriter;
+
+/**
+ * Executes the parts of a batch request with independent parts running concurrently.
+ * <p>A part is independent if it is a GET request outside of a change set which does not
+ * reference a Content-ID. Consecutive independent parts are executed concurrently, at most
+ * <code>maxConcurrency</code> of them at the same time. All other parts, especially change sets,
+ * are executed alone after all preceding parts have been completed, so their order is kept.</p>
+ * <p>The responses are returned in the order of the requests.</p>
+ * <p>Each concurrently executed part gets its own {@link BatchPartHandler} and thus its own
+ * {@link org.apache.olingo.server.core.ODataHandler} and URI parser. The registered processors,
+ * however, are shared and must be thread-safe.</p>
+ */
+public class ParallelBatchExecutor {
+  private final ExecutorService executorService;
+  private final int maxConcurrency;
+  private final BatchReferenceRewriter rewriter = new BatchReferenceRewriter();
+
+  public ParallelBatchExecutor(final ExecutorService executorService, final int maxConcurrency) {
+    if (executorService == null) {
+      throw new IllegalArgumentException("An executor service is required.");
+    }
+    if (maxConcurrency < 1) {
+      throw new IllegalArgumentException("The maximum concurrency must be at least 1.");
+    }
+    this.executorService = executorService;
+    this.maxConcurrency = maxConcurrency;
+  }
+
+  public List<ODataResponsePart> execute(final BatchPartHandler partHandler, final List<BatchRequestPart> requests,
+      final boolean continueOnError) throws BatchDeserializerException {
+    final List<ODataResponsePart> responseParts = new ArrayList<ODataResponsePart>();
+    int index = 0;
+
+    while (index < requests.size()) {
+      final List<BatchRequestPart> group = getNextGroup(requests, index);
+      index += group.size();
+
+      final List<ODataResponsePart> groupResponseParts = group.size() == 1 ?
+          Collections.singletonList(partHandler.handleBatchRequest(group.get(0))) :
+          executeConcurrently(partHandler, group);
+
+      for (final ODataResponsePart responsePart : groupResponseParts) {
+        responseParts.add(responsePart); // Also add failed responses
+        if (!continueOnError && isError(responsePart)) {
+          return responseParts;
+        }
+      }
+    }
+
+    return responseParts;
+  }
+
+  /** Returns the consecutive independent parts starting at the given index or the dependent part at this index. */
+  private List<BatchRequestPart> getNextGroup(final List<BatchRequestPart> requests, final int start) {
+    int end = start + 1;
+    if (isIndependent(requests.get(start))) {
+      while (end < requests.size() && isIndependent(requests.get(end))) {
+        end++;
+      }
+    }
+    return requests.subList(start, end);
+  }
+
+  private boolean isIndependent(final BatchRequestPart part) {
+    if (part.isChangeSet() || part.getRequests().size() != 1) {
+      return false;
+    }
+    final ODataRequest request = part.getRequests().get(0);
+    return request.getMethod() == HttpMethod.GET && rewriter.getReferenceInURI(request) == null;
+  }
+
+  private List<ODataResponsePart> executeConcurrently(final BatchPartHandler partHandler,
+      final List<BatchRequestPart> group) throws BatchDeserializerException {
+    final List<Future<ODataResponsePart>> futures = new ArrayList<Future<ODataResponsePart>>(group.size());
+    final List<ODataResponsePart> responseParts = new ArrayList<ODataResponsePart>(group.size());
+
+    try {
+      for (final BatchRequestPart part : group) {
+        // Wait for the oldest running part if the limit has been reached.
+        if (futures.size() - responseParts.size() >= maxConcurrency) {
+          responseParts.add(getResult(futures.get(responseParts.size())));
+        }
+        final BatchPartHandler handler = partHandler.copy();
+        futures.add(executorService.submit(new Callable<ODataResponsePart>() {
+          @Override
+          public ODataResponsePart call() throws BatchDeserializerException {
+            return handler.handleBatchRequest(part);
+          }
+        }));
+      }
+      while (responseParts.size() < futures.size()) {
+        responseParts.add(getResult(futures.get(responseParts.size())));
+      }
+    } finally {
+      // Only has an effect if the execution has been aborted.
+      for (final Future<ODataResponsePart> future : futures) {
+        future.cancel(true);
+      }
+    }
+
+    return responseParts;
+  }
+
+  private ODataResponsePart getResult(final Future<ODataResponsePart> future) throws BatchDeserializerException {
+    try {
+      return future.get();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new ODataRuntimeException("Batch processing has been interrupted.", e);
+    } catch (final ExecutionException e) {
+      final Throwable cause = e.getCause();
+      if (cause instanceof BatchDeserializerException) {
+        throw (BatchDeserializerException) cause;
+      } else if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      } else if (cause instanceof Error) {
+        throw (Error) cause;
+      } else {
+        throw new ODataRuntimeException(e);
+      }
+    }
+  }
+
+  static boolean isError(final ODataResponsePart responsePart) {
+    final int statusCode = responsePart.getResponses().get(0).getStatusCode();
+    return statusCode >= 400 && statusCode <= 600;
+  }
+}
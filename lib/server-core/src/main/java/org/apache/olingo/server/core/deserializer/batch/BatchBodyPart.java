@@ -27,16 +27,16 @@ import org.apache.olingo.server.api.batch.exception.BatchDeserializerException;
 public class BatchBodyPart implements BatchPart {
   final private String boundary;
   final private boolean isStrict;
-  final List<Line> remainingMessage = new LinkedList<Line>();
+  final BatchContent remainingMessage;
 
   private Header headers;
   private boolean isChangeSet;
   private List<BatchQueryOperation> requests;
 
-  public BatchBodyPart(final List<Line> message, final String boundary, final boolean isStrict) {
+  public BatchBodyPart(final BatchContent message, final String boundary, final boolean isStrict) {
     this.boundary = boundary;
     this.isStrict = isStrict;
-    remainingMessage.addAll(message);
+    remainingMessage = message;
   }
 
   public BatchBodyPart parse() throws BatchDeserializerException {
@@ -67,7 +67,7 @@ public class BatchBodyPart implements BatchPart {
     return isChangeSet;
   }
 
-  private List<BatchQueryOperation> consumeRequest(final List<Line> remainingMessage)
+  private List<BatchQueryOperation> consumeRequest(final BatchContent remainingMessage)
       throws BatchDeserializerException {
     if (isChangeSet) {
       return consumeChangeSet(remainingMessage);
@@ -76,19 +76,20 @@ public class BatchBodyPart implements BatchPart {
     }
   }
 
-  private List<BatchQueryOperation> consumeChangeSet(final List<Line> remainingMessage2)
+  private List<BatchQueryOperation> consumeChangeSet(final BatchContent remainingMessage)
       throws BatchDeserializerException {
-    final List<List<Line>> changeRequests = splitChangeSet(remainingMessage);
+    final List<BatchContent> changeRequests = splitChangeSet(remainingMessage);
     final List<BatchQueryOperation> requestList = new LinkedList<BatchQueryOperation>();
 
-    for (List<Line> changeRequest : changeRequests) {
+    for (BatchContent changeRequest : changeRequests) {
       requestList.add(new BatchChangeSetPart(changeRequest, isStrict).parse());
     }
 
     return requestList;
   }
 
-  private List<List<Line>> splitChangeSet(final List<Line> remainingMessage2) throws BatchDeserializerException {
+  private List<BatchContent> splitChangeSet(final BatchContent remainingMessage)
+      throws BatchDeserializerException {
 
     final HeaderField contentTypeField = headers.getHeaderField(HttpHeader.CONTENT_TYPE);
     final String changeSetBoundary = BatchParserCommon.getBoundary(contentTypeField.getValueNotNull(),
@@ -107,7 +108,7 @@ public class BatchBodyPart implements BatchPart {
     }
   }
 
-  private List<BatchQueryOperation> consumeQueryOperation(final List<Line> remainingMessage)
+  private List<BatchQueryOperation> consumeQueryOperation(final BatchContent remainingMessage)
       throws BatchDeserializerException {
     final List<BatchQueryOperation> requestList = new LinkedList<BatchQueryOperation>();
     requestList.add(new BatchQueryOperation(remainingMessage, isStrict).parse());
@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.deserializer.batch;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+
+/**
+ * Part of a batch request body as range of a byte array.
+ * Lines are decoded into strings only when they are read, so bodies of requests are never copied.
+ */
+public class BatchContent {
+  private static final Charset UTF_8 = Charset.forName("UTF-8");
+  private static final byte CR = '\r';
+  private static final byte LF = '\n';
+
+  private final byte[] buffer;
+  private final int end;
+  private int position;
+  private int lineNumber;
+  private Line nextLine;
+  private int nextLineEnd;
+
+  public BatchContent(final byte[] buffer) {
+    this(buffer, 0, buffer.length, 1);
+  }
+
+  public BatchContent(final byte[] buffer, final int start, final int end, final int lineNumber) {
+    this.buffer = buffer;
+    position = start;
+    this.end = end;
+    this.lineNumber = lineNumber;
+  }
+
+  /**
+   * Returns the next line, including its line ending, without consuming it.
+   * @return the next line or <code>null</code> if the end has been reached
+   */
+  public Line peekLine() {
+    if (nextLine == null && position < end) {
+      nextLineEnd = findLineEnd(buffer, position, end);
+      nextLine = new Line(new String(buffer, position, nextLineEnd - position, UTF_8), lineNumber);
+    }
+    return nextLine;
+  }
+
+  /**
+   * Returns and consumes the next line, including its line ending.
+   * @return the next line or <code>null</code> if the end has been reached
+   */
+  public Line readLine() {
+    final Line line = peekLine();
+    if (line != null) {
+      position = nextLineEnd;
+      lineNumber++;
+      nextLine = null;
+    }
+    return line;
+  }
+
+  /** Returns the number of the next line. */
+  public int getLineNumber() {
+    return lineNumber;
+  }
+
+  /** Returns <code>true</code> if the remaining content is at most one line consisting only of whitespace. */
+  public boolean isBlank() {
+    if (findLineEnd(buffer, position, end) < end) {
+      return false;
+    }
+    for (int index = position; index < end; index++) {
+      if (buffer[index] > ' ' || buffer[index] < 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Returns the remaining content as stream, without copying it. */
+  public InputStream getInputStream() {
+    return new ByteArrayInputStream(buffer, position, end - position);
+  }
+
+  /** Returns at most <code>length</code> bytes of the remaining content as stream, without copying them. */
+  public InputStream getInputStream(final int length) {
+    return new ByteArrayInputStream(buffer, position, Math.min(length, end - position));
+  }
+
+  byte[] getBuffer() {
+    return buffer;
+  }
+
+  int getPosition() {
+    return position;
+  }
+
+  int getEnd() {
+    return end;
+  }
+
+  /**
+   * Finds the end of the line starting at the given index; line endings are CR LF, LF, or CR alone.
+   * @return the index after the line ending, or <code>end</code> if there is none
+   */
+  static int findLineEnd(final byte[] buffer, final int start, final int end) {
+    for (int index = start; index < end; index++) {
+      if (buffer[index] == LF) {
+        return index + 1;
+      } else if (buffer[index] == CR) {
+        return index + 1 < end && buffer[index + 1] == LF ? index + 2 : index + 1;
+      }
+    }
+    return end;
+  }
+
+  /** Counts the line endings in the given range. */
+  static int countLineEndings(final byte[] buffer, final int start, final int end) {
+    int count = 0;
+    for (int index = start; index < end; index++) {
+      if (buffer[index] == LF || buffer[index] == CR && (index + 1 == end || buffer[index + 1] != LF)) {
+        count++;
+      }
+    }
+    return count;
+  }
+}
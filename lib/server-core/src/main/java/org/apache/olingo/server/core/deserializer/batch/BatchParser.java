@@ -18,9 +18,9 @@
  */
 package org.apache.olingo.server.core.deserializer.batch;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.util.LinkedList;
 import java.util.List;
 
@@ -62,22 +62,28 @@ public class BatchParser {
   private List<BatchRequestPart> parseBatch(final InputStream in, final String boundary,
       final BatchRequestTransformator transformator) throws IOException, BatchDeserializerException {
     final List<BatchRequestPart> resultList = new LinkedList<BatchRequestPart>();
-    final List<List<Line>> bodyPartStrings = splitBodyParts(in, boundary);
+    final List<BatchContent> bodyPartContents =
+        BatchParserCommon.splitMessageByBoundary(new BatchContent(readAll(in)), boundary);
 
-    for (List<Line> bodyPartString : bodyPartStrings) {
-      BatchBodyPart bodyPart = new BatchBodyPart(bodyPartString, boundary, options.isStrict()).parse();
+    for (BatchContent bodyPartContent : bodyPartContents) {
+      BatchBodyPart bodyPart = new BatchBodyPart(bodyPartContent, boundary, options.isStrict()).parse();
       resultList.addAll(transformator.transform(bodyPart));
     }
 
     return resultList;
   }
 
-  private List<List<Line>> splitBodyParts(final InputStream in, final String boundary) throws IOException,
-      BatchDeserializerException {
-    final BufferedReaderIncludingLineEndings reader = new BufferedReaderIncludingLineEndings(new InputStreamReader(in));
-    final List<Line> message = reader.toLineList();
-    reader.close();
-
-    return BatchParserCommon.splitMessageByBoundary(message, boundary);
+  /**
+   * Reads the complete request body.
+   * The bodies of the contained requests are later handed out as streams over ranges of this buffer.
+   */
+  private byte[] readAll(final InputStream in) throws IOException {
+    final ByteArrayOutputStream message = new ByteArrayOutputStream();
+    final byte[] buffer = new byte[8192];
+    int count;
+    while ((count = in.read(buffer)) >= 0) {
+      message.write(buffer, 0, count);
+    }
+    return message.toByteArray();
   }
 }
@@ -18,11 +18,7 @@
  */
 package org.apache.olingo.server.core.deserializer.batch;
 
-import java.io.ByteArrayInputStream;
-import java.io.InputStream;
 import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Locale;
 import java.util.regex.Matcher;
@@ -38,7 +34,10 @@ public class BatchParserCommon {
           "(\\),/:=\\?]{1,69}[a-zA-Z0-9_\\-\\.'\\+\\(\\),/:=\\?])\"";
   private static final Pattern PATTERN_LAST_CRLF = Pattern.compile("(.*)(\r\n){1}( *)", Pattern.DOTALL);
   private static final Pattern PATTERN_HEADER_LINE = Pattern.compile("([a-zA-Z\\-]+):\\s?(.*)\\s*");
+  private static final Pattern PATTERN_BLANK_LINE = Pattern.compile("\\s*(\r\n|\n)\\s*");
   private static final String REG_EX_APPLICATION_HTTP = "application/http";
+  private static final byte CR = '\r';
+  private static final byte LF = '\n';
 
   public static final Pattern PATTERN_MULTIPART_BOUNDARY = Pattern.compile("multipart/mixed(.*)",
       Pattern.CASE_INSENSITIVE);
@@ -96,53 +95,89 @@ public class BatchParserCommon {
     return boundary;
   }
 
-  public static List<List<Line>> splitMessageByBoundary(final List<Line> message, final String boundary)
+  /**
+   * Splits the content at the boundary delimiter lines.
+   * The preamble before the first delimiter and everything after the close delimiter are dropped.
+   * @param content the content to split
+   * @param boundary the boundary (without leading dashes)
+   * @return the body parts without the line ending preceding each delimiter line
+   * @throws BatchDeserializerException if the close delimiter is missing
+   */
+  public static List<BatchContent> splitMessageByBoundary(final BatchContent content, final String boundary)
       throws BatchDeserializerException {
-    final List<List<Line>> messageParts = new LinkedList<List<Line>>();
-    List<Line> currentPart = new ArrayList<Line>();
+    final List<BatchContent> messageParts = new ArrayList<BatchContent>();
+    final BoundaryScanner scanner = new BoundaryScanner(boundary);
+    final byte[] buffer = content.getBuffer();
+    final int start = content.getPosition();
+    final int end = content.getEnd();
+
+    int partStart = -1; // The preamble before the first delimiter is not a part.
+    int partLineNumber = 0;
+    int lineNumber = content.getLineNumber();
+    int countedPosition = start;
     boolean isEndReached = false;
-
-    final String quotedBoundary = Pattern.quote(boundary);
-    final Pattern boundaryDelimiterPattern = Pattern.compile("--" + quotedBoundary + "--[\\s ]*");
-    final Pattern boundaryPattern = Pattern.compile("--" + quotedBoundary + "[\\s ]*");
-
-    for (Line currentLine : message) {
-      if (boundaryDelimiterPattern.matcher(currentLine.toString()).matches()) {
-        removeEndingCRLFFromList(currentPart);
-        messageParts.add(currentPart);
-        isEndReached = true;
-      } else if (boundaryPattern.matcher(currentLine.toString()).matches()) {
-        removeEndingCRLFFromList(currentPart);
-        messageParts.add(currentPart);
-        currentPart = new LinkedList<Line>();
-      } else {
-        currentPart.add(currentLine);
+    int index = scanner.indexOf(buffer, start, end);
+
+    while (index >= 0) {
+      final boolean isClose = isCloseDelimiter(buffer, index + scanner.getLength(), end);
+      final int delimiterEnd = getDelimiterLineEnd(buffer, index,
+          isClose ? scanner.getLength() + 2 : scanner.getLength(), start, end);
+      if (delimiterEnd < 0) {
+        index = scanner.indexOf(buffer, index + 1, end);
+        continue;
       }
 
-      if (isEndReached) {
+      lineNumber += BatchContent.countLineEndings(buffer, countedPosition, index);
+      countedPosition = index;
+      if (partStart >= 0) {
+        // The line ending before the delimiter belongs to the delimiter.
+        final int partEnd = index - partStart >= 2 && buffer[index - 2] == CR && buffer[index - 1] == LF ?
+            index - 2 : index;
+        messageParts.add(new BatchContent(buffer, partStart, partEnd, partLineNumber));
+      }
+      if (isClose) {
+        isEndReached = true;
         break;
       }
-    }
-
-    final int lineNumer = (message.size() > 0) ? message.get(0).getLineNumber() : 0;
-    // Remove preamble
-    if (messageParts.size() > 0) {
-      messageParts.remove(0);
+      partStart = delimiterEnd;
+      partLineNumber = lineNumber + 1;
+      index = scanner.indexOf(buffer, partStart, end);
     }
 
     if (!isEndReached) {
       throw new BatchDeserializerException("Missing close boundary delimiter",
           BatchDeserializerException.MessageKeys.MISSING_CLOSE_DELIMITER,
-          "" + lineNumer);
+          "" + content.getLineNumber());
     }
 
     return messageParts;
   }
 
-  private static void removeEndingCRLFFromList(final List<Line> list) {
-    if (list.size() > 0) {
-      Line lastLine = list.remove(list.size() - 1);
-      list.add(removeEndingCRLF(lastLine));
+  private static boolean isCloseDelimiter(final byte[] buffer, final int index, final int end) {
+    return index + 1 < end && buffer[index] == '-' && buffer[index + 1] == '-';
+  }
+
+  /**
+   * Checks whether the boundary found at the given index starts a delimiter line,
+   * i.e., is at the beginning of a line and is followed only by whitespace.
+   * @return the index after the delimiter line or <code>-1</code> if it is not a delimiter line
+   */
+  private static int getDelimiterLineEnd(final byte[] buffer, final int index, final int length,
+      final int start, final int end) {
+    if (index > start && buffer[index - 1] != LF && buffer[index - 1] != CR) {
+      return -1;
+    }
+    int position = index + length;
+    while (position < end && (buffer[position] == ' ' || buffer[position] == '\t'
+        || buffer[position] == '\f' || buffer[position] == 0x0B)) {
+      position++;
+    }
+    if (position == end) {
+      return end;
+    } else if (buffer[position] == CR || buffer[position] == LF) {
+      return BatchContent.findLineEnd(buffer, position, end);
+    } else {
+      return -1;
     }
   }
 
@@ -157,72 +192,43 @@ public class BatchParserCommon {
     }
   }
 
-  public static Header consumeHeaders(final List<Line> remainingMessage) {
-    final int headerLineNumber = remainingMessage.size() != 0 ? remainingMessage.get(0).getLineNumber() : 0;
-    final Header headers = new Header(headerLineNumber);
-    final Iterator<Line> iter = remainingMessage.iterator();
-    Line currentLine;
-    boolean isHeader = true;
+  public static Header consumeHeaders(final BatchContent remainingMessage) {
+    final Line firstLine = remainingMessage.peekLine();
+    final Header headers = new Header(firstLine == null ? 0 : firstLine.getLineNumber());
 
-    while (iter.hasNext() && isHeader) {
-      currentLine = iter.next();
-      final Matcher headerMatcher = PATTERN_HEADER_LINE.matcher(currentLine.toString());
+    while (remainingMessage.peekLine() != null && addHeader(headers, remainingMessage.peekLine())) {
+      remainingMessage.readLine();
+    }
 
-      if (headerMatcher.matches() && headerMatcher.groupCount() == 2) {
-        iter.remove();
+    return headers;
+  }
 
-        String headerName = headerMatcher.group(1).trim();
-        String headerValue = headerMatcher.group(2).trim();
+  private static boolean addHeader(final Header headers, final Line currentLine) {
+    final Matcher headerMatcher = PATTERN_HEADER_LINE.matcher(currentLine.toString());
 
-        headers.addHeader(headerName, Header.splitValuesByComma(headerValue), currentLine.getLineNumber());
-      } else {
-        isHeader = false;
-      }
-    }
+    if (headerMatcher.matches() && headerMatcher.groupCount() == 2) {
+      String headerName = headerMatcher.group(1).trim();
+      String headerValue = headerMatcher.group(2).trim();
 
-    return headers;
+      headers.addHeader(headerName, Header.splitValuesByComma(headerValue), currentLine.getLineNumber());
+      return true;
+    } else {
+      return false;
+    }
   }
 
-  public static void consumeBlankLine(final List<Line> remainingMessage, final boolean isStrict)
+  public static void consumeBlankLine(final BatchContent remainingMessage, final boolean isStrict)
       throws BatchDeserializerException {
-    if (remainingMessage.size() > 0 && remainingMessage.get(0).toString().matches("\\s*(\r\n|\n)\\s*")) {
-      remainingMessage.remove(0);
+    final Line line = remainingMessage.peekLine();
+    if (line != null && PATTERN_BLANK_LINE.matcher(line.toString()).matches()) {
+      remainingMessage.readLine();
     } else {
       if (isStrict) {
-        final int lineNumber = (remainingMessage.size() > 0) ? remainingMessage.get(0).getLineNumber() : 0;
+        final int lineNumber = line == null ? 0 : line.getLineNumber();
         throw new BatchDeserializerException("Missing blank line",
             BatchDeserializerException.MessageKeys.MISSING_BLANK_LINE, "[None]", ""
                 + lineNumber);
       }
     }
   }
-
-  public static InputStream convertLineListToInputStream(final List<Line> messageList) {
-    final String message = lineListToString(messageList);
-
-    return new ByteArrayInputStream(message.getBytes());
-  }
-
-  private static String lineListToString(final List<Line> messageList) {
-    final StringBuilder builder = new StringBuilder();
-
-    for (Line currentLine : messageList) {
-      builder.append(currentLine.toString());
-    }
-
-    return builder.toString();
-  }
-
-  public static String trimLineListToLength(final List<Line> list, final int length) {
-    final String message = lineListToString(list);
-    final int lastIndex = Math.min(length, message.length());
-
-    return (lastIndex > 0) ? message.substring(0, lastIndex) : "";
-  }
-
-  public static InputStream convertLineListToInputStream(final List<Line> list, final int length) {
-    final String message = trimLineListToLength(list, length);
-
-    return new ByteArrayInputStream(message.getBytes());
-  }
 }
@@ -18,8 +18,6 @@
  */
 package org.apache.olingo.server.core.deserializer.batch;
 
-import java.util.List;
-
 import org.apache.olingo.server.api.batch.exception.BatchDeserializerException;
 
 public class BatchQueryOperation implements BatchPart {
@@ -27,11 +25,10 @@ public class BatchQueryOperation implements BatchPart {
   protected final boolean isStrict;
   protected Line httpStatusLine;
   protected Header headers;
-  protected List<Line> body;
-  protected int bodySize;
-  protected List<Line> message;
+  protected BatchContent body;
+  protected BatchContent message;
 
-  public BatchQueryOperation(final List<Line> message, final boolean isStrict) {
+  public BatchQueryOperation(final BatchContent message, final boolean isStrict) {
     this.isStrict = isStrict;
     this.message = message;
   }
@@ -45,14 +42,12 @@ public class BatchQueryOperation implements BatchPart {
     return this;
   }
 
-  protected Line consumeHttpStatusLine(final List<Line> message) throws BatchDeserializerException {
-    if (message.size() > 0 && !message.get(0).toString().trim().equals("")) {
-      final Line method = message.get(0);
-      message.remove(0);
-
-      return method;
+  protected Line consumeHttpStatusLine(final BatchContent message) throws BatchDeserializerException {
+    final Line method = message.peekLine();
+    if (method != null && !method.toString().trim().equals("")) {
+      return message.readLine();
     } else {
-      final int line = (message.size() > 0) ? message.get(0).getLineNumber() : 0;
+      final int line = method == null ? 0 : method.getLineNumber();
       throw new BatchDeserializerException("Missing http request line",
           BatchDeserializerException.MessageKeys.INVALID_STATUS_LINE, "" + line);
     }
@@ -62,14 +57,10 @@ public class BatchQueryOperation implements BatchPart {
     return httpStatusLine;
   }
 
-  public List<Line> getBody() {
+  public BatchContent getBody() {
     return body;
   }
 
-  public int getBodySize() {
-    return bodySize;
-  }
-
   @Override
   public Header getHeaders() {
     return headers;
@@ -142,9 +142,9 @@ public class BatchRequestTransformator {
       int contentLength = BatchTransformatorCommon.getContentLength(operation.getHeaders());
 
       if (contentLength == -1) {
-        return BatchParserCommon.convertLineListToInputStream(operation.getBody());
+        return operation.getBody().getInputStream();
       } else {
-        return BatchParserCommon.convertLineListToInputStream(operation.getBody(), contentLength);
+        return operation.getBody().getInputStream(contentLength);
       }
     }
   }
@@ -158,8 +158,7 @@ public class BatchRequestTransformator {
   }
 
   private boolean isUnvalidGetRequestBody(final BatchQueryOperation operation) {
-    return (operation.getBody().size() > 1)
-        || (operation.getBody().size() == 1 && !"".equals(operation.getBody().get(0).toString().trim()));
+    return !operation.getBody().isBlank();
   }
 
   private void validateHeader(final BatchPart bodyPart, final boolean isChangeSet) throws BatchDeserializerException {
@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.deserializer.batch;
+
+import java.io.UnsupportedEncodingException;
+
+/**
+ * Finds occurrences of <code>--boundary</code> in a byte array with the Boyer-Moore-Horspool algorithm,
+ * so that most bytes of the content are skipped without being looked at.
+ */
+public class BoundaryScanner {
+  private final byte[] pattern;
+  private final int[] shift = new int[256];
+
+  public BoundaryScanner(final String boundary) {
+    try {
+      pattern = ("--" + boundary).getBytes("US-ASCII");
+    } catch (final UnsupportedEncodingException e) {
+      // Every Java platform has to support US-ASCII.
+      throw new IllegalStateException(e);
+    }
+    for (int i = 0; i < shift.length; i++) {
+      shift[i] = pattern.length;
+    }
+    for (int i = 0; i < pattern.length - 1; i++) {
+      shift[pattern[i] & 0xFF] = pattern.length - 1 - i;
+    }
+  }
+
+  /** Returns the length of the searched pattern <code>--boundary</code>. */
+  public int getLength() {
+    return pattern.length;
+  }
+
+  /**
+   * Returns the index of the first occurrence of <code>--boundary</code> in the given range,
+   * or <code>-1</code> if there is none.
+   */
+  public int indexOf(final byte[] buffer, final int start, final int end) {
+    final int last = pattern.length - 1;
+    int index = start;
+    while (index + last < end) {
+      int i = last;
+      while (buffer[index + i] == pattern[i]) {
+        if (i == 0) {
+          return index;
+        }
+        i--;
+      }
+      index += shift[buffer[index + last] & 0xFF];
+    }
+    return -1;
+  }
+}
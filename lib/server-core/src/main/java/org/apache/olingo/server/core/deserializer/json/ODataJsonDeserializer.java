@@ -23,11 +23,14 @@ import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 
 import org.apache.olingo.commons.api.Constants;
 import org.apache.olingo.commons.api.data.ComplexValue;
@@ -39,6 +42,7 @@ import org.apache.olingo.commons.api.data.Property;
 import org.apache.olingo.commons.api.data.ValueType;
 import org.apache.olingo.commons.api.edm.EdmAction;
 import org.apache.olingo.commons.api.edm.EdmComplexType;
+import org.apache.olingo.commons.api.edm.EdmElement;
 import org.apache.olingo.commons.api.edm.EdmEntityType;
 import org.apache.olingo.commons.api.edm.EdmEnumType;
 import org.apache.olingo.commons.api.edm.EdmMapping;
@@ -57,15 +61,16 @@ import org.apache.olingo.server.core.deserializer.DeserializerResultImpl;
 import org.apache.olingo.server.core.deserializer.helper.ExpandTreeBuilder;
 import org.apache.olingo.server.core.deserializer.helper.ExpandTreeBuilderImpl;
 
-import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.NullNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
 public class ODataJsonDeserializer implements ODataDeserializer {
@@ -73,14 +78,21 @@ public class ODataJsonDeserializer implements ODataDeserializer {
   private static final String ODATA_ANNOTATION_MARKER = "@";
   private static final String ODATA_CONTROL_INFORMATION_PREFIX = "@odata.";
 
+  /** Shared, fully configured mapper; it is thread-safe and creates the parsers of all requests. */
+  private static final ObjectMapper OBJECT_MAPPER =
+      new ObjectMapper().configure(DeserializationFeature.FAIL_ON_READING_DUP_TREE_KEY, true);
+
   @Override
   public DeserializerResult entityCollection(final InputStream stream, final EdmEntityType edmEntityType)
       throws DeserializerException {
     try {
-      final ObjectNode tree = parseJsonTree(stream);
-
-      return DeserializerResultImpl.with().entityCollection(consumeEntitySetNode(edmEntityType, tree, null))
-          .build();
+      final JsonParser parser = createParser(stream);
+      try {
+        expectStartObject(parser);
+        return DeserializerResultImpl.with().entityCollection(consumeEntitySet(edmEntityType, parser)).build();
+      } finally {
+        parser.close();
+      }
     } catch (JsonParseException e) {
       throw new DeserializerException("An JsonParseException occurred", e,
           DeserializerException.MessageKeys.JSON_SYNTAX_EXCEPTION);
@@ -92,70 +104,71 @@ public class ODataJsonDeserializer implements ODataDeserializer {
     }
   }
 
-  private EntityCollection consumeEntitySetNode(final EdmEntityType edmEntityType, final ObjectNode tree,
-      final ExpandTreeBuilder expandBuilder) throws DeserializerException {
+  /**
+   * Consumes the JSON object of an entity collection with the parser positioned on its start.
+   * The entities of the value array are read one after the other directly from the token stream.
+   */
+  private EntityCollection consumeEntitySet(final EdmEntityType edmEntityType, final JsonParser parser)
+      throws IOException, DeserializerException {
     EntityCollection entitySet = new EntityCollection();
-
-    // Consume entities
-    JsonNode jsonNode = tree.get(Constants.VALUE);
-    if (jsonNode != null) {
-      if (!jsonNode.isArray()) {
-        throw new DeserializerException("The content of the value tag must be an Array but is not. ",
-            DeserializerException.MessageKeys.VALUE_TAG_MUST_BE_AN_ARRAY);
-      }
-
-      entitySet.getEntities().addAll(consumeEntitySetArray(edmEntityType, jsonNode, expandBuilder));
-      tree.remove(Constants.VALUE);
-    } else {
-      throw new DeserializerException("Could not find value array.",
-          DeserializerException.MessageKeys.VALUE_ARRAY_NOT_PRESENT);
-    }
-
-    final List<String> toRemove = new ArrayList<String>();
-    Iterator<Entry<String, JsonNode>> fieldsIterator = tree.fields();
-    while (fieldsIterator.hasNext()) {
-      Map.Entry<String, JsonNode> field = fieldsIterator.next();
-
-      if (field.getKey().contains(ODATA_CONTROL_INFORMATION_PREFIX)) {
+    boolean hasValue = false;
+    final Set<String> fieldNames = new HashSet<String>();
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final String fieldName = parser.getCurrentName();
+      assertUniqueField(fieldNames, fieldName, parser);
+      final JsonToken token = parser.nextToken();
+
+      if (Constants.VALUE.equals(fieldName)) {
+        if (token != JsonToken.START_ARRAY) {
+          throw new DeserializerException("The content of the value tag must be an Array but is not. ",
+              DeserializerException.MessageKeys.VALUE_TAG_MUST_BE_AN_ARRAY);
+        }
+        consumeEntitySetArray(edmEntityType, parser, null, entitySet.getEntities());
+        hasValue = true;
+      } else if (fieldName.contains(ODATA_CONTROL_INFORMATION_PREFIX)) {
         // Control Information is ignored for requests as per specification chapter "4.5 Control Information"
-        toRemove.add(field.getKey());
-      } else if (field.getKey().contains(ODATA_ANNOTATION_MARKER)) {
-        throw new DeserializerException("Custom annotation with field name: " + field.getKey() + " not supported",
+        parser.skipChildren();
+      } else if (fieldName.contains(ODATA_ANNOTATION_MARKER)) {
+        throw new DeserializerException("Custom annotation with field name: " + fieldName + " not supported",
             DeserializerException.MessageKeys.NOT_IMPLEMENTED);
+      } else {
+        throw new DeserializerException("Unknown content: " + fieldName,
+            DeserializerException.MessageKeys.UNKOWN_CONTENT, fieldName);
       }
     }
-    // remove here to avoid iterator issues.
-    tree.remove(toRemove);
-    assertJsonNodeIsEmpty(tree);
 
+    if (!hasValue) {
+      throw new DeserializerException("Could not find value array.",
+          DeserializerException.MessageKeys.VALUE_ARRAY_NOT_PRESENT);
+    }
     return entitySet;
   }
 
-  private List<Entity> consumeEntitySetArray(final EdmEntityType edmEntityType, final JsonNode jsonNode,
-      final ExpandTreeBuilder expandBuilder) throws DeserializerException {
-    List<Entity> entities = new ArrayList<Entity>();
-    for (JsonNode arrayElement : jsonNode) {
-      if (arrayElement.isArray() || arrayElement.isValueNode()) {
+  private void consumeEntitySetArray(final EdmEntityType edmEntityType, final JsonParser parser,
+      final ExpandTreeBuilder expandBuilder, final List<Entity> entities) throws IOException, DeserializerException {
+    while (parser.nextToken() != JsonToken.END_ARRAY) {
+      if (parser.getCurrentToken() != JsonToken.START_OBJECT) {
         throw new DeserializerException("Nested Arrays and primitive values are not allowed for an entity value.",
             DeserializerException.MessageKeys.INVALID_ENTITY);
       }
-
-      entities.add(consumeEntityNode(edmEntityType, (ObjectNode) arrayElement, expandBuilder));
+      entities.add(consumeEntity(edmEntityType, parser, expandBuilder));
     }
-    return entities;
   }
 
   @Override
   public DeserializerResult entity(final InputStream stream, final EdmEntityType edmEntityType)
       throws DeserializerException {
     try {
-      final ObjectNode tree = parseJsonTree(stream);
-      final ExpandTreeBuilderImpl expandBuilder = new ExpandTreeBuilderImpl();
-
-      return DeserializerResultImpl.with().entity(consumeEntityNode(edmEntityType, tree, expandBuilder))
-          .expandOption(expandBuilder.build())
-          .build();
-
+      final JsonParser parser = createParser(stream);
+      try {
+        expectStartObject(parser);
+        final ExpandTreeBuilderImpl expandBuilder = new ExpandTreeBuilderImpl();
+        return DeserializerResultImpl.with().entity(consumeEntity(edmEntityType, parser, expandBuilder))
+            .expandOption(expandBuilder.build())
+            .build();
+      } finally {
+        parser.close();
+      }
     } catch (JsonParseException e) {
       throw new DeserializerException("An JsonParseException occurred", e,
           DeserializerException.MessageKeys.JSON_SYNTAX_EXCEPTION);
@@ -165,26 +178,139 @@ public class ODataJsonDeserializer implements ODataDeserializer {
     } catch (IOException e) {
       throw new DeserializerException("An IOException occurred", e, DeserializerException.MessageKeys.IO_EXCEPTION);
     }
-
   }
 
-  private Entity consumeEntityNode(final EdmEntityType edmEntityType, final ObjectNode tree,
-      final ExpandTreeBuilder expandBuilder) throws DeserializerException {
+  /**
+   * Consumes the JSON object of an entity with the parser positioned on its start.
+   * Structural property values are read as (small) JSON nodes; expanded navigation properties
+   * are read recursively from the token stream. Properties and navigation links are added
+   * in the order of the entity type.
+   *
+   * @param edmEntityType edm entity type which for which the json object is consumed
+   * @param parser parser positioned on the start of the json object
+   * @param expandBuilder builder for the expand tree of the expanded navigation properties or <code>null</code>
+   * @return the entity
+   * @throws DeserializerException if an exception during consummation occurs
+   */
+  private Entity consumeEntity(final EdmEntityType edmEntityType, final JsonParser parser,
+      final ExpandTreeBuilder expandBuilder) throws IOException, DeserializerException {
     Entity entity = new Entity();
     entity.setType(edmEntityType.getFullQualifiedName().getFullQualifiedNameAsString());
 
-    // Check and consume all Properties
-    consumeEntityProperties(edmEntityType, tree, entity);
+    final Map<String, Property> properties = new HashMap<String, Property>();
+    final Map<String, Link> navigationLinks = new HashMap<String, Link>();
+    final Set<String> fieldNames = new HashSet<String>();
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final String fieldName = parser.getCurrentName();
+      assertUniqueField(fieldNames, fieldName, parser);
+      parser.nextToken();
+
+      final EdmElement edmElement = edmEntityType.getProperty(fieldName);
+      if (edmElement instanceof EdmProperty) {
+        properties.put(fieldName, consumeEntityProperty((EdmProperty) edmElement, readJsonNode(parser)));
+      } else if (edmElement instanceof EdmNavigationProperty) {
+        navigationLinks.put(fieldName, consumeExpandedNavigationProperty((EdmNavigationProperty) edmElement, parser,
+            expandBuilder));
+      } else if (fieldName.contains(Constants.JSON_BIND_LINK_SUFFIX)) {
+        entity.getNavigationBindings().add(consumeBindingLink(fieldName, readJsonNode(parser), edmEntityType));
+      } else if (fieldName.contains(ODATA_CONTROL_INFORMATION_PREFIX)) {
+        // Control Information is ignored for requests as per specification chapter "4.5 Control Information"
+        parser.skipChildren();
+      } else if (fieldName.contains(ODATA_ANNOTATION_MARKER)) {
+        throw new DeserializerException("Custom annotation with field name: " + fieldName + " not supported",
+            DeserializerException.MessageKeys.NOT_IMPLEMENTED);
+      } else {
+        throw new DeserializerException("Unknown content: " + fieldName,
+            DeserializerException.MessageKeys.UNKOWN_CONTENT, fieldName);
+      }
+    }
 
-    // Check and consume all expanded Navigation Properties
-    consumeExpandedNavigationProperties(edmEntityType, tree, entity, expandBuilder);
+    for (final String propertyName : edmEntityType.getPropertyNames()) {
+      final Property property = properties.get(propertyName);
+      if (property != null) {
+        entity.addProperty(property);
+      }
+    }
+    for (final String navigationPropertyName : edmEntityType.getNavigationPropertyNames()) {
+      final Link link = navigationLinks.get(navigationPropertyName);
+      if (link != null) {
+        entity.getNavigationLinks().add(link);
+      }
+    }
+    return entity;
+  }
 
-    // consume remaining json node fields
-    consumeRemainingJsonNodeFields(edmEntityType, tree, entity);
+  private Property consumeEntityProperty(final EdmProperty edmProperty, final JsonNode jsonNode)
+      throws DeserializerException {
+    if (jsonNode.isNull() && !edmProperty.isNullable()) {
+      throw new DeserializerException("Property: " + edmProperty.getName() + " must not be null.",
+          DeserializerException.MessageKeys.INVALID_NULL_PROPERTY, edmProperty.getName());
+    }
+    return consumePropertyNode(edmProperty.getName(), edmProperty.getType(),
+        edmProperty.isCollection(),
+        edmProperty.isNullable(), edmProperty.getMaxLength(), edmProperty.getPrecision(), edmProperty.getScale(),
+        edmProperty.isUnicode(), edmProperty.getMapping(),
+        jsonNode);
+  }
 
-    assertJsonNodeIsEmpty(tree);
+  private Link consumeExpandedNavigationProperty(final EdmNavigationProperty edmNavigationProperty,
+      final JsonParser parser, final ExpandTreeBuilder expandBuilder) throws IOException, DeserializerException {
+    final String navigationPropertyName = edmNavigationProperty.getName();
+    final JsonToken token = parser.getCurrentToken();
+    if (token == JsonToken.VALUE_NULL
+        && (!edmNavigationProperty.isNullable() || edmNavigationProperty.isCollection())) {
+      throw new DeserializerException("Property: " + navigationPropertyName + " must not be null.",
+          DeserializerException.MessageKeys.INVALID_NULL_PROPERTY, navigationPropertyName);
+    }
+
+    Link link = new Link();
+    link.setTitle(navigationPropertyName);
+    final ExpandTreeBuilder childExpandBuilder = (expandBuilder != null) ?
+        expandBuilder.expand(edmNavigationProperty) : null;
+    if (token == JsonToken.START_ARRAY && edmNavigationProperty.isCollection()) {
+      link.setType(Constants.ENTITY_SET_NAVIGATION_LINK_TYPE);
+      EntityCollection inlineEntitySet = new EntityCollection();
+      consumeEntitySetArray(edmNavigationProperty.getType(), parser, childExpandBuilder,
+          inlineEntitySet.getEntities());
+      link.setInlineEntitySet(inlineEntitySet);
+    } else if ((token == JsonToken.START_OBJECT || token == JsonToken.VALUE_NULL)
+        && !edmNavigationProperty.isCollection()) {
+      link.setType(Constants.ENTITY_NAVIGATION_LINK_TYPE);
+      if (token == JsonToken.START_OBJECT) {
+        link.setInlineEntity(consumeEntity(edmNavigationProperty.getType(), parser, childExpandBuilder));
+      }
+    } else {
+      throw new DeserializerException("Invalid value: " + token
+          + " for expanded navigation property: " + navigationPropertyName,
+          DeserializerException.MessageKeys.INVALID_VALUE_FOR_NAVIGATION_PROPERTY, navigationPropertyName);
+    }
+    return link;
+  }
 
-    return entity;
+  private JsonParser createParser(final InputStream stream) throws IOException {
+    return OBJECT_MAPPER.getFactory().createParser(stream);
+  }
+
+  private void expectStartObject(final JsonParser parser) throws IOException {
+    if (parser.nextToken() != JsonToken.START_OBJECT) {
+      throw new JsonParseException("Expected a JSON object", parser.getCurrentLocation());
+    }
+  }
+
+  /**
+   * Reads the value the parser is positioned on as JSON node.
+   * Duplicate fields within this value are detected by the shared object mapper.
+   */
+  private JsonNode readJsonNode(final JsonParser parser) throws IOException {
+    final JsonNode node = parser.readValueAsTree();
+    return node == null ? NullNode.getInstance() : node;
+  }
+
+  private void assertUniqueField(final Set<String> fieldNames, final String fieldName, final JsonParser parser)
+      throws JsonMappingException {
+    if (!fieldNames.add(fieldName)) {
+      throw new JsonMappingException("Duplicate field '" + fieldName + "'", parser.getCurrentLocation());
+    }
   }
 
   @Override
@@ -229,9 +355,7 @@ public class ODataJsonDeserializer implements ODataDeserializer {
 
   private ObjectNode parseJsonTree(final InputStream stream)
       throws IOException, JsonParseException, JsonProcessingException {
-    ObjectMapper objectMapper = new ObjectMapper();
-    objectMapper.configure(DeserializationFeature.FAIL_ON_READING_DUP_TREE_KEY, true);
-    JsonParser parser = new JsonFactory(objectMapper).createParser(stream);
+    JsonParser parser = createParser(stream);
     ObjectNode tree = parser.getCodec().readTree(parser);
     return tree;
   }
@@ -286,103 +410,6 @@ public class ODataJsonDeserializer implements ODataDeserializer {
     }
   }
 
-  /**
-   * Consume all remaining fields of Json ObjectNode and try to map found values
-   * to according Entity fields and omit to be ignored OData fields (e.g. control information).
-   *
-   * @param edmEntityType edm entity type which for which the json node is consumed
-   * @param node json node which is consumed
-   * @param entity entity instance which is filled
-   * @throws DeserializerException if an exception during consummation occurs
-   */
-  private void consumeRemainingJsonNodeFields(final EdmEntityType edmEntityType, final ObjectNode node,
-      final Entity entity) throws DeserializerException {
-    final List<String> toRemove = new ArrayList<String>();
-    Iterator<Entry<String, JsonNode>> fieldsIterator = node.fields();
-    while (fieldsIterator.hasNext()) {
-      Entry<String, JsonNode> field = fieldsIterator.next();
-
-      if (field.getKey().contains(Constants.JSON_BIND_LINK_SUFFIX)) {
-        Link bindingLink = consumeBindingLink(field.getKey(), field.getValue(), edmEntityType);
-        entity.getNavigationBindings().add(bindingLink);
-        toRemove.add(field.getKey());
-      } else if (field.getKey().contains(ODATA_CONTROL_INFORMATION_PREFIX)) {
-        // Control Information is ignored for requests as per specification chapter "4.5 Control Information"
-        toRemove.add(field.getKey());
-      } else if (field.getKey().contains(ODATA_ANNOTATION_MARKER)) {
-        throw new DeserializerException("Custom annotation with field name: " + field.getKey() + " not supported",
-            DeserializerException.MessageKeys.NOT_IMPLEMENTED);
-      }
-    }
-    // remove here to avoid iterator issues.
-    node.remove(toRemove);
-  }
-
-  private void consumeEntityProperties(final EdmEntityType edmEntityType, final ObjectNode node,
-      final Entity entity) throws DeserializerException {
-    List<String> propertyNames = edmEntityType.getPropertyNames();
-    for (String propertyName : propertyNames) {
-      JsonNode jsonNode = node.get(propertyName);
-      if (jsonNode != null) {
-        EdmProperty edmProperty = (EdmProperty) edmEntityType.getProperty(propertyName);
-        if (jsonNode.isNull() && !edmProperty.isNullable()) {
-          throw new DeserializerException("Property: " + propertyName + " must not be null.",
-              DeserializerException.MessageKeys.INVALID_NULL_PROPERTY, propertyName);
-        }
-        Property property = consumePropertyNode(edmProperty.getName(), edmProperty.getType(),
-            edmProperty.isCollection(),
-            edmProperty.isNullable(), edmProperty.getMaxLength(), edmProperty.getPrecision(), edmProperty.getScale(),
-            edmProperty.isUnicode(), edmProperty.getMapping(),
-            jsonNode);
-        entity.addProperty(property);
-        node.remove(propertyName);
-      }
-    }
-  }
-
-  private void consumeExpandedNavigationProperties(final EdmEntityType edmEntityType, final ObjectNode node,
-      final Entity entity, final ExpandTreeBuilder expandBuilder) throws DeserializerException {
-    List<String> navigationPropertyNames = edmEntityType.getNavigationPropertyNames();
-    for (String navigationPropertyName : navigationPropertyNames) {
-      // read expanded navigation property
-      JsonNode jsonNode = node.get(navigationPropertyName);
-      if (jsonNode != null) {
-        EdmNavigationProperty edmNavigationProperty = edmEntityType.getNavigationProperty(navigationPropertyName);
-        boolean isNullable = edmNavigationProperty.isNullable();
-        if ((jsonNode.isNull() && !isNullable) || (jsonNode.isNull() && edmNavigationProperty.isCollection())) {
-          throw new DeserializerException("Property: " + navigationPropertyName + " must not be null.",
-              DeserializerException.MessageKeys.INVALID_NULL_PROPERTY, navigationPropertyName);
-        }
-
-        Link link = new Link();
-        link.setTitle(navigationPropertyName);
-        final ExpandTreeBuilder childExpandBuilder = (expandBuilder != null) ?
-            expandBuilder.expand(edmNavigationProperty) : null;
-        if (jsonNode.isArray() && edmNavigationProperty.isCollection()) {
-          link.setType(Constants.ENTITY_SET_NAVIGATION_LINK_TYPE);
-          EntityCollection inlineEntitySet = new EntityCollection();
-          inlineEntitySet.getEntities().addAll(consumeEntitySetArray(edmNavigationProperty.getType(), jsonNode,
-              childExpandBuilder));
-          link.setInlineEntitySet(inlineEntitySet);
-        } else if (!jsonNode.isArray() && (!jsonNode.isValueNode() || jsonNode.isNull())
-            && !edmNavigationProperty.isCollection()) {
-          link.setType(Constants.ENTITY_NAVIGATION_LINK_TYPE);
-          if (!jsonNode.isNull()) {
-            Entity inlineEntity = consumeEntityNode(edmNavigationProperty.getType(), (ObjectNode) jsonNode,
-                childExpandBuilder);
-            link.setInlineEntity(inlineEntity);
-          }
-        } else {
-          throw new DeserializerException("Invalid value: " + jsonNode.getNodeType()
-              + " for expanded navigation property: " + navigationPropertyName,
-              DeserializerException.MessageKeys.INVALID_VALUE_FOR_NAVIGATION_PROPERTY, navigationPropertyName);
-        }
-        entity.getNavigationLinks().add(link);
-        node.remove(navigationPropertyName);
-      }
-    }
-  }
-
   private Link consumeBindingLink(final String key, final JsonNode jsonNode, final EdmEntityType edmEntityType)
       throws DeserializerException {
     String[] splitKey = key.split("@");
@@ -768,9 +795,7 @@ public class ODataJsonDeserializer implements ODataDeserializer {
   public DeserializerResult property(final InputStream stream, final EdmProperty edmProperty)
       throws DeserializerException {
     try {
-      ObjectMapper objectMapper = new ObjectMapper();
-      objectMapper.configure(DeserializationFeature.FAIL_ON_READING_DUP_TREE_KEY, true);
-      JsonParser parser = new JsonFactory(objectMapper).createParser(stream);
+      JsonParser parser = createParser(stream);
       final ObjectNode tree = parser.getCodec().readTree(parser);
 
       Property property = null;
@@ -805,9 +830,7 @@ public class ODataJsonDeserializer implements ODataDeserializer {
   public DeserializerResult entityReferences(final InputStream stream) throws DeserializerException {
     try {
       ArrayList<URI> parsedValues = new ArrayList<URI>();
-      ObjectMapper objectMapper = new ObjectMapper();
-      objectMapper.configure(DeserializationFeature.FAIL_ON_READING_DUP_TREE_KEY, true);
-      JsonParser parser = new JsonFactory(objectMapper).createParser(stream);
+      JsonParser parser = createParser(stream);
       final ObjectNode tree = parser.getCodec().readTree(parser);
       final String key = "@odata.id";
       JsonNode jsonNode = tree.get(Constants.VALUE);
@@ -22,6 +22,8 @@ import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -30,13 +32,20 @@ import org.apache.olingo.commons.api.ODataRuntimeException;
 import org.apache.olingo.commons.api.http.HttpContentType;
 import org.apache.olingo.commons.api.http.HttpHeader;
 import org.apache.olingo.commons.api.http.HttpStatusCode;
+import org.apache.olingo.server.api.ODataContent;
 import org.apache.olingo.server.api.ODataResponse;
 import org.apache.olingo.server.api.batch.exception.BatchSerializerException;
 import org.apache.olingo.server.api.batch.exception.BatchSerializerException.MessageKeys;
 import org.apache.olingo.server.api.deserializer.batch.ODataResponsePart;
 import org.apache.olingo.server.core.deserializer.batch.BatchParserCommon;
 
+/**
+ * Writes batch responses as multipart/mixed content.
+ * The bytes of the response bodies are copied unchanged; only one body at a time is buffered
+ * in order to determine its content length.
+ */
 public class BatchResponseSerializer {
+  private static final Charset UTF_8 = Charset.forName("UTF-8");
   private static final int BUFFER_SIZE = 4096;
   private static final String DOUBLE_DASH = "--";
   private static final String COLON = ":";
@@ -45,82 +54,118 @@ public class BatchResponseSerializer {
 
   public InputStream serialize(final List<ODataResponsePart> responses, final String boundary)
       throws BatchSerializerException {
-    StringBuilder builder = createBody(responses, boundary);
+    validate(responses);
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    write(out, responses, boundary);
 
-    return new ByteArrayInputStream(builder.toString().getBytes());
+    return new ByteArrayInputStream(out.toByteArray());
   }
 
-  private StringBuilder createBody(final List<ODataResponsePart> batchResponses, final String boundary)
+  /**
+   * Returns content which writes the batch response directly into the target stream.
+   * @throws BatchSerializerException if a response in a change set has no Content-ID
+   */
+  public ODataContent serializeContent(final List<ODataResponsePart> responses, final String boundary)
       throws BatchSerializerException {
-    final StringBuilder builder = new StringBuilder();
+    validate(responses);
 
-    for (final ODataResponsePart part : batchResponses) {
-      builder.append(getDashBoundary(boundary));
+    return new ODataContent() {
+      @Override
+      public void write(final OutputStream stream) {
+        BatchResponseSerializer.this.write(stream, responses, boundary);
+      }
+    };
+  }
 
+  private void validate(final List<ODataResponsePart> batchResponses) throws BatchSerializerException {
+    for (final ODataResponsePart part : batchResponses) {
       if (part.isChangeSet()) {
-        appendChangeSet(part, builder);
-      } else {
-        appendBodyPart(part.getResponses().get(0), builder, false);
+        for (final ODataResponse response : part.getResponses()) {
+          if (response.getHeaders().get(BatchParserCommon.HTTP_CONTENT_ID) == null) {
+            throw new BatchSerializerException("Missing content id", MessageKeys.MISSING_CONTENT_ID);
+          }
+        }
       }
     }
-    builder.append(getCloseDelimiter(boundary));
+  }
+
+  private void write(final OutputStream out, final List<ODataResponsePart> batchResponses, final String boundary) {
+    // The buffer for the bodies is reused for all parts.
+    final ByteArrayOutputStream bodyBuffer = new ByteArrayOutputStream(BUFFER_SIZE);
 
-    return builder;
+    try {
+      for (final ODataResponsePart part : batchResponses) {
+        writeText(out, getDashBoundary(boundary));
+
+        if (part.isChangeSet()) {
+          writeChangeSet(out, part, bodyBuffer);
+        } else {
+          writeBodyPart(out, part.getResponses().get(0), false, bodyBuffer);
+        }
+      }
+      writeText(out, getCloseDelimiter(boundary));
+    } catch (final IOException e) {
+      throw new ODataRuntimeException(e);
+    }
   }
 
-  private void appendChangeSet(final ODataResponsePart part, final StringBuilder builder)
-      throws BatchSerializerException {
+  private void writeChangeSet(final OutputStream out, final ODataResponsePart part,
+      final ByteArrayOutputStream bodyBuffer) throws IOException {
     final String changeSetBoundary = generateBoundary("changeset");
-
+    final StringBuilder builder = new StringBuilder();
     appendChangeSetHeader(builder, changeSetBoundary);
     builder.append(CRLF);
+    writeText(out, builder);
 
     for (final ODataResponse response : part.getResponses()) {
-      builder.append(getDashBoundary(changeSetBoundary));
-      appendBodyPart(response, builder, true);
+      writeText(out, getDashBoundary(changeSetBoundary));
+      writeBodyPart(out, response, true, bodyBuffer);
     }
 
-    builder.append(getCloseDelimiter(changeSetBoundary));
+    writeText(out, getCloseDelimiter(changeSetBoundary));
   }
 
-  private void appendBodyPart(final ODataResponse response, final StringBuilder builder, final boolean isChangeSet)
-      throws BatchSerializerException {
-    byte[] body = getBody(response);
+  private void writeBodyPart(final OutputStream out, final ODataResponse response, final boolean isChangeSet,
+      final ByteArrayOutputStream bodyBuffer) throws IOException {
+    bodyBuffer.reset();
+    readBody(response, bodyBuffer);
 
+    final StringBuilder builder = new StringBuilder();
     appendBodyPartHeader(response, builder, isChangeSet);
     builder.append(CRLF);
 
     appendStatusLine(response, builder);
-    appendResponseHeader(response, body.length, builder);
+    appendResponseHeader(response, bodyBuffer.size(), builder);
     builder.append(CRLF);
+    writeText(out, builder);
 
-    builder.append(new String(body));
-    builder.append(CRLF);
+    bodyBuffer.writeTo(out);
+    writeText(out, CRLF);
   }
 
-  private byte[] getBody(final ODataResponse response) {
+  private void readBody(final ODataResponse response, final ByteArrayOutputStream bodyBuffer) throws IOException {
     final InputStream content = response.getContent();
-    final ByteArrayOutputStream out = new ByteArrayOutputStream();
 
-    if (content != null) {
+    if (response.getODataContent() != null) {
+      response.getODataContent().write(bodyBuffer);
+    } else if (content != null) {
       byte[] buffer = new byte[BUFFER_SIZE];
       int n;
 
       try {
         while ((n = content.read(buffer, 0, buffer.length)) != -1) {
-          out.write(buffer, 0, n);
+          bodyBuffer.write(buffer, 0, n);
         }
-        out.flush();
-      } catch (IOException e) {
-        throw new ODataRuntimeException(e);
+      } finally {
+        content.close();
       }
-
-      return out.toByteArray();
-    } else {
-      return new byte[0];
     }
   }
 
+  private void writeText(final OutputStream out, final CharSequence text) throws IOException {
+    out.write(text.toString().getBytes(UTF_8));
+  }
+
   private void appendChangeSetHeader(final StringBuilder builder, final String changeSetBoundary) {
     appendHeader(HttpHeader.CONTENT_TYPE, HttpContentType.MULTIPART_MIXED + "; boundary="
         + changeSetBoundary, builder);
@@ -157,19 +202,15 @@ public class BatchResponseSerializer {
     appendHeader(HttpHeader.CONTENT_LENGTH, "" + contentLength, builder);
   }
 
-  private void
-  appendBodyPartHeader(final ODataResponse response, final StringBuilder builder, final boolean isChangeSet)
-      throws BatchSerializerException {
+  private void appendBodyPartHeader(final ODataResponse response, final StringBuilder builder,
+      final boolean isChangeSet) {
     appendHeader(HttpHeader.CONTENT_TYPE, HttpContentType.APPLICATION_HTTP, builder);
     appendHeader(BatchParserCommon.HTTP_CONTENT_TRANSFER_ENCODING, BatchParserCommon.BINARY_ENCODING, builder);
 
     if (isChangeSet) {
-      if (response.getHeaders().get(BatchParserCommon.HTTP_CONTENT_ID) != null) {
-        appendHeader(BatchParserCommon.HTTP_CONTENT_ID, response.getHeaders().get(BatchParserCommon.HTTP_CONTENT_ID),
-            builder);
-      } else {
-        throw new BatchSerializerException("Missing content id", MessageKeys.MISSING_CONTENT_ID);
-      }
+      // The presence of the content id has been validated before.
+      appendHeader(BatchParserCommon.HTTP_CONTENT_ID, response.getHeaders().get(BatchParserCommon.HTTP_CONTENT_ID),
+          builder);
     }
   }
 
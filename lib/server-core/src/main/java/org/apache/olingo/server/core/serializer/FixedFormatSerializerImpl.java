@@ -25,6 +25,7 @@ import java.util.List;
 
 import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
 import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeException;
+import org.apache.olingo.server.api.ODataContent;
 import org.apache.olingo.server.api.batch.exception.BatchSerializerException;
 import org.apache.olingo.server.api.deserializer.batch.ODataResponsePart;
 import org.apache.olingo.server.api.serializer.FixedFormatSerializer;
@@ -68,4 +69,10 @@ public class FixedFormatSerializerImpl implements FixedFormatSerializer {
 
     return serializer.serialize(batchResponses, boundary);
   }
+
+  @Override
+  public ODataContent batchResponseContent(final List<ODataResponsePart> batchResponses, final String boundary)
+      throws BatchSerializerException {
+    return new BatchResponseSerializer().serializeContent(batchResponses, boundary);
+  }
 }
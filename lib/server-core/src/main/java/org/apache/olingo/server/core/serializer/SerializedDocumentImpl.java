@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.serializer;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.apache.olingo.server.api.serializer.SerializedDocument;
+import org.apache.olingo.server.api.serializer.SerializerException;
+import org.apache.olingo.server.api.serializer.SerializerResult;
+
+public class SerializedDocumentImpl implements SerializedDocument {
+  private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+  private final byte[] content;
+  private final byte[] gzipContent;
+  private final byte[] deflateContent;
+  private final String eTag;
+
+  private SerializedDocumentImpl(final byte[] content) throws IOException {
+    this.content = content;
+    gzipContent = compress(content, true);
+    deflateContent = compress(content, false);
+    eTag = createETag(content);
+  }
+
+  /**
+   * Reads the content of the given serializer result completely into memory.
+   * @param result the result of a serializer
+   * @return the serialized document
+   * @throws SerializerException if the content could not be read
+   */
+  public static SerializedDocument fromResult(final SerializerResult result) throws SerializerException {
+    final InputStream input = result.getContent();
+    try {
+      ByteArrayOutputStream output = new ByteArrayOutputStream();
+      byte[] buffer = new byte[8192];
+      int count;
+      while ((count = input.read(buffer)) >= 0) {
+        output.write(buffer, 0, count);
+      }
+      return new SerializedDocumentImpl(output.toByteArray());
+    } catch (final IOException e) {
+      throw new SerializerException("An I/O exception occurred.", e, SerializerException.MessageKeys.IO_EXCEPTION);
+    } finally {
+      try {
+        input.close();
+      } catch (final IOException e) {
+        // Nothing to do; the content has been read already or the first exception is more relevant.
+      }
+    }
+  }
+
+  @Override
+  public InputStream getContent() {
+    return new ByteArrayInputStream(content);
+  }
+
+  @Override
+  public InputStream getContent(final String contentCoding) {
+    if (GZIP.equalsIgnoreCase(contentCoding)) {
+      return new ByteArrayInputStream(gzipContent);
+    } else if (DEFLATE.equalsIgnoreCase(contentCoding)) {
+      return new ByteArrayInputStream(deflateContent);
+    } else {
+      return null;
+    }
+  }
+
+  @Override
+  public String getETag() {
+    return eTag;
+  }
+
+  private static byte[] compress(final byte[] content, final boolean gzip) throws IOException {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    OutputStream compressor = gzip ? new GZIPOutputStream(output) : new DeflaterOutputStream(output);
+    compressor.write(content);
+    compressor.close();
+    return output.toByteArray();
+  }
+
+  private static String createETag(final byte[] content) {
+    try {
+      final byte[] digest = MessageDigest.getInstance("SHA-1").digest(content);
+      StringBuilder eTag = new StringBuilder(digest.length * 2 + 2).append('"');
+      for (final byte b : digest) {
+        eTag.append(HEX_DIGITS[(b >> 4) & 0xF]).append(HEX_DIGITS[b & 0xF]);
+      }
+      return eTag.append('"').toString();
+    } catch (final NoSuchAlgorithmException e) {
+      // Every Java platform has to support SHA-1.
+      throw new IllegalStateException(e);
+    }
+  }
+}
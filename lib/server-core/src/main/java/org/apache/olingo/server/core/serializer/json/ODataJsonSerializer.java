@@ -19,15 +19,21 @@
 package org.apache.olingo.server.core.serializer.json;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 
 import org.apache.olingo.commons.api.Constants;
+import org.apache.olingo.commons.api.ODataRuntimeException;
+import org.apache.olingo.commons.api.data.CompactEntity;
 import org.apache.olingo.commons.api.data.ComplexValue;
 import org.apache.olingo.commons.api.data.ContextURL;
 import org.apache.olingo.commons.api.data.Entity;
 import org.apache.olingo.commons.api.data.EntityCollection;
+import org.apache.olingo.commons.api.data.EntityLayout;
 import org.apache.olingo.commons.api.data.Link;
 import org.apache.olingo.commons.api.data.Linked;
 import org.apache.olingo.commons.api.data.Property;
@@ -44,6 +50,7 @@ import org.apache.olingo.commons.api.edm.EdmStructuredType;
 import org.apache.olingo.commons.api.edm.FullQualifiedName;
 import org.apache.olingo.commons.api.format.ODataFormat;
 import org.apache.olingo.commons.core.edm.primitivetype.EdmPrimitiveTypeFactory;
+import org.apache.olingo.server.api.ODataContent;
 import org.apache.olingo.server.api.ODataServerError;
 import org.apache.olingo.server.api.ServiceMetadata;
 import org.apache.olingo.server.api.serializer.ComplexSerializerOptions;
@@ -53,11 +60,12 @@ import org.apache.olingo.server.api.serializer.ODataSerializer;
 import org.apache.olingo.server.api.serializer.PrimitiveSerializerOptions;
 import org.apache.olingo.server.api.serializer.SerializerException;
 import org.apache.olingo.server.api.serializer.SerializerResult;
+import org.apache.olingo.server.api.serializer.SerializerStreamResult;
 import org.apache.olingo.server.api.uri.UriHelper;
-import org.apache.olingo.server.api.uri.queryoption.ExpandItem;
 import org.apache.olingo.server.api.uri.queryoption.ExpandOption;
 import org.apache.olingo.server.api.uri.queryoption.SelectOption;
 import org.apache.olingo.server.core.serializer.SerializerResultImpl;
+import org.apache.olingo.server.core.serializer.SerializerStreamResultImpl;
 import org.apache.olingo.server.core.serializer.utils.CircleStreamBuffer;
 import org.apache.olingo.server.core.serializer.utils.ContextURLBuilder;
 import org.apache.olingo.server.core.serializer.utils.ExpandSelectHelper;
@@ -73,10 +81,46 @@ public class ODataJsonSerializer implements ODataSerializer {
 
   private static final Logger log = LoggerFactory.getLogger(ODataJsonSerializer.class);
 
+  /**
+   * Factory shared by all serializer instances. Jackson factories are thread-safe and keep
+   * their symbol tables and recycled generator buffers across the generators they create.
+   */
+  private static final JsonFactory SHARED_JSON_FACTORY = new JsonFactory();
+
+  private static final EdmPrimitiveType BOOLEAN = EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Boolean);
+
+  private static final Set<EdmPrimitiveType> NUMBER_TYPES = new HashSet<EdmPrimitiveType>(Arrays.asList(
+      EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Byte),
+      EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Decimal),
+      EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Double),
+      EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Int16),
+      EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Int32),
+      EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Int64),
+      EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.SByte),
+      EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Single)));
+
   private final ODataFormat format;
+  private final JsonFactory jsonFactory;
+
+  /**
+   * Whether the protected write methods may have been overridden. This serializer passes its serialization plans
+   * directly to the private write methods; a subclass is called through the protected ones instead, which get the
+   * plans for their arguments again.
+   */
+  private final boolean overridable = getClass() != ODataJsonSerializer.class;
 
   public ODataJsonSerializer(final ODataFormat format) {
+    this(format, SHARED_JSON_FACTORY);
+  }
+
+  /**
+   * Creates a serializer writing with generators of the given (configured) factory.
+   * @param format the OData format
+   * @param jsonFactory the factory to create the JSON generators with; it should be shared between requests
+   */
+  public ODataJsonSerializer(final ODataFormat format, final JsonFactory jsonFactory) {
     this.format = format;
+    this.jsonFactory = jsonFactory;
   }
 
   @Override
@@ -86,7 +130,7 @@ public class ODataJsonSerializer implements ODataSerializer {
 
     try {
       buffer = new CircleStreamBuffer();
-      gen = new JsonFactory().createGenerator(buffer.getOutputStream())
+      gen = jsonFactory.createGenerator(buffer.getOutputStream())
           .setPrettyPrinter(new DefaultPrettyPrinter());
 
       new ServiceDocumentJsonSerializer(edm, serviceRoot).writeServiceDocument(gen);
@@ -121,7 +165,7 @@ public class ODataJsonSerializer implements ODataSerializer {
   public SerializerResult error(final ODataServerError error) throws SerializerException {
     CircleStreamBuffer buffer = new CircleStreamBuffer();
     try {
-      JsonGenerator json = new JsonFactory().createGenerator(buffer.getOutputStream());
+      JsonGenerator json = jsonFactory.createGenerator(buffer.getOutputStream());
       new ODataErrorSerializer().writeErrorDocument(json, error);
       json.close();
     } catch (final IOException e) {
@@ -135,31 +179,11 @@ public class ODataJsonSerializer implements ODataSerializer {
   public SerializerResult entityCollection(final ServiceMetadata metadata,
       final EdmEntityType entityType, final EntityCollection entitySet,
       final EntityCollectionSerializerOptions options) throws SerializerException {
+    final ContextURL contextURL = checkContextURL(options == null ? null : options.getContextURL());
     CircleStreamBuffer buffer = new CircleStreamBuffer();
     try {
-      JsonGenerator json = new JsonFactory().createGenerator(buffer.getOutputStream());
-      json.writeStartObject();
-
-      final ContextURL contextURL = checkContextURL(options == null ? null : options.getContextURL());
-      if (contextURL != null) {
-        json.writeStringField(Constants.JSON_CONTEXT,
-            ContextURLBuilder.create(contextURL).toASCIIString());
-      }
-
-      if (options != null && options.getCount() != null && options.getCount().getValue()
-          && entitySet.getCount() != null) {
-        writeCount(entitySet, json);
-      }
-      json.writeFieldName(Constants.VALUE);
-      if (options == null) {
-        writeEntitySet(metadata, entityType, entitySet, null, null, false, json);
-      } else {
-        writeEntitySet(metadata, entityType, entitySet,
-            options.getExpand(), options.getSelect(), options.onlyReferences(), json);
-      }
-      if (entitySet.getNext() != null) {
-        writeNextLink(entitySet, json);
-      }
+      JsonGenerator json = jsonFactory.createGenerator(buffer.getOutputStream());
+      writeEntityCollection(metadata, entityType, entitySet, contextURL, options, json);
       json.close();
     } catch (final IOException e) {
       throw new SerializerException("An I/O exception occurred.", e,
@@ -168,13 +192,71 @@ public class ODataJsonSerializer implements ODataSerializer {
     return SerializerResultImpl.with().content(buffer.getInputStream()).build();
   }
 
+  @Override
+  public SerializerStreamResult entityCollectionStreamed(final ServiceMetadata metadata,
+      final EdmEntityType entityType, final EntityCollection entitySet,
+      final EntityCollectionSerializerOptions options) throws SerializerException {
+    final ContextURL contextURL = checkContextURL(options == null ? null : options.getContextURL());
+    return SerializerStreamResultImpl.with().content(new ODataContent() {
+      @Override
+      public void write(final OutputStream stream) {
+        try {
+          JsonGenerator json = jsonFactory.createGenerator(stream);
+          // The stream belongs to the caller; closing the generator must only flush it.
+          json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+          writeEntityCollection(metadata, entityType, entitySet, contextURL, options, json);
+          json.close();
+        } catch (final IOException e) {
+          log.error(e.getMessage(), e);
+          throw new ODataRuntimeException(e);
+        } catch (final SerializerException e) {
+          log.error(e.getMessage(), e);
+          throw new ODataRuntimeException(e);
+        }
+      }
+    }).build();
+  }
+
+  private void writeEntityCollection(final ServiceMetadata metadata, final EdmEntityType entityType,
+      final EntityCollection entitySet, final ContextURL contextURL,
+      final EntityCollectionSerializerOptions options, final JsonGenerator json)
+      throws IOException, SerializerException {
+    json.writeStartObject();
+
+    if (contextURL != null) {
+      json.writeStringField(Constants.JSON_CONTEXT,
+          ContextURLBuilder.create(contextURL).toASCIIString());
+    }
+
+    final boolean withCount = options != null && options.getCount() != null && options.getCount().getValue();
+    final boolean countWritten = withCount && entitySet.getCount() != null;
+    if (countWritten) {
+      writeCount(entitySet, json);
+    }
+    json.writeFieldName(Constants.VALUE);
+    if (options == null) {
+      writeEntitySet(metadata, entityType, entitySet, null, null, false, json);
+    } else {
+      writeEntitySet(metadata, entityType, entitySet,
+          options.getExpand(), options.getSelect(), options.onlyReferences(), json);
+    }
+    // The count of an entity iterator may only be known after all entities have been read.
+    if (withCount && !countWritten && entitySet.getCount() != null) {
+      writeCount(entitySet, json);
+    }
+    if (entitySet.getNext() != null) {
+      writeNextLink(entitySet, json);
+    }
+    json.writeEndObject();
+  }
+
   @Override
   public SerializerResult entity(final ServiceMetadata metadata, final EdmEntityType entityType,
       final Entity entity, final EntitySerializerOptions options) throws SerializerException {
     final ContextURL contextURL = checkContextURL(options == null ? null : options.getContextURL());
     CircleStreamBuffer buffer = new CircleStreamBuffer();
     try {
-      JsonGenerator json = new JsonFactory().createGenerator(buffer.getOutputStream());
+      JsonGenerator json = jsonFactory.createGenerator(buffer.getOutputStream());
       writeEntity(metadata, entityType, entity, contextURL,
           options == null ? null : options.getExpand(),
           options == null ? null : options.getSelect(),
@@ -200,14 +282,23 @@ public class ODataJsonSerializer implements ODataSerializer {
       final EntityCollection entitySet, final ExpandOption expand, final SelectOption select,
       final boolean onlyReference, final JsonGenerator json) throws IOException,
       SerializerException {
+    writeEntitySet(metadata, entityType, SerializationPlan.get(metadata, entityType, select, expand), entitySet,
+        onlyReference, json);
+  }
+
+  private void writeEntitySet(final ServiceMetadata metadata, final EdmEntityType entityType,
+      final SerializationPlan plan, final EntityCollection entitySet, final boolean onlyReference,
+      final JsonGenerator json) throws IOException, SerializerException {
     json.writeStartArray();
-    for (final Entity entity : entitySet.getEntities()) {
+    for (final Entity entity : entitySet) {
       if (onlyReference) {
         json.writeStartObject();
         json.writeStringField(Constants.JSON_ID, entity.getId().toASCIIString());
         json.writeEndObject();
+      } else if (overridable) {
+        writeEntity(metadata, entityType, entity, null, plan.getExpand(), plan.getSelect(), false, json);
       } else {
-        writeEntity(metadata, entityType, entity, null, expand, select, false, json);
+        writeEntity(metadata, entityType, plan, entity, null, false, json);
       }
     }
     json.writeEndArray();
@@ -217,6 +308,13 @@ public class ODataJsonSerializer implements ODataSerializer {
       final Entity entity, final ContextURL contextURL, final ExpandOption expand,
       final SelectOption select, final boolean onlyReference, final JsonGenerator json)
       throws IOException, SerializerException {
+    writeEntity(metadata, entityType, SerializationPlan.get(metadata, entityType, select, expand), entity,
+        contextURL, onlyReference, json);
+  }
+
+  private void writeEntity(final ServiceMetadata metadata, final EdmEntityType entityType,
+      final SerializationPlan plan, final Entity entity, final ContextURL contextURL, final boolean onlyReference,
+      final JsonGenerator json) throws IOException, SerializerException {
     json.writeStartObject();
     if (format != ODataFormat.JSON_NO_METADATA) {
       if (contextURL != null) {
@@ -247,10 +345,24 @@ public class ODataJsonSerializer implements ODataSerializer {
       if (!resolvedType.equals(entityType)) {
         json.writeStringField(Constants.JSON_TYPE, "#" + entity.getType());
       }
-      writeProperties(resolvedType, entity.getProperties(), select, json);
-      writeNavigationProperties(metadata, resolvedType, entity, expand, json);
-      json.writeEndObject();
+      final SerializationPlan resolvedPlan = plan.forType(resolvedType);
+      if (overridable) {
+        if (isCompact(entity, resolvedType)) {
+          writeCompactProperties(resolvedType, (CompactEntity) entity, resolvedPlan.getSelect(), json);
+        } else {
+          writeProperties(resolvedType, entity.getProperties(), resolvedPlan.getSelect(), json);
+        }
+        writeNavigationProperties(metadata, resolvedType, entity, resolvedPlan.getExpand(), json);
+      } else {
+        if (isCompact(entity, resolvedType)) {
+          writeCompactProperties(resolvedPlan, (CompactEntity) entity, json);
+        } else {
+          writeProperties(resolvedPlan, entity.getProperties(), json);
+        }
+        writeNavigationProperties(metadata, resolvedPlan, entity, json);
+      }
     }
+    json.writeEndObject();
   }
 
   protected EdmEntityType resolveEntityType(final ServiceMetadata metadata, final EdmEntityType baseType,
@@ -303,43 +415,94 @@ public class ODataJsonSerializer implements ODataSerializer {
 
   protected void writeProperties(final EdmStructuredType type, final List<Property> properties,
       final SelectOption select, final JsonGenerator json) throws IOException, SerializerException {
-    final boolean all = ExpandSelectHelper.isAll(select);
-    final Set<String> selected = all ? null :
-        ExpandSelectHelper.getSelectedPropertyNames(select.getSelectItems());
-    for (final String propertyName : type.getPropertyNames()) {
-      if (all || selected.contains(propertyName)) {
-        final EdmProperty edmProperty = type.getStructuralProperty(propertyName);
-        final Property property = findProperty(propertyName, properties);
-        final Set<List<String>> selectedPaths = all || edmProperty.isPrimitive() ? null :
-            ExpandSelectHelper.getSelectedPaths(select.getSelectItems(), propertyName);
-        writeProperty(edmProperty, property, selectedPaths, json);
+    writeProperties(new SerializationPlan(type, select, null), properties, json);
+  }
+
+  private void writeProperties(final SerializationPlan plan, final List<Property> properties,
+      final JsonGenerator json) throws IOException, SerializerException {
+    for (final SerializationPlan.PropertyStep step : plan.getProperties()) {
+      json.writeFieldName(step.getName());
+      writePropertyContent(step.getProperty(), findProperty(step.getProperty().getName(), properties),
+          step.getSelectedPaths(), json);
+    }
+  }
+
+  private boolean isCompact(final Entity entity, final EdmEntityType type) {
+    return entity instanceof CompactEntity && ((CompactEntity) entity).isCompact()
+        && ((CompactEntity) entity).getLayout().getType().getFullQualifiedName()
+            .equals(type.getFullQualifiedName());
+  }
+
+  /** Writes the properties of a compact entity, reading unboxed primitive values directly from their slots. */
+  protected void writeCompactProperties(final EdmStructuredType type, final CompactEntity entity,
+      final SelectOption select, final JsonGenerator json) throws IOException, SerializerException {
+    writeCompactProperties(new SerializationPlan(type, select, null), entity, json);
+  }
+
+  private void writeCompactProperties(final SerializationPlan plan, final CompactEntity entity,
+      final JsonGenerator json) throws IOException, SerializerException {
+    final EntityLayout layout = entity.getLayout();
+    for (final SerializationPlan.PropertyStep step : plan.getProperties()) {
+      final EdmProperty edmProperty = step.getProperty();
+      final int slot = layout.getSlot(edmProperty.getName());
+      json.writeFieldName(step.getName());
+      if (slot >= 0 && entity.hasPrimitive(slot)) {
+        writeCompactPrimitive(edmProperty, entity, slot, json);
+      } else {
+        writePropertyContent(edmProperty,
+            slot >= 0 ? entity.getSlotProperty(slot) : entity.getProperty(edmProperty.getName()),
+            step.getSelectedPaths(), json);
       }
     }
   }
 
+  private void writeCompactPrimitive(final EdmProperty edmProperty, final CompactEntity entity, final int slot,
+      final JsonGenerator json) throws IOException, SerializerException {
+    switch (entity.getLayout().getPrimitiveKind(slot)) {
+    case Boolean:
+      json.writeBoolean(entity.getBoolean(slot));
+      break;
+    case Single:
+    case Double:
+      final double value = entity.getDouble(slot);
+      if (Double.isNaN(value) || Double.isInfinite(value)) {
+        // Special values are rare; let the primitive type decide on their representation.
+        try {
+          writePrimitiveValue((EdmPrimitiveType) edmProperty.getType(), value,
+              edmProperty.isNullable(), edmProperty.getMaxLength(),
+              edmProperty.getPrecision(), edmProperty.getScale(), edmProperty.isUnicode(), json);
+        } catch (final EdmPrimitiveTypeException e) {
+          throw new SerializerException("Wrong value for property!", e,
+              SerializerException.MessageKeys.WRONG_PROPERTY_VALUE, edmProperty.getName(), String.valueOf(value));
+        }
+      } else if (entity.getLayout().getPrimitiveKind(slot) == EdmPrimitiveTypeKind.Single) {
+        json.writeNumber((float) value);
+      } else {
+        json.writeNumber(value);
+      }
+      break;
+    default:
+      json.writeNumber(entity.getLong(slot));
+    }
+  }
+
   protected void writeNavigationProperties(final ServiceMetadata metadata,
       final EdmStructuredType type, final Linked linked, final ExpandOption expand,
       final JsonGenerator json) throws SerializerException, IOException {
-    if (ExpandSelectHelper.hasExpand(expand)) {
-      final boolean expandAll = ExpandSelectHelper.isExpandAll(expand);
-      final Set<String> expanded = expandAll ? null :
-          ExpandSelectHelper.getExpandedPropertyNames(expand.getExpandItems());
-      for (final String propertyName : type.getNavigationPropertyNames()) {
-        if (expandAll || expanded.contains(propertyName)) {
-          final EdmNavigationProperty property = type.getNavigationProperty(propertyName);
-          final Link navigationLink = linked.getNavigationLink(property.getName());
-          final ExpandItem innerOptions = expandAll ? null :
-              ExpandSelectHelper.getExpandItem(expand.getExpandItems(), propertyName);
-          if (innerOptions != null && innerOptions.getLevelsOption() != null) {
-            throw new SerializerException("Expand option $levels is not supported.",
-                SerializerException.MessageKeys.NOT_IMPLEMENTED);
-          }
-          writeExpandedNavigationProperty(metadata, property, navigationLink,
-              innerOptions == null ? null : innerOptions.getExpandOption(),
-              innerOptions == null ? null : innerOptions.getSelectOption(), 
-              innerOptions == null ? false: innerOptions.isRef(),
-              json);
-        }
+    writeNavigationProperties(metadata, SerializationPlan.get(metadata, type, null, expand), linked, json);
+  }
+
+  private void writeNavigationProperties(final ServiceMetadata metadata, final SerializationPlan plan,
+      final Linked linked, final JsonGenerator json) throws SerializerException, IOException {
+    for (final SerializationPlan.NavigationStep step : plan.getNavigations()) {
+      final EdmNavigationProperty property = step.getProperty();
+      final Link navigationLink = linked.getNavigationLink(property.getName());
+      if (overridable) {
+        writeExpandedNavigationProperty(metadata, property, navigationLink,
+            step.getPlan().getExpand(), step.getPlan().getSelect(), step.isOnlyReference(), json);
+      } else {
+        json.writeFieldName(step.getName());
+        writeNavigationContent(metadata, property, step.getPlan(), navigationLink, step.isOnlyReference(), json);
       }
     }
   }
@@ -350,20 +513,31 @@ public class ODataJsonSerializer implements ODataSerializer {
       final JsonGenerator json)
       throws IOException, SerializerException {
     json.writeFieldName(property.getName());
+    writeNavigationContent(metadata, property, SerializationPlan.get(metadata, property.getType(), innerSelect,
+        innerExpand), navigationLink, onlyReference, json);
+  }
+
+  private void writeNavigationContent(final ServiceMetadata metadata, final EdmNavigationProperty property,
+      final SerializationPlan plan, final Link navigationLink, final boolean onlyReference, final JsonGenerator json)
+      throws IOException, SerializerException {
     if (property.isCollection()) {
       if (navigationLink == null || navigationLink.getInlineEntitySet() == null) {
         json.writeStartArray();
         json.writeEndArray();
+      } else if (overridable) {
+        writeEntitySet(metadata, property.getType(), navigationLink.getInlineEntitySet(), plan.getExpand(),
+            plan.getSelect(), onlyReference, json);
       } else {
-        writeEntitySet(metadata, property.getType(), navigationLink.getInlineEntitySet(), innerExpand,
-            innerSelect, onlyReference, json);
+        writeEntitySet(metadata, property.getType(), plan, navigationLink.getInlineEntitySet(), onlyReference, json);
       }
     } else {
       if (navigationLink == null || navigationLink.getInlineEntity() == null) {
         json.writeNull();
-      } else {
+      } else if (overridable) {
         writeEntity(metadata, property.getType(), navigationLink.getInlineEntity(), null,
-            innerExpand, innerSelect, onlyReference, json);
+            plan.getExpand(), plan.getSelect(), onlyReference, json);
+      } else {
+        writeEntity(metadata, property.getType(), plan, navigationLink.getInlineEntity(), null, onlyReference, json);
       }
     }
   }
@@ -371,6 +545,11 @@ public class ODataJsonSerializer implements ODataSerializer {
   protected void writeProperty(final EdmProperty edmProperty, final Property property,
       final Set<List<String>> selectedPaths, final JsonGenerator json) throws IOException, SerializerException {
     json.writeFieldName(edmProperty.getName());
+    writePropertyContent(edmProperty, property, selectedPaths, json);
+  }
+
+  private void writePropertyContent(final EdmProperty edmProperty, final Property property,
+      final Set<List<String>> selectedPaths, final JsonGenerator json) throws IOException, SerializerException {
     if (property == null || property.isNull()) {
       if (edmProperty.isNullable() == Boolean.FALSE) {
         throw new SerializerException("Non-nullable property not present!",
@@ -484,20 +663,19 @@ public class ODataJsonSerializer implements ODataSerializer {
       final Boolean isNullable, final Integer maxLength, final Integer precision, final Integer scale,
       final Boolean isUnicode,
       final JsonGenerator json) throws EdmPrimitiveTypeException, IOException {
+    if (primitiveValue != null) {
+      final PrimitiveValueWriter writer = PrimitiveValueWriter.forType(type);
+      if (writer != null && writer.write(primitiveValue, maxLength, isUnicode, json)) {
+        return;
+      }
+    }
     final String value = type.valueToString(primitiveValue,
         isNullable, maxLength, precision, scale, isUnicode);
     if (value == null) {
       json.writeNull();
-    } else if(type == EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Boolean)) {
-        json.writeBoolean(Boolean.parseBoolean(value));
-    } else if (type == EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Byte)
-        || type == EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Decimal)
-        || type == EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Double)
-        || type == EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Int16)
-        || type == EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Int32)
-        || type == EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Int64)
-        || type == EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.SByte)
-        || type == EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Single)) {
+    } else if (type == BOOLEAN) {
+      json.writeBoolean(Boolean.parseBoolean(value));
+    } else if (NUMBER_TYPES.contains(type)) {
       json.writeNumber(value);
     } else {
       json.writeString(value);
@@ -534,7 +712,7 @@ public class ODataJsonSerializer implements ODataSerializer {
     final ContextURL contextURL = checkContextURL(options == null ? null : options.getContextURL());
     CircleStreamBuffer buffer = new CircleStreamBuffer();
     try {
-      JsonGenerator json = new JsonFactory().createGenerator(buffer.getOutputStream());
+      JsonGenerator json = jsonFactory.createGenerator(buffer.getOutputStream());
       json.writeStartObject();
       if (contextURL != null) {
         json.writeStringField(Constants.JSON_CONTEXT, ContextURLBuilder.create(contextURL).toASCIIString());
@@ -567,7 +745,7 @@ public class ODataJsonSerializer implements ODataSerializer {
     final ContextURL contextURL = checkContextURL(options == null ? null : options.getContextURL());
     CircleStreamBuffer buffer = new CircleStreamBuffer();
     try {
-      JsonGenerator json = new JsonFactory().createGenerator(buffer.getOutputStream());
+      JsonGenerator json = jsonFactory.createGenerator(buffer.getOutputStream());
       json.writeStartObject();
       if (contextURL != null) {
         json.writeStringField(Constants.JSON_CONTEXT, ContextURLBuilder.create(contextURL).toASCIIString());
@@ -598,7 +776,7 @@ public class ODataJsonSerializer implements ODataSerializer {
     final ContextURL contextURL = checkContextURL(options == null ? null : options.getContextURL());
     CircleStreamBuffer buffer = new CircleStreamBuffer();
     try {
-      JsonGenerator json = new JsonFactory().createGenerator(buffer.getOutputStream());
+      JsonGenerator json = jsonFactory.createGenerator(buffer.getOutputStream());
       json.writeStartObject();
       if (contextURL != null) {
         json.writeStringField(Constants.JSON_CONTEXT, ContextURLBuilder.create(contextURL).toASCIIString());
@@ -627,7 +805,7 @@ public class ODataJsonSerializer implements ODataSerializer {
     final ContextURL contextURL = checkContextURL(options == null ? null : options.getContextURL());
     CircleStreamBuffer buffer = new CircleStreamBuffer();
     try {
-      JsonGenerator json = new JsonFactory().createGenerator(buffer.getOutputStream());
+      JsonGenerator json = jsonFactory.createGenerator(buffer.getOutputStream());
       json.writeStartObject();
       if (contextURL != null) {
         json.writeStringField(Constants.JSON_CONTEXT, ContextURLBuilder.create(contextURL).toASCIIString());
@@ -655,7 +833,7 @@ public class ODataJsonSerializer implements ODataSerializer {
     final UriHelper uriHelper = new UriHelperImpl();
     
     try {
-      final JsonGenerator json = new JsonFactory().createGenerator(buffer.getOutputStream());
+      final JsonGenerator json = jsonFactory.createGenerator(buffer.getOutputStream());
       writeReference(edmEntitySet, entity, contextURL, uriHelper, json);
       
       json.close();
@@ -674,16 +852,21 @@ public class ODataJsonSerializer implements ODataSerializer {
     final UriHelper uriHelper = new UriHelperImpl();
     
     try {
-      final JsonGenerator json = new JsonFactory().createGenerator(buffer.getOutputStream());
+      final JsonGenerator json = jsonFactory.createGenerator(buffer.getOutputStream());
       json.writeStartObject();
       
-      if(entityCollection.getCount() != null) {
+      final boolean countWritten = entityCollection.getCount() != null;
+      if(countWritten) {
         writeCount(entityCollection, json);
       }
       
       json.writeStringField(Constants.JSON_CONTEXT, ContextURLBuilder.create(contextURL).toASCIIString());
       writeReferenceCollection(metadata, edmEntitySet, entityCollection, uriHelper,json);
       
+      if(!countWritten && entityCollection.getCount() != null) {
+        writeCount(entityCollection, json);
+      }
+      
       if(entityCollection.getNext() != null) {
         writeNextLink(entityCollection, json);
       }
@@ -703,7 +886,7 @@ public class ODataJsonSerializer implements ODataSerializer {
   
     json.writeArrayFieldStart(Constants.VALUE);
 
-    for(final Entity entity : entityCollection.getEntities()) {
+    for(final Entity entity : entityCollection) {
       writeReference(edmEntitySet, entity, null, uriHelper, json);
     }
 
@@ -0,0 +1,179 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.serializer.json;
+
+import java.io.IOException;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeKind;
+import org.apache.olingo.commons.core.edm.primitivetype.EdmPrimitiveTypeFactory;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Writes primitive values of one primitive type directly into a JSON generator,
+ * without converting them to a string first.
+ * <p>Only the common combinations of type, Java class, and facets are handled here;
+ * for all other values {@link #write} returns <code>false</code> and the caller has to use
+ * {@link EdmPrimitiveType#valueToString}, which also reports invalid values.</p>
+ */
+abstract class PrimitiveValueWriter {
+
+  private static final Map<EdmPrimitiveType, PrimitiveValueWriter> WRITERS =
+      new HashMap<EdmPrimitiveType, PrimitiveValueWriter>();
+
+  static {
+    WRITERS.put(EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Boolean), new PrimitiveValueWriter() {
+      @Override
+      boolean write(final Object value, final Integer maxLength, final Boolean isUnicode, final JsonGenerator json)
+          throws IOException {
+        if (value instanceof Boolean) {
+          json.writeBoolean((Boolean) value);
+          return true;
+        }
+        return false;
+      }
+    });
+    putIntegerWriter(EdmPrimitiveTypeKind.Byte, 0, 255);
+    putIntegerWriter(EdmPrimitiveTypeKind.SByte, Byte.MIN_VALUE, Byte.MAX_VALUE);
+    putIntegerWriter(EdmPrimitiveTypeKind.Int16, Short.MIN_VALUE, Short.MAX_VALUE);
+    putIntegerWriter(EdmPrimitiveTypeKind.Int32, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    putIntegerWriter(EdmPrimitiveTypeKind.Int64, Long.MIN_VALUE, Long.MAX_VALUE);
+    WRITERS.put(EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Single), new PrimitiveValueWriter() {
+      @Override
+      boolean write(final Object value, final Integer maxLength, final Boolean isUnicode, final JsonGenerator json)
+          throws IOException {
+        if (value instanceof Float && !((Float) value).isNaN() && !((Float) value).isInfinite()) {
+          json.writeNumber((Float) value);
+          return true;
+        }
+        return isInteger(value) && writeInteger(((Number) value).longValue(), -(1L << 22) + 1, (1L << 22) - 1,
+            json);
+      }
+    });
+    WRITERS.put(EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Double), new PrimitiveValueWriter() {
+      @Override
+      boolean write(final Object value, final Integer maxLength, final Boolean isUnicode, final JsonGenerator json)
+          throws IOException {
+        if (value instanceof Double && !((Double) value).isNaN() && !((Double) value).isInfinite()) {
+          json.writeNumber((Double) value);
+          return true;
+        } else if (value instanceof Float && !((Float) value).isNaN() && !((Float) value).isInfinite()) {
+          json.writeNumber((Float) value);
+          return true;
+        }
+        return isInteger(value) && writeInteger(((Number) value).longValue(), -(1L << 51) + 1, (1L << 51) - 1,
+            json);
+      }
+    });
+    WRITERS.put(EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.String), new PrimitiveValueWriter() {
+      @Override
+      boolean write(final Object value, final Integer maxLength, final Boolean isUnicode, final JsonGenerator json)
+          throws IOException {
+        // Facets have to be checked by the type.
+        if (value instanceof String && maxLength == null && (isUnicode == null || isUnicode)) {
+          json.writeString((String) value);
+          return true;
+        }
+        return false;
+      }
+    });
+    WRITERS.put(EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Guid), new PrimitiveValueWriter() {
+      @Override
+      boolean write(final Object value, final Integer maxLength, final Boolean isUnicode, final JsonGenerator json)
+          throws IOException {
+        if (value instanceof UUID) {
+          json.writeString(value.toString());
+          return true;
+        }
+        return false;
+      }
+    });
+    WRITERS.put(EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Date), new PrimitiveValueWriter() {
+      @Override
+      boolean write(final Object value, final Integer maxLength, final Boolean isUnicode, final JsonGenerator json)
+          throws IOException {
+        if (value instanceof Calendar) {
+          final Calendar calendar = (Calendar) value;
+          final int year = calendar.get(Calendar.YEAR);
+          if (year >= 0 && year < 10000 && calendar.get(Calendar.ERA) == GregorianCalendar.AD) {
+            final char[] date = new char[10];
+            setTwoDigits(date, 0, year / 100);
+            setTwoDigits(date, 2, year % 100);
+            date[4] = '-';
+            setTwoDigits(date, 5, calendar.get(Calendar.MONTH) + 1); // month is zero-based
+            date[7] = '-';
+            setTwoDigits(date, 8, calendar.get(Calendar.DAY_OF_MONTH));
+            json.writeString(date, 0, date.length);
+            return true;
+          }
+        }
+        return false;
+      }
+    });
+  }
+
+  private static void putIntegerWriter(final EdmPrimitiveTypeKind kind, final long min, final long max) {
+    WRITERS.put(EdmPrimitiveTypeFactory.getInstance(kind), new PrimitiveValueWriter() {
+      @Override
+      boolean write(final Object value, final Integer maxLength, final Boolean isUnicode, final JsonGenerator json)
+          throws IOException {
+        return isInteger(value) && writeInteger(((Number) value).longValue(), min, max, json);
+      }
+    });
+  }
+
+  private static boolean isInteger(final Object value) {
+    return value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte;
+  }
+
+  private static boolean writeInteger(final long value, final long min, final long max, final JsonGenerator json)
+      throws IOException {
+    if (value < min || value > max) {
+      return false;
+    }
+    json.writeNumber(value);
+    return true;
+  }
+
+  private static void setTwoDigits(final char[] chars, final int offset, final int number) {
+    chars[offset] = (char) ('0' + number / 10);
+    chars[offset + 1] = (char) ('0' + number % 10);
+  }
+
+  /**
+   * Gets the writer for the given primitive type.
+   * @param type primitive type
+   * @return writer, or <code>null</code> if values of this type are always converted to strings
+   */
+  static PrimitiveValueWriter forType(final EdmPrimitiveType type) {
+    return WRITERS.get(type);
+  }
+
+  /**
+   * Writes the given non-null value if it is supported by this writer.
+   * @return <code>true</code> if the value has been written, <code>false</code> if nothing has been written
+   */
+  abstract boolean write(Object value, Integer maxLength, Boolean isUnicode, JsonGenerator json) throws IOException;
+}
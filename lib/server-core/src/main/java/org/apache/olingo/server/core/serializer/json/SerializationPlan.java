@@ -0,0 +1,263 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.serializer.json;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.olingo.commons.api.edm.EdmNavigationProperty;
+import org.apache.olingo.commons.api.edm.EdmProperty;
+import org.apache.olingo.commons.api.edm.EdmStructuredType;
+import org.apache.olingo.server.api.ServiceMetadata;
+import org.apache.olingo.server.api.serializer.SerializerException;
+import org.apache.olingo.server.api.uri.queryoption.ExpandItem;
+import org.apache.olingo.server.api.uri.queryoption.ExpandOption;
+import org.apache.olingo.server.api.uri.queryoption.SelectOption;
+import org.apache.olingo.server.core.serializer.utils.ExpandSelectHelper;
+
+import com.fasterxml.jackson.core.io.SerializedString;
+
+/**
+ * The properties and expanded navigation properties to be written for instances of one structured type
+ * with given $select and $expand options.
+ * <p>The plan is compiled on first use and then reused for all instances of this shape, together with the
+ * plans for derived types and for the expanded navigation properties.
+ * Plans for options parsed from a request URI are also cached per service metadata,
+ * so that later requests with the same options reuse them.</p>
+ */
+class SerializationPlan {
+
+  /** Upper limit for the number of cached plans per service metadata. */
+  static final int MAX_CACHED_PLANS = 1000;
+
+  private static final Map<ServiceMetadata, ConcurrentMap<String, SerializationPlan>> CACHE =
+      Collections.synchronizedMap(new WeakHashMap<ServiceMetadata, ConcurrentMap<String, SerializationPlan>>());
+
+  /** A structural property to be written. */
+  static class PropertyStep {
+    private final EdmProperty property;
+    private final SerializedString name;
+    private final Set<List<String>> selectedPaths;
+
+    private PropertyStep(final EdmProperty property, final Set<List<String>> selectedPaths) {
+      this.property = property;
+      name = new SerializedString(property.getName());
+      this.selectedPaths = selectedPaths;
+    }
+
+    EdmProperty getProperty() {
+      return property;
+    }
+
+    SerializedString getName() {
+      return name;
+    }
+
+    Set<List<String>> getSelectedPaths() {
+      return selectedPaths;
+    }
+  }
+
+  /** An expanded navigation property to be written. */
+  static class NavigationStep {
+    private final EdmNavigationProperty property;
+    private final SerializedString name;
+    private final SerializationPlan plan;
+    private final boolean onlyReference;
+
+    private NavigationStep(final EdmNavigationProperty property, final ExpandOption expand, final SelectOption select,
+        final boolean onlyReference) {
+      this.property = property;
+      name = new SerializedString(property.getName());
+      plan = new SerializationPlan(property.getType(), select, expand);
+      this.onlyReference = onlyReference;
+    }
+
+    EdmNavigationProperty getProperty() {
+      return property;
+    }
+
+    SerializedString getName() {
+      return name;
+    }
+
+    /** Gets the plan for the entities of the target type. */
+    SerializationPlan getPlan() {
+      return plan;
+    }
+
+    boolean isOnlyReference() {
+      return onlyReference;
+    }
+  }
+
+  private final EdmStructuredType type;
+  private final SelectOption select;
+  private final ExpandOption expand;
+  private final ConcurrentMap<String, SerializationPlan> derivedPlans =
+      new ConcurrentHashMap<String, SerializationPlan>();
+  private volatile List<PropertyStep> properties;
+  private volatile List<NavigationStep> navigations;
+
+  SerializationPlan(final EdmStructuredType type, final SelectOption select, final ExpandOption expand) {
+    this.type = type;
+    this.select = select;
+    this.expand = expand;
+  }
+
+  /**
+   * Gets the plan for the given type and options, from the cache of the service metadata if possible.
+   * Options can only be cached if their text is known, i.e., if they have been parsed from a request URI.
+   */
+  static SerializationPlan get(final ServiceMetadata metadata, final EdmStructuredType type,
+      final SelectOption select, final ExpandOption expand) {
+    if (metadata == null || select != null && select.getText() == null
+        || expand != null && expand.getText() == null) {
+      return new SerializationPlan(type, select, expand);
+    }
+
+    ConcurrentMap<String, SerializationPlan> plans = CACHE.get(metadata);
+    if (plans == null) {
+      plans = new ConcurrentHashMap<String, SerializationPlan>();
+      final ConcurrentMap<String, SerializationPlan> previous = putIfAbsent(metadata, plans);
+      if (previous != null) {
+        plans = previous;
+      }
+    }
+    final String key = type.getFullQualifiedName().getFullQualifiedNameAsString()
+        + (select == null ? "" : "?$select=" + select.getText())
+        + (expand == null ? "" : "?$expand=" + expand.getText());
+    SerializationPlan plan = plans.get(key);
+    if (plan == null) {
+      plan = new SerializationPlan(type, select, expand);
+      if (plans.size() >= MAX_CACHED_PLANS) {
+        // Evict an arbitrary plan so that the cache follows the options currently requested.
+        final Iterator<String> keys = plans.keySet().iterator();
+        if (keys.hasNext()) {
+          plans.remove(keys.next());
+        }
+      }
+      final SerializationPlan previous = plans.putIfAbsent(key, plan);
+      if (previous != null) {
+        plan = previous;
+      }
+    }
+    return plan;
+  }
+
+  private static ConcurrentMap<String, SerializationPlan> putIfAbsent(final ServiceMetadata metadata,
+      final ConcurrentMap<String, SerializationPlan> plans) {
+    synchronized (CACHE) {
+      final ConcurrentMap<String, SerializationPlan> previous = CACHE.get(metadata);
+      if (previous == null) {
+        CACHE.put(metadata, plans);
+      }
+      return previous;
+    }
+  }
+
+  EdmStructuredType getType() {
+    return type;
+  }
+
+  SelectOption getSelect() {
+    return select;
+  }
+
+  ExpandOption getExpand() {
+    return expand;
+  }
+
+  /**
+   * Gets the plan with the same options for the given type, which has to be this type or a type derived from it.
+   */
+  SerializationPlan forType(final EdmStructuredType resolvedType) {
+    if (resolvedType == type) {
+      return this;
+    }
+    final String name = resolvedType.getFullQualifiedName().getFullQualifiedNameAsString();
+    SerializationPlan plan = derivedPlans.get(name);
+    if (plan == null) {
+      plan = new SerializationPlan(resolvedType, select, expand);
+      final SerializationPlan previous = derivedPlans.putIfAbsent(name, plan);
+      if (previous != null) {
+        plan = previous;
+      }
+    }
+    return plan;
+  }
+
+  /** Gets the structural properties to be written, in the order of the type definition. */
+  List<PropertyStep> getProperties() {
+    List<PropertyStep> steps = properties;
+    if (steps == null) {
+      final boolean all = ExpandSelectHelper.isAll(select);
+      final Set<String> selected = all ? null :
+          ExpandSelectHelper.getSelectedPropertyNames(select.getSelectItems());
+      steps = new ArrayList<PropertyStep>();
+      for (final String propertyName : type.getPropertyNames()) {
+        if (all || selected.contains(propertyName)) {
+          final EdmProperty edmProperty = type.getStructuralProperty(propertyName);
+          final Set<List<String>> selectedPaths = all || edmProperty.isPrimitive() ? null :
+              ExpandSelectHelper.getSelectedPaths(select.getSelectItems(), propertyName);
+          steps.add(new PropertyStep(edmProperty, selectedPaths));
+        }
+      }
+      properties = steps;
+    }
+    return steps;
+  }
+
+  /** Gets the expanded navigation properties to be written, in the order of the type definition. */
+  List<NavigationStep> getNavigations() throws SerializerException {
+    List<NavigationStep> steps = navigations;
+    if (steps == null) {
+      steps = new ArrayList<NavigationStep>();
+      if (ExpandSelectHelper.hasExpand(expand)) {
+        final boolean expandAll = ExpandSelectHelper.isExpandAll(expand);
+        final Set<String> expanded = expandAll ? null :
+            ExpandSelectHelper.getExpandedPropertyNames(expand.getExpandItems());
+        for (final String propertyName : type.getNavigationPropertyNames()) {
+          if (expandAll || expanded.contains(propertyName)) {
+            final EdmNavigationProperty property = type.getNavigationProperty(propertyName);
+            final ExpandItem innerOptions = expandAll ? null :
+                ExpandSelectHelper.getExpandItem(expand.getExpandItems(), propertyName);
+            if (innerOptions != null && innerOptions.getLevelsOption() != null) {
+              throw new SerializerException("Expand option $levels is not supported.",
+                  SerializerException.MessageKeys.NOT_IMPLEMENTED);
+            }
+            steps.add(new NavigationStep(property,
+                innerOptions == null ? null : innerOptions.getExpandOption(),
+                innerOptions == null ? null : innerOptions.getSelectOption(),
+                innerOptions == null ? false : innerOptions.isRef()));
+          }
+        }
+      }
+      navigations = steps;
+    }
+    return steps;
+  }
+}
@@ -22,50 +22,59 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
 import java.util.Queue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Circular stream buffer to write/read into/from one single buffer.
  * With support of {@link InputStream} and {@link OutputStream} access to buffered data.
- *
- *
+ * <br/>
+ * The data is held in chunks of fixed size. Reading and writing is expected to happen on one
+ * single thread, so the chunk queue is not synchronized. Chunks which have been read completely
+ * (or are discarded by closing the read part) are returned into a pool shared by all buffers
+ * and are reused by subsequent buffers instead of allocating new memory for every response.
  */
 public class CircleStreamBuffer {
 
-  private static final int NEW_BUFFER_RESIZE_FACTOR = 2;
   private static final int READ_EOF = -1;
   private static final int DEFAULT_CAPACITY = 8192;
-  private static final int MAX_CAPACITY = DEFAULT_CAPACITY * 32;
+  /** Maximum number of chunks kept in the pool (i.e., 4 MB of chunks with default capacity). */
+  private static final int MAX_POOLED_CHUNKS = 512;
 
-  private int currentAllocateCapacity = DEFAULT_CAPACITY;
+  private static final Queue<ByteBuffer> CHUNK_POOL = new ConcurrentLinkedQueue<ByteBuffer>();
+  private static final AtomicInteger POOLED_CHUNKS = new AtomicInteger();
+
+  private final int chunkCapacity;
 
   private boolean writeMode = true;
   private boolean writeClosed = false;
   private boolean readClosed = false;
 
-  private Queue<ByteBuffer> bufferQueue = new LinkedBlockingQueue<ByteBuffer>();
+  private final Queue<ByteBuffer> bufferQueue = new ArrayDeque<ByteBuffer>();
   private ByteBuffer currentWriteBuffer;
+  private ByteBuffer currentReadBuffer;
 
-  private InternalInputStream inStream;
-  private InternalOutputStream outStream;
+  private final BufferInputStream inStream;
+  private final InternalOutputStream outStream;
 
   /**
-   * Creates a {@link CircleStreamBuffer} with default buffer size.
+   * Creates a {@link CircleStreamBuffer} with default chunk size; chunks are taken from the shared pool.
    */
   public CircleStreamBuffer() {
     this(DEFAULT_CAPACITY);
   }
 
   /**
-   * Create a {@link CircleStreamBuffer} with given buffer size in bytes.
+   * Create a {@link CircleStreamBuffer} with given chunk size in bytes.
+   * Only chunks of the default size are pooled.
    *
    * @param bufferSize
    */
   public CircleStreamBuffer(final int bufferSize) {
-    currentAllocateCapacity = bufferSize;
-    createNewWriteBuffer();
-    inStream = new InternalInputStream(this);
+    chunkCapacity = bufferSize;
+    inStream = new BufferInputStream(this);
     outStream = new InternalOutputStream(this);
   }
 
@@ -107,12 +116,14 @@ public class CircleStreamBuffer {
    */
   public void closeRead() {
     readClosed = true;
-    // clear references to byte buffers
+    // return all chunks into the pool; subsequent writes go into a fresh chunk
     ByteBuffer buffer = bufferQueue.poll();
     while (buffer != null) {
-      buffer.clear();
+      releaseChunk(buffer);
       buffer = bufferQueue.poll();
     }
+    currentWriteBuffer = null;
+    currentReadBuffer = null;
   }
 
   /**
@@ -124,15 +135,11 @@ public class CircleStreamBuffer {
   }
 
   private int remaining() throws IOException {
-    if (writeMode) {
-      return currentWriteBuffer.remaining();
-    } else {
-      ByteBuffer toRead = getReadBuffer();
-      if (toRead == null) {
-        return 0;
-      }
-      return toRead.remaining();
+    ByteBuffer toRead = getReadBuffer();
+    if (toRead == null) {
+      return 0;
     }
+    return toRead.remaining();
   }
 
   // #############################################
@@ -141,33 +148,36 @@ public class CircleStreamBuffer {
   // #
   // #############################################
 
+  /**
+   * Returns the chunk to read from or <code>null</code> if there is no more data.
+   * A chunk is flipped into read state exactly once, when it becomes the head of the {@link #bufferQueue};
+   * chunks which have been read completely are released into the pool.
+   */
   private ByteBuffer getReadBuffer() throws IOException {
     if (readClosed) {
       throw new IOException("Tried to read from closed stream.");
     }
 
-    boolean next = false;
-    ByteBuffer tmp = null;
     if (writeMode) {
       writeMode = false;
-      next = true;
-    } else {
-      tmp = bufferQueue.peek();
-      if (tmp != null && !tmp.hasRemaining()) {
-        tmp = bufferQueue.poll();
-        next = true;
-      }
+      currentWriteBuffer = null;
     }
 
-    if (next) {
-      tmp = bufferQueue.peek();
-      if (tmp != null) {
+    ByteBuffer tmp = bufferQueue.peek();
+    while (tmp != null) {
+      if (tmp != currentReadBuffer) {
         tmp.flip();
+        currentReadBuffer = tmp;
+      }
+      if (tmp.hasRemaining()) {
+        return tmp;
       }
-      tmp = getReadBuffer();
+      releaseChunk(bufferQueue.poll());
+      currentReadBuffer = null;
+      tmp = bufferQueue.peek();
     }
 
-    return tmp;
+    return null;
   }
 
   private int read(final byte[] b, final int off, final int len) throws IOException {
@@ -190,7 +200,24 @@ public class CircleStreamBuffer {
       return READ_EOF;
     }
 
-    return readBuffer.get();
+    return readBuffer.get() & 0xFF;
+  }
+
+  /**
+   * Writes all readable data directly from the chunks into the given stream,
+   * without copying it into an intermediate array.
+   */
+  private long transferTo(final OutputStream output) throws IOException {
+    long transferred = 0;
+    ByteBuffer readBuffer = getReadBuffer();
+    while (readBuffer != null) {
+      final int length = readBuffer.remaining();
+      output.write(readBuffer.array(), readBuffer.arrayOffset() + readBuffer.position(), length);
+      readBuffer.position(readBuffer.limit());
+      transferred += length;
+      readBuffer = getReadBuffer();
+    }
+    return transferred;
   }
 
   // #############################################
@@ -200,65 +227,66 @@ public class CircleStreamBuffer {
   // #############################################
 
   private void write(final byte[] data, final int off, final int len) throws IOException {
-    ByteBuffer writeBuffer = getWriteBuffer(len);
-    writeBuffer.put(data, off, len);
+    int offset = off;
+    int length = len;
+    while (length > 0) {
+      ByteBuffer writeBuffer = getWriteBuffer();
+      final int toWrite = Math.min(writeBuffer.remaining(), length);
+      writeBuffer.put(data, offset, toWrite);
+      offset += toWrite;
+      length -= toWrite;
+    }
   }
 
-  private ByteBuffer getWriteBuffer(final int size) throws IOException {
+  private void write(final int b) throws IOException {
+    getWriteBuffer().put((byte) b);
+  }
+
+  /**
+   * Returns a buffer with at least one byte remaining, appending a new chunk to the
+   * {@link #bufferQueue} if the current one is full or data has been read in between.
+   */
+  private ByteBuffer getWriteBuffer() throws IOException {
     if (writeClosed) {
       throw new IOException("Tried to write into closed stream.");
     }
 
-    if (writeMode) {
-      if (remaining() < size) {
-        createNewWriteBuffer(size);
-      }
-    } else {
+    if (!writeMode) {
       writeMode = true;
-      createNewWriteBuffer();
+      currentWriteBuffer = null;
+    }
+    if (currentWriteBuffer == null || !currentWriteBuffer.hasRemaining()) {
+      currentWriteBuffer = acquireChunk();
+      if (!readClosed) {
+        bufferQueue.add(currentWriteBuffer);
+      }
     }
 
     return currentWriteBuffer;
   }
 
-  private void write(final int b) throws IOException {
-    ByteBuffer writeBuffer = getWriteBuffer(1);
-    writeBuffer.put((byte) b);
-  }
-
-  private void createNewWriteBuffer() {
-    createNewWriteBuffer(currentAllocateCapacity);
-  }
-
-  /**
-   * Creates a new buffer (per {@link #allocateBuffer(int)}) with the requested capacity as minimum capacity, add the
-   * new allocated
-   * buffer to the {@link #bufferQueue} and set it as {@link #currentWriteBuffer}.
-   *
-   * @param requestedCapacity minimum capacity for new allocated buffer
-   */
-  private void createNewWriteBuffer(final int requestedCapacity) {
-    ByteBuffer b = allocateBuffer(requestedCapacity);
-    bufferQueue.add(b);
-    currentWriteBuffer = b;
+  private ByteBuffer acquireChunk() {
+    if (chunkCapacity == DEFAULT_CAPACITY && !readClosed) {
+      final ByteBuffer pooled = CHUNK_POOL.poll();
+      if (pooled != null) {
+        POOLED_CHUNKS.decrementAndGet();
+        pooled.clear();
+        return pooled;
+      }
+    }
+    return ByteBuffer.allocate(chunkCapacity);
   }
 
-  /**
-   *
-   * @param requestedCapacity
-   * @return the buffer
-   */
-  private ByteBuffer allocateBuffer(final int requestedCapacity) {
-    int allocateCapacity = requestedCapacity;
-    if (allocateCapacity < currentAllocateCapacity) {
-      allocateCapacity = currentAllocateCapacity * NEW_BUFFER_RESIZE_FACTOR;
+  private static void releaseChunk(final ByteBuffer chunk) {
+    if (chunk.capacity() != DEFAULT_CAPACITY) {
+      return;
     }
-    if (allocateCapacity > MAX_CAPACITY) {
-      allocateCapacity = MAX_CAPACITY;
+    if (POOLED_CHUNKS.incrementAndGet() <= MAX_POOLED_CHUNKS) {
+      chunk.clear();
+      CHUNK_POOL.offer(chunk);
+    } else {
+      POOLED_CHUNKS.decrementAndGet();
     }
-    // update current
-    currentAllocateCapacity = allocateCapacity;
-    return ByteBuffer.allocate(allocateCapacity);
   }
 
   // #############################################
@@ -268,13 +296,14 @@ public class CircleStreamBuffer {
   // #############################################
 
   /**
-   *
+   * Input stream on the buffered data.
+   * Besides the usual read methods it is able to hand over its data directly to an output stream.
    */
-  private static class InternalInputStream extends InputStream {
+  public static final class BufferInputStream extends InputStream {
 
     private final CircleStreamBuffer inBuffer;
 
-    public InternalInputStream(final CircleStreamBuffer csBuffer) {
+    private BufferInputStream(final CircleStreamBuffer csBuffer) {
       inBuffer = csBuffer;
     }
 
@@ -293,6 +322,15 @@ public class CircleStreamBuffer {
       return inBuffer.read(b, off, len);
     }
 
+    /**
+     * Writes all remaining data into the given output stream.
+     * @param output the target stream; it is neither flushed nor closed
+     * @return the number of bytes written
+     */
+    public long transferTo(final OutputStream output) throws IOException {
+      return inBuffer.transferTo(output);
+    }
+
     @Override
     public void close() throws IOException {
       inBuffer.closeRead();
@@ -40,6 +40,7 @@ import org.apache.olingo.server.api.serializer.ODataSerializer;
 import org.apache.olingo.server.api.serializer.PrimitiveSerializerOptions;
 import org.apache.olingo.server.api.serializer.SerializerException;
 import org.apache.olingo.server.api.serializer.SerializerResult;
+import org.apache.olingo.server.api.serializer.SerializerStreamResult;
 import org.apache.olingo.server.core.serializer.SerializerResultImpl;
 import org.apache.olingo.server.core.serializer.utils.CircleStreamBuffer;
 import org.slf4j.Logger;
@@ -51,6 +52,7 @@ public class ODataXmlSerializerImpl implements ODataSerializer {
   public static final String DEFAULT_CHARSET = "UTF-8";
 
   private static final Logger log = LoggerFactory.getLogger(ODataXmlSerializerImpl.class);
+  private static final XMLOutputFactory XML_OUTPUT_FACTORY = XMLOutputFactory.newInstance();
 
   @Override
   public SerializerResultImpl serviceDocument(final Edm edm, final String serviceRoot) throws SerializerException {
@@ -65,7 +67,7 @@ public class ODataXmlSerializerImpl implements ODataSerializer {
 
     try {
       buffer = new CircleStreamBuffer();
-      xmlStreamWriter = XMLOutputFactory.newInstance().createXMLStreamWriter(buffer.getOutputStream(), DEFAULT_CHARSET);
+      xmlStreamWriter = XML_OUTPUT_FACTORY.createXMLStreamWriter(buffer.getOutputStream(), DEFAULT_CHARSET);
       MetadataDocumentXmlSerializer serializer = new MetadataDocumentXmlSerializer(serviceMetadata);
       serializer.writeMetadataDocument(xmlStreamWriter);
       xmlStreamWriter.flush();
@@ -103,6 +105,14 @@ public class ODataXmlSerializerImpl implements ODataSerializer {
         SerializerException.MessageKeys.NOT_IMPLEMENTED);
   }
 
+  @Override
+  public SerializerStreamResult entityCollectionStreamed(final ServiceMetadata metadata,
+      final EdmEntityType entityType, final EntityCollection entitySet,
+      final EntityCollectionSerializerOptions options) throws SerializerException {
+    throw new SerializerException("Entityset serialization not implemented for XML format",
+        SerializerException.MessageKeys.NOT_IMPLEMENTED);
+  }
+
   @Override
   public SerializerResult error(final ODataServerError error) throws SerializerException {
     throw new SerializerException("error serialization not implemented for XML format",
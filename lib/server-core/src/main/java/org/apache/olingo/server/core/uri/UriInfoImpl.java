@@ -73,6 +73,25 @@ public class UriInfoImpl implements UriInfo {
   private UriResource lastResourcePart;
   private List<UriResource> pathParts = new ArrayList<UriResource>();
 
+  /**
+   * Creates a copy of this URI info.
+   * The copy has its own collections of resource parts, entity-set names, and query options,
+   * so adding or removing entries does not change this object; the entries themselves are shared.
+   */
+  public UriInfoImpl copy() {
+    UriInfoImpl copy = new UriInfoImpl();
+    copy.kind = kind;
+    copy.entitySetNames.addAll(entitySetNames);
+    copy.entityTypeCast = entityTypeCast;
+    copy.customQueryOptions.addAll(customQueryOptions);
+    copy.aliasToValue.putAll(aliasToValue);
+    copy.systemQueryOptions.putAll(systemQueryOptions);
+    copy.fragment = fragment;
+    copy.lastResourcePart = lastResourcePart;
+    copy.pathParts.addAll(pathParts);
+    return copy;
+  }
+
   @Override
   public UriInfoAll asUriInfoAll() {
     return this;
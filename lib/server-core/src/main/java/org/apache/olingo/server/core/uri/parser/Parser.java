@@ -69,19 +69,55 @@ import org.apache.olingo.server.core.uri.queryoption.TopOptionImpl;
 
 public class Parser {
   int logLevel = 0;
+  private boolean fastPath = true;
+  private final UriInfoCache cache;
 
   private enum ParserEntryRules {
     All, Batch, CrossJoin, Entity, ExpandItems, FilterExpression, Metadata, PathSegment, Orderby, Select
   }
 
+  /** Creates a parser that parses every URI. */
+  public Parser() {
+    this(null);
+  }
+
+  /**
+   * Creates a parser.
+   * @param cache cache for the parsed URIs or <code>null</code> if every URI should be parsed
+   */
+  public Parser(final UriInfoCache cache) {
+    this.cache = cache;
+  }
+
   public Parser setLogLevel(final int logLevel) {
     this.logLevel = logLevel;
     return this;
   }
 
+  /**
+   * Enables or disables the parsing of simple resource paths without the grammar (enabled by default).
+   * @see ResourcePathParser
+   */
+  public Parser setFastPath(final boolean fastPath) {
+    this.fastPath = fastPath;
+    return this;
+  }
+
   public UriInfo parseUri(final String path, final String query, final String fragment, final Edm edm)
       throws UriParserException {
+    if (cache == null) {
+      return parse(path, query, fragment, edm);
+    }
+    UriInfoImpl uriInfo = cache.get(path, query, fragment, edm);
+    if (uriInfo == null) {
+      uriInfo = parse(path, query, fragment, edm);
+      cache.put(path, query, fragment, edm, uriInfo);
+    }
+    return uriInfo;
+  }
 
+  private UriInfoImpl parse(final String path, final String query, final String fragment, final Edm edm)
+      throws UriParserException {
     UriContext context = new UriContext();
     UriParseTreeVisitor uriParseTreeVisitor = new UriParseTreeVisitor(edm, context);
 
@@ -132,18 +168,23 @@ public class Parser {
 
         uriParseTreeVisitor.visitCrossjoinEOF(ctxResourcePathEOF);
       } else {
-        List<PathSegmentEOFContext> ctxPathSegments = new ArrayList<PathSegmentEOFContext>();
-        for (String pathSegment : uri.pathSegmentListDecoded) {
-          PathSegmentEOFContext ctxPathSegment =
-              (PathSegmentEOFContext) parseRule(pathSegment, ParserEntryRules.PathSegment);
-          ctxPathSegments.add(ctxPathSegment);
-        }
+        // simple resource paths are parsed without the grammar
+        context.contextUriInfo = fastPath ? new ResourcePathParser(edm).parse(uri.pathSegmentListDecoded) : null;
+
+        if (context.contextUriInfo == null) {
+          List<PathSegmentEOFContext> ctxPathSegments = new ArrayList<PathSegmentEOFContext>();
+          for (String pathSegment : uri.pathSegmentListDecoded) {
+            PathSegmentEOFContext ctxPathSegment =
+                (PathSegmentEOFContext) parseRule(pathSegment, ParserEntryRules.PathSegment);
+            ctxPathSegments.add(ctxPathSegment);
+          }
 
-        context.contextUriInfo = new UriInfoImpl().setKind(UriInfoKind.resource);
+          context.contextUriInfo = new UriInfoImpl().setKind(UriInfoKind.resource);
 
-        for (PathSegmentEOFContext ctxPathSegment : ctxPathSegments) {
-          // add checks for batch, entity, metadata, all, crossjoin
-          uriParseTreeVisitor.visitPathSegmentEOF(ctxPathSegment);
+          for (PathSegmentEOFContext ctxPathSegment : ctxPathSegments) {
+            // add checks for batch, entity, metadata, all, crossjoin
+            uriParseTreeVisitor.visitPathSegmentEOF(ctxPathSegment);
+          }
         }
 
         UriResource lastSegment = context.contextUriInfo.getLastResourcePart();
@@ -192,7 +233,10 @@ public class Parser {
             ExpandItemsEOFContext ctxExpandItems =
                 (ExpandItemsEOFContext) parseRule(option.value, ParserEntryRules.ExpandItems);
 
-            systemOption = (ExpandOptionImpl) uriParseTreeVisitor.visitExpandItemsEOF(ctxExpandItems);
+            final ExpandOptionImpl expandOption =
+                (ExpandOptionImpl) uriParseTreeVisitor.visitExpandItemsEOF(ctxExpandItems);
+            expandOption.setText(option.value);
+            systemOption = expandOption;
 
           } else if (option.name.equals(SystemQueryOptionKind.ID.toString())) {
             IdOptionImpl idOption = new IdOptionImpl();
@@ -214,7 +258,9 @@ public class Parser {
             SelectEOFContext ctxSelectEOF =
                 (SelectEOFContext) parseRule(option.value, ParserEntryRules.Select);
 
-            systemOption = (SelectOptionImpl) uriParseTreeVisitor.visitSelectEOF(ctxSelectEOF);
+            final SelectOptionImpl selectOption = (SelectOptionImpl) uriParseTreeVisitor.visitSelectEOF(ctxSelectEOF);
+            selectOption.setText(option.value);
+            systemOption = selectOption;
           } else if (option.name.equals(SystemQueryOptionKind.SKIP.toString())) {
             SkipOptionImpl skipOption = new SkipOptionImpl();
             skipOption.setName(option.name);
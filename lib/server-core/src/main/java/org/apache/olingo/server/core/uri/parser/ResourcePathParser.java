@@ -0,0 +1,242 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.uri.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.olingo.commons.api.edm.Edm;
+import org.apache.olingo.commons.api.edm.EdmElement;
+import org.apache.olingo.commons.api.edm.EdmEntityContainer;
+import org.apache.olingo.commons.api.edm.EdmEntitySet;
+import org.apache.olingo.commons.api.edm.EdmEntityType;
+import org.apache.olingo.commons.api.edm.EdmNavigationProperty;
+import org.apache.olingo.commons.api.edm.EdmProperty;
+import org.apache.olingo.commons.api.edm.EdmSingleton;
+import org.apache.olingo.commons.api.edm.EdmStructuredType;
+import org.apache.olingo.server.api.uri.UriInfoKind;
+import org.apache.olingo.server.api.uri.UriResource;
+import org.apache.olingo.server.api.uri.UriResourcePartTyped;
+import org.apache.olingo.server.core.uri.UriInfoImpl;
+import org.apache.olingo.server.core.uri.UriParameterImpl;
+import org.apache.olingo.server.core.uri.UriResourceComplexPropertyImpl;
+import org.apache.olingo.server.core.uri.UriResourceCountImpl;
+import org.apache.olingo.server.core.uri.UriResourceEntitySetImpl;
+import org.apache.olingo.server.core.uri.UriResourceImpl;
+import org.apache.olingo.server.core.uri.UriResourceNavigationPropertyImpl;
+import org.apache.olingo.server.core.uri.UriResourcePrimitivePropertyImpl;
+import org.apache.olingo.server.core.uri.UriResourceRefImpl;
+import org.apache.olingo.server.core.uri.UriResourceSingletonImpl;
+import org.apache.olingo.server.core.uri.UriResourceValueImpl;
+import org.apache.olingo.server.core.uri.UriResourceWithKeysImpl;
+import org.apache.olingo.server.core.uri.queryoption.expression.LiteralImpl;
+
+/**
+ * Recursive-descent parser for the most common shapes of resource paths.
+ * <p>It handles an entity set or singleton, optionally followed by key predicates with simple
+ * integer or string literals, (navigation) properties, and a final <code>$count</code>,
+ * <code>$value</code>, or <code>$ref</code> segment. The result is the same as the one
+ * of the ANTLR-based {@link Parser}. For everything else, including every erroneous path,
+ * <code>null</code> is returned so that the caller can fall back to the full grammar,
+ * which then also produces the appropriate error.</p>
+ */
+public class ResourcePathParser {
+
+  private static final String COUNT = "$count";
+  private static final String VALUE = "$value";
+  private static final String REF = "$ref";
+
+  private final EdmEntityContainer edmEntityContainer;
+
+  public ResourcePathParser(final Edm edm) {
+    edmEntityContainer = edm.getEntityContainer(null);
+  }
+
+  /**
+   * Parses the decoded path segments.
+   * @param pathSegments the decoded path segments; the first one must not be empty
+   * @return the URI info of kind resource, or <code>null</code> if the path is not of a supported shape
+   */
+  public UriInfoImpl parse(final List<String> pathSegments) {
+    if (edmEntityContainer == null) {
+      return null;
+    }
+    UriInfoImpl uriInfo = new UriInfoImpl().setKind(UriInfoKind.resource);
+    final int size = pathSegments.size();
+    for (int index = 0; index < size; index++) {
+      final String segment = pathSegments.get(index);
+      final UriResourceImpl resource;
+      if (segment.startsWith("$")) {
+        resource = index > 0 && index == size - 1 ?
+            parseConstSegment(segment, uriInfo.getLastResourcePart()) : null;
+      } else {
+        resource = parseSegment(segment, uriInfo.getLastResourcePart());
+      }
+      if (resource == null) {
+        return null;
+      }
+      uriInfo.addResourcePart(resource);
+    }
+    return uriInfo;
+  }
+
+  private UriResourceImpl parseSegment(final String segment, final UriResource previous) {
+    final int open = segment.indexOf('(');
+    final String name = open < 0 ? segment : segment.substring(0, open);
+    if (!isIdentifier(name)) {
+      return null;
+    }
+
+    UriResourceWithKeysImpl resource = null;
+    if (previous == null) {
+      final EdmEntitySet entitySet = edmEntityContainer.getEntitySet(name);
+      if (entitySet != null) {
+        resource = new UriResourceEntitySetImpl().setEntitSet(entitySet);
+      } else {
+        final EdmSingleton singleton = edmEntityContainer.getSingleton(name);
+        return singleton == null || open >= 0 ? null : new UriResourceSingletonImpl().setSingleton(singleton);
+      }
+    } else {
+      if (!(previous instanceof UriResourcePartTyped)
+          || ((UriResourcePartTyped) previous).isCollection()
+          || !(((UriResourcePartTyped) previous).getType() instanceof EdmStructuredType)) {
+        return null;
+      }
+      final EdmElement property = ((EdmStructuredType) ((UriResourcePartTyped) previous).getType()).getProperty(name);
+      if (property instanceof EdmNavigationProperty) {
+        final EdmNavigationProperty navigationProperty = (EdmNavigationProperty) property;
+        if (open >= 0 && !navigationProperty.isCollection()) {
+          return null;
+        }
+        resource = new UriResourceNavigationPropertyImpl().setNavigationProperty(navigationProperty);
+      } else if (property instanceof EdmProperty && open < 0) {
+        return ((EdmProperty) property).isPrimitive() ?
+            new UriResourcePrimitivePropertyImpl().setProperty((EdmProperty) property) :
+            new UriResourceComplexPropertyImpl().setProperty((EdmProperty) property);
+      } else {
+        return null;
+      }
+    }
+
+    if (open >= 0) {
+      if (!segment.endsWith(")")) {
+        return null;
+      }
+      final List<UriParameterImpl> keyPredicates = parseKeyPredicates(
+          segment.substring(open + 1, segment.length() - 1), (EdmEntityType) resource.getType());
+      if (keyPredicates == null) {
+        return null;
+      }
+      resource.setKeyPredicates(keyPredicates);
+    }
+    return resource;
+  }
+
+  private List<UriParameterImpl> parseKeyPredicates(final String keys, final EdmEntityType entityType) {
+    final List<String> keyNames = entityType.getKeyPredicateNames();
+    List<UriParameterImpl> keyPredicates = new ArrayList<UriParameterImpl>();
+    if (keys.indexOf('=') < 0) {
+      if (keyNames.size() != 1 || !isLiteral(keys)) {
+        return null;
+      }
+      keyPredicates.add(createKeyPredicate(keyNames.get(0), keys));
+    } else {
+      for (final String pair : keys.split(",", -1)) {
+        final int equals = pair.indexOf('=');
+        if (equals < 0) {
+          return null;
+        }
+        final String name = pair.substring(0, equals);
+        final String value = pair.substring(equals + 1);
+        if (!keyNames.contains(name) || !isLiteral(value)) {
+          return null;
+        }
+        for (final UriParameterImpl keyPredicate : keyPredicates) {
+          if (keyPredicate.getName().equals(name)) {
+            return null;
+          }
+        }
+        keyPredicates.add(createKeyPredicate(name, value));
+      }
+      if (keyPredicates.size() != keyNames.size()) {
+        return null;
+      }
+    }
+    return keyPredicates;
+  }
+
+  private UriParameterImpl createKeyPredicate(final String name, final String text) {
+    return new UriParameterImpl().setName(name).setText(text).setExpression(new LiteralImpl().setText(text));
+  }
+
+  private UriResourceImpl parseConstSegment(final String segment, final UriResource previous) {
+    if (!(previous instanceof UriResourcePartTyped)) {
+      return null;
+    }
+    final UriResourcePartTyped typed = (UriResourcePartTyped) previous;
+    if (COUNT.equals(segment)) {
+      return typed.isCollection() ? new UriResourceCountImpl() : null;
+    } else if (VALUE.equals(segment)) {
+      return typed.isCollection() ? null : new UriResourceValueImpl();
+    } else if (REF.equals(segment)) {
+      return typed.getType() instanceof EdmEntityType ? new UriResourceRefImpl() : null;
+    }
+    return null;
+  }
+
+  /** Checks for a simple OData identifier; qualified names and other special cases are left to the grammar. */
+  private boolean isIdentifier(final String name) {
+    if (name.isEmpty() || name.charAt(0) >= '0' && name.charAt(0) <= '9') {
+      return false;
+    }
+    for (int i = 0; i < name.length(); i++) {
+      final char c = name.charAt(i);
+      if (!(c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '_')) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /** Checks for an unsigned integer or a string literal without special characters. */
+  private boolean isLiteral(final String text) {
+    final int length = text.length();
+    if (length == 0) {
+      return false;
+    }
+    if (text.charAt(0) == '\'') {
+      if (length < 2 || text.charAt(length - 1) != '\'') {
+        return false;
+      }
+      for (int i = 1; i < length - 1; i++) {
+        final char c = text.charAt(i);
+        if (!(c >= 'a' && c <= 'z' || c >= 'A' && c <= 'Z' || c >= '0' && c <= '9' || c == '_' || c == '-')) {
+          return false;
+        }
+      }
+      return true;
+    }
+    for (int i = 0; i < length; i++) {
+      if (text.charAt(i) < '0' || text.charAt(i) > '9') {
+        return false;
+      }
+    }
+    return true;
+  }
+}
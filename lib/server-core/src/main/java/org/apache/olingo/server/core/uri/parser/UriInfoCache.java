@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.uri.parser;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.olingo.commons.api.edm.Edm;
+import org.apache.olingo.server.api.uri.UriInfo;
+import org.apache.olingo.server.core.uri.UriInfoImpl;
+
+/**
+ * Bounded least-recently-used cache of parsed URIs.
+ * <p>The key consists of the raw path, query and fragment together with the identity of the {@link Edm}
+ * the URI has been parsed against. Only successfully parsed URIs are cached.
+ * Every lookup returns a {@link UriInfoImpl#copy() copy} of the cached {@link UriInfo}, so a request
+ * cannot change the entry seen by other requests.</p>
+ * <p>A cache is normally owned by a {@link org.apache.olingo.server.core.ServiceMetadataImpl} and is only used
+ * if it has been set there; see {@link org.apache.olingo.server.core.ServiceMetadataImpl#setUriInfoCache}.</p>
+ */
+public class UriInfoCache {
+
+  public static final int DEFAULT_MAX_ENTRIES = 256;
+
+  private final Map<Key, UriInfoImpl> entries;
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+
+  public UriInfoCache() {
+    this(DEFAULT_MAX_ENTRIES);
+  }
+
+  public UriInfoCache(final int maxEntries) {
+    entries = new LinkedHashMap<Key, UriInfoImpl>(16, 0.75F, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(final Map.Entry<Key, UriInfoImpl> eldest) {
+        return size() > maxEntries;
+      }
+    };
+  }
+
+  /**
+   * Returns a copy of the cached result for the given URI parts or <code>null</code> if there is none.
+   */
+  public UriInfoImpl get(final String path, final String query, final String fragment, final Edm edm) {
+    final UriInfoImpl uriInfo;
+    synchronized (entries) {
+      uriInfo = entries.get(new Key(path, query, fragment, edm));
+    }
+    if (uriInfo == null) {
+      misses.incrementAndGet();
+    } else {
+      hits.incrementAndGet();
+    }
+    return uriInfo == null ? null : uriInfo.copy();
+  }
+
+  public void put(final String path, final String query, final String fragment, final Edm edm,
+      final UriInfoImpl uriInfo) {
+    final UriInfoImpl copy = uriInfo.copy();
+    synchronized (entries) {
+      entries.put(new Key(path, query, fragment, edm), copy);
+    }
+  }
+
+  public int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  public void clear() {
+    synchronized (entries) {
+      entries.clear();
+    }
+  }
+
+  /** Returns the number of lookups that have been answered from the cache. */
+  public long getHitCount() {
+    return hits.get();
+  }
+
+  /** Returns the number of lookups that had to be parsed. */
+  public long getMissCount() {
+    return misses.get();
+  }
+
+  private static final class Key {
+    private final String path;
+    private final String query;
+    private final String fragment;
+    private final Edm edm;
+    private final int hashCode;
+
+    private Key(final String path, final String query, final String fragment, final Edm edm) {
+      this.path = path;
+      this.query = query;
+      this.fragment = fragment;
+      this.edm = edm;
+      int result = System.identityHashCode(edm);
+      result = 31 * result + (path == null ? 0 : path.hashCode());
+      result = 31 * result + (query == null ? 0 : query.hashCode());
+      result = 31 * result + (fragment == null ? 0 : fragment.hashCode());
+      hashCode = result;
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof Key)) {
+        return false;
+      }
+      final Key other = (Key) obj;
+      return edm == other.edm
+          && (path == null ? other.path == null : path.equals(other.path))
+          && (query == null ? other.query == null : query.equals(other.query))
+          && (fragment == null ? other.fragment == null : fragment.equals(other.fragment));
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+}
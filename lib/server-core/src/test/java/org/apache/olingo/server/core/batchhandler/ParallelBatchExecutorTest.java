@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.batchhandler;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.olingo.commons.api.http.HttpMethod;
+import org.apache.olingo.commons.api.http.HttpStatusCode;
+import org.apache.olingo.server.api.ODataRequest;
+import org.apache.olingo.server.api.ODataResponse;
+import org.apache.olingo.server.api.deserializer.batch.BatchRequestPart;
+import org.apache.olingo.server.api.deserializer.batch.ODataResponsePart;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+public class ParallelBatchExecutorTest {
+
+  private ExecutorService executorService;
+  private final List<String> executed = Collections.synchronizedList(new ArrayList<String>());
+
+  @Before
+  public void setup() {
+    executorService = Executors.newFixedThreadPool(4);
+    executed.clear();
+  }
+
+  @After
+  public void tearDown() {
+    executorService.shutdownNow();
+  }
+
+  @Test
+  public void independentRequestsRunConcurrently() throws Exception {
+    // Each request waits until all three have been started.
+    final CountDownLatch latch = new CountDownLatch(3);
+    final BatchPartHandler partHandler = mockPartHandler(new Answer<ODataResponsePart>() {
+      @Override
+      public ODataResponsePart answer(final InvocationOnMock invocation) throws Throwable {
+        latch.countDown();
+        assertTrue(latch.await(10, TimeUnit.SECONDS));
+        return respond(invocation, HttpStatusCode.OK);
+      }
+    });
+
+    final List<ODataResponsePart> responseParts = new ParallelBatchExecutor(executorService, 3)
+        .execute(partHandler, Arrays.asList(get("ESAllPrim(1)"), get("ESAllPrim(2)"), get("ESAllPrim(3)")), false);
+
+    assertResponseOrder(responseParts, "ESAllPrim(1)", "ESAllPrim(2)", "ESAllPrim(3)");
+    // Each concurrently executed request gets its own handler.
+    verify(partHandler, times(3)).copy();
+  }
+
+  @Test
+  public void concurrencyIsLimited() throws Exception {
+    final AtomicInteger running = new AtomicInteger();
+    final AtomicInteger maxRunning = new AtomicInteger();
+    final BatchPartHandler partHandler = mockPartHandler(new Answer<ODataResponsePart>() {
+      @Override
+      public ODataResponsePart answer(final InvocationOnMock invocation) throws Throwable {
+        final int current = running.incrementAndGet();
+        synchronized (maxRunning) {
+          maxRunning.set(Math.max(maxRunning.get(), current));
+        }
+        Thread.sleep(20);
+        running.decrementAndGet();
+        return respond(invocation, HttpStatusCode.OK);
+      }
+    });
+
+    final List<ODataResponsePart> responseParts = new ParallelBatchExecutor(executorService, 2)
+        .execute(partHandler, Arrays.asList(get("A"), get("B"), get("C"), get("D"), get("E")), false);
+
+    assertResponseOrder(responseParts, "A", "B", "C", "D", "E");
+    assertTrue(maxRunning.get() <= 2);
+  }
+
+  @Test
+  public void changeSetsAndReferencesAreBarriers() throws Exception {
+    final BatchPartHandler partHandler = mockPartHandler(new Answer<ODataResponsePart>() {
+      @Override
+      public ODataResponsePart answer(final InvocationOnMock invocation) throws Throwable {
+        return respond(invocation, HttpStatusCode.OK);
+      }
+    });
+
+    final List<ODataResponsePart> responseParts = new ParallelBatchExecutor(executorService, 4)
+        .execute(partHandler, Arrays.asList(get("A"), get("B"), changeSet("C"), get("$1/D"), get("E"), get("F")),
+            false);
+
+    assertResponseOrder(responseParts, "A", "B", "C", "$1/D", "E", "F");
+    final int changeSetIndex = executed.indexOf("C");
+    final int referenceIndex = executed.indexOf("$1/D");
+    assertTrue(executed.indexOf("A") < changeSetIndex);
+    assertTrue(executed.indexOf("B") < changeSetIndex);
+    assertTrue(changeSetIndex < referenceIndex);
+    assertTrue(referenceIndex < executed.indexOf("E"));
+    assertTrue(referenceIndex < executed.indexOf("F"));
+  }
+
+  @Test
+  public void processingStopsAfterError() throws Exception {
+    final BatchPartHandler partHandler = mockPartHandler(new Answer<ODataResponsePart>() {
+      @Override
+      public ODataResponsePart answer(final InvocationOnMock invocation) throws Throwable {
+        final String path = ((BatchRequestPart) invocation.getArguments()[0]).getRequests().get(0).getRawODataPath();
+        return respond(invocation, path.equals("B") ? HttpStatusCode.NOT_FOUND : HttpStatusCode.OK);
+      }
+    });
+
+    final List<BatchRequestPart> requests = Arrays.asList(get("A"), get("B"), get("C"), changeSet("D"));
+    assertResponseOrder(new ParallelBatchExecutor(executorService, 4).execute(partHandler, requests, false),
+        "A", "B");
+    assertResponseOrder(new ParallelBatchExecutor(executorService, 4).execute(partHandler, requests, true),
+        "A", "B", "C", "D");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void invalidConcurrency() {
+    new ParallelBatchExecutor(executorService, 0);
+  }
+
+  private BatchPartHandler mockPartHandler(final Answer<ODataResponsePart> answer) throws Exception {
+    final BatchPartHandler partHandler = mock(BatchPartHandler.class);
+    when(partHandler.handleBatchRequest(any(BatchRequestPart.class))).then(answer);
+    when(partHandler.copy()).thenReturn(partHandler);
+    return partHandler;
+  }
+
+  private ODataResponsePart respond(final InvocationOnMock invocation, final HttpStatusCode statusCode) {
+    final BatchRequestPart part = (BatchRequestPart) invocation.getArguments()[0];
+    final ODataRequest request = part.getRequests().get(0);
+    executed.add(request.getRawODataPath());
+
+    final ODataResponse response = new ODataResponse();
+    response.setStatusCode(statusCode.getStatusCode());
+    response.setHeader("Path", request.getRawODataPath());
+    return new ODataResponsePart(response, part.isChangeSet());
+  }
+
+  private void assertResponseOrder(final List<ODataResponsePart> responseParts, final String... paths) {
+    assertEquals(paths.length, responseParts.size());
+    for (int i = 0; i < paths.length; i++) {
+      assertEquals(paths[i], responseParts.get(i).getResponses().get(0).getHeaders().get("Path"));
+    }
+  }
+
+  private BatchRequestPart get(final String path) {
+    return new BatchRequestPart(false, createRequest(HttpMethod.GET, path));
+  }
+
+  private BatchRequestPart changeSet(final String path) {
+    return new BatchRequestPart(true, createRequest(HttpMethod.PUT, path));
+  }
+
+  private ODataRequest createRequest(final HttpMethod method, final String path) {
+    final ODataRequest request = new ODataRequest();
+    request.setMethod(method);
+    request.setRawODataPath(path);
+    return request;
+  }
+}
@@ -21,7 +21,6 @@ package org.apache.olingo.server.core.deserializer.batch;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.olingo.commons.api.http.HttpHeader;
@@ -39,7 +38,7 @@ public class BatchParserCommonTest {
         "content-type: Application/http" + CRLF,
         "content-transfer-encoding: Binary" + CRLF
     };
-    List<Line> message = toLineList(messageRaw);
+    BatchContent message = toContent(messageRaw);
 
     final Header header = BatchParserCommon.consumeHeaders(message);
     assertNotNull(header);
@@ -59,7 +58,7 @@ public class BatchParserCommonTest {
         "content-type: Application/http" + CRLF,
         "content-transfer-encoding: Binary" + CRLF
     };
-    List<Line> message = toLineList(messageRaw);
+    BatchContent message = toContent(messageRaw);
 
     final Header header = BatchParserCommon.consumeHeaders(message);
     assertNotNull(header);
@@ -78,7 +77,7 @@ public class BatchParserCommonTest {
         "content-type: Application/http" + CRLF,
         "content-transfer-encoding: Binary" + CRLF
     };
-    List<Line> message = toLineList(messageRaw);
+    BatchContent message = toContent(messageRaw);
 
     final Header header = BatchParserCommon.consumeHeaders(message);
     assertNotNull(header);
@@ -101,7 +100,7 @@ public class BatchParserCommonTest {
         "content-type: Application/http" + CRLF,
         "content-transfer-encoding: Binary" + CRLF
     };
-    List<Line> message = toLineList(messageRaw);
+    BatchContent message = toContent(messageRaw);
 
     final Header header = BatchParserCommon.consumeHeaders(message);
     assertNotNull(header);
@@ -120,7 +119,7 @@ public class BatchParserCommonTest {
         "content-type: Application/http" + CRLF,
         "content-transfer-encoding: Binary" + CRLF
     };
-    List<Line> message = toLineList(messageRaw);
+    BatchContent message = toContent(messageRaw);
 
     final Header header = BatchParserCommon.consumeHeaders(message);
     assertNotNull(header);
@@ -138,7 +137,7 @@ public class BatchParserCommonTest {
         "content-type: Application/http" + CRLF,
         "content-transfer-encoding: Binary" + CRLF
     };
-    List<Line> message = toLineList(messageRaw);
+    BatchContent message = toContent(messageRaw);
 
     final Header header = BatchParserCommon.consumeHeaders(message);
     assertNotNull(header);
@@ -156,7 +155,7 @@ public class BatchParserCommonTest {
         "content-type: Application/http" + CRLF,
         "content-transfer-encoding: Binary" + CRLF
     };
-    List<Line> message = toLineList(messageRaw);
+    BatchContent message = toContent(messageRaw);
 
     final Header header = BatchParserCommon.consumeHeaders(message);
     assertNotNull(header);
@@ -214,14 +213,20 @@ public class BatchParserCommonTest {
     assertEquals("Test            \r\nTest2    ", BatchParserCommon.removeEndingCRLF(new Line(line, 1)).toString());
   }
 
-  private List<Line> toLineList(final String[] messageRaw) {
-    final List<Line> lineList = new ArrayList<Line>();
-    int counter = 1;
+  @Test
+  public void testCountLineEndingsWithinRange() throws Exception {
+    final byte[] buffer = "a\r\nb\rc\nd".getBytes("US-ASCII");
+    assertEquals(3, BatchContent.countLineEndings(buffer, 0, buffer.length));
+    // The line feed after the range end must not be looked at.
+    assertEquals(1, BatchContent.countLineEndings(buffer, 0, 2));
+    assertEquals(0, BatchContent.countLineEndings(buffer, 3, 4));
+  }
 
+  private BatchContent toContent(final String[] messageRaw) throws Exception {
+    final StringBuilder builder = new StringBuilder();
     for (final String currentLine : messageRaw) {
-      lineList.add(new Line(currentLine, counter++));
+      builder.append(currentLine);
     }
-
-    return lineList;
+    return new BatchContent(builder.toString().getBytes("UTF-8"));
   }
 }
@@ -18,12 +18,15 @@
  */
 package org.apache.olingo.server.core.deserializer.batch;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.List;
@@ -1236,6 +1239,43 @@ public class BatchRequestParserTest {
     parseInvalidBatchBody(batch, MessageKeys.FORBIDDEN_HEADER);
   }
 
+  @Test
+  public void binaryContentIsKeptUnchanged() throws Exception {
+    // All byte values, line endings, and the boundary inside a line (which is not a delimiter)
+    final ByteArrayOutputStream content = new ByteArrayOutputStream();
+    for (int i = 0; i < 256; i++) {
+      content.write(i);
+    }
+    content.write(("\r\r\n\n x--" + BOUNDARY + CRLF + " --changeset_f980-1cb6-94dd--").getBytes("UTF-8"));
+    final byte[] body = content.toByteArray();
+
+    final ByteArrayOutputStream batch = new ByteArrayOutputStream();
+    batch.write((""
+        + "--batch_8194-cf13-1f56" + CRLF
+        + "Content-Type: multipart/mixed; boundary=changeset_f980-1cb6-94dd" + CRLF
+        + CRLF
+        + "--changeset_f980-1cb6-94dd" + CRLF
+        + MIME_HEADERS
+        + "Content-ID: 1" + CRLF
+        + CRLF
+        + "PUT Employees('1')/$value HTTP/1.1" + CRLF
+        + "Content-Type: application/octet-stream" + CRLF
+        + CRLF).getBytes("UTF-8"));
+    batch.write(body);
+    batch.write((CRLF
+        + "--changeset_f980-1cb6-94dd--" + CRLF
+        + CRLF
+        + "--batch_8194-cf13-1f56--").getBytes("UTF-8"));
+
+    final List<BatchRequestPart> parts = parse(new ByteArrayInputStream(batch.toByteArray()));
+    assertEquals(1, parts.size());
+    assertTrue(parts.get(0).isChangeSet());
+    assertEquals(1, parts.get(0).getRequests().size());
+    final ODataRequest request = parts.get(0).getRequests().get(0);
+    assertEquals(HttpMethod.PUT, request.getMethod());
+    assertArrayEquals(body, IOUtils.toByteArray(request.getBody()));
+  }
+
   private List<BatchRequestPart> parse(final InputStream in, final boolean isStrict) throws Exception {
     final BatchParser parser = new BatchParser();
     final BatchOptions options = BatchOptions.with().isStrict(isStrict).rawBaseUri(SERVICE_ROOT).build();
@@ -22,12 +22,16 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.apache.olingo.commons.api.ODataException;
@@ -46,6 +50,7 @@ import org.apache.olingo.commons.api.edm.provider.CsdlEntityContainerInfo;
 import org.apache.olingo.commons.api.edm.provider.CsdlEntityType;
 import org.apache.olingo.commons.api.edm.provider.CsdlEnumType;
 import org.apache.olingo.commons.api.edm.provider.CsdlPropertyRef;
+import org.apache.olingo.commons.api.edm.provider.CsdlSchema;
 import org.apache.olingo.commons.api.edm.provider.CsdlTypeDefinition;
 import org.apache.olingo.commons.core.edm.EdmProviderImpl;
 import org.junit.Before;
@@ -222,4 +227,23 @@ public class EdmProviderImplTest {
 
     assertNull(edm.getComplexType(WRONG_FQN));
   }
+
+  @Test
+  public void compile() throws Exception {
+    CsdlEdmProvider localProvider = mock(CsdlEdmProvider.class);
+    CsdlSchema schema = new CsdlSchema().setNamespace(FQN.getNamespace())
+        .setEntityTypes(Collections.singletonList(
+            new CsdlEntityType().setName(FQN.getName()).setKey(new ArrayList<CsdlPropertyRef>())));
+    when(localProvider.getSchemas()).thenReturn(Collections.singletonList(schema));
+    EdmProviderImpl localEdm = new EdmProviderImpl(localProvider);
+    localEdm.compile();
+
+    EdmEntityType entityType = localEdm.getEntityType(FQN);
+    assertNotNull(entityType);
+    assertEquals(FQN.getName(), entityType.getName());
+    assertNull(localEdm.getEntityType(WRONG_FQN));
+    assertNull(localEdm.getComplexType(FQN));
+    verify(localProvider, never()).getEntityType(any(FullQualifiedName.class));
+    verify(localProvider, never()).getComplexType(any(FullQualifiedName.class));
+  }
 }
@@ -18,13 +18,17 @@
  */
 package org.apache.olingo.server.core.serializer;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
 
@@ -32,6 +36,7 @@ import org.apache.commons.io.IOUtils;
 import org.apache.olingo.commons.api.http.HttpHeader;
 import org.apache.olingo.commons.api.http.HttpStatusCode;
 import org.apache.olingo.server.api.ODataResponse;
+import org.apache.olingo.server.api.batch.exception.BatchSerializerException;
 import org.apache.olingo.server.api.deserializer.batch.ODataResponsePart;
 import org.apache.olingo.server.core.deserializer.batch.BatchParserCommon;
 import org.apache.olingo.server.core.deserializer.batch.BufferedReaderIncludingLineEndings;
@@ -223,4 +228,46 @@ public class BatchResponseSerializerTest {
     assertTrue(body.get(line++).contains("--changeset_"));
     assertTrue(body.get(line++).contains("--batch_"));
   }
+
+  @Test
+  public void binaryContentIsKeptUnchanged() throws Exception {
+    final byte[] binary = new byte[256];
+    for (int i = 0; i < binary.length; i++) {
+      binary[i] = (byte) i;
+    }
+    ODataResponse response = new ODataResponse();
+    response.setStatusCode(HttpStatusCode.OK.getStatusCode());
+    response.setHeader(HttpHeader.CONTENT_TYPE, "application/octet-stream");
+    response.setContent(new ByteArrayInputStream(binary));
+    final List<ODataResponsePart> parts = new ArrayList<ODataResponsePart>();
+    parts.add(new ODataResponsePart(response, false));
+
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    new BatchResponseSerializer().serializeContent(parts, BOUNDARY).write(out);
+    final byte[] content = out.toByteArray();
+
+    final String head = "--" + BOUNDARY + CRLF
+        + "Content-Type: application/http" + CRLF
+        + "Content-Transfer-Encoding: binary" + CRLF
+        + CRLF
+        + "HTTP/1.1 200 OK" + CRLF
+        + "Content-Type: application/octet-stream" + CRLF
+        + "Content-Length: 256" + CRLF
+        + CRLF;
+    final String tail = CRLF + "--" + BOUNDARY + "--" + CRLF;
+    assertEquals(head.length() + binary.length + tail.length(), content.length);
+    assertEquals(head, new String(content, 0, head.length(), "US-ASCII"));
+    assertArrayEquals(binary, Arrays.copyOfRange(content, head.length(), head.length() + binary.length));
+    assertEquals(tail, new String(content, head.length() + binary.length, tail.length(), "US-ASCII"));
+  }
+
+  @Test(expected = BatchSerializerException.class)
+  public void missingContentIdInChangeSet() throws Exception {
+    ODataResponse response = new ODataResponse();
+    response.setStatusCode(HttpStatusCode.NO_CONTENT.getStatusCode());
+    final List<ODataResponsePart> parts = new ArrayList<ODataResponsePart>();
+    parts.add(new ODataResponsePart(response, true));
+
+    new BatchResponseSerializer().serializeContent(parts, BOUNDARY);
+  }
 }
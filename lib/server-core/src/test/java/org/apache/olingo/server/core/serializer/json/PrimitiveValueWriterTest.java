@@ -0,0 +1,272 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.serializer.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+import java.util.UUID;
+
+import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeException;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeKind;
+import org.apache.olingo.commons.core.edm.primitivetype.EdmPrimitiveTypeFactory;
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+/**
+ * Checks that {@link PrimitiveValueWriter} writes exactly what the serializer writes
+ * based on {@link EdmPrimitiveType#valueToString}, and that it leaves all invalid values to it.
+ */
+public class PrimitiveValueWriterTest {
+
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  @Test
+  public void booleanValues() throws Exception {
+    assertWritten(EdmPrimitiveTypeKind.Boolean, true, "true");
+    assertWritten(EdmPrimitiveTypeKind.Boolean, false, "false");
+    assertNotWritten(EdmPrimitiveTypeKind.Boolean, "true");
+  }
+
+  @Test
+  public void integerBoundaries() throws Exception {
+    assertWritten(EdmPrimitiveTypeKind.Byte, (short) 0, "0");
+    assertWritten(EdmPrimitiveTypeKind.Byte, 255, "255");
+    assertNotWritten(EdmPrimitiveTypeKind.Byte, 256);
+    assertNotWritten(EdmPrimitiveTypeKind.Byte, (byte) -1);
+
+    assertWritten(EdmPrimitiveTypeKind.SByte, Byte.MIN_VALUE, "-128");
+    assertWritten(EdmPrimitiveTypeKind.SByte, 127L, "127");
+    assertNotWritten(EdmPrimitiveTypeKind.SByte, 128);
+    assertNotWritten(EdmPrimitiveTypeKind.SByte, -129L);
+
+    assertWritten(EdmPrimitiveTypeKind.Int16, Short.MIN_VALUE, "-32768");
+    assertWritten(EdmPrimitiveTypeKind.Int16, (int) Short.MAX_VALUE, "32767");
+    assertNotWritten(EdmPrimitiveTypeKind.Int16, Short.MAX_VALUE + 1);
+
+    assertWritten(EdmPrimitiveTypeKind.Int32, Integer.MIN_VALUE, "-2147483648");
+    assertWritten(EdmPrimitiveTypeKind.Int32, (long) Integer.MAX_VALUE, "2147483647");
+    assertNotWritten(EdmPrimitiveTypeKind.Int32, Integer.MAX_VALUE + 1L);
+    assertNotWritten(EdmPrimitiveTypeKind.Int32, Integer.MIN_VALUE - 1L);
+
+    assertWritten(EdmPrimitiveTypeKind.Int64, Long.MIN_VALUE, "-9223372036854775808");
+    assertWritten(EdmPrimitiveTypeKind.Int64, Long.MAX_VALUE, "9223372036854775807");
+    assertNotWritten(EdmPrimitiveTypeKind.Int64, BigInteger.valueOf(Long.MAX_VALUE).add(BigInteger.ONE));
+    assertNotWritten(EdmPrimitiveTypeKind.Int64, 1.5);
+  }
+
+  @Test
+  public void singleValues() throws Exception {
+    assertWritten(EdmPrimitiveTypeKind.Single, 0F, "0.0");
+    assertWritten(EdmPrimitiveTypeKind.Single, -0F, "-0.0");
+    assertWritten(EdmPrimitiveTypeKind.Single, 3.1415927F, "3.1415927");
+    assertWritten(EdmPrimitiveTypeKind.Single, 1.0E-5F, "1.0E-5");
+    assertWritten(EdmPrimitiveTypeKind.Single, Float.MIN_VALUE, "1.4E-45");
+    assertWritten(EdmPrimitiveTypeKind.Single, Float.MAX_VALUE, "3.4028235E38");
+    assertWritten(EdmPrimitiveTypeKind.Single, (1 << 22) - 1, "4194303");
+    assertWritten(EdmPrimitiveTypeKind.Single, -(1L << 22) + 1, "-4194303");
+    assertWritten(EdmPrimitiveTypeKind.Single, Short.MIN_VALUE, "-32768");
+    assertNotWritten(EdmPrimitiveTypeKind.Single, 1 << 22);
+    assertNotWritten(EdmPrimitiveTypeKind.Single, -(1L << 22));
+    assertNotWritten(EdmPrimitiveTypeKind.Single, Float.NaN);
+    assertNotWritten(EdmPrimitiveTypeKind.Single, Float.POSITIVE_INFINITY);
+    assertNotWritten(EdmPrimitiveTypeKind.Single, Float.NEGATIVE_INFINITY);
+    assertNotWritten(EdmPrimitiveTypeKind.Single, 0.5);
+    assertNotWritten(EdmPrimitiveTypeKind.Single, 0.1);
+    assertNotWritten(EdmPrimitiveTypeKind.Single, new BigDecimal("0.5"));
+  }
+
+  @Test
+  public void doubleValues() throws Exception {
+    assertWritten(EdmPrimitiveTypeKind.Double, 0D, "0.0");
+    assertWritten(EdmPrimitiveTypeKind.Double, -0D, "-0.0");
+    assertWritten(EdmPrimitiveTypeKind.Double, 1.0E-300, "1.0E-300");
+    assertWritten(EdmPrimitiveTypeKind.Double, Double.MIN_VALUE, "4.9E-324");
+    assertWritten(EdmPrimitiveTypeKind.Double, Double.MAX_VALUE, "1.7976931348623157E308");
+    assertWritten(EdmPrimitiveTypeKind.Double, 0.1F, "0.1");
+    assertWritten(EdmPrimitiveTypeKind.Double, Float.MAX_VALUE, "3.4028235E38");
+    assertWritten(EdmPrimitiveTypeKind.Double, (1L << 51) - 1, "2251799813685247");
+    assertWritten(EdmPrimitiveTypeKind.Double, -(1L << 51) + 1, "-2251799813685247");
+    assertWritten(EdmPrimitiveTypeKind.Double, Integer.MIN_VALUE, "-2147483648");
+    assertNotWritten(EdmPrimitiveTypeKind.Double, 1L << 51);
+    assertNotWritten(EdmPrimitiveTypeKind.Double, Long.MIN_VALUE);
+    assertNotWritten(EdmPrimitiveTypeKind.Double, Double.NaN);
+    assertNotWritten(EdmPrimitiveTypeKind.Double, Double.NEGATIVE_INFINITY);
+    assertNotWritten(EdmPrimitiveTypeKind.Double, Float.POSITIVE_INFINITY);
+    assertNotWritten(EdmPrimitiveTypeKind.Double, new BigDecimal("0.25"));
+  }
+
+  @Test
+  public void numbersIgnorePrecisionAndScale() throws Exception {
+    // The types of these values do not have precision and scale facets, so neither path checks them.
+    assertWritten(EdmPrimitiveTypeKind.Int32, 12345, null, 2, 1, null, "12345");
+    assertWritten(EdmPrimitiveTypeKind.Int64, -987654321L, null, 3, 0, null, "-987654321");
+    assertWritten(EdmPrimitiveTypeKind.Single, 1.25F, null, 1, 0, null, "1.25");
+    assertWritten(EdmPrimitiveTypeKind.Double, 123.456, null, 2, 1, null, "123.456");
+    assertWritten(EdmPrimitiveTypeKind.Byte, 200, 1, 1, 1, false, "200");
+  }
+
+  @Test
+  public void stringValues() throws Exception {
+    assertWritten(EdmPrimitiveTypeKind.String, "", "\"\"");
+    assertWritten(EdmPrimitiveTypeKind.String, "Ä€\"\\\n", "\"Ä€\\\"\\\\\\n\"");
+    assertWritten(EdmPrimitiveTypeKind.String, "value", null, 5, 2, true, "\"value\"");
+    // Facets are left to the type.
+    assertNotWritten(EdmPrimitiveTypeKind.String, "value", 10, null, null, null);
+    assertNotWritten(EdmPrimitiveTypeKind.String, "value", 4, null, null, null);
+    assertNotWritten(EdmPrimitiveTypeKind.String, "value", null, null, null, false);
+    assertNotWritten(EdmPrimitiveTypeKind.String, "Ä", null, null, null, false);
+    assertNotWritten(EdmPrimitiveTypeKind.String, 42);
+  }
+
+  @Test
+  public void guidValues() throws Exception {
+    final UUID uuid = UUID.fromString("01234567-89ab-cdef-0123-456789abcdef");
+    assertWritten(EdmPrimitiveTypeKind.Guid, uuid, "\"01234567-89ab-cdef-0123-456789abcdef\"");
+    assertWritten(EdmPrimitiveTypeKind.Guid, new UUID(0, 0), "\"00000000-0000-0000-0000-000000000000\"");
+    assertNotWritten(EdmPrimitiveTypeKind.Guid, uuid.toString());
+  }
+
+  @Test
+  public void dateValues() throws Exception {
+    assertWritten(EdmPrimitiveTypeKind.Date, date(2012, 2, 29), "\"2012-02-29\"");
+    assertWritten(EdmPrimitiveTypeKind.Date, date(1, 1, 1), "\"0001-01-01\"");
+    assertWritten(EdmPrimitiveTypeKind.Date, date(999, 12, 31), "\"0999-12-31\"");
+    assertWritten(EdmPrimitiveTypeKind.Date, date(9999, 12, 31), "\"9999-12-31\"");
+    assertWritten(EdmPrimitiveTypeKind.Date, date(2012, 2, 29), null, 3, null, null, "\"2012-02-29\"");
+    final Calendar withTimeZone = date(2012, 12, 31);
+    withTimeZone.setTimeZone(TimeZone.getTimeZone("GMT-11:00"));
+    withTimeZone.set(Calendar.HOUR_OF_DAY, 23);
+    assertWritten(EdmPrimitiveTypeKind.Date, withTimeZone, "\"2012-12-31\"");
+
+    assertNotWritten(EdmPrimitiveTypeKind.Date, date(10000, 1, 1));
+    assertNotWritten(EdmPrimitiveTypeKind.Date, withTimeZone.getTime());
+  }
+
+  @Test
+  public void datesBeforeChristAreLeftToTheType() throws Exception {
+    final Calendar bc = date(1, 12, 31);
+    bc.set(Calendar.ERA, GregorianCalendar.BC);
+    assertNotWritten(EdmPrimitiveTypeKind.Date, bc);
+
+    final Calendar bcBoundary = date(1, 1, 1);
+    bcBoundary.add(Calendar.DAY_OF_MONTH, -1);
+    assertEquals(GregorianCalendar.BC, bcBoundary.get(Calendar.ERA));
+    assertNotWritten(EdmPrimitiveTypeKind.Date, bcBoundary);
+
+    final Calendar ancient = date(500, 3, 15);
+    ancient.set(Calendar.ERA, GregorianCalendar.BC);
+    assertNotWritten(EdmPrimitiveTypeKind.Date, ancient);
+  }
+
+  @Test
+  public void typesWithoutWriter() throws Exception {
+    for (final EdmPrimitiveTypeKind kind : new EdmPrimitiveTypeKind[] {
+        EdmPrimitiveTypeKind.Binary, EdmPrimitiveTypeKind.DateTimeOffset, EdmPrimitiveTypeKind.Decimal,
+        EdmPrimitiveTypeKind.Duration, EdmPrimitiveTypeKind.TimeOfDay }) {
+      assertNull(PrimitiveValueWriter.forType(EdmPrimitiveTypeFactory.getInstance(kind)));
+    }
+  }
+
+  private void assertWritten(final EdmPrimitiveTypeKind kind, final Object value, final String expected)
+      throws Exception {
+    assertWritten(kind, value, null, null, null, null, expected);
+  }
+
+  /** Asserts that the writer writes the value, exactly like the serializer would write it as string. */
+  private void assertWritten(final EdmPrimitiveTypeKind kind, final Object value,
+      final Integer maxLength, final Integer precision, final Integer scale, final Boolean isUnicode,
+      final String expected) throws Exception {
+    final EdmPrimitiveType type = EdmPrimitiveTypeFactory.getInstance(kind);
+    assertEquals(expected, writeViaString(type, value, maxLength, precision, scale, isUnicode));
+    assertEquals(expected, writeDirectly(type, value, maxLength, isUnicode));
+  }
+
+  private void assertNotWritten(final EdmPrimitiveTypeKind kind, final Object value) throws Exception {
+    assertNotWritten(kind, value, null, null, null, null);
+  }
+
+  /**
+   * Asserts that the writer leaves the value to {@link EdmPrimitiveType#valueToString},
+   * which either converts it or rejects it.
+   */
+  private void assertNotWritten(final EdmPrimitiveTypeKind kind, final Object value,
+      final Integer maxLength, final Integer precision, final Integer scale, final Boolean isUnicode)
+      throws Exception {
+    final EdmPrimitiveType type = EdmPrimitiveTypeFactory.getInstance(kind);
+    assertNull(writeDirectly(type, value, maxLength, isUnicode));
+    try {
+      assertNotNull(writeViaString(type, value, maxLength, precision, scale, isUnicode));
+    } catch (final EdmPrimitiveTypeException e) {
+      assertTrue(e.getMessage().startsWith("The value"));
+    }
+  }
+
+  /** Writes the value like the serializer does for values the writer has not written. */
+  private String writeViaString(final EdmPrimitiveType type, final Object value,
+      final Integer maxLength, final Integer precision, final Integer scale, final Boolean isUnicode)
+      throws EdmPrimitiveTypeException, IOException {
+    final String string = type.valueToString(value, null, maxLength, precision, scale, isUnicode);
+    final StringWriter writer = new StringWriter();
+    final JsonGenerator json = JSON_FACTORY.createGenerator(writer);
+    if (type == EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Boolean)) {
+      json.writeBoolean(Boolean.parseBoolean(string));
+    } else if (type == EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.String)
+        || type == EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Guid)
+        || type == EdmPrimitiveTypeFactory.getInstance(EdmPrimitiveTypeKind.Date)) {
+      json.writeString(string);
+    } else {
+      json.writeNumber(string);
+    }
+    json.close();
+    return writer.toString();
+  }
+
+  /** Writes the value with the writer of its type; returns <code>null</code> if the writer has declined it. */
+  private String writeDirectly(final EdmPrimitiveType type, final Object value,
+      final Integer maxLength, final Boolean isUnicode) throws IOException {
+    final StringWriter writer = new StringWriter();
+    final JsonGenerator json = JSON_FACTORY.createGenerator(writer);
+    final boolean written = PrimitiveValueWriter.forType(type).write(value, maxLength, isUnicode, json);
+    json.close();
+    if (!written) {
+      assertEquals("", writer.toString());
+    }
+    return written ? writer.toString() : null;
+  }
+
+  private Calendar date(final int year, final int month, final int day) {
+    final Calendar calendar = new GregorianCalendar(TimeZone.getTimeZone("GMT"));
+    calendar.clear();
+    calendar.set(year, month - 1, day);
+    return calendar;
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.serializer.utils;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.apache.commons.io.IOUtils;
+import org.junit.Test;
+
+public class CircleStreamBufferTest {
+
+  @Test
+  public void writeAndReadAcrossChunks() throws Exception {
+    final byte[] data = createData(100000);
+    CircleStreamBuffer buffer = new CircleStreamBuffer();
+    OutputStream out = buffer.getOutputStream();
+    out.write(data);
+    out.close();
+
+    assertArrayEquals(data, IOUtils.toByteArray(buffer.getInputStream()));
+  }
+
+  @Test
+  public void readSingleBytes() throws Exception {
+    CircleStreamBuffer buffer = new CircleStreamBuffer();
+    OutputStream out = buffer.getOutputStream();
+    out.write(0xFF);
+    out.write(0x01);
+    out.close();
+
+    InputStream in = buffer.getInputStream();
+    assertEquals(0xFF, in.read());
+    assertEquals(0x01, in.read());
+    assertEquals(-1, in.read());
+  }
+
+  @Test
+  public void alternateWriteAndRead() throws Exception {
+    CircleStreamBuffer buffer = new CircleStreamBuffer(4);
+    OutputStream out = buffer.getOutputStream();
+    InputStream in = buffer.getInputStream();
+
+    out.write("abcdef".getBytes("UTF-8"));
+    byte[] read = new byte[3];
+    assertEquals(3, in.read(read));
+    assertEquals("abc", new String(read, "UTF-8"));
+
+    out.write("ghi".getBytes("UTF-8"));
+    out.close();
+    assertEquals("defghi", IOUtils.toString(in, "UTF-8"));
+  }
+
+  @Test
+  public void transferTo() throws Exception {
+    final byte[] data = createData(50000);
+    CircleStreamBuffer buffer = new CircleStreamBuffer();
+    buffer.getOutputStream().write(data);
+    buffer.closeWrite();
+
+    ByteArrayOutputStream target = new ByteArrayOutputStream();
+    assertEquals(data.length,
+        ((CircleStreamBuffer.BufferInputStream) buffer.getInputStream()).transferTo(target));
+    assertArrayEquals(data, target.toByteArray());
+  }
+
+  @Test
+  public void reuseReleasedChunks() throws Exception {
+    for (int i = 0; i < 3; i++) {
+      final byte[] data = createData(30000 + i);
+      CircleStreamBuffer buffer = new CircleStreamBuffer();
+      buffer.getOutputStream().write(data);
+      buffer.closeWrite();
+      InputStream in = buffer.getInputStream();
+      assertArrayEquals(data, IOUtils.toByteArray(in));
+      in.close();
+    }
+  }
+
+  private byte[] createData(final int size) {
+    byte[] data = new byte[size];
+    for (int i = 0; i < size; i++) {
+      data[i] = (byte) (i % 251);
+    }
+    return data;
+  }
+}
@@ -18,7 +18,6 @@
  */
 package org.apache.olingo.server.tecsvc.processor;
 
-import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
@@ -26,9 +25,11 @@ import java.util.UUID;
 import org.apache.olingo.commons.api.format.ContentType;
 import org.apache.olingo.commons.api.http.HttpHeader;
 import org.apache.olingo.commons.api.http.HttpStatusCode;
+import org.apache.olingo.server.api.ODataContent;
 import org.apache.olingo.server.api.ODataRequest;
 import org.apache.olingo.server.api.ODataResponse;
 import org.apache.olingo.server.api.batch.BatchFacade;
+import org.apache.olingo.server.api.batch.ConcurrentBatchFacade;
 import org.apache.olingo.server.api.batch.exception.BatchDeserializerException;
 import org.apache.olingo.server.api.batch.exception.BatchSerializerException;
 import org.apache.olingo.server.api.deserializer.batch.BatchOptions;
@@ -55,6 +56,21 @@ public class TechnicalBatchProcessor extends TechnicalProcessor implements Batch
         .rawServiceResolutionUri(request.getRawServiceResolutionUri()).build();
     final List<BatchRequestPart> parts = odata.createFixedFormatDeserializer().parseBatchRequest(request.getBody(),
         boundary, options);
+    // Stops processing after the first failed part, but serializes all recent responses.
+    final List<ODataResponsePart> responseParts = facade instanceof ConcurrentBatchFacade ?
+        ((ConcurrentBatchFacade) facade).handleBatchRequests(parts, continueOnError) :
+        handleBatchRequests(facade, parts, continueOnError);
+
+    final String responseBoundary = "batch_" + UUID.randomUUID().toString();
+    final ODataContent responseContent =
+        odata.createFixedFormatSerializer().batchResponseContent(responseParts, responseBoundary);
+    response.setHeader(HttpHeader.CONTENT_TYPE, ContentType.MULTIPART_MIXED + ";boundary=" + responseBoundary);
+    response.setODataContent(responseContent);
+    response.setStatusCode(HttpStatusCode.ACCEPTED.getStatusCode());
+  }
+
+  private List<ODataResponsePart> handleBatchRequests(final BatchFacade facade, final List<BatchRequestPart> parts,
+      final boolean continueOnError) throws BatchDeserializerException {
     final List<ODataResponsePart> responseParts = new ArrayList<ODataResponsePart>();
 
     for (BatchRequestPart part : parts) {
@@ -63,20 +79,10 @@ public class TechnicalBatchProcessor extends TechnicalProcessor implements Batch
       final int statusCode = responsePart.getResponses().get(0).getStatusCode();
 
       if ((statusCode >= 400 && statusCode <= 600) && !continueOnError) {
-
-        // Perform some additions actions
-        // ...
-
-        break; // Stop processing, but serialize all recent requests
+        break;
       }
     }
-
-    final String responseBoundary = "batch_" + UUID.randomUUID().toString();
-    final InputStream responseContent =
-        odata.createFixedFormatSerializer().batchResponse(responseParts, responseBoundary);
-    response.setHeader(HttpHeader.CONTENT_TYPE, ContentType.MULTIPART_MIXED + ";boundary=" + responseBoundary);
-    response.setContent(responseContent);
-    response.setStatusCode(HttpStatusCode.ACCEPTED.getStatusCode());
+    return responseParts;
   }
 
   private boolean isContinueOnError(final ODataRequest request) {
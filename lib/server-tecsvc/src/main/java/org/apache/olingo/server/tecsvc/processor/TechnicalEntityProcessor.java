@@ -51,6 +51,7 @@ import org.apache.olingo.server.api.serializer.EntityCollectionSerializerOptions
 import org.apache.olingo.server.api.serializer.EntitySerializerOptions;
 import org.apache.olingo.server.api.serializer.SerializerException;
 import org.apache.olingo.server.api.serializer.SerializerResult;
+import org.apache.olingo.server.api.serializer.SerializerStreamResult;
 import org.apache.olingo.server.api.uri.UriInfo;
 import org.apache.olingo.server.api.uri.UriResource;
 import org.apache.olingo.server.api.uri.UriResourceEntitySet;
@@ -402,7 +403,8 @@ public class TechnicalEntityProcessor extends TechnicalProcessor
     // Apply system query options
     FilterHandler.applyFilterSystemQuery(uriInfo.getFilterOption(), entitySet, edmEntitySet);
     CountHandler.applyCountSystemQueryOption(uriInfo.getCountOption(), entitySet);
-    OrderByHandler.applyOrderByOption(uriInfo.getOrderByOption(), entitySet, edmEntitySet);
+    OrderByHandler.applyOrderByOption(uriInfo.getOrderByOption(), entitySet, edmEntitySet,
+        OrderByHandler.getLimit(uriInfo.getSkipOption(), uriInfo.getTopOption()));
     SkipHandler.applySkipSystemQueryHandler(uriInfo.getSkipOption(), entitySet);
     TopHandler.applyTopSystemQueryOption(uriInfo.getTopOption(), entitySet);
 
@@ -426,22 +428,22 @@ public class TechnicalEntityProcessor extends TechnicalProcessor
     expandHandler.applyExpandQueryOptions(entitySetSerialization, edmEntitySet, expand);
     final CountOption countOption = uriInfo.getCountOption();
 
-    // Serialize
-    final SerializerResult serializerResult = (isReference) ? 
-        serializeReferenceCollection(entitySetSerialization, edmEntitySet, format) :
-        serializeEntityCollection(entitySetSerialization, edmEntitySet, edmEntityType, format,
-            expand, select, countOption);
-    
-    response.setContent(serializerResult.getContent());
+    // Serialize; entity collections are written directly into the response stream.
+    if (isReference) {
+      response.setContent(serializeReferenceCollection(entitySetSerialization, edmEntitySet, format).getContent());
+    } else {
+      response.setODataContent(serializeEntityCollection(entitySetSerialization, edmEntitySet, edmEntityType,
+          format, expand, select, countOption).getODataContent());
+    }
     response.setStatusCode(HttpStatusCode.OK.getStatusCode());
     response.setHeader(HttpHeader.CONTENT_TYPE, requestedContentType.toContentTypeString());
   }
 
-  private SerializerResult serializeEntityCollection(final EntityCollection entityCollection, 
+  private SerializerStreamResult serializeEntityCollection(final EntityCollection entityCollection, 
       final EdmEntitySet edmEntitySet, final EdmEntityType edmEntityType, final ODataFormat format, 
       final ExpandOption expand, final SelectOption select, final CountOption countOption) 
           throws SerializerException {
-    return odata.createSerializer(format).entityCollection(
+    return odata.createSerializer(format).entityCollectionStreamed(
         serviceMetadata,
         edmEntityType,
         entityCollection,
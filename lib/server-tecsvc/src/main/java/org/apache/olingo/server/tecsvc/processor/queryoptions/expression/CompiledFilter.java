@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.tecsvc.processor.queryoptions.expression;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeKind;
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.uri.queryoption.expression.Expression;
+import org.apache.olingo.server.api.uri.queryoption.expression.ExpressionVisitException;
+import org.apache.olingo.server.tecsvc.processor.queryoptions.expression.operand.TypedOperand;
+
+/**
+ * A <code>$filter</code> expression compiled once and applicable to any number of entities.
+ */
+public class CompiledFilter {
+
+  private static final EdmPrimitiveType primBoolean =
+      OData.newInstance().createPrimitiveTypeInstance(EdmPrimitiveTypeKind.Boolean);
+
+  private final CompiledExpression expression;
+
+  private CompiledFilter(final CompiledExpression expression) {
+    this.expression = expression;
+  }
+
+  public static CompiledFilter compile(final Expression expression)
+      throws ExpressionVisitException, ODataApplicationException {
+    return new CompiledFilter(expression.accept(new FilterCompiler()));
+  }
+
+  /**
+   * Checks whether the entity satisfies the filter, i.e., the expression evaluates to <code>true</code>.
+   */
+  public boolean matches(final Entity entity) throws ODataApplicationException {
+    final TypedOperand operand = expression.evaluate(entity).asTypedOperand();
+    return operand.is(primBoolean) && Boolean.TRUE.equals(operand.getTypedValue(Boolean.class));
+  }
+}
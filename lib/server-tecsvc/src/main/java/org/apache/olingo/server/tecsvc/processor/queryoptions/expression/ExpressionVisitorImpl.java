@@ -183,6 +183,16 @@ public class ExpressionVisitorImpl implements ExpressionVisitor<VisitorOperand>
       return throwNotImplemented();
     }
 
+    return readMember(entity, uriResourceParts);
+  }
+
+  /**
+   * Reads the value of a (possibly complex) property path from an entity.
+   * @param entity the entity
+   * @param uriResourceParts the property path; the first part must be a property
+   * @return the typed value of the property
+   */
+  static VisitorOperand readMember(final Entity entity, final List<UriResource> uriResourceParts) {
     EdmProperty currentEdmProperty = ((UriResourceProperty) uriResourceParts.get(0)).getProperty();
     Property currentProperty = entity.getProperty(currentEdmProperty.getName());
 
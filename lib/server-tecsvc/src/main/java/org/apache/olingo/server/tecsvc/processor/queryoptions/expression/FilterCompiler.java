@@ -0,0 +1,262 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.tecsvc.processor.queryoptions.expression;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.edm.EdmEnumType;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeKind;
+import org.apache.olingo.commons.api.edm.EdmType;
+import org.apache.olingo.commons.api.http.HttpStatusCode;
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.ODataApplicationException;
+import org.apache.olingo.server.api.uri.UriInfoResource;
+import org.apache.olingo.server.api.uri.UriResource;
+import org.apache.olingo.server.api.uri.UriResourceProperty;
+import org.apache.olingo.server.api.uri.queryoption.expression.BinaryOperatorKind;
+import org.apache.olingo.server.api.uri.queryoption.expression.Expression;
+import org.apache.olingo.server.api.uri.queryoption.expression.ExpressionVisitException;
+import org.apache.olingo.server.api.uri.queryoption.expression.ExpressionVisitor;
+import org.apache.olingo.server.api.uri.queryoption.expression.MethodKind;
+import org.apache.olingo.server.api.uri.queryoption.expression.UnaryOperatorKind;
+import org.apache.olingo.server.tecsvc.processor.queryoptions.expression.operand.TypedOperand;
+import org.apache.olingo.server.tecsvc.processor.queryoptions.expression.operand.UntypedOperand;
+import org.apache.olingo.server.tecsvc.processor.queryoptions.expression.operand.VisitorOperand;
+
+/**
+ * Compiles an expression tree once into a tree of {@link CompiledExpression}s.
+ * <p>Literals determine their type only once, sub-expressions without property access are
+ * evaluated at compile time, property paths are resolved in advance, and <code>and</code> /
+ * <code>or</code> do not evaluate their right operand if the left one already determines the result.
+ * Operators are evaluated with the same code as in the {@link ExpressionVisitorImpl}.</p>
+ */
+public class FilterCompiler implements ExpressionVisitor<CompiledExpression> {
+
+  private static final EdmPrimitiveType primBoolean =
+      OData.newInstance().createPrimitiveTypeInstance(EdmPrimitiveTypeKind.Boolean);
+
+  /** The operations of the visitor do not depend on its entity. */
+  private static final ExpressionVisitorImpl OPERATIONS = new ExpressionVisitorImpl(null, null);
+
+  @Override
+  public CompiledExpression visitBinaryOperator(final BinaryOperatorKind operator, final CompiledExpression left,
+      final CompiledExpression right) throws ExpressionVisitException, ODataApplicationException {
+    final CompiledExpression result;
+    if (operator == BinaryOperatorKind.AND || operator == BinaryOperatorKind.OR) {
+      final Boolean shortCut = operator == BinaryOperatorKind.OR;
+      result = new Variable() {
+        @Override
+        public VisitorOperand evaluate(final Entity entity) throws ODataApplicationException {
+          final VisitorOperand leftOperand = left.evaluate(entity);
+          final TypedOperand typedLeft = leftOperand.asTypedOperand();
+          if (typedLeft.is(primBoolean) && shortCut.equals(typedLeft.getValue())) {
+            return new TypedOperand(shortCut, primBoolean);
+          }
+          return binary(operator, typedLeft, right.evaluate(entity));
+        }
+      };
+    } else {
+      result = new Variable() {
+        @Override
+        public VisitorOperand evaluate(final Entity entity) throws ODataApplicationException {
+          return binary(operator, left.evaluate(entity), right.evaluate(entity));
+        }
+      };
+    }
+    return left.isConstant() && right.isConstant() ? fold(result) : result;
+  }
+
+  @Override
+  public CompiledExpression visitUnaryOperator(final UnaryOperatorKind operator, final CompiledExpression operand)
+      throws ExpressionVisitException, ODataApplicationException {
+    final CompiledExpression result = new Variable() {
+      @Override
+      public VisitorOperand evaluate(final Entity entity) throws ODataApplicationException {
+        try {
+          return OPERATIONS.visitUnaryOperator(operator, operand.evaluate(entity));
+        } catch (final ExpressionVisitException e) {
+          throw evaluationFailed(e);
+        }
+      }
+    };
+    return operand.isConstant() ? fold(result) : result;
+  }
+
+  @Override
+  public CompiledExpression visitMethodCall(final MethodKind methodCall, final List<CompiledExpression> parameters)
+      throws ExpressionVisitException, ODataApplicationException {
+    boolean isConstant = true;
+    for (final CompiledExpression parameter : parameters) {
+      isConstant &= parameter.isConstant();
+    }
+    final CompiledExpression result = new Variable() {
+      @Override
+      public VisitorOperand evaluate(final Entity entity) throws ODataApplicationException {
+        List<VisitorOperand> operands = new ArrayList<VisitorOperand>(parameters.size());
+        for (final CompiledExpression parameter : parameters) {
+          operands.add(parameter.evaluate(entity));
+        }
+        try {
+          return OPERATIONS.visitMethodCall(methodCall, operands);
+        } catch (final ExpressionVisitException e) {
+          throw evaluationFailed(e);
+        }
+      }
+    };
+    return isConstant ? fold(result) : result;
+  }
+
+  @Override
+  public CompiledExpression visitLiteral(final String literal)
+      throws ExpressionVisitException, ODataApplicationException {
+    return new Constant(new LiteralOperand(literal));
+  }
+
+  @Override
+  public CompiledExpression visitMember(final UriInfoResource member)
+      throws ExpressionVisitException, ODataApplicationException {
+    final List<UriResource> uriResourceParts = member.getUriResourceParts();
+
+    // UriResourceParts contains at least one UriResource
+    if (!(uriResourceParts.get(0) instanceof UriResourceProperty)) {
+      return notImplemented();
+    }
+    return new Variable() {
+      @Override
+      public VisitorOperand evaluate(final Entity entity) {
+        return ExpressionVisitorImpl.readMember(entity, uriResourceParts);
+      }
+    };
+  }
+
+  @Override
+  public CompiledExpression visitLambdaExpression(final String lambdaFunction, final String lambdaVariable,
+      final Expression expression) throws ExpressionVisitException, ODataApplicationException {
+    return notImplemented();
+  }
+
+  @Override
+  public CompiledExpression visitAlias(final String aliasName)
+      throws ExpressionVisitException, ODataApplicationException {
+    return notImplemented();
+  }
+
+  @Override
+  public CompiledExpression visitTypeLiteral(final EdmType type)
+      throws ExpressionVisitException, ODataApplicationException {
+    return notImplemented();
+  }
+
+  @Override
+  public CompiledExpression visitLambdaReference(final String variableName)
+      throws ExpressionVisitException, ODataApplicationException {
+    return notImplemented();
+  }
+
+  @Override
+  public CompiledExpression visitEnum(final EdmEnumType type, final List<String> enumValues)
+      throws ExpressionVisitException, ODataApplicationException {
+    return notImplemented();
+  }
+
+  private static VisitorOperand binary(final BinaryOperatorKind operator, final VisitorOperand left,
+      final VisitorOperand right) throws ODataApplicationException {
+    try {
+      return OPERATIONS.visitBinaryOperator(operator, left, right);
+    } catch (final ExpressionVisitException e) {
+      throw evaluationFailed(e);
+    }
+  }
+
+  /**
+   * Evaluates a constant expression at compile time.
+   * If the evaluation fails, the error is reported when the filter is applied, as before.
+   */
+  private CompiledExpression fold(final CompiledExpression expression) {
+    try {
+      return new Constant(expression.evaluate(null));
+    } catch (final ODataApplicationException e) {
+      return expression;
+    } catch (final RuntimeException e) {
+      return expression;
+    }
+  }
+
+  /** The error is reported when the filter is applied to an entity, as before. */
+  private CompiledExpression notImplemented() {
+    return new Variable() {
+      @Override
+      public VisitorOperand evaluate(final Entity entity) throws ODataApplicationException {
+        throw new ODataApplicationException("Not implemented", HttpStatusCode.NOT_IMPLEMENTED.getStatusCode(),
+            Locale.ROOT);
+      }
+    };
+  }
+
+  private static ODataApplicationException evaluationFailed(final ExpressionVisitException e) {
+    return new ODataApplicationException("Exception in filter evaluation",
+        HttpStatusCode.INTERNAL_SERVER_ERROR.getStatusCode(), Locale.ROOT, e);
+  }
+
+  private abstract static class Variable implements CompiledExpression {
+    @Override
+    public boolean isConstant() {
+      return false;
+    }
+  }
+
+  private static class Constant implements CompiledExpression {
+    private final VisitorOperand value;
+
+    public Constant(final VisitorOperand value) {
+      this.value = value;
+    }
+
+    @Override
+    public VisitorOperand evaluate(final Entity entity) {
+      return value;
+    }
+
+    @Override
+    public boolean isConstant() {
+      return true;
+    }
+  }
+
+  /** Literal which determines its type only once. */
+  private static class LiteralOperand extends UntypedOperand {
+    private TypedOperand typedOperand;
+
+    public LiteralOperand(final String literal) {
+      super(literal);
+    }
+
+    @Override
+    public TypedOperand asTypedOperand() throws ODataApplicationException {
+      if (typedOperand == null) {
+        typedOperand = super.asTypedOperand();
+      }
+      return typedOperand;
+    }
+  }
+}
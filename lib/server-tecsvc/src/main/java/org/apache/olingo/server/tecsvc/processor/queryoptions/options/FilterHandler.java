@@ -18,33 +18,21 @@
  */
 package org.apache.olingo.server.tecsvc.processor.queryoptions.options;
 
-import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
 import java.util.Locale;
 
 import org.apache.olingo.commons.api.data.Entity;
 import org.apache.olingo.commons.api.data.EntityCollection;
 import org.apache.olingo.commons.api.edm.EdmBindingTarget;
-import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
-import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeKind;
 import org.apache.olingo.commons.api.http.HttpStatusCode;
-import org.apache.olingo.server.api.OData;
 import org.apache.olingo.server.api.ODataApplicationException;
 import org.apache.olingo.server.api.uri.queryoption.FilterOption;
 import org.apache.olingo.server.api.uri.queryoption.expression.ExpressionVisitException;
-import org.apache.olingo.server.tecsvc.processor.queryoptions.expression.ExpressionVisitorImpl;
-import org.apache.olingo.server.tecsvc.processor.queryoptions.expression.operand.TypedOperand;
-import org.apache.olingo.server.tecsvc.processor.queryoptions.expression.operand.VisitorOperand;
+import org.apache.olingo.server.tecsvc.processor.queryoptions.expression.CompiledFilter;
 
 public class FilterHandler {
 
-  protected static final OData oData;
-  protected static final EdmPrimitiveType primBoolean;
-
-  static {
-    oData = OData.newInstance();
-    primBoolean = oData.createPrimitiveTypeInstance(EdmPrimitiveTypeKind.Boolean);
-  }
-
   public static void applyFilterSystemQuery(final FilterOption filterOption, final EntityCollection entitySet,
       final EdmBindingTarget edmEntitySet) throws ODataApplicationException {
 
@@ -53,18 +41,19 @@ public class FilterHandler {
     }
 
     try {
-      final Iterator<Entity> iter = entitySet.getEntities().iterator();
-
-      while (iter.hasNext()) {
-        final VisitorOperand operand = filterOption.getExpression()
-            .accept(new ExpressionVisitorImpl(iter.next(), edmEntitySet));
-        final TypedOperand typedOperand = operand.asTypedOperand();
-
-        if (!(typedOperand.is(primBoolean)
-        && Boolean.TRUE.equals(typedOperand.getTypedValue(Boolean.class)))) {
-          iter.remove();
+      final CompiledFilter filter = CompiledFilter.compile(filterOption.getExpression());
+      final List<Entity> entities = entitySet.getEntities();
+
+      // Move the matching entities to the front in a single pass and cut off the rest afterwards;
+      // removing each non-matching entity would shift the remaining ones every time.
+      final ListIterator<Entity> target = entities.listIterator();
+      for (final Entity entity : entities) {
+        if (filter.matches(entity)) {
+          target.next();
+          target.set(entity);
         }
       }
+      entities.subList(target.nextIndex(), entities.size()).clear();
 
     } catch (ExpressionVisitException e) {
       throw new ODataApplicationException("Exception in filter evaluation",
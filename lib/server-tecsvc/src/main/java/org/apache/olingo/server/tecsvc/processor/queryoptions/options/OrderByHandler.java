@@ -18,9 +18,12 @@
  */
 package org.apache.olingo.server.tecsvc.processor.queryoptions.options;
 
-import java.util.Collections;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.List;
+import java.util.ListIterator;
 import java.util.Locale;
+import java.util.PriorityQueue;
 
 import org.apache.olingo.commons.api.data.Entity;
 import org.apache.olingo.commons.api.data.EntityCollection;
@@ -29,76 +32,190 @@ import org.apache.olingo.commons.api.http.HttpStatusCode;
 import org.apache.olingo.server.api.ODataApplicationException;
 import org.apache.olingo.server.api.uri.queryoption.OrderByItem;
 import org.apache.olingo.server.api.uri.queryoption.OrderByOption;
+import org.apache.olingo.server.api.uri.queryoption.SkipOption;
+import org.apache.olingo.server.api.uri.queryoption.TopOption;
 import org.apache.olingo.server.api.uri.queryoption.expression.ExpressionVisitException;
-import org.apache.olingo.server.tecsvc.processor.queryoptions.expression.ExpressionVisitorImpl;
+import org.apache.olingo.server.tecsvc.processor.queryoptions.expression.CompiledExpression;
+import org.apache.olingo.server.tecsvc.processor.queryoptions.expression.FilterCompiler;
 import org.apache.olingo.server.tecsvc.processor.queryoptions.expression.operand.TypedOperand;
 
+/**
+ * Sorts entity collections according to <code>$orderby</code>.
+ * <p>The sort keys are evaluated only once per entity; the entities are then sorted by these keys.
+ * If only the first entities are needed (because of <code>$top</code>), only those are sorted.</p>
+ */
 public class OrderByHandler {
   public static void applyOrderByOption(final OrderByOption orderByOption, final EntityCollection entitySet,
       final EdmBindingTarget edmBindingTarget) throws ODataApplicationException {
+    applyOrderByOption(orderByOption, entitySet, edmBindingTarget, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Sorts the entities.
+   * @param orderByOption the $orderby option; nothing is done if it is <code>null</code>
+   * @param entitySet the entities
+   * @param edmBindingTarget the binding target of the entities
+   * @param limit the number of leading entities that must be sorted (see {@link #getLimit(SkipOption, TopOption)});
+   *              the remaining entities follow them in unspecified order
+   */
+  public static void applyOrderByOption(final OrderByOption orderByOption, final EntityCollection entitySet,
+      final EdmBindingTarget edmBindingTarget, final int limit) throws ODataApplicationException {
 
     if (orderByOption == null) {
       return;
     }
 
     try {
-      applyOrderByOptionInternal(orderByOption, entitySet, edmBindingTarget);
-    } catch (SystemQueryOptionsRuntimeException e) {
-      if (e.getCause() instanceof ODataApplicationException) {
-        // Throw the nested exception, to send the correct HTTP status code in the HTTP response
-        throw (ODataApplicationException) e.getCause();
-      } else {
-        throw new ODataApplicationException("Exception in orderBy evaluation", HttpStatusCode.INTERNAL_SERVER_ERROR
-            .getStatusCode(), Locale.ROOT);
-      }
+      applyOrderByOptionInternal(orderByOption, entitySet, limit);
+    } catch (ExpressionVisitException e) {
+      throw new ODataApplicationException("Exception in orderBy evaluation", HttpStatusCode.INTERNAL_SERVER_ERROR
+          .getStatusCode(), Locale.ROOT);
     }
   }
 
+  /**
+   * Returns the number of entities that are needed after sorting because of $skip and $top.
+   */
+  public static int getLimit(final SkipOption skipOption, final TopOption topOption) {
+    if (topOption == null || topOption.getValue() < 0) {
+      return Integer.MAX_VALUE;
+    }
+    final long limit = (long) topOption.getValue()
+        + (skipOption == null || skipOption.getValue() < 0 ? 0 : skipOption.getValue());
+    return (int) Math.min(limit, Integer.MAX_VALUE);
+  }
+
   private static void applyOrderByOptionInternal(final OrderByOption orderByOption, final EntityCollection entitySet,
-      final EdmBindingTarget edmBindingTarget) throws ODataApplicationException {
-    Collections.sort(entitySet.getEntities(), new Comparator<Entity>() {
+      final int limit) throws ODataApplicationException, ExpressionVisitException {
+    final List<Entity> entities = entitySet.getEntities();
+    if (entities.size() < 2 || limit <= 0) {
+      return;
+    }
+
+    final List<OrderByItem> orders = orderByOption.getOrders();
+    final CompiledExpression[] expressions = new CompiledExpression[orders.size()];
+    final boolean[] descending = new boolean[orders.size()];
+    for (int i = 0; i < expressions.length; i++) {
+      expressions[i] = orders.get(i).getExpression().accept(new FilterCompiler());
+      descending[i] = orders.get(i).isDescending();
+    }
+
+    // Evaluate the sort keys once per entity.
+    SortKey[] keys = new SortKey[entities.size()];
+    int index = 0;
+    for (final Entity entity : entities) {
+      TypedOperand[] values = new TypedOperand[expressions.length];
+      for (int i = 0; i < expressions.length; i++) {
+        values[i] = expressions[i].evaluate(entity).asTypedOperand();
+      }
+      keys[index] = new SortKey(entity, values, index);
+      index++;
+    }
+
+    final SortKeyComparator comparator = new SortKeyComparator(descending);
+    if (limit < keys.length) {
+      keys = selectFirst(keys, limit, comparator);
+    } else {
+      Arrays.sort(keys, comparator);
+    }
+
+    final ListIterator<Entity> iterator = entities.listIterator();
+    for (final SortKey key : keys) {
+      iterator.next();
+      iterator.set(key.entity);
+    }
+  }
+
+  /**
+   * Returns the keys with the first <code>limit</code> keys in sorted order, followed by the other ones.
+   */
+  private static SortKey[] selectFirst(final SortKey[] keys, final int limit, final SortKeyComparator comparator) {
+    // Keep the first keys in a heap with the greatest one on top.
+    PriorityQueue<SortKey> heap = new PriorityQueue<SortKey>(limit, new Comparator<SortKey>() {
       @Override
-      @SuppressWarnings({ "unchecked", "rawtypes" })
-      public int compare(final Entity e1, final Entity e2) {
-        // Evaluate the first order option for both entity
-        // If and only if the result of the previous order option is equals to 0
-        // evaluate the next order option until all options are evaluated or they are not equals
-        int result = 0;
-
-        for (int i = 0; i < orderByOption.getOrders().size() && result == 0; i++) {
-          try {
-            final OrderByItem item = orderByOption.getOrders().get(i);
-            final TypedOperand op1 =
-                item.getExpression().accept(new ExpressionVisitorImpl(e1, edmBindingTarget)).asTypedOperand();
-            final TypedOperand op2 =
-                item.getExpression().accept(new ExpressionVisitorImpl(e2, edmBindingTarget)).asTypedOperand();
-
-            if (op1.isNull() || op2.isNull()) {
-              if (op1.isNull() && op2.isNull()) {
-                result = 0; // null is equals to null
-              } else {
-                result = op1.isNull() ? -1 : 1;
-              }
-            } else {
-              Object o1 = op1.getValue();
-              Object o2 = op2.getValue();
-
-              if (o1.getClass() == o2.getClass() && o1 instanceof Comparable) {
-                result = ((Comparable) o1).compareTo(o2);
-              } else {
-                result = 0;
-              }
-            }
-
-            result = item.isDescending() ? result * -1 : result;
-          } catch (ODataApplicationException e) {
-            throw new SystemQueryOptionsRuntimeException(e);
-          } catch (ExpressionVisitException e) {
-            throw new SystemQueryOptionsRuntimeException(e);
+      public int compare(final SortKey key1, final SortKey key2) {
+        return comparator.compare(key2, key1);
+      }
+    });
+    for (final SortKey key : keys) {
+      if (heap.size() < limit) {
+        heap.add(key);
+      } else if (comparator.compare(key, heap.peek()) < 0) {
+        heap.poll().selected = false;
+        heap.add(key);
+      } else {
+        continue;
+      }
+      key.selected = true;
+    }
+
+    SortKey[] result = new SortKey[keys.length];
+    for (int i = limit - 1; i >= 0; i--) {
+      result[i] = heap.poll();
+    }
+    int index = limit;
+    for (final SortKey key : keys) {
+      if (!key.selected) {
+        result[index++] = key;
+      }
+    }
+    return result;
+  }
+
+  private static class SortKey {
+    private final Entity entity;
+    private final TypedOperand[] values;
+    private final int index;
+    private boolean selected;
+
+    private SortKey(final Entity entity, final TypedOperand[] values, final int index) {
+      this.entity = entity;
+      this.values = values;
+      this.index = index;
+    }
+  }
+
+  private static class SortKeyComparator implements Comparator<SortKey> {
+    private final boolean[] descending;
+
+    private SortKeyComparator(final boolean[] descending) {
+      this.descending = descending;
+    }
+
+    @Override
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public int compare(final SortKey key1, final SortKey key2) {
+      // Compare the first order option for both entities.
+      // If and only if the result of the previous order option is equal to 0
+      // compare the next order option until all options are compared or they are not equal.
+      int result = 0;
+
+      for (int i = 0; i < descending.length && result == 0; i++) {
+        final TypedOperand op1 = key1.values[i];
+        final TypedOperand op2 = key2.values[i];
+
+        if (op1.isNull() || op2.isNull()) {
+          if (op1.isNull() && op2.isNull()) {
+            result = 0; // null is equals to null
+          } else {
+            result = op1.isNull() ? -1 : 1;
+          }
+        } else {
+          Object o1 = op1.getValue();
+          Object o2 = op2.getValue();
+
+          if (o1.getClass() == o2.getClass() && o1 instanceof Comparable) {
+            result = ((Comparable) o1).compareTo(o2);
+          } else {
+            result = 0;
           }
         }
-        return result;
+
+        result = descending[i] ? result * -1 : result;
       }
-    });
+
+      // Keep the original order of equal entities.
+      return result == 0 ? key1.index - key2.index : result;
+    }
   }
 }
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.tecsvc.processor.queryoptions.expression;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.edm.Edm;
+import org.apache.olingo.commons.api.edm.EdmEntitySet;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeKind;
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.edmx.EdmxReference;
+import org.apache.olingo.server.api.uri.queryoption.expression.Expression;
+import org.apache.olingo.server.core.uri.parser.Parser;
+import org.apache.olingo.server.tecsvc.data.DataProvider;
+import org.apache.olingo.server.tecsvc.processor.queryoptions.expression.operand.TypedOperand;
+import org.apache.olingo.server.tecsvc.provider.EdmTechProvider;
+import org.junit.Test;
+
+public class CompiledFilterTest {
+
+  private final Edm edm = OData.newInstance().createServiceMetadata(new EdmTechProvider(
+      Collections.<EdmxReference> emptyList()), Collections.<EdmxReference> emptyList())
+      .getEdm();
+  private final DataProvider dataProvider = new DataProvider();
+
+  @Test
+  public void sameResultsAsVisitor() throws Exception {
+    final String[] filters = {
+        "PropertyInt16 eq 32767",
+        "PropertyInt16 gt 0 and PropertyString ne 'First Resource - positive values'",
+        "PropertyInt16 lt 0 or PropertyBoolean eq true",
+        "PropertyInt16 lt 0 and PropertyBoolean eq false",
+        "not (PropertyInt16 eq 0)",
+        "PropertyInt32 add 1 gt 0",
+        "PropertyInt16 mul 2 le -10",
+        "PropertyString eq null",
+        "startswith(PropertyString,'Second')",
+        "length(PropertyString) gt 10",
+        "1 add 2 eq 3",
+        "PropertyDecimal ge 0.5" };
+    for (final String filter : filters) {
+      assertSameResult("ESAllPrim", filter);
+    }
+    assertSameResult("ESCompAllPrim", "PropertyComp/PropertyInt16 eq 32767");
+    assertSameResult("ESCompAllPrim", "PropertyComp/PropertyString eq 'First Resource - first'");
+  }
+
+  @Test
+  public void constantExpressionIsFolded() throws Exception {
+    final Expression expression = parse("ESAllPrim", "1 add 2 eq 3 and 'a' eq 'a'");
+    assertTrue(expression.accept(new FilterCompiler()).isConstant());
+    assertTrue(CompiledFilter.compile(expression).matches(null));
+    assertFalse(parse("ESAllPrim", "1 eq 1 and PropertyInt16 eq 1").accept(new FilterCompiler()).isConstant());
+  }
+
+  @Test
+  public void andShortCircuits() throws Exception {
+    // The right operand would fail with a division by zero.
+    final CompiledFilter filter = CompiledFilter.compile(parse("ESAllPrim", "PropertyInt16 eq 1 and 1 div 0 eq 1"));
+    for (final Entity entity : dataProvider.readAll(edm.getEntityContainer(null).getEntitySet("ESAllPrim"))) {
+      assertFalse(filter.matches(entity));
+    }
+  }
+
+  private void assertSameResult(final String entitySetName, final String filter) throws Exception {
+    final EdmEntitySet entitySet = edm.getEntityContainer(null).getEntitySet(entitySetName);
+    final Expression expression = parse(entitySetName, filter);
+    final CompiledFilter compiledFilter = CompiledFilter.compile(expression);
+    for (final Entity entity : dataProvider.readAll(entitySet)) {
+      final TypedOperand operand = expression.accept(new ExpressionVisitorImpl(entity, entitySet)).asTypedOperand();
+      final boolean expected = operand.is(OData.newInstance().createPrimitiveTypeInstance(
+          EdmPrimitiveTypeKind.Boolean)) && Boolean.TRUE.equals(operand.getValue());
+      assertEquals(filter, expected, compiledFilter.matches(entity));
+    }
+  }
+
+  private Expression parse(final String entitySetName, final String filter) throws Exception {
+    return new Parser().parseUri(entitySetName, "$filter=" + filter, null, edm).getFilterOption().getExpression();
+  }
+}
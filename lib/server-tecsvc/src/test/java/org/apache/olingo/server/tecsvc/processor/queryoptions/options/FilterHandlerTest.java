@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.tecsvc.processor.queryoptions.options;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.EntityCollection;
+import org.apache.olingo.commons.api.edm.Edm;
+import org.apache.olingo.commons.api.edm.EdmEntitySet;
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.edmx.EdmxReference;
+import org.apache.olingo.server.api.uri.UriInfo;
+import org.apache.olingo.server.core.uri.parser.Parser;
+import org.apache.olingo.server.tecsvc.data.DataProvider;
+import org.apache.olingo.server.tecsvc.provider.EdmTechProvider;
+import org.junit.Test;
+
+public class FilterHandlerTest {
+
+  private final Edm edm = OData.newInstance().createServiceMetadata(new EdmTechProvider(
+      Collections.<EdmxReference> emptyList()), Collections.<EdmxReference> emptyList())
+      .getEdm();
+  private final EdmEntitySet entitySet = edm.getEntityContainer(null).getEntitySet("ESAllPrim");
+
+  @Test
+  public void keepsMatchingEntitiesInOrder() throws Exception {
+    final List<Entity> entities = new DataProvider().readAll(entitySet).getEntities();
+    EntityCollection collection = new EntityCollection();
+    for (int i = 0; i < 1000; i++) {
+      collection.getEntities().addAll(entities);
+    }
+
+    FilterHandler.applyFilterSystemQuery(parse("$filter=PropertyInt16 gt 0").getFilterOption(),
+        collection, entitySet);
+
+    List<Entity> expected = new ArrayList<Entity>();
+    for (int i = 0; i < 1000; i++) {
+      for (final Entity entity : entities) {
+        if ((Short) entity.getProperty("PropertyInt16").getValue() > 0) {
+          expected.add(entity);
+        }
+      }
+    }
+    assertEquals(expected, collection.getEntities());
+  }
+
+  @Test
+  public void noMatch() throws Exception {
+    EntityCollection collection = new DataProvider().readAll(entitySet);
+    FilterHandler.applyFilterSystemQuery(parse("$filter=PropertyInt16 eq 12345").getFilterOption(),
+        collection, entitySet);
+    assertTrue(collection.getEntities().isEmpty());
+  }
+
+  private UriInfo parse(final String query) throws Exception {
+    return new Parser().parseUri("ESAllPrim", query, null, edm);
+  }
+}
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.tecsvc.processor.queryoptions.options;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.EntityCollection;
+import org.apache.olingo.commons.api.edm.Edm;
+import org.apache.olingo.commons.api.edm.EdmEntitySet;
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.edmx.EdmxReference;
+import org.apache.olingo.server.api.uri.queryoption.OrderByItem;
+import org.apache.olingo.server.api.uri.queryoption.OrderByOption;
+import org.apache.olingo.server.core.uri.parser.Parser;
+import org.apache.olingo.server.tecsvc.data.DataProvider;
+import org.apache.olingo.server.tecsvc.processor.queryoptions.expression.ExpressionVisitorImpl;
+import org.apache.olingo.server.tecsvc.processor.queryoptions.expression.operand.TypedOperand;
+import org.apache.olingo.server.tecsvc.provider.EdmTechProvider;
+import org.junit.Test;
+
+public class OrderByHandlerTest {
+
+  private final Edm edm = OData.newInstance().createServiceMetadata(new EdmTechProvider(
+      Collections.<EdmxReference> emptyList()), Collections.<EdmxReference> emptyList())
+      .getEdm();
+  private final DataProvider dataProvider = new DataProvider();
+
+  @Test
+  public void sameOrderAsComparator() throws Exception {
+    assertSameOrder("ESAllPrim", "PropertyInt16", Integer.MAX_VALUE);
+    assertSameOrder("ESAllPrim", "PropertyString desc", Integer.MAX_VALUE);
+    assertSameOrder("ESAllPrim", "PropertyBoolean,PropertyInt16 desc", Integer.MAX_VALUE);
+    assertSameOrder("ESKeyNav", "PropertyString desc", Integer.MAX_VALUE);
+    assertSameOrder("ESTwoKeyNav", "PropertyString,PropertyInt16 desc", Integer.MAX_VALUE);
+    assertSameOrder("ESTwoKeyNav", "PropertyComp/PropertyInt16", Integer.MAX_VALUE);
+    assertSameOrder("ESMixPrimCollComp", "PropertyInt16 mul -1", Integer.MAX_VALUE);
+  }
+
+  @Test
+  public void topOnly() throws Exception {
+    for (int limit = 0; limit <= 5; limit++) {
+      assertSameOrder("ESAllPrim", "PropertyInt16 desc", limit);
+      assertSameOrder("ESKeyNav", "PropertyString", limit);
+      assertSameOrder("ESTwoKeyNav", "PropertyString desc,PropertyInt16", limit);
+    }
+  }
+
+  @Test
+  public void limit() throws Exception {
+    assertEquals(Integer.MAX_VALUE, OrderByHandler.getLimit(null, null));
+    assertEquals(3, OrderByHandler.getLimit(null,
+        new Parser().parseUri("ESAllPrim", "$top=3", null, edm).getTopOption()));
+    assertEquals(5, OrderByHandler.getLimit(
+        new Parser().parseUri("ESAllPrim", "$skip=2", null, edm).getSkipOption(),
+        new Parser().parseUri("ESAllPrim", "$top=3", null, edm).getTopOption()));
+    assertEquals(Integer.MAX_VALUE, OrderByHandler.getLimit(
+        new Parser().parseUri("ESAllPrim", "$skip=2", null, edm).getSkipOption(), null));
+  }
+
+  private void assertSameOrder(final String entitySetName, final String orderBy, final int limit)
+      throws Exception {
+    final EdmEntitySet entitySet = edm.getEntityContainer(null).getEntitySet(entitySetName);
+    final OrderByOption orderByOption =
+        new Parser().parseUri(entitySetName, "$orderby=" + orderBy, null, edm).getOrderByOption();
+
+    List<Entity> expected = new ArrayList<Entity>(dataProvider.readAll(entitySet).getEntities());
+    Collections.sort(expected, new ReferenceComparator(orderByOption, entitySet));
+
+    EntityCollection collection = new EntityCollection();
+    collection.getEntities().addAll(dataProvider.readAll(entitySet).getEntities());
+    OrderByHandler.applyOrderByOption(orderByOption, collection, entitySet, limit);
+    final List<Entity> actual = collection.getEntities();
+
+    assertEquals(expected.size(), actual.size());
+    assertTrue(actual.containsAll(expected));
+    final int size = Math.min(limit, expected.size());
+    assertEquals(orderBy, expected.subList(0, size), actual.subList(0, size));
+  }
+
+  /** Evaluates the expressions for each comparison; the result must be the same. */
+  private static class ReferenceComparator implements Comparator<Entity> {
+    private final OrderByOption orderByOption;
+    private final EdmEntitySet entitySet;
+
+    private ReferenceComparator(final OrderByOption orderByOption, final EdmEntitySet entitySet) {
+      this.orderByOption = orderByOption;
+      this.entitySet = entitySet;
+    }
+
+    @Override
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public int compare(final Entity e1, final Entity e2) {
+      int result = 0;
+      for (int i = 0; i < orderByOption.getOrders().size() && result == 0; i++) {
+        try {
+          final OrderByItem item = orderByOption.getOrders().get(i);
+          final TypedOperand op1 = item.getExpression().accept(new ExpressionVisitorImpl(e1, entitySet))
+              .asTypedOperand();
+          final TypedOperand op2 = item.getExpression().accept(new ExpressionVisitorImpl(e2, entitySet))
+              .asTypedOperand();
+          if (op1.isNull() || op2.isNull()) {
+            result = op1.isNull() && op2.isNull() ? 0 : op1.isNull() ? -1 : 1;
+          } else if (op1.getValue().getClass() == op2.getValue().getClass()
+              && op1.getValue() instanceof Comparable) {
+            result = ((Comparable) op1.getValue()).compareTo(op2.getValue());
+          }
+          result = item.isDescending() ? -result : result;
+        } catch (final Exception e) {
+          throw new IllegalStateException(e);
+        }
+      }
+      return result;
+    }
+  }
+}
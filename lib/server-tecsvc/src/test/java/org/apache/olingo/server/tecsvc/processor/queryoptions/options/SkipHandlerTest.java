@@ -0,0 +1,71 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.tecsvc.processor.queryoptions.options;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.olingo.commons.api.data.Entity;
+import org.apache.olingo.commons.api.data.EntityCollection;
+import org.apache.olingo.commons.api.edm.Edm;
+import org.apache.olingo.commons.api.edm.EdmEntitySet;
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.edmx.EdmxReference;
+import org.apache.olingo.server.api.uri.queryoption.SkipOption;
+import org.apache.olingo.server.core.uri.parser.Parser;
+import org.apache.olingo.server.tecsvc.data.DataProvider;
+import org.apache.olingo.server.tecsvc.provider.EdmTechProvider;
+import org.junit.Test;
+
+public class SkipHandlerTest {
+
+  private final Edm edm = OData.newInstance().createServiceMetadata(new EdmTechProvider(
+      Collections.<EdmxReference> emptyList()), Collections.<EdmxReference> emptyList())
+      .getEdm();
+  private final EdmEntitySet entitySet = edm.getEntityContainer(null).getEntitySet("ESAllPrim");
+
+  @Test
+  public void skip() throws Exception {
+    final List<Entity> entities = new DataProvider().readAll(entitySet).getEntities();
+    EntityCollection collection = new EntityCollection();
+    collection.getEntities().addAll(entities);
+    SkipHandler.applySkipSystemQueryHandler(parse("$skip=1"), collection);
+    assertEquals(entities.subList(1, entities.size()), collection.getEntities());
+    SkipHandler.applySkipSystemQueryHandler(parse("$skip=10"), collection);
+    assertTrue(collection.getEntities().isEmpty());
+  }
+
+  @Test
+  public void skipNothing() throws Exception {
+    final List<Entity> entities = new DataProvider().readAll(entitySet).getEntities();
+    EntityCollection collection = new EntityCollection();
+    collection.getEntities().addAll(entities);
+    SkipHandler.applySkipSystemQueryHandler(parse("$skip=0"), collection);
+    assertEquals(entities, collection.getEntities());
+    SkipHandler.applySkipSystemQueryHandler(null, collection);
+    assertEquals(entities, collection.getEntities());
+  }
+
+  private SkipOption parse(final String query) throws Exception {
+    return new Parser().parseUri("ESAllPrim", query, null, edm).getSkipOption();
+  }
+}
@@ -21,6 +21,7 @@ package org.apache.olingo.server.core;
 import static org.hamcrest.CoreMatchers.containsString;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.mockito.Matchers.any;
 import static org.mockito.Mockito.doThrow;
@@ -35,9 +36,12 @@ import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
 
 import org.apache.commons.io.IOUtils;
 import org.apache.olingo.commons.api.ODataException;
+import org.apache.olingo.commons.api.edm.Edm;
 import org.apache.olingo.commons.api.edm.FullQualifiedName;
 import org.apache.olingo.commons.api.edm.constants.ODataServiceVersion;
 import org.apache.olingo.commons.api.edm.provider.CsdlAbstractEdmProvider;
@@ -153,6 +157,90 @@ public class ODataHandlerTest {
         containsString("<edmx:Edmx Version=\"4.0\""));
   }
 
+  @Test
+  public void metadataNotModified() throws Exception {
+    final String eTag = dispatch(HttpMethod.GET, "$metadata", null).getHeaders().get(HttpHeader.ETAG);
+    assertNotNull(eTag);
+
+    final ODataResponse response = dispatch(HttpMethod.GET, "$metadata", null,
+        HttpHeader.IF_NONE_MATCH, eTag, null);
+    assertEquals(HttpStatusCode.NOT_MODIFIED.getStatusCode(), response.getStatusCode());
+    assertEquals(eTag, response.getHeaders().get(HttpHeader.ETAG));
+    assertNull(response.getContent());
+
+    assertEquals(HttpStatusCode.OK.getStatusCode(), dispatch(HttpMethod.GET, "$metadata", null,
+        HttpHeader.IF_NONE_MATCH, "\"other\"", null).getStatusCode());
+  }
+
+  @Test
+  public void metadataCompressed() throws Exception {
+    final String expected = IOUtils.toString(dispatch(HttpMethod.GET, "$metadata", null).getContent());
+
+    ODataResponse response = dispatch(HttpMethod.GET, "$metadata", null,
+        HttpHeader.ACCEPT_ENCODING, "deflate;q=0.5, gzip", null);
+    assertEquals(HttpStatusCode.OK.getStatusCode(), response.getStatusCode());
+    assertEquals("gzip", response.getHeaders().get(HttpHeader.CONTENT_ENCODING));
+    assertEquals(expected, IOUtils.toString(new GZIPInputStream(response.getContent())));
+
+    response = dispatch(HttpMethod.GET, "$metadata", null, HttpHeader.ACCEPT_ENCODING, "gzip;q=0, deflate", null);
+    assertEquals("deflate", response.getHeaders().get(HttpHeader.CONTENT_ENCODING));
+    assertEquals(expected, IOUtils.toString(new InflaterInputStream(response.getContent())));
+
+    response = dispatch(HttpMethod.GET, "$metadata", null, HttpHeader.ACCEPT_ENCODING, "identity", null);
+    assertNull(response.getHeaders().get(HttpHeader.CONTENT_ENCODING));
+    assertEquals(expected, IOUtils.toString(response.getContent()));
+  }
+
+  @Test
+  public void serviceDocumentNotModified() throws Exception {
+    final String eTag = dispatch(HttpMethod.GET, "/", null).getHeaders().get(HttpHeader.ETAG);
+    assertNotNull(eTag);
+    assertEquals(HttpStatusCode.NOT_MODIFIED.getStatusCode(), dispatch(HttpMethod.GET, "/", null,
+        HttpHeader.IF_NONE_MATCH, eTag, null).getStatusCode());
+  }
+
+  @Test
+  public void documentsAreSerializedOnce() throws Exception {
+    final OData odata = OData.newInstance();
+    final ServiceMetadata serviceMetadata = odata.createServiceMetadata(
+        new EdmTechProvider(), Collections.<EdmxReference> emptyList());
+    final int[] serializations = new int[1];
+    // The documents of any implementation of the interface are cached.
+    final ServiceMetadata countingMetadata = new ServiceMetadata() {
+      @Override
+      public Edm getEdm() {
+        return serviceMetadata.getEdm();
+      }
+
+      @Override
+      public ODataServiceVersion getDataServiceVersion() {
+        return serviceMetadata.getDataServiceVersion();
+      }
+
+      @Override
+      public List<EdmxReference> getReferences() {
+        serializations[0]++;
+        return serviceMetadata.getReferences();
+      }
+    };
+
+    String eTag = null;
+    for (int i = 0; i < 2; i++) {
+      ODataRequest request = new ODataRequest();
+      request.setMethod(HttpMethod.GET);
+      request.setRawBaseUri(BASE_URI);
+      request.setRawODataPath("$metadata");
+      final ODataResponse response = new ODataHandler(odata, countingMetadata).process(request);
+      assertEquals(HttpStatusCode.OK.getStatusCode(), response.getStatusCode());
+      assertNotNull(response.getHeaders().get(HttpHeader.ETAG));
+      if (eTag != null) {
+        assertEquals(eTag, response.getHeaders().get(HttpHeader.ETAG));
+      }
+      eTag = response.getHeaders().get(HttpHeader.ETAG);
+    }
+    assertEquals(1, serializations[0]);
+  }
+
   @Test
   public void maxVersionNone() {
     final ODataResponse response = dispatch(HttpMethod.GET, "$metadata", null);
@@ -107,6 +107,25 @@ public class ODataDeserializerEntityCollectionTest extends AbstractODataDeserial
     assertTrue(entityCollection.getEntities().isEmpty());
   }
 
+  @Test
+  public void controlInformationBeforeAndAfterValue() throws Exception {
+    String entityCollectionString = "{\"@odata.context\":\"$metadata#ESTwoPrim\","
+        + "\"@odata.count\":2,"
+        + "\"value\":[{\"PropertyInt16\":1,\"PropertyString\":\"First\"},"
+        + "{\"PropertyString\":\"Second\",\"@odata.id\":\"ESTwoPrim(2)\",\"PropertyInt16\":2}],"
+        + "\"@odata.nextLink\":\"ESTwoPrim?$skiptoken=2\"}";
+    InputStream stream = new ByteArrayInputStream(entityCollectionString.getBytes());
+    EdmEntityType edmEntityType = edm.getEntityType(new FullQualifiedName("Namespace1_Alias", "ETTwoPrim"));
+    EntityCollection entityCollection =
+        OData.newInstance().createDeserializer(ODataFormat.JSON).entityCollection(stream, edmEntityType)
+            .getEntityCollection();
+    assertEquals(2, entityCollection.getEntities().size());
+    Entity second = entityCollection.getEntities().get(1);
+    assertEquals("PropertyInt16", second.getProperties().get(0).getName());
+    assertEquals((short) 2, second.getProperty("PropertyInt16").getValue());
+    assertEquals("Second", second.getProperty("PropertyString").getValue());
+  }
+
   @Test(expected = DeserializerException.class)
   public void esAllPrimCustomAnnotationsLeadToNotImplemented() throws Exception {
     EdmEntityType edmEntityType = edm.getEntityType(new FullQualifiedName("Namespace1_Alias", "ETAllPrim"));
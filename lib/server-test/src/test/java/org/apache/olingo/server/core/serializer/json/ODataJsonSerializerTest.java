@@ -18,16 +18,29 @@
  */
 package org.apache.olingo.server.core.serializer.json;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 
 import org.apache.commons.io.IOUtils;
+import org.apache.olingo.commons.api.data.CompactEntity;
 import org.apache.olingo.commons.api.data.ContextURL;
 import org.apache.olingo.commons.api.data.ContextURL.Suffix;
 import org.apache.olingo.commons.api.data.Entity;
 import org.apache.olingo.commons.api.data.EntityCollection;
+import org.apache.olingo.commons.api.data.EntityIterator;
+import org.apache.olingo.commons.api.data.EntityLayout;
+import org.apache.olingo.commons.api.data.Linked;
 import org.apache.olingo.commons.api.data.Property;
 import org.apache.olingo.commons.api.data.ValueType;
 import org.apache.olingo.commons.api.edm.Edm;
@@ -36,7 +49,9 @@ import org.apache.olingo.commons.api.edm.EdmEntityContainer;
 import org.apache.olingo.commons.api.edm.EdmEntitySet;
 import org.apache.olingo.commons.api.edm.EdmEntityType;
 import org.apache.olingo.commons.api.edm.EdmPrimitiveType;
+import org.apache.olingo.commons.api.edm.EdmPrimitiveTypeKind;
 import org.apache.olingo.commons.api.edm.EdmProperty;
+import org.apache.olingo.commons.api.edm.EdmStructuredType;
 import org.apache.olingo.commons.api.edm.FullQualifiedName;
 import org.apache.olingo.commons.api.format.ODataFormat;
 import org.apache.olingo.server.api.OData;
@@ -64,6 +79,8 @@ import org.junit.Assert;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+
 public class ODataJsonSerializerTest {
   private static final ServiceMetadata metadata = OData.newInstance().createServiceMetadata(
       new EdmTechProvider(), Collections.<EdmxReference> emptyList());
@@ -105,6 +122,39 @@ public class ODataJsonSerializerTest {
     Assert.assertEquals(expectedResult, resultString);
   }
 
+  @Test
+  public void entityCompact() throws Exception {
+    final EdmEntitySet edmEntitySet = entityContainer.getEntitySet("ESAllPrim");
+    final Entity entity = data.readAll(edmEntitySet).getEntities().get(0);
+    final CompactEntity compactEntity = new CompactEntity(new EntityLayout(edmEntitySet.getEntityType()));
+    for (final Property property : entity.getProperties()) {
+      final int slot = compactEntity.getLayout().getSlot(property.getName());
+      final EdmPrimitiveTypeKind kind = compactEntity.getLayout().getPrimitiveKind(slot);
+      if (kind == null) {
+        compactEntity.addProperty(property);
+      } else if (kind == EdmPrimitiveTypeKind.Boolean) {
+        compactEntity.setBoolean(property.getName(), (Boolean) property.getValue());
+      } else if (kind == EdmPrimitiveTypeKind.Single || kind == EdmPrimitiveTypeKind.Double) {
+        compactEntity.setDouble(property.getName(), ((Number) property.getValue()).doubleValue());
+      } else {
+        compactEntity.setLong(property.getName(), ((Number) property.getValue()).longValue());
+      }
+    }
+    final EntitySerializerOptions options = EntitySerializerOptions.with()
+        .contextURL(ContextURL.with().entitySet(edmEntitySet).suffix(Suffix.ENTITY).build())
+        .build();
+    final String expectedResult = IOUtils.toString(serializer.entity(metadata, edmEntitySet.getEntityType(), entity,
+        options).getContent());
+    Assert.assertEquals(expectedResult, IOUtils.toString(serializer.entity(metadata, edmEntitySet.getEntityType(),
+        compactEntity, options).getContent()));
+
+    Assert.assertEquals(Integer.MAX_VALUE, compactEntity.getProperty("PropertyInt32").getValue());
+    Assert.assertEquals(entity.getProperties().size(), compactEntity.getProperties().size());
+    Assert.assertFalse(compactEntity.isCompact());
+    Assert.assertEquals(expectedResult, IOUtils.toString(serializer.entity(metadata, edmEntitySet.getEntityType(),
+        compactEntity, options).getContent()));
+  }
+
   @Test
   public void entityAllPrimAllNull() throws Exception {
     final EdmEntitySet edmEntitySet = entityContainer.getEntitySet("ESAllPrim");
@@ -186,6 +236,70 @@ public class ODataJsonSerializerTest {
     Assert.assertEquals(3, count);
   }
 
+  @Test
+  public void entitySetAllPrimStreamed() throws Exception {
+    final EdmEntitySet edmEntitySet = entityContainer.getEntitySet("ESAllPrim");
+    EntityCollection entitySet = data.readAll(edmEntitySet);
+    entitySet.setNext(URI.create("/next"));
+    final EntityCollectionSerializerOptions options = EntityCollectionSerializerOptions.with()
+        .contextURL(ContextURL.with().entitySet(edmEntitySet).build())
+        .build();
+    final String expected = IOUtils.toString(
+        serializer.entityCollection(metadata, edmEntitySet.getEntityType(), entitySet, options).getContent());
+
+    // The target stream belongs to the caller and must not be closed.
+    ByteArrayOutputStream stream = new ByteArrayOutputStream() {
+      @Override
+      public void close() {
+        Assert.fail("The target stream has been closed.");
+      }
+    };
+    serializer.entityCollectionStreamed(metadata, edmEntitySet.getEntityType(), entitySet, options)
+        .getODataContent().write(stream);
+    Assert.assertEquals(expected, stream.toString("UTF-8"));
+  }
+
+  @Test
+  public void entitySetAllPrimIterator() throws Exception {
+    final EdmEntitySet edmEntitySet = entityContainer.getEntitySet("ESAllPrim");
+    final Iterator<Entity> source = data.readAll(edmEntitySet).getEntities().iterator();
+    final EntityIterator entityIterator = new EntityIterator() {
+      private int read = 0;
+
+      @Override
+      public boolean hasNext() {
+        if (source.hasNext()) {
+          return true;
+        }
+        setCount(read);
+        setNext(URI.create("/next"));
+        return false;
+      }
+
+      @Override
+      public Entity next() {
+        read++;
+        return source.next();
+      }
+    };
+    CountOption countOption = Mockito.mock(CountOption.class);
+    Mockito.when(countOption.getValue()).thenReturn(true);
+    ByteArrayOutputStream stream = new ByteArrayOutputStream();
+    serializer.entityCollectionStreamed(metadata, edmEntitySet.getEntityType(), entityIterator,
+        EntityCollectionSerializerOptions.with()
+            .contextURL(ContextURL.with().entitySet(edmEntitySet).build())
+            .count(countOption)
+            .build()).getODataContent().write(stream);
+    final String resultString = stream.toString("UTF-8");
+
+    Assert.assertThat(resultString, CoreMatchers.startsWith("{"
+        + "\"@odata.context\":\"$metadata#ESAllPrim\","
+        + "\"value\":["));
+    Assert.assertThat(resultString, CoreMatchers.endsWith("],"
+        + "\"@odata.count\":3,"
+        + "\"@odata.nextLink\":\"/next\"}"));
+  }
+
   @Test
   public void entityCollAllPrim() throws Exception {
     final EdmEntitySet edmEntitySet = entityContainer.getEntitySet("ESCollAllPrim");
@@ -621,6 +735,86 @@ public class ODataJsonSerializerTest {
         resultString);
   }
 
+  @Test
+  public void planIsReusedForSameOptions() throws Exception {
+    final ServiceMetadata ownMetadata = OData.newInstance().createServiceMetadata(
+        new EdmTechProvider(), Collections.<EdmxReference> emptyList());
+    final EdmEntitySet edmEntitySet = ownMetadata.getEdm().getEntityContainer(
+        new FullQualifiedName("olingo.odata.test1", "Container")).getEntitySet("ESAllPrim");
+    final EdmEntityType entityType = edmEntitySet.getEntityType();
+    final int[] compilations = new int[1];
+    final EdmEntityType countingType = (EdmEntityType) Proxy.newProxyInstance(getClass().getClassLoader(),
+        new Class<?>[] { EdmEntityType.class }, new InvocationHandler() {
+          @Override
+          public Object invoke(final Object proxy, final Method method, final Object[] args) throws Throwable {
+            if ("equals".equals(method.getName())) {
+              return proxy == args[0];
+            } else if ("getPropertyNames".equals(method.getName())) {
+              compilations[0]++;
+            }
+            try {
+              return method.invoke(entityType, args);
+            } catch (final InvocationTargetException e) {
+              throw e.getCause();
+            }
+          }
+        });
+    final EntityCollection entitySet = data.readAll(edmEntitySet);
+
+    final String[] results = new String[2];
+    for (int i = 0; i < results.length; i++) {
+      // Each request parses its own options.
+      final SelectOption select = ExpandSelectMock.mockSelectOption(Arrays.asList(
+          ExpandSelectMock.mockSelectItem(edmEntitySet, "PropertyInt16"),
+          ExpandSelectMock.mockSelectItem(edmEntitySet, "PropertyString")));
+      Mockito.when(select.getText()).thenReturn("PropertyInt16,PropertyString");
+      results[i] = IOUtils.toString(new ODataJsonSerializer(ODataFormat.JSON_NO_METADATA)
+          .entityCollection(ownMetadata, countingType, entitySet,
+              EntityCollectionSerializerOptions.with().select(select).build())
+          .getContent());
+    }
+
+    Assert.assertEquals(1, compilations[0]);
+    Assert.assertEquals(results[0], results[1]);
+    Assert.assertThat(results[0], CoreMatchers.startsWith("{\"value\":["
+        + "{\"PropertyInt16\":32767,\"PropertyString\":\"First Resource - positive values\"},"));
+  }
+
+  @Test
+  public void overriddenWriteMethodsAreUsed() throws Exception {
+    final EdmEntitySet edmEntitySet = entityContainer.getEntitySet("ESTwoPrim");
+    final Entity entity = data.readAll(edmEntitySet).getEntities().get(3);
+    final ExpandOption expand = ExpandSelectMock.mockExpandOption(Arrays.asList(
+        ExpandSelectMock.mockExpandItem(edmEntitySet, "NavPropertyETAllPrimOne")));
+    final List<String> calls = new ArrayList<String>();
+    final ODataSerializer recordingSerializer = new ODataJsonSerializer(ODataFormat.JSON_NO_METADATA) {
+      @Override
+      protected void writeProperties(final EdmStructuredType type, final List<Property> properties,
+          final SelectOption select, final JsonGenerator json) throws IOException, SerializerException {
+        calls.add("properties of " + type.getName());
+        super.writeProperties(type, properties, select, json);
+      }
+
+      @Override
+      protected void writeNavigationProperties(final ServiceMetadata metadata, final EdmStructuredType type,
+          final Linked linked, final ExpandOption expand, final JsonGenerator json)
+          throws SerializerException, IOException {
+        calls.add("navigation properties of " + type.getName());
+        super.writeNavigationProperties(metadata, type, linked, expand, json);
+      }
+    };
+    final String resultString = IOUtils.toString(recordingSerializer
+        .entity(metadata, edmEntitySet.getEntityType(), entity,
+            EntitySerializerOptions.with().expand(expand).build())
+        .getContent());
+    Assert.assertEquals(Arrays.asList("properties of ETTwoPrim", "navigation properties of ETTwoPrim",
+        "properties of ETAllPrim", "navigation properties of ETAllPrim"),
+        calls);
+    Assert.assertThat(resultString, CoreMatchers.startsWith("{"
+        + "\"PropertyInt16\":32767,\"PropertyString\":\"Test String4\","
+        + "\"NavPropertyETAllPrimOne\":{\"PropertyInt16\":32767,"));
+  }
+
   @Test
   public void primitiveProperty() throws Exception {
     final EdmEntitySet edmEntitySet = entityContainer.getEntitySet("ESAllPrim");
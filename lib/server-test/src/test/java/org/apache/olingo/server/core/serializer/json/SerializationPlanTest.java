@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.serializer.json;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import java.util.Collections;
+
+import org.apache.olingo.commons.api.edm.EdmEntityContainer;
+import org.apache.olingo.commons.api.edm.EdmEntityType;
+import org.apache.olingo.commons.api.edm.FullQualifiedName;
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.ServiceMetadata;
+import org.apache.olingo.server.api.edmx.EdmxReference;
+import org.apache.olingo.server.core.uri.UriInfoImpl;
+import org.apache.olingo.server.core.uri.UriResourcePrimitivePropertyImpl;
+import org.apache.olingo.server.core.uri.queryoption.ExpandItemImpl;
+import org.apache.olingo.server.core.uri.queryoption.ExpandOptionImpl;
+import org.apache.olingo.server.core.uri.queryoption.SelectItemImpl;
+import org.apache.olingo.server.core.uri.queryoption.SelectOptionImpl;
+import org.apache.olingo.server.tecsvc.provider.EdmTechProvider;
+import org.junit.Test;
+
+public class SerializationPlanTest {
+  private static final ServiceMetadata metadata = createMetadata();
+  private static final EdmEntityContainer entityContainer = metadata.getEdm().getEntityContainer(
+      new FullQualifiedName("olingo.odata.test1", "Container"));
+  private static final EdmEntityType allPrim = entityContainer.getEntitySet("ESAllPrim").getEntityType();
+  private static final EdmEntityType twoPrim = entityContainer.getEntitySet("ESTwoPrim").getEntityType();
+
+  @Test
+  public void sameOptionsHitCache() throws Exception {
+    final SerializationPlan plan = SerializationPlan.get(metadata, allPrim, select("PropertyString"), null);
+    assertSame(plan, SerializationPlan.get(metadata, allPrim, select("PropertyString"), null));
+
+    final SerializationPlan expandPlan = SerializationPlan.get(metadata, twoPrim, null, expandAll("*"));
+    assertSame(expandPlan, SerializationPlan.get(metadata, twoPrim, null, expandAll("*")));
+  }
+
+  @Test
+  public void differentOptionsMissCache() throws Exception {
+    final SerializationPlan plan = SerializationPlan.get(metadata, allPrim, select("PropertyString"), null);
+    assertNotSame(plan, SerializationPlan.get(metadata, allPrim, select("PropertyInt16"), null));
+    assertNotSame(plan, SerializationPlan.get(metadata, allPrim, select("PropertyString"), expandAll("*")));
+    assertNotSame(plan, SerializationPlan.get(metadata, allPrim, null, null));
+    assertNotSame(plan, SerializationPlan.get(metadata, twoPrim, select("PropertyString"), null));
+    assertNotSame(plan, SerializationPlan.get(createMetadata(), allPrim, select("PropertyString"), null));
+
+    final SerializationPlan expandPlan = SerializationPlan.get(metadata, twoPrim, null, expandAll("*"));
+    assertNotSame(expandPlan, SerializationPlan.get(metadata, twoPrim, null, expandAll("*/$ref")));
+  }
+
+  @Test
+  public void optionsWithoutTextAreNotCached() throws Exception {
+    final SelectOptionImpl select = select("PropertyString");
+    select.setText(null);
+    final SerializationPlan plan = SerializationPlan.get(metadata, allPrim, select, null);
+    assertNotSame(plan, SerializationPlan.get(metadata, allPrim, select, null));
+    assertNotSame(SerializationPlan.get(null, allPrim, null, null), SerializationPlan.get(null, allPrim, null, null));
+  }
+
+  @Test
+  public void cachedPlanSelectsProperties() throws Exception {
+    final SerializationPlan plan = SerializationPlan.get(metadata, allPrim, select("PropertyInt16"), null);
+    assertEquals(1, plan.getProperties().size());
+    assertEquals("PropertyInt16", plan.getProperties().get(0).getProperty().getName());
+    assertEquals(allPrim.getPropertyNames().size(),
+        SerializationPlan.get(metadata, allPrim, null, null).getProperties().size());
+  }
+
+  @Test
+  public void fullCacheEvicts() throws Exception {
+    final ServiceMetadata ownMetadata = createMetadata();
+    final SerializationPlan[] plans = new SerializationPlan[SerializationPlan.MAX_CACHED_PLANS];
+    for (int i = 0; i < plans.length; i++) {
+      plans[i] = SerializationPlan.get(ownMetadata, allPrim, select("PropertyString", i), null);
+    }
+
+    // The cache is full, but the plan for new options is still cached ...
+    final SerializationPlan newPlan = SerializationPlan.get(ownMetadata, allPrim, select("PropertyString", -1), null);
+    assertSame(newPlan, SerializationPlan.get(ownMetadata, allPrim, select("PropertyString", -1), null));
+
+    // ... because another plan has been evicted for it.
+    int evicted = 0;
+    for (int i = 0; i < plans.length && evicted == 0; i++) {
+      if (SerializationPlan.get(ownMetadata, allPrim, select("PropertyString", i), null) != plans[i]) {
+        evicted++;
+      }
+    }
+    assertEquals(1, evicted);
+  }
+
+  private static ServiceMetadata createMetadata() {
+    return OData.newInstance().createServiceMetadata(new EdmTechProvider(), Collections.<EdmxReference> emptyList());
+  }
+
+  private static SelectOptionImpl select(final String propertyName) {
+    final UriInfoImpl resource = new UriInfoImpl().addResourcePart(
+        new UriResourcePrimitivePropertyImpl().setProperty(allPrim.getStructuralProperty(propertyName)));
+    final SelectOptionImpl select = new SelectOptionImpl()
+        .setSelectItems(Collections.singletonList(new SelectItemImpl().setResourcePath(resource)));
+    select.setText(propertyName);
+    return select;
+  }
+
+  /** Creates a select option that differs from others for the same property only in its text. */
+  private static SelectOptionImpl select(final String propertyName, final int variant) {
+    final SelectOptionImpl select = select(propertyName);
+    select.setText(propertyName + "&v=" + variant);
+    return select;
+  }
+
+  private static ExpandOptionImpl expandAll(final String text) {
+    final ExpandOptionImpl expand = new ExpandOptionImpl();
+    expand.addExpandItem(new ExpandItemImpl().setIsStar(true));
+    expand.setText(text);
+    return expand;
+  }
+}
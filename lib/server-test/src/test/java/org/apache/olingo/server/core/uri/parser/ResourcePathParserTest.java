@@ -0,0 +1,185 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.uri.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.olingo.commons.api.edm.Edm;
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.edmx.EdmxReference;
+import org.apache.olingo.server.api.uri.UriInfo;
+import org.apache.olingo.server.api.uri.UriParameter;
+import org.apache.olingo.server.api.uri.UriResource;
+import org.apache.olingo.server.api.uri.UriResourcePartTyped;
+import org.apache.olingo.server.core.uri.UriResourceWithKeysImpl;
+import org.apache.olingo.server.core.uri.testutil.FilterTreeToText;
+import org.apache.olingo.server.tecsvc.provider.EdmTechProvider;
+import org.junit.Test;
+
+/**
+ * Checks that the fast path for simple resource paths produces the same results as the grammar.
+ */
+public class ResourcePathParserTest {
+
+  private static final Edm edm = OData.newInstance()
+      .createServiceMetadata(new EdmTechProvider(), Collections.<EdmxReference> emptyList()).getEdm();
+
+  /** Resource paths from the parser tests that are handled by the fast path. */
+  private static final List<String> SIMPLE_PATHS = Arrays.asList(
+      "ESAllPrim",
+      "ESAllPrim(1)/PropertyByte",
+      "ESAllPrim(1)/PropertyByte/$value",
+      "ESAllPrim/$count",
+      "ESAllPrim/$ref",
+      "ESCollAllPrim(1)",
+      "ESCollAllPrim(1)/CollPropertyString",
+      "ESCollAllPrim(PropertyInt16=1)",
+      "ESFourKeyAlias(PropertyInt16=1,KeyAlias1=2,KeyAlias2='3',KeyAlias3='4')",
+      "ESKeyNav",
+      "ESKeyNav(1)",
+      "ESKeyNav(1)/$ref",
+      "ESKeyNav(1)/NavPropertyETKeyNavMany(2)",
+      "ESKeyNav(1)/NavPropertyETKeyNavMany(2)/NavPropertyETKeyNavOne",
+      "ESKeyNav(1)/NavPropertyETKeyNavMany(2)/PropertyCompNav",
+      "ESKeyNav(1)/NavPropertyETKeyNavMany(2)/PropertyInt16",
+      "ESKeyNav(1)/NavPropertyETMediaMany(2)/$value",
+      "ESKeyNav(1)/NavPropertyETTwoKeyNavMany",
+      "ESKeyNav(1)/NavPropertyETTwoKeyNavMany(PropertyInt16=1,PropertyString='2')/$ref",
+      "ESKeyNav(1)/NavPropertyETTwoKeyNavMany(PropertyInt16=2,PropertyString='3')/CollPropertyString",
+      "ESKeyNav(1)/NavPropertyETTwoKeyNavMany(PropertyInt16=2,PropertyString='3')/CollPropertyString/$count",
+      "ESKeyNav(1)/NavPropertyETTwoKeyNavMany/$ref",
+      "ESKeyNav(1)/NavPropertyETTwoKeyNavOne/CollPropertyComp",
+      "ESKeyNav(1)/NavPropertyETTwoKeyNavOne/CollPropertyComp/$count",
+      "ESKeyNav(1)/PropertyCompNav/NavPropertyETTwoKeyNavOne",
+      "ESKeyNav(PropertyInt16=1)/CollPropertyComp",
+      "ESKeyNav(PropertyInt16=1)/NavPropertyETKeyNavMany(PropertyInt16=2)",
+      "ESKeyNav/$count",
+      "ESMedia(1)/$value",
+      "ESMixPrimCollComp(1)/PropertyComp/PropertyString",
+      "ESMixPrimCollComp(5)/CollPropertyComp",
+      "ESTwoKeyNav(PropertyInt16=1,PropertyString='2')/PropertyComp/PropertyComp",
+      "ESTwoKeyNav(PropertyString='ABC',PropertyInt16=1)",
+      "SIMedia/$value",
+      "SINav",
+      "SINav/CollPropertyComp/$count",
+      "SINav/CollPropertyString",
+      "SINav/NavPropertyETKeyNavMany",
+      "SINav/NavPropertyETTwoKeyNavMany(PropertyInt16=1,PropertyString='2')",
+      "SINav/PropertyComp/PropertyComp",
+      "SINav/PropertyString");
+
+  /** Resource paths that are left to the grammar. */
+  private static final List<String> OTHER_PATHS = Arrays.asList(
+      "ESAllPrim(-32768)/$ref",
+      "ESKeyNav(1)/NavPropertyETTwoKeyNavMany(PropertyInt16=2,PropertyString='(3)')",
+      "ESKeyNav(PropertyInt16=1)/NavPropertyETTwoKeyNavMany(PropertyString='2')",
+      "ESTwoKeyNav/olingo.odata.test1.ETBaseTwoKeyNav",
+      "FICRTCollCTTwoPrim()",
+      "FICRTETTwoKeyNavParam(ParameterInt16=1)(PropertyInt16=2,PropertyString='3')",
+      "FICRTESMedia(ParameterInt16=1)/$value");
+
+  /** Erroneous resource paths; the fast path must leave them to the grammar. */
+  private static final List<String> WRONG_PATHS = Arrays.asList(
+      "ESAllPrim(1)/PropertyByte(1)",
+      "ESAllPrim/PropertyInt16",
+      "ESAllPrim(1)/Unknown",
+      "ESTwoKeyNav(1)",
+      "ESTwoKeyNav(PropertyInt16=1)",
+      "ESAllPrim(PropertyInt16=1,PropertyInt16=2)",
+      "SINav(1)",
+      "SINav/$count",
+      "ESAllPrim(1)/$count",
+      "ESAllPrim/$value",
+      "Unknown",
+      "$count");
+
+  @Test
+  public void simplePathsAreParsedWithoutGrammar() throws Exception {
+    for (final String path : SIMPLE_PATHS) {
+      assertNotNull(path, new ResourcePathParser(edm).parse(Arrays.asList(path.split("/"))));
+      assertSameResult(path);
+    }
+  }
+
+  @Test
+  public void otherPathsAreLeftToGrammar() throws Exception {
+    for (final String path : OTHER_PATHS) {
+      assertNull(path, new ResourcePathParser(edm).parse(Arrays.asList(path.split("/"))));
+      assertSameResult(path);
+    }
+  }
+
+  @Test
+  public void wrongPathsAreLeftToGrammar() throws Exception {
+    for (final String path : WRONG_PATHS) {
+      assertNull(path, new ResourcePathParser(edm).parse(Arrays.asList(path.split("/"))));
+      try {
+        new Parser(null).parseUri(path, null, null, edm);
+        fail("Expected exception for " + path);
+      } catch (final UriParserException e) {
+        assertNotNull(e.getMessageKey());
+      }
+    }
+  }
+
+  @Test
+  public void queryOptionsUseTypeOfFastPath() throws Exception {
+    final String query = "$filter=PropertyInt16 eq 1&$orderby=PropertyString&$select=PropertyInt16&$top=1&$skip=2";
+    assertEquals(describe(new Parser(null).setFastPath(false).parseUri("ESTwoKeyNav", query, null, edm)),
+        describe(new Parser(null).parseUri("ESTwoKeyNav", query, null, edm)));
+  }
+
+  private void assertSameResult(final String path) throws Exception {
+    assertEquals(path,
+        describe(new Parser(null).setFastPath(false).parseUri(path, null, null, edm)),
+        describe(new Parser(null).parseUri(path, null, null, edm)));
+  }
+
+  private String describe(final UriInfo uriInfo) throws Exception {
+    StringBuilder result = new StringBuilder(uriInfo.getKind().name());
+    for (final UriResource resource : uriInfo.getUriResourceParts()) {
+      result.append('/').append(resource.getClass().getSimpleName()).append(':').append(resource.toString());
+      if (resource instanceof UriResourcePartTyped) {
+        result.append(':').append(((UriResourcePartTyped) resource).getType().getFullQualifiedName())
+            .append(':').append(((UriResourcePartTyped) resource).isCollection());
+      }
+      if (resource instanceof UriResourceWithKeysImpl) {
+        for (final UriParameter key : ((UriResourceWithKeysImpl) resource).getKeyPredicates()) {
+          result.append('(').append(key.getName()).append('=').append(key.getText())
+              .append(',').append(key.getAlias())
+              .append(',').append(key.getReferencedProperty())
+              .append(',').append(key.getExpression() == null ? null : FilterTreeToText.Serialize(key.getExpression()))
+              .append(')');
+        }
+      }
+    }
+    result.append(uriInfo.getFilterOption() == null ? "" : FilterTreeToText.Serialize(uriInfo.getFilterOption()))
+        .append(uriInfo.getOrderByOption() == null ? "" : uriInfo.getOrderByOption().getOrders().size())
+        .append(uriInfo.getSelectOption() == null ? "" : uriInfo.getSelectOption().getSelectItems().size())
+        .append(uriInfo.getSystemQueryOptions().size());
+    return result.toString();
+  }
+}
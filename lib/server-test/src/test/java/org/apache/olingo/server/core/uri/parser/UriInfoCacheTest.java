@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements. See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership. The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License. You may obtain a copy of the License at
+ * 
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.olingo.server.core.uri.parser;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+import java.util.Collections;
+
+import org.apache.olingo.commons.api.edm.Edm;
+import org.apache.olingo.server.api.OData;
+import org.apache.olingo.server.api.edmx.EdmxReference;
+import org.apache.olingo.server.api.uri.UriInfo;
+import org.apache.olingo.server.core.ServiceMetadataImpl;
+import org.apache.olingo.server.core.uri.UriInfoImpl;
+import org.apache.olingo.server.tecsvc.provider.EdmTechProvider;
+import org.junit.Test;
+
+public class UriInfoCacheTest {
+
+  private static final Edm edm = OData.newInstance()
+      .createServiceMetadata(new EdmTechProvider(), Collections.<EdmxReference> emptyList()).getEdm();
+
+  @Test
+  public void repeatedUriIsTakenFromCache() throws Exception {
+    final UriInfoCache cache = new UriInfoCache();
+    final Parser parser = new Parser(cache);
+    final UriInfo first = parser.parseUri("ESAllPrim", "$filter=PropertyInt16 eq 1&$top=2", null, edm);
+    final UriInfo second = parser.parseUri("ESAllPrim", "$filter=PropertyInt16 eq 1&$top=2", null, edm);
+    assertNotSame(first, second);
+    assertSame(first.getFilterOption(), second.getFilterOption());
+    assertSame(first.getTopOption(), second.getTopOption());
+    assertNotSame(first.getTopOption(), parser.parseUri("ESAllPrim", "$top=2", null, edm).getTopOption());
+    assertEquals(1, cache.getHitCount());
+    assertEquals(2, cache.getMissCount());
+  }
+
+  @Test
+  public void entriesAreDistinguishedByEdm() throws Exception {
+    final UriInfoCache cache = new UriInfoCache();
+    final Edm otherEdm = OData.newInstance()
+        .createServiceMetadata(new EdmTechProvider(), Collections.<EdmxReference> emptyList()).getEdm();
+    final UriInfo first = new Parser(cache).parseUri("ESAllPrim", null, null, edm);
+    assertNotSame(first.getUriResourceParts().get(0),
+        new Parser(cache).parseUri("ESAllPrim", null, null, otherEdm).getUriResourceParts().get(0));
+    assertEquals(2, cache.size());
+    assertEquals(0, cache.getHitCount());
+  }
+
+  @Test
+  public void leastRecentlyUsedEntryIsEvicted() throws Exception {
+    final UriInfoCache cache = new UriInfoCache(2);
+    final Parser parser = new Parser(cache);
+    parser.parseUri("ESAllPrim", null, null, edm);
+    parser.parseUri("ESTwoPrim", null, null, edm);
+    parser.parseUri("ESAllPrim", null, null, edm);
+    parser.parseUri("ESMixPrimCollComp", null, null, edm);
+    assertEquals(2, cache.size());
+    parser.parseUri("ESAllPrim", null, null, edm);
+    assertEquals(2, cache.getHitCount());
+    parser.parseUri("ESTwoPrim", null, null, edm);
+    assertEquals(2, cache.getHitCount());
+    assertEquals(4, cache.getMissCount());
+  }
+
+  @Test
+  public void failedParsingIsNotCached() throws Exception {
+    final UriInfoCache cache = new UriInfoCache();
+    final Parser parser = new Parser(cache);
+    for (int i = 0; i < 2; i++) {
+      try {
+        parser.parseUri("ESAllPrim", "$top=-", null, edm);
+        fail("Expected exception");
+      } catch (final UriParserException e) {
+        assertEquals(0, cache.size());
+      }
+    }
+  }
+
+  @Test
+  public void changesToResultDoNotAffectCache() throws Exception {
+    final UriInfoCache cache = new UriInfoCache();
+    final Parser parser = new Parser(cache);
+    final UriInfoImpl first = (UriInfoImpl) parser.parseUri("ESAllPrim(1)/PropertyInt16", null, null, edm);
+    first.removeResourcePart(1);
+    final UriInfoImpl second = (UriInfoImpl) parser.parseUri("ESAllPrim(1)/PropertyInt16", null, null, edm);
+    assertEquals(2, second.getUriResourceParts().size());
+    second.removeResourcePart(1);
+    assertEquals(2, parser.parseUri("ESAllPrim(1)/PropertyInt16", null, null, edm).getUriResourceParts().size());
+    assertEquals(2, cache.getHitCount());
+  }
+
+  @Test
+  public void cacheIsDisabledByDefault() throws Exception {
+    final ServiceMetadataImpl metadata =
+        new ServiceMetadataImpl(new EdmTechProvider(), Collections.<EdmxReference> emptyList());
+    assertNull(metadata.getUriInfoCache());
+    final UriInfoCache cache = new UriInfoCache();
+    metadata.setUriInfoCache(cache);
+    assertSame(cache, metadata.getUriInfoCache());
+  }
+}